@@ -35,7 +35,8 @@ export class BicycleJourneyService {
 
     const countUrl: string = "http://localhost:8080/api/journeysCount/";
 
-    this.http.get<number>(countUrl).subscribe(count => {
+    this.http.get<number>(countUrl, {
+        params: {selectedMonths: this.selectedMonths}}).subscribe(count => {
         this.count = count;
         response(count);
     });
@@ -130,6 +131,13 @@ export class BicycleJourneyService {
       selectedMonths = [5, 6, 7];
     }
     const journeysUrl: string = `http://localhost:8080/api/journeys/${url}`;
+
+    if (url !== "") {
+
+      this.getSortedJourneysPage(pageSize, pageNo, journeysUrl,
+          selectedMonths, callback);
+      return;
+    }
     
     if (journeysUrl !== this.url || this.journeys.length === 0 || 
         !this.numberHelperService.haveSameValues(selectedMonths,
@@ -147,4 +155,20 @@ export class BicycleJourneyService {
       this.sliceAndReturnJourneys(pageNo, pageSize, callback);
     }
   }
+
+  getSortedJourneysPage(pageSize: number, pageNo: number, journeysUrl: string,
+      selectedMonths: number[], callback: (resp: BicycleJourneyResponse) =>
+      void): void {
+
+    this.selectedMonths = selectedMonths;
+    this.http.get<BicycleJourney[]>(journeysUrl, {
+        params: {selectedMonths: selectedMonths, offset: pageNo * pageSize,
+        limit: pageSize}}).subscribe(journeysResp => {
+
+      this.url = journeysUrl;
+      this.journeys = journeysResp;
+
+      this.returnBicycleJourneyResponse(journeysResp, callback);
+    });
+  }
 }
\ No newline at end of file
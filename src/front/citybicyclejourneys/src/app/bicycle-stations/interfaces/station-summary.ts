@@ -0,0 +1,11 @@
+import { Station } from "./station";
+
+export interface StationSummary {
+  station: Station;
+  totalJourneysFrom: number;
+  totalJourneysTo: number;
+  averageDistanceFrom: number;
+  averageDistanceTo: number;
+  top5ReturnStationsStartingFrom?: Station[];
+  top5DepartureStationsEndingAt?: Station[];
+}
@@ -3,6 +3,7 @@ import { Station } from '../interfaces/station';
 import { HttpClient } from '@angular/common/http';
 import { BicycleStationsResponse } from
     '../interfaces/bicycle-stations-response';
+import { StationSummary } from '../interfaces/station-summary';
 
 @Injectable({
   providedIn: 'root'
@@ -71,6 +72,18 @@ export class BicycleStationService implements OnInit {
     return s!;
   }
 
+  getStationSummary(id: number, months: number[],
+      callback: (summary: StationSummary) => void): void {
+
+    let url: string = `${this.stationsUrl}${id}/summary/`;
+
+    this.http.get<StationSummary>(url, {params: {selectedMonths: months}})
+        .subscribe(summary => {
+
+      callback(summary);
+    });
+  }
+
   getTotalJourneysStartingFromStation(id: number, months: number[],
       callback: (total: number) => void): void {
 
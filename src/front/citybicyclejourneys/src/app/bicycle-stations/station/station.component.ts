@@ -140,37 +140,15 @@ export class StationComponent {
       if (this.id! > 0) {
         this.initJourneyVariables();
         
-        this.stationSvc.getStation(this.id!, station => {
+        this.stationSvc.getStationSummary(this.id!, this.monthsSelected,
+            summary => {
 
-          this.station = station;
-
-          this.stationSvc.getTotalJourneysStartingFromStation(this.id!,
-              this.monthsSelected, total => {
-            
-            this.totalJourneysFrom = total;
-            this.stopSpinnerIfAllReady();
-          });
-          
-          this.stationSvc.getTotalJourneysEndingAtStation(this.id!,
-              this.monthsSelected, total => {
-            
-            this.totalJourneysTo = total;
-            this.stopSpinnerIfAllReady();
-          });
-          
-          this.stationSvc.getAverageDistanceFrom(this.id!, this.monthsSelected,
-              avg => {
-            
-            this.avgDistanceFrom = avg;
-            this.stopSpinnerIfAllReady();
-          });
-          
-          this.stationSvc.getAverageDistanceTo(this.id!, this.monthsSelected,
-              avg => {
-
-            this.avgDistanceTo = avg;
-            this.stopSpinnerIfAllReady();
-          })
+          this.station = summary.station;
+          this.totalJourneysFrom = summary.totalJourneysFrom;
+          this.totalJourneysTo = summary.totalJourneysTo;
+          this.avgDistanceFrom = summary.averageDistanceFrom;
+          this.avgDistanceTo = summary.averageDistanceTo;
+          this.stopSpinnerIfAllReady();
         });
       }
     });
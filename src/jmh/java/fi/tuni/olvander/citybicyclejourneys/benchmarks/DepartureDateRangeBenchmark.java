@@ -0,0 +1,93 @@
+package fi.tuni.olvander.citybicyclejourneys.benchmarks;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.DepartureDateRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Benchmarks of creating the departure dates of the selected months,<br/>
+ * which every Journey and Station request does, and of turning them into<br/>
+ * the SQL condition and the ranges of the columnar read engine.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DepartureDateRangeBenchmark {
+
+    /**
+     * The selected months, separated by commas.
+     */
+    @Param({"6", "5,6,7", "5,7"})
+    private String selectedMonths;
+
+    /**
+     * The selected months (int values).
+     */
+    private int[] months;
+
+    /**
+     * The departure dates of the selected months.
+     */
+    private DepartureDateRange dates;
+
+    /**
+     * A default constructor for the DepartureDateRangeBenchmark class.
+     */
+    public DepartureDateRangeBenchmark() {}
+
+    /**
+     * Parses the selected months.
+     */
+    @Setup
+    public void parseMonths() {
+        months = Arrays.stream(selectedMonths.split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        dates = DepartureDateRange.ofMonths(JourneyFixture.YEAR, months);
+    }
+
+    /**
+     * Creates the departure dates of the selected months.
+     *
+     * @return The departure dates
+     */
+    @Benchmark
+    public DepartureDateRange ofMonths() {
+        return DepartureDateRange.ofMonths(JourneyFixture.YEAR, months);
+    }
+
+    /**
+     * Creates the SQL condition and its arguments of the departure dates.
+     *
+     * @param blackhole Consumes the condition and the arguments
+     */
+    @Benchmark
+    public void toSql(Blackhole blackhole) {
+        blackhole.consume(dates.toSql("DEPARTURE_DATE"));
+        blackhole.consume(dates.getArgs());
+    }
+
+    /**
+     * Creates the ranges of the departure dates for the columnar read<br/>
+     * engine.
+     *
+     * @return The ranges in epoch seconds
+     */
+    @Benchmark
+    public int[] toEpochSecondRanges() {
+        return dates.toEpochSecondRanges();
+    }
+}
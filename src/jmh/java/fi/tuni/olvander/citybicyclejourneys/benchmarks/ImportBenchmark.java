@@ -0,0 +1,170 @@
+package fi.tuni.olvander.citybicyclejourneys.benchmarks;
+
+import fi.tuni.olvander.citybicyclejourneys.CityBicycleJourneys;
+import fi.tuni.olvander.citybicyclejourneys.imports.CsvChunkReader;
+import fi.tuni.olvander.citybicyclejourneys.imports.HslCsvParser;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatch;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyRowParser;
+import fi.tuni.olvander.citybicyclejourneys.journeys.BicycleJourney;
+import org.h2.tools.Csv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Benchmarks of the Bicycle Journey import hot paths: parsing a date,<br/>
+ * validating a CSV row the way getBicycleJourneyData does and parsing a<br/>
+ * chunk of rows the way the Journey import pipeline does.</p>
+ *
+ * <p>The row and chunk benchmarks report the throughput and the<br/>
+ * allocations per CSV row.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ImportBenchmark {
+
+    /**
+     * The number of Journey rows in the fixture.
+     */
+    private static final int ROWS = 30_000;
+
+    /**
+     * The app, only its parsing methods are used.
+     */
+    private final CityBicycleJourneys cityBicycleJourneys =
+            new CityBicycleJourneys();
+
+    /**
+     * A parser for validating Bicycle Journey CSV rows.
+     */
+    private final JourneyRowParser journeyRowParser = new JourneyRowParser();
+
+    /**
+     * The Journey rows of the fixture.
+     */
+    private List<String[]> rows;
+
+    /**
+     * The Journey rows of the fixture as CSV text.
+     */
+    private String csv;
+
+    /**
+     * The Journey rows of the fixture as an import chunk.
+     */
+    private CsvChunkReader.Chunk chunk;
+
+    /**
+     * The departure dates of the fixture.
+     */
+    private String[] dateTimes;
+
+    /**
+     * The position of the next departure date.
+     */
+    private int next;
+
+    /**
+     * A default constructor for the ImportBenchmark class.
+     */
+    public ImportBenchmark() {}
+
+    /**
+     * Creates the fixture.
+     */
+    @Setup
+    public void createFixture() {
+        JourneyFixture fixture = new JourneyFixture(ROWS);
+        StringBuilder text = new StringBuilder();
+
+        rows = fixture.getRows();
+        chunk = fixture.getChunk();
+        dateTimes = new String[rows.size()];
+
+        for (int i = 0; i < rows.size(); i++) {
+            dateTimes[i] = rows.get(i)[0];
+            text.append(String.join(",", rows.get(i))).append('\n');
+        }
+        csv = text.toString();
+    }
+
+    /**
+     * Parses a departure date with getLocalDateTime.
+     *
+     * @return The parsed date
+     */
+    @Benchmark
+    public LocalDateTime getLocalDateTime() {
+        next = next + 1 == dateTimes.length ? 0 : next + 1;
+
+        return cityBicycleJourneys.getLocalDateTime(dateTimes[next]);
+    }
+
+    /**
+     * Validates split CSV rows into Bicycle Journeys.
+     *
+     * @param blackhole Consumes the Journeys
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void parseRows(Blackhole blackhole) {
+
+        for (String[] row : rows) {
+            blackhole.consume(journeyRowParser.parse(row));
+        }
+    }
+
+    /**
+     * Reads the CSV rows with the H2 CSV reader and validates them with<br/>
+     * getBicycleJourneyData.
+     *
+     * @param blackhole  Consumes the Journeys
+     * @throws Exception Throws this if the CSV cannot be read
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void getBicycleJourneyData(Blackhole blackhole) throws Exception {
+
+        try (ResultSet rs = new Csv().read(new StringReader(csv),
+                new String[] {"DEPARTURE", "RETURN", "DEPARTURE_ID",
+                        "DEPARTURE_NAME", "RETURN_ID", "RETURN_NAME",
+                        "DISTANCE", "DURATION"})) {
+
+            while (rs.next()) {
+                Optional<BicycleJourney> journey =
+                        cityBicycleJourneys.getBicycleJourneyData(rs);
+                blackhole.consume(journey);
+            }
+        }
+    }
+
+    /**
+     * Parses the CSV rows into a batch of primitive columns like the<br/>
+     * Journey import pipeline.
+     *
+     * @return The batch
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public JourneyBatch parseChunk() {
+        return new HslCsvParser().parseJourneys("benchmark", chunk);
+    }
+}
@@ -0,0 +1,202 @@
+package fi.tuni.olvander.citybicyclejourneys.benchmarks;
+
+import fi.tuni.olvander.citybicyclejourneys.imports.CsvChunkReader;
+import fi.tuni.olvander.citybicyclejourneys.stations.Station;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>A deterministic data fixture for the benchmarks. The same number of<br/>
+ * rows always gives the same Stations and Journey CSV rows, so results<br/>
+ * of two runs are comparable.</p>
+ *
+ * <p>The Journeys depart in May, June and July of 2021 like the HSL<br/>
+ * datasets. A few low Station ids are much more popular than the rest<br/>
+ * and about one row in twenty is too short to be imported.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class JourneyFixture {
+
+    /**
+     * The seed of the random numbers.
+     */
+    private static final long SEED = 2021;
+
+    /**
+     * The year of the Journeys.
+     */
+    public static final int YEAR = 2021;
+
+    /**
+     * The departure months of the Journeys.
+     */
+    public static final int[] MONTHS = {5, 6, 7};
+
+    /**
+     * The number of Stations.
+     */
+    public static final int STATIONS = 150;
+
+    /**
+     * The header row of a Journey CSV file.
+     */
+    static final String HEADER = "Departure,Return,Departure station id,"
+            + "Departure station name,Return station id,Return station name,"
+            + "Covered distance (m),Duration (sec.)";
+
+    /**
+     * The format of the departure and return dates, with the seconds.
+     */
+    private static final DateTimeFormatter DATE_TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    /**
+     * The Stations.
+     */
+    private final List<Station> stations = new ArrayList<>();
+
+    /**
+     * The Journey CSV rows of every month, split into their 8 values.
+     */
+    private final List<List<String[]>> rows = new ArrayList<>();
+
+    /**
+     * Creates the fixture.
+     *
+     * @param journeys The number of Journey rows, split evenly by month
+     */
+    public JourneyFixture(int journeys) {
+        Random random = new Random(SEED);
+
+        for (int i = 1; i <= STATIONS; i++) {
+            stations.add(new Station(String.format("%03d", i), "Asema " + i,
+                    "Katu " + i, 24.9 + random.nextDouble() / 10,
+                    60.1 + random.nextDouble() / 10));
+        }
+
+        for (int month : MONTHS) {
+            List<String[]> monthRows = new ArrayList<>();
+
+            for (int i = 0; i < journeys / MONTHS.length; i++) {
+                monthRows.add(createRow(random, month));
+            }
+            rows.add(monthRows);
+        }
+    }
+
+    /**
+     * Gets the Stations.
+     *
+     * @return The Stations, not yet saved
+     */
+    public List<Station> getStations() {
+        return stations;
+    }
+
+    /**
+     * Gets the Journey CSV rows of every month.
+     *
+     * @return The rows, each split into its 8 values
+     */
+    public List<String[]> getRows() {
+        List<String[]> all = new ArrayList<>();
+
+        for (List<String[]> monthRows : rows) {
+            all.addAll(monthRows);
+        }
+
+        return all;
+    }
+
+    /**
+     * Gets the Journey CSV rows of every month as a chunk, like the chunks<br/>
+     * read by the Journey import pipeline.
+     *
+     * @return The chunk of the rows without the header row
+     */
+    public CsvChunkReader.Chunk getChunk() {
+        StringBuilder csv = new StringBuilder();
+        List<String[]> all = getRows();
+
+        for (String[] row : all) {
+            csv.append(String.join(",", row)).append('\n');
+        }
+        byte[] data = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        return new CsvChunkReader.Chunk(data, 0, data.length, all.size());
+    }
+
+    /**
+     * Writes the Journey CSV file of every month into a directory.
+     *
+     * @param directory    The directory
+     * @return             The CSV file names in the order of the months
+     * @throws IOException Throws this if a file cannot be written
+     */
+    public List<String> writeJourneyFiles(Path directory) throws IOException {
+        List<String> files = new ArrayList<>();
+
+        for (int i = 0; i < MONTHS.length; i++) {
+            Path file = directory.resolve(String.format("%d-%02d.csv", YEAR,
+                    MONTHS[i]));
+            List<String> lines = new ArrayList<>();
+            lines.add(HEADER);
+
+            for (String[] row : rows.get(i)) {
+                lines.add(String.join(",", row));
+            }
+            Files.write(file, lines, StandardCharsets.UTF_8);
+            files.add(file.toString());
+        }
+
+        return files;
+    }
+
+    /**
+     * A helper method for creating a Journey CSV row.
+     *
+     * @param random The random numbers
+     * @param month  The departure month
+     * @return       The 8 values of the row
+     */
+    private String[] createRow(Random random, int month) {
+        LocalDateTime departure = LocalDateTime.of(YEAR, month,
+                1 + random.nextInt(28), random.nextInt(24),
+                random.nextInt(60), random.nextInt(60));
+        int from = getPopularStation(random);
+        int to = getPopularStation(random);
+        int duration = random.nextInt(20) == 0 ? random.nextInt(10)
+                : 120 + random.nextInt(2400);
+        double distance = duration * (2 + random.nextDouble() * 3);
+
+        return new String[] {DATE_TIME.format(departure),
+                DATE_TIME.format(departure.plusSeconds(duration)),
+                String.format("%03d", from), "Asema " + from,
+                String.format("%03d", to), "Asema " + to,
+                String.valueOf(Math.round(distance)),
+                String.valueOf(duration)};
+    }
+
+    /**
+     * A helper method for picking a Station, the low ids more often.
+     *
+     * @param random The random numbers
+     * @return       The Station number from 1 to STATIONS
+     */
+    private static int getPopularStation(Random random) {
+        double skewed = Math.pow(random.nextDouble(), 2);
+
+        return 1 + (int) (skewed * STATIONS);
+    }
+}
@@ -0,0 +1,206 @@
+package fi.tuni.olvander.citybicyclejourneys.benchmarks;
+
+import fi.tuni.olvander.citybicyclejourneys.CityBicycleJourneys;
+import fi.tuni.olvander.citybicyclejourneys.journeys.BicycleJourney;
+import fi.tuni.olvander.citybicyclejourneys.journeys.BicycleJourneyController;
+import fi.tuni.olvander.citybicyclejourneys.journeys.DepartureDateRange;
+import fi.tuni.olvander.citybicyclejourneys.stations.Station;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCatalog;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationController;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Benchmarks of the Journey table and the single Station view queries<br/>
+ * with both read engines, the database and the columnar read engine.</p>
+ *
+ * <p>The app is started without the web server on an in-memory database<br/>
+ * and the fixture Stations and Journeys are imported before the<br/>
+ * measurements, so only the queries are measured.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class QueryBenchmark {
+
+    /**
+     * The Station id of the single Station view queries, a popular one.
+     */
+    private static final String STATION_ID = "010";
+
+    /**
+     * The departure dates of June.
+     */
+    private static final DepartureDateRange JUNE =
+            DepartureDateRange.ofMonths(JourneyFixture.YEAR, new int[] {6});
+
+    /**
+     * The departure dates of every month of the fixture.
+     */
+    private static final DepartureDateRange ALL_MONTHS =
+            DepartureDateRange.ofMonths(JourneyFixture.YEAR,
+                    JourneyFixture.MONTHS);
+
+    /**
+     * The read engine, sql or columnar.
+     */
+    @Param({"sql", "columnar"})
+    private String engine;
+
+    /**
+     * The number of Journey rows in the fixture.
+     */
+    @Param({"150000"})
+    private int journeys;
+
+    /**
+     * The directory of the Journey CSV files.
+     */
+    private Path directory;
+
+    /**
+     * The app.
+     */
+    private ConfigurableApplicationContext context;
+
+    /**
+     * The Journey controller.
+     */
+    private BicycleJourneyController bicycleJourneyController;
+
+    /**
+     * The Station controller.
+     */
+    private StationController stationController;
+
+    /**
+     * A default constructor for the QueryBenchmark class.
+     */
+    public QueryBenchmark() {}
+
+    /**
+     * Starts the app and imports the fixture.
+     *
+     * @throws IOException Throws this if the CSV files cannot be written
+     */
+    @Setup
+    public void startApp() throws IOException {
+        JourneyFixture fixture = new JourneyFixture(journeys);
+        directory = Files.createTempDirectory("citybicyclejourneys");
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + engine
+                        + ";DB_CLOSE_DELAY=-1",
+                "citybicyclejourneys.import.directory=" + directory,
+                "citybicyclejourneys.import.background=false",
+                "citybicyclejourneys.columnar.enabled="
+                        + engine.equals("columnar"),
+                "citybicyclejourneys.columnar.snapshot=",
+                "citybicyclejourneys.dump.file=",
+                "logging.level.root=WARN"));
+
+        context = new SpringApplicationBuilder(CityBicycleJourneys.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(new String[0]))
+                .run();
+        context.getBean(StationRepository.class)
+                .saveAll(fixture.getStations());
+        context.getBean(StationCatalog.class).reload();
+        context.getBean(CityBicycleJourneys.class)
+                .importJourneys(fixture.writeJourneyFiles(directory));
+        bicycleJourneyController =
+                context.getBean(BicycleJourneyController.class);
+        stationController = context.getBean(StationController.class);
+    }
+
+    /**
+     * Stops the app and deletes the Journey CSV files.
+     *
+     * @throws IOException Throws this if the files cannot be deleted
+     */
+    @TearDown
+    public void stopApp() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /**
+     * Sorts the Journeys of June by the distance for the first page.
+     *
+     * @return The Journeys of the page
+     */
+    @Benchmark
+    public List<BicycleJourney> sortJourneysByDistance() {
+        return bicycleJourneyController.sortJourneys("descending",
+                "distance", JUNE, 0, 25);
+    }
+
+    /**
+     * Sorts the Journeys of June by the departure Station for the first<br/>
+     * page.
+     *
+     * @return The Journeys of the page
+     */
+    @Benchmark
+    public List<BicycleJourney> sortJourneysByDeparture() {
+        return bicycleJourneyController.sortJourneys("ascending",
+                "departure", JUNE, 0, 25);
+    }
+
+    /**
+     * Gets the Journey counts and distances of a Station in every month.
+     *
+     * @return The counts and distances by the direction
+     */
+    @Benchmark
+    public Map<String, double[]> getStationMonthStatistics() {
+        return stationController.getStationMonthStatistics(STATION_ID,
+                ALL_MONTHS);
+    }
+
+    /**
+     * Gets the number of Journeys starting from a Station in June.
+     *
+     * @return The number of Journeys
+     */
+    @Benchmark
+    public int getNumberOfJourneysStartingFromStation() {
+        return stationController.getNumberOfJourneysStartingFromStation(
+                STATION_ID, JUNE);
+    }
+
+    /**
+     * Gets the most popular return Stations of the Journeys starting from<br/>
+     * a Station in every month.
+     *
+     * @return The Stations
+     */
+    @Benchmark
+    public List<Station> getTopReturnStations() {
+        return stationController.getTopReturnStations(STATION_ID, ALL_MONTHS,
+                5);
+    }
+}
@@ -0,0 +1,113 @@
+package db.migration;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>The Flyway migration moving the Bicycle Journeys into the month<br/>
+ * partitions. The months are only known from the data, so the migration<br/>
+ * is written in Java instead of SQL.</p>
+ *
+ * <p>The Journeys of every departure month are copied into a partition<br/>
+ * created from BICYCLE_JOURNEY_TEMPLATE, the id sequence is moved past<br/>
+ * the copied ids and the old table is replaced by the BICYCLE_JOURNEY<br/>
+ * view of all the partitions. A Journey without a departure date has no<br/>
+ * month and is left out. The migration can be run again after a failure,<br/>
+ * since the partitions are copied again as long as the old table exists.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class V6__Partition_journeys extends BaseJavaMigration {
+
+    /**
+     * An instance of Log for logging purposes.
+     */
+    private final Log logger = LogFactory.getLog(V6__Partition_journeys.class);
+
+    /**
+     * A default constructor for the V6__Partition_journeys class.
+     */
+    public V6__Partition_journeys() {}
+
+    /**
+     * Moves the Bicycle Journeys into the month partitions.
+     *
+     * @param context    The context of the migration
+     * @throws Exception Throws this if a statement fails
+     */
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new SingleConnectionDataSource(context.getConnection(), true));
+        Integer tables = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' "
+                + "AND TABLE_NAME = ? AND TABLE_TYPE = 'BASE TABLE'",
+                Integer.class, JourneyPartitions.VIEW);
+
+        if (tables != null && tables > 0) {
+            movePartitions(jdbcTemplate);
+        }
+        jdbcTemplate.execute("DROP VIEW IF EXISTS " + JourneyPartitions.VIEW);
+        jdbcTemplate.execute(JourneyPartitions.getViewStatement(
+                JourneyPartitions.readMonths(jdbcTemplate)));
+    }
+
+    /**
+     * A helper method for copying the Journeys of the old table into the<br/>
+     * month partitions and dropping the old table.
+     *
+     * @param jdbcTemplate The JdbcTemplate of the migration
+     */
+    private void movePartitions(JdbcTemplate jdbcTemplate) {
+
+        // The partitions of an interrupted run are copied again.
+        for (YearMonth month : JourneyPartitions.readMonths(jdbcTemplate)) {
+            jdbcTemplate.execute("DROP TABLE "
+                    + JourneyPartitions.getTable(month));
+        }
+        List<String> script = JourneyPartitions.readTemplate(jdbcTemplate);
+        List<YearMonth> months = new ArrayList<>();
+
+        jdbcTemplate.query("SELECT DISTINCT YEAR(DEPARTURE_DATE), "
+                + "MONTH(DEPARTURE_DATE) FROM BICYCLE_JOURNEY WHERE "
+                + "DEPARTURE_DATE IS NOT NULL", resultSet -> {
+                    months.add(YearMonth.of(resultSet.getInt(1),
+                            resultSet.getInt(2)));
+                });
+
+        for (YearMonth month : months) {
+            String table = JourneyPartitions.getTable(month);
+            JourneyPartitions.createPartition(jdbcTemplate, script, month,
+                    true);
+            int rows = jdbcTemplate.update("INSERT INTO " + table
+                    + " SELECT * FROM BICYCLE_JOURNEY WHERE DEPARTURE_DATE "
+                    + ">= ? AND DEPARTURE_DATE < ?",
+                    month.atDay(1).atStartOfDay(),
+                    month.plusMonths(1).atDay(1).atStartOfDay());
+            logger.info("Moved " + rows + " Bicycle Journeys to " + table);
+        }
+        Integer undated = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "BICYCLE_JOURNEY WHERE DEPARTURE_DATE IS NULL",
+                Integer.class);
+
+        if (undated != null && undated > 0) {
+            logger.warn("Left out " + undated + " Bicycle Journeys without "
+                    + "a departure date");
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE BICYCLE_JOURNEY_ID_SEQ RESTART "
+                + "WITH (SELECT COALESCE(MAX(ID), 0) + 1 FROM "
+                + "BICYCLE_JOURNEY)");
+        jdbcTemplate.execute("DROP TABLE BICYCLE_JOURNEY");
+    }
+}
@@ -1,23 +1,45 @@
 package fi.tuni.olvander.citybicyclejourneys;
 
+import fi.tuni.olvander.citybicyclejourneys.caching.DatasetVersion;
+import fi.tuni.olvander.citybicyclejourneys.columns.JourneyColumnStore;
+import fi.tuni.olvander.citybicyclejourneys.imports.HslCsvParser;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatch;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatchWriter;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyImportFiles;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyImportPipeline;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyImportProgress;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyIndexes;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyRowParser;
+import fi.tuni.olvander.citybicyclejourneys.imports.StationStatisticsWriter;
 import fi.tuni.olvander.citybicyclejourneys.journeys.BicycleJourney;
-import fi.tuni.olvander.citybicyclejourneys.journeys.BicycleJourneyRepository;
+import fi.tuni.olvander.citybicyclejourneys.journeys.DepartureDateRange;
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
 import fi.tuni.olvander.citybicyclejourneys.stations.Station;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCatalog;
 import fi.tuni.olvander.citybicyclejourneys.stations.StationRepository;
-import jakarta.transaction.Transactional;
+import jakarta.annotation.PreDestroy;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.h2.tools.Csv;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.sql.ResultSet;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The main  class for the City Bicycle Journeys App.<br/><br/>
@@ -26,6 +48,15 @@ import java.util.Optional;
  * database as well as for showing commands for opening the app in the<br/>
  * browser and commands for REST requests.<br/><br/>
  *
+ * The Stations are imported before the app serves requests. The<br/>
+ * Bicycle Journeys are imported in the background one dataset at a<br/>
+ * time, so the months already imported can be queried while the later<br/>
+ * months are imported.<br/><br/>
+ *
+ * With the inmemory profile the database is dumped after the imports<br/>
+ * and hydrated from the dump at the next startup, so the CSV files are<br/>
+ * only imported when there is no dump.<br/><br/>
+ *
  * Implements the CommandLineRunner interface.
  *
  * @author  Olli Pertovaara
@@ -36,6 +67,26 @@ import java.util.Optional;
 public class CityBicycleJourneys implements CommandLineRunner {
 
 
+	/**
+	 * The name of the City Bicycle Station CSV file in the CSV directory.<br/>
+	 * Every other CSV file in the directory is a Bicycle Journey dataset.
+	 */
+	public static final String STATIONS_FILE =
+			"Helsingin_ja_Espoon_kaupunkipyöräasemat_avoin.csv";
+
+	/**
+	 * The directory of the CSV files imported at startup.
+	 */
+	@Value("${citybicyclejourneys.import.directory:./csv}")
+	String csvDirectory;
+
+	/**
+	 * True if the Bicycle Journeys are imported in the background after<br/>
+	 * startup, false if the startup waits for the import.
+	 */
+	@Value("${citybicyclejourneys.import.background:true}")
+	boolean backgroundImport;
+
 	/**
 	 * A City Bicycle Station repository instance.
 	 */
@@ -43,10 +94,94 @@ public class CityBicycleJourneys implements CommandLineRunner {
 	StationRepository stationDb;
 
 	/**
-	 * A City Bicycle Journey repository instance.
+	 * The month partitions of the City Bicycle Journeys.
+	 */
+	@Autowired
+	JourneyPartitions journeyPartitions;
+
+	/**
+	 * A writer for adding Bicycle Journeys into their month partitions.
+	 */
+	@Autowired
+	JourneyBatchWriter journeyBatchWriter;
+
+	/**
+	 * The import progress of the Bicycle Journey CSV files, so that an<br/>
+	 * interrupted import resumes and only new files are imported.
+	 */
+	@Autowired
+	JourneyImportFiles journeyImportFiles;
+
+	/**
+	 * The progress of the Bicycle Journey import, shown by an endpoint.
+	 */
+	@Autowired
+	JourneyImportProgress journeyImportProgress;
+
+	/**
+	 * A writer for the Station month statistics of the Bicycle Journeys.
 	 */
 	@Autowired
-	BicycleJourneyRepository bicycleJourneyDb;
+	StationStatisticsWriter stationStatisticsWriter;
+
+	/**
+	 * A pipeline for importing Bicycle Journey CSV files in parallel.
+	 */
+	@Autowired
+	JourneyImportPipeline journeyImportPipeline;
+
+	/**
+	 * For dropping and creating the Bicycle Journey indexes around a bulk<br/>
+	 * import into the empty Bicycle Journey partitions.
+	 */
+	@Autowired
+	JourneyIndexes journeyIndexes;
+
+	/**
+	 * The in-memory Station Catalog, reloaded after the Station import.
+	 */
+	@Autowired
+	StationCatalog stationCatalog;
+
+	/**
+	 * The version of the imported data, refreshed after the imports.
+	 */
+	@Autowired
+	DatasetVersion datasetVersion;
+
+	/**
+	 * The columnar read engine, loaded after the imports if it is enabled.
+	 */
+	@Autowired
+	JourneyColumnStore journeyColumnStore;
+
+	/**
+	 * The dump of the in-memory database, written after the imports.
+	 */
+	@Autowired
+	DatabaseDump databaseDump;
+
+	/**
+	 * The data source of the H2 database, for writing the dump.
+	 */
+	@Autowired
+	DataSource dataSource;
+
+	/**
+	 * A parser for validating Bicycle Journey CSV rows.
+	 */
+	JourneyRowParser journeyRowParser = new JourneyRowParser();
+
+	/**
+	 * The thread importing the Bicycle Journeys in the background.
+	 */
+	ExecutorService importExecutor = Executors.newSingleThreadExecutor(
+			task -> {
+				Thread thread = new Thread(task, "journey-import");
+				thread.setDaemon(true);
+
+				return thread;
+			});
 
 	/**
 	 * An instance of Log for logging purposes.
@@ -69,41 +204,130 @@ public class CityBicycleJourneys implements CommandLineRunner {
 	 * @throws Exception The run method may throw an Exception
 	 */
 	@Override
-	@Transactional
 	public synchronized void run(String... args) throws Exception {
 
-		String stationsFile = "./csv/"
-				+ "Helsingin_ja_Espoon_kaupunkipyöräasemat_avoin.csv";
-
-		String rs05File = "./csv/2021-05.csv";
-		String rs06File = "./csv/2021-06.csv";
-		String rs07File = "./csv/2021-07.csv";
+		Path directory = Path.of(csvDirectory);
+		String stationsFile = csvDirectory + "/" + STATIONS_FILE;
 
 		if (stationDb.count() == 0) {
 			importStationsFrom(stationsFile);
 			logger.info("");
 			logger.info("Stations imported to db");
 		}
+		stationCatalog.reload();
+
+		List<String> journeyFiles = journeyImportFiles.findPending(directory,
+				STATIONS_FILE);
+
+		if (!journeyImportFiles.hasFiles()
+				&& journeyPartitions.count(DepartureDateRange.ALL) > 0) {
+			// The Journeys were imported before the imports were recorded.
+			journeyImportFiles.markImported(journeyFiles);
+			journeyFiles = List.of();
+		}
+
+		if (backgroundImport) {
+			startJourneyImport(journeyFiles);
+		} else {
+			journeyImportProgress.start(journeyFiles);
+			importJourneys(journeyFiles);
+		}
+
+		showStationsRelatedCommands();
+		showJourneysRelatedCommands();
+		showHowToOpenTheApp();
+	}
+
+	/**
+	 * Starts importing City Bicycle Journeys from CSV files in the<br/>
+	 * background. The progress of the import is shown by the import<br/>
+	 * endpoint.
+	 *
+	 * @param files The CSV file names
+	 * @return      A Future done when the import has finished
+	 */
+	public synchronized Future<?> startJourneyImport(List<String> files) {
+		journeyImportProgress.start(files);
+
+		if (!files.isEmpty()) {
+			logger.info("");
+			logger.info("Importing " + files.size() + " bicycle journey "
+					+ "datasets in the background, to follow the import, "
+					+ "type:");
+			logger.info("curl -i http://localhost:8080/api/import/");
+		}
 
-		if (bicycleJourneyDb.count() == 0) {
+		return importExecutor.submit(() -> importJourneys(files));
+	}
+
+	/**
+	 * Imports City Bicycle Journeys from CSV files, all the datasets at<br/>
+	 * the same time with the Journey import pipeline. When a dataset has<br/>
+	 * been imported, the indexes of its months are created and the<br/>
+	 * Journeys are refreshed, so its months can be queried while the<br/>
+	 * other datasets are still being imported. The Journeys are refreshed<br/>
+	 * only once after the last dataset.
+	 *
+	 * @param files The CSV file names
+	 */
+	public synchronized void importJourneys(List<String> files) {
+		Exception error = null;
+
+		if (!files.isEmpty()) {
 			logger.info("");
-			logger.info("Please wait about 3 - 10 minutes until all");
-			logger.info("3 bicycle journey datasets have been imported to db");
+			logger.info("Please wait about 1 - 3 minutes per dataset until");
+			logger.info(files.size() + " bicycle journey datasets have "
+					+ "been imported to db");
 			logger.info("");
+		}
+
+		AtomicInteger imported = new AtomicInteger();
+
+		try {
+			journeyIndexes.drop();
+
+			try {
+				journeyImportPipeline.importFiles(files, (file, months) -> {
+					logger.info("The dataset " + file + " has been imported "
+							+ "to db");
+					journeyIndexes.create(months);
+
+					// The last dataset is refreshed once the import has ended.
+					if (imported.incrementAndGet() < files.size()) {
+						refreshJourneys();
+					}
+				});
+			} finally {
+				journeyIndexes.create();
+			}
+		} catch (Exception e) {
+			logger.error("Could not import the Bicycle Journey datasets", e);
+			error = e;
+		}
+		// The version is current before conditional requests are answered
+		// again, and the columns are reloaded after the import has ended,
+		// so their snapshot is written.
+		datasetVersion.refresh();
 
-			importJourneysFrom(rs05File);
-			logger.info("The first dataset (2021-05) has been imported to db");
-			importJourneysFrom(rs06File);
-			logger.info("The second dataset (2021-06) has been imported to db");
-			importJourneysFrom(rs07File);
-			logger.info("The third dataset (2021-07) has been imported to db");
+		if (!files.isEmpty() || !databaseDump.exists()) {
+			databaseDump.save(dataSource);
+		}
+		journeyImportProgress.finish(error);
+		refreshJourneys();
+
+		if (!files.isEmpty() && error == null) {
 			logger.info("");
 			logger.info("All Bicycle Journey datasets have been imported!");
 		}
+	}
 
-		showStationsRelatedCommands();
-		showJourneysRelatedCommands();
-		showHowToOpenTheApp();
+	/**
+	 * Stops the background import when the app is shut down. The rows<br/>
+	 * that were not committed are imported at the next startup.
+	 */
+	@PreDestroy
+	public void stopJourneyImport() {
+		importExecutor.shutdownNow();
 	}
 
 	/**
@@ -142,41 +366,38 @@ public class CityBicycleJourneys implements CommandLineRunner {
 	public synchronized void importStationsFrom(String file) {
 
 		try {
-			ResultSet rs = new Csv().read(file, null, null);
-
-			if (rs != null) {
-
-				while (rs.next()) {
-					Optional<Station> station = getStationData(rs);
-					station.ifPresent(this::importBicycleStation);
-				}
-			}
-		} catch (Exception e) {
+			List<Station> stations = new HslCsvParser().parseStations(
+					Path.of(file));
+			stationDb.saveAll(stations);
+		} catch (IOException | InvalidPathException e) {
 			logger.info("Could not read file, please check the file name");
 		}
 	}
 
 	/**
-	 * For importing City Bicycle Journeys from a CSV file.
+	 * For importing City Bicycle Journeys from a CSV file. The Journeys<br/>
+	 * are imported with the Journey import pipeline.
 	 *
 	 * @param file The CSV file name of type String
 	 */
-	public synchronized void importJourneysFrom(String file) {
-
-		try {
-			ResultSet rs = new Csv().read(file, null, null);
-
-			if (rs != null) {
+	public void importJourneysFrom(String file) {
+		importJourneysFrom(List.of(file));
+	}
 
-				while (rs.next()) {
-					Optional<BicycleJourney> journey = getBicycleJourneyData(rs);
+	/**
+	 * For importing City Bicycle Journeys from several CSV files at the<br/>
+	 * same time with the Journey import pipeline.
+	 *
+	 * @param files The CSV file names of type String
+	 */
+	public void importJourneysFrom(List<String> files) {
 
-					journey.ifPresent(this::importBicycleJourney);
-				}
-			}
-			rs.close();
+		try {
+			journeyImportPipeline.importFiles(files, (file, months) ->
+					logger.info("The dataset " + file + " has been imported "
+							+ "to db"));
 		} catch (Exception e) {
-			logger.info("Could not read file, please check the file name");
+			logger.error("Could not import the Bicycle Journey datasets", e);
 		}
 	}
 
@@ -189,29 +410,15 @@ public class CityBicycleJourneys implements CommandLineRunner {
 	 * @return           An Optional Bicycle Journey object
 	 * @throws Exception Throw this if the ResultSet data cannot be parsed
 	 */
-	public synchronized Optional<BicycleJourney> getBicycleJourneyData(
-			ResultSet rs) throws Exception {
+	public Optional<BicycleJourney> getBicycleJourneyData(ResultSet rs)
+			throws Exception {
 
 		Optional<BicycleJourney> bicycleJourney = Optional.empty();
 
 		try {
-			double distance = rs.getDouble(7);
-			int duration = rs.getInt(8);
-
-			if (distance >= 10 && duration >= 10) {
-
-				String departureDateTime = rs.getString(1);
-				LocalDateTime departureDate = getLocalDateTime(
-						departureDateTime);
-				String returnDateTime = rs.getString(2);
-				LocalDateTime returnDate = getLocalDateTime(returnDateTime);
-				String departureStationId = rs.getString(3);
-				String returnStationId = rs.getString(5);
-				BicycleJourney journey = new BicycleJourney(departureDate,
-						returnDate, departureStationId, returnStationId,
-						distance, duration);
-				bicycleJourney = Optional.of(journey);
-			}
+			bicycleJourney = journeyRowParser.parse(rs.getString(1),
+					rs.getString(2), rs.getString(3), rs.getString(5),
+					rs.getDouble(7), rs.getInt(8));
 		} catch (Exception e) {
 			logger.error("Could not get all values");
 			logger.error("Please check column numbers in the CSV file(s)");
@@ -261,12 +468,80 @@ public class CityBicycleJourneys implements CommandLineRunner {
 	}
 
 	/**
-	 * Imports a City Bicycle Journey to the Bicycle Journey database.
+	 * Imports a City Bicycle Journey to the Bicycle Journey database.<br/>
+	 * The Journey is written into the partition of its departure month<br/>
+	 * with its Station month statistics.
 	 *
 	 * @param journey The Bicycle Journey to be imported
 	 */
 	public synchronized void importBicycleJourney(BicycleJourney journey) {
-		this.bicycleJourneyDb.save(journey);
+		JourneyBatch batch = new JourneyBatch(null, 1);
+		batch.add(journey.getDepartureDate().toEpochSecond(ZoneOffset.UTC),
+				journey.getReturnDate().toEpochSecond(ZoneOffset.UTC),
+				journey.getDepartureStationId(), journey.getReturnStationId(),
+				journey.getCoveredDistance(), journey.getJourneyDuration());
+		journeyBatchWriter.write(batch);
+	}
+
+	/**
+	 * Drops the City Bicycle Journeys departing in a month and their<br/>
+	 * Station month statistics. The Journeys of the other months are not<br/>
+	 * touched.
+	 *
+	 * @param month The departure month
+	 * @return      True if there were Journeys in the month
+	 */
+	public synchronized boolean dropJourneysOfMonth(YearMonth month) {
+		boolean dropped = dropMonth(month);
+		databaseDump.save(dataSource);
+
+		return dropped;
+	}
+
+	/**
+	 * Replaces the City Bicycle Journeys departing in a month with the<br/>
+	 * Journeys of a CSV file, the dataset of the month.
+	 *
+	 * @param month The departure month
+	 * @param file  The CSV file name of type String
+	 */
+	public synchronized void reloadJourneysOfMonth(YearMonth month,
+			String file) {
+
+		dropMonth(month);
+		journeyImportFiles.forget(file);
+		importJourneysFrom(file);
+		refreshJourneys();
+		databaseDump.save(dataSource);
+		logger.info("The Bicycle Journeys of " + month + " have been "
+				+ "reloaded from " + file);
+	}
+
+	/**
+	 * A helper method for dropping the City Bicycle Journeys departing in<br/>
+	 * a month and their Station month statistics.
+	 *
+	 * @param month The departure month
+	 * @return      True if there were Journeys in the month
+	 */
+	private boolean dropMonth(YearMonth month) {
+		boolean dropped = journeyPartitions.drop(month);
+		stationStatisticsWriter.delete(month);
+		refreshJourneys();
+
+		return dropped;
+	}
+
+	/**
+	 * A helper method for refreshing the dataset version and the columnar<br/>
+	 * read engine after the Journeys have changed.
+	 */
+	private void refreshJourneys() {
+		datasetVersion.refresh();
+
+		if (journeyColumnStore.isEnabled()) {
+			journeyColumnStore.reload();
+		}
 	}
 
 
@@ -287,17 +562,7 @@ public class CityBicycleJourneys implements CommandLineRunner {
 	 * @param dateTime A dateTime String having a date
 	 * @return         A LocalDateTime object
 	 */
-	public synchronized LocalDateTime getLocalDateTime(String dateTime) {
-		String date = dateTime.substring(0, 10);
-		String time = "00:00";
-
-		if (dateTime.contains("T")) {
-			time = dateTime.substring(11);
-		}
-		LocalDateTime dt = LocalDateTime.of(
-				LocalDate.parse(date),
-				LocalTime.parse(time));
-
-		return dt;
+	public LocalDateTime getLocalDateTime(String dateTime) {
+		return journeyRowParser.getLocalDateTime(dateTime);
 	}
 }
@@ -0,0 +1,588 @@
+package fi.tuni.olvander.citybicyclejourneys;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>A compressed dump of the whole H2 database. With the inmemory<br/>
+ * profile the database lives in memory only, so the dump is written<br/>
+ * after the imports and the empty database is hydrated from it at the<br/>
+ * next start instead of importing the CSV files again. The CSV files are<br/>
+ * imported when there is no dump or it cannot be read.</p>
+ *
+ * <p>The dump has the schema as the statements of SCRIPT NODATA and the<br/>
+ * rows of every table as typed binary values, all gzipped. The rows are<br/>
+ * inserted in JDBC batches before the indexes are created, which is<br/>
+ * several times faster than running the INSERT statements of a full<br/>
+ * SCRIPT dump.</p>
+ *
+ * <p>The database is hydrated before the Flyway migrations, so a dump<br/>
+ * written by an older version of the app is migrated like a database<br/>
+ * file would be.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class DatabaseDump {
+
+    /**
+     * The first bytes of a dump, CBJD in ASCII.
+     */
+    private static final int MAGIC = 0x43424A44;
+
+    /**
+     * The format of the dump, changed whenever the layout changes.
+     */
+    private static final int FORMAT = 1;
+
+    /**
+     * The number of rows inserted in one batch while hydrating.
+     */
+    private static final int BATCH_SIZE = 10_000;
+
+    /**
+     * The size of the buffers the dump is read and written through.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The dump file, empty for no dump.
+     */
+    @Value("${citybicyclejourneys.dump.file:}")
+    private String file;
+
+    /**
+     * An instance of Log for logging purposes.
+     */
+    private final Log logger = LogFactory.getLog(DatabaseDump.class);
+
+    /**
+     * A default constructor for the DatabaseDump class.
+     */
+    public DatabaseDump() {}
+
+    /**
+     * Tells whether the database is dumped.
+     *
+     * @return True if a dump file has been configured
+     */
+    public boolean isEnabled() {
+        return !file.isBlank();
+    }
+
+    /**
+     * Tells whether there is a dump to hydrate the database from.
+     *
+     * @return True if the dump is enabled and the dump file exists
+     */
+    public boolean exists() {
+        return isEnabled() && Files.isRegularFile(Path.of(file));
+    }
+
+    /**
+     * Hydrates the database from the dump if the database is empty. A<br/>
+     * dump that cannot be read is logged and the objects it created are<br/>
+     * dropped, so the CSV files are imported instead.
+     *
+     * @param dataSource The data source of the database
+     * @return           True if the database was hydrated
+     */
+    public boolean hydrate(DataSource dataSource) {
+
+        if (!exists()) {
+            return false;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+
+            if (hasTables(statement)) {
+                return false;
+            }
+            long start = System.nanoTime();
+
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new GZIPInputStream(
+                            Files.newInputStream(Path.of(file)),
+                            BUFFER_SIZE), BUFFER_SIZE))) {
+
+                long rows = read(in, connection, statement);
+                logger.info("Hydrated the database with " + rows + " rows "
+                        + "from " + file + " in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+            } catch (IOException | SQLException e) {
+                logger.error("Could not hydrate the database from " + file
+                        + ", importing the CSV files instead", e);
+                connection.setAutoCommit(true);
+                statement.execute("DROP ALL OBJECTS");
+
+                return false;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the database", e);
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes the dump of the database. The dump is written into a<br/>
+     * temporary file first and then moved over the old one, so an<br/>
+     * interrupted dump never replaces a complete one.
+     *
+     * @param dataSource The data source of the database
+     */
+    public void save(DataSource dataSource) {
+
+        if (!isEnabled()) {
+            return;
+        }
+        Path dump = Path.of(file).toAbsolutePath();
+        Path temporary = dump.resolveSibling(dump.getFileName() + ".tmp");
+        long start = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+
+            Files.createDirectories(dump.getParent());
+            long rows;
+
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(
+                            Files.newOutputStream(temporary), BUFFER_SIZE),
+                            BUFFER_SIZE))) {
+
+                rows = write(out, statement);
+            }
+            Files.move(temporary, dump, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Dumped " + rows + " rows of the database into "
+                    + file + " in " + (System.nanoTime() - start) / 1_000_000
+                    + " ms");
+        } catch (IOException | SQLException e) {
+            logger.error("Could not dump the database into " + file, e);
+        } finally {
+
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException e) {
+                logger.warn("Could not delete " + temporary);
+            }
+        }
+    }
+
+    /**
+     * A helper method for writing the schema and the rows of every table.
+     *
+     * @param out           The dump
+     * @param statement     A statement of the database
+     * @return              The number of rows written
+     * @throws IOException  Throws this if the dump cannot be written
+     * @throws SQLException Throws this if the database cannot be read
+     */
+    private static long write(DataOutputStream out, Statement statement)
+            throws IOException, SQLException {
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+
+        try (ResultSet script = statement.executeQuery("SCRIPT NODATA")) {
+
+            while (script.next()) {
+                String sql = script.getString(1);
+
+                // A view would keep the semicolon in its query.
+                if (!sql.startsWith("--")) {
+                    out.writeBoolean(true);
+                    writeString(out, sql.endsWith(";")
+                            ? sql.substring(0, sql.length() - 1) : sql);
+                }
+            }
+        }
+        out.writeBoolean(false);
+        long rows = 0;
+
+        for (String table : getTables(statement)) {
+            out.writeBoolean(true);
+            writeString(out, table);
+            rows += writeRows(out, statement, table);
+        }
+        out.writeBoolean(false);
+
+        return rows;
+    }
+
+    /**
+     * A helper method for writing the columns and the rows of a table.
+     *
+     * @param out           The dump
+     * @param statement     A statement of the database
+     * @param table         The table name
+     * @return              The number of rows written
+     * @throws IOException  Throws this if the dump cannot be written
+     * @throws SQLException Throws this if the table cannot be read
+     */
+    private static long writeRows(DataOutputStream out, Statement statement,
+            String table) throws IOException, SQLException {
+
+        statement.setFetchSize(BATCH_SIZE);
+
+        try (ResultSet result = statement.executeQuery("SELECT * FROM "
+                + quoteName(table))) {
+
+            ResultSetMetaData columns = result.getMetaData();
+            int[] types = new int[columns.getColumnCount()];
+            out.writeInt(types.length);
+
+            for (int i = 0; i < types.length; i++) {
+                types[i] = columns.getColumnType(i + 1);
+                writeString(out, columns.getColumnName(i + 1));
+                out.writeInt(types[i]);
+            }
+            long rows = 0;
+
+            while (result.next()) {
+                out.writeBoolean(true);
+
+                for (int i = 0; i < types.length; i++) {
+                    writeValue(out, result, i + 1, types[i]);
+                }
+                rows++;
+            }
+            out.writeBoolean(false);
+
+            return rows;
+        }
+    }
+
+    /**
+     * A helper method for creating the schema and inserting the rows of<br/>
+     * every table. The indexes are created after the rows are inserted.
+     *
+     * @param in            The dump
+     * @param connection    A connection of the database
+     * @param statement     A statement of the connection
+     * @return              The number of rows inserted
+     * @throws IOException  Throws this if the dump cannot be read
+     * @throws SQLException Throws this if the dump cannot be run
+     */
+    private static long read(DataInputStream in, Connection connection,
+            Statement statement) throws IOException, SQLException {
+
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+            throw new IOException("Not a database dump of this format");
+        }
+        List<String> indexes = new ArrayList<>();
+
+        while (in.readBoolean()) {
+            String sql = readString(in);
+
+            if (sql.startsWith("CREATE INDEX")
+                    || sql.startsWith("CREATE UNIQUE INDEX")) {
+                indexes.add(sql);
+            } else {
+                statement.execute(sql);
+            }
+        }
+        connection.setAutoCommit(false);
+        long rows = 0;
+
+        while (in.readBoolean()) {
+            rows += readRows(in, connection, readString(in));
+        }
+        connection.setAutoCommit(true);
+
+        for (String sql : indexes) {
+            statement.execute(sql);
+        }
+        recompileViews(statement);
+
+        return rows;
+    }
+
+    /**
+     * A helper method for inserting the rows of a table in batches.
+     *
+     * @param in            The dump
+     * @param connection    A connection of the database
+     * @param table         The table name
+     * @return              The number of rows inserted
+     * @throws IOException  Throws this if the dump cannot be read
+     * @throws SQLException Throws this if the rows cannot be inserted
+     */
+    private static long readRows(DataInputStream in, Connection connection,
+            String table) throws IOException, SQLException {
+
+        int[] types = new int[in.readInt()];
+        StringBuilder names = new StringBuilder();
+
+        for (int i = 0; i < types.length; i++) {
+            names.append(i == 0 ? "" : ", ").append(quoteName(
+                    readString(in)));
+            types[i] = in.readInt();
+        }
+        long rows = 0;
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + quoteName(table) + " (" + names
+                + ") VALUES (" + "?, ".repeat(types.length - 1) + "?)")) {
+
+            while (in.readBoolean()) {
+
+                for (int i = 0; i < types.length; i++) {
+                    readValue(in, insert, i + 1, types[i]);
+                }
+                insert.addBatch();
+
+                if (++rows % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+
+        return rows;
+    }
+
+    /**
+     * A helper method for writing a value of a row as a null flag and<br/>
+     * the value by its JDBC type.
+     *
+     * @param out           The dump
+     * @param result        The rows, at the row written
+     * @param column        The column number starting from 1
+     * @param type          The JDBC type of the column
+     * @throws IOException  Throws this if the value cannot be written
+     * @throws SQLException Throws this if the type is not supported
+     */
+    private static void writeValue(DataOutputStream out, ResultSet result,
+            int column, int type) throws IOException, SQLException {
+
+        Object value = switch (type) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER ->
+                    result.getInt(column);
+            case Types.BIGINT -> result.getLong(column);
+            case Types.REAL, Types.FLOAT, Types.DOUBLE ->
+                    result.getDouble(column);
+            case Types.BOOLEAN, Types.BIT -> result.getBoolean(column);
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR,
+                    Types.DECIMAL, Types.NUMERIC -> result.getString(column);
+            case Types.DATE -> result.getObject(column, LocalDate.class);
+            case Types.TIMESTAMP ->
+                    result.getObject(column, LocalDateTime.class);
+            default -> throw new SQLException("Cannot dump the column type "
+                    + type);
+        };
+        boolean isNull = result.wasNull();
+        out.writeBoolean(isNull);
+
+        if (isNull) {
+            return;
+        }
+
+        switch (type) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER ->
+                    out.writeInt((Integer) value);
+            case Types.BIGINT -> out.writeLong((Long) value);
+            case Types.REAL, Types.FLOAT, Types.DOUBLE ->
+                    out.writeDouble((Double) value);
+            case Types.BOOLEAN, Types.BIT -> out.writeBoolean((Boolean) value);
+            case Types.DATE -> out.writeLong(((LocalDate) value).toEpochDay());
+            case Types.TIMESTAMP -> {
+                LocalDateTime dateTime = (LocalDateTime) value;
+                out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(dateTime.getNano());
+            }
+            default -> writeString(out, (String) value);
+        }
+    }
+
+    /**
+     * A helper method for reading a value written by writeValue into a<br/>
+     * parameter of the INSERT statement.
+     *
+     * @param in            The dump
+     * @param insert        The INSERT statement
+     * @param parameter     The parameter number starting from 1
+     * @param type          The JDBC type of the column
+     * @throws IOException  Throws this if the value cannot be read
+     * @throws SQLException Throws this if the parameter cannot be set
+     */
+    private static void readValue(DataInputStream in, PreparedStatement insert,
+            int parameter, int type) throws IOException, SQLException {
+
+        if (in.readBoolean()) {
+            insert.setNull(parameter, type);
+
+            return;
+        }
+
+        switch (type) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER ->
+                    insert.setInt(parameter, in.readInt());
+            case Types.BIGINT -> insert.setLong(parameter, in.readLong());
+            case Types.REAL, Types.FLOAT, Types.DOUBLE ->
+                    insert.setDouble(parameter, in.readDouble());
+            case Types.BOOLEAN, Types.BIT ->
+                    insert.setBoolean(parameter, in.readBoolean());
+            case Types.DECIMAL, Types.NUMERIC ->
+                    insert.setBigDecimal(parameter, new BigDecimal(
+                            readString(in)));
+            case Types.DATE -> insert.setObject(parameter,
+                    LocalDate.ofEpochDay(in.readLong()));
+            case Types.TIMESTAMP -> insert.setObject(parameter,
+                    LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(),
+                            ZoneOffset.UTC));
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR ->
+                    insert.setString(parameter, readString(in));
+            default -> throw new IOException("Unknown column type " + type);
+        }
+    }
+
+    /**
+     * A helper method for getting the tables of the PUBLIC schema.
+     *
+     * @param statement     A statement of the database
+     * @return              The names of the tables, views excluded
+     * @throws SQLException Throws this if the schema cannot be read
+     */
+    private static List<String> getTables(Statement statement)
+            throws SQLException {
+
+        List<String> tables = new ArrayList<>();
+
+        try (ResultSet result = statement.executeQuery("SELECT TABLE_NAME "
+                + "FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = "
+                + "'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' "
+                + "ORDER BY TABLE_NAME")) {
+
+            while (result.next()) {
+                tables.add(result.getString(1));
+            }
+        }
+
+        return tables;
+    }
+
+    /**
+     * A helper method for telling whether the database has any tables.
+     *
+     * @param statement     A statement of the database
+     * @return              True if the PUBLIC schema has a table or a view
+     * @throws SQLException Throws this if the schema cannot be read
+     */
+    private static boolean hasTables(Statement statement)
+            throws SQLException {
+
+        try (ResultSet tables = statement.executeQuery("SELECT COUNT(*) "
+                + "FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC'")) {
+
+            return tables.next() && tables.getLong(1) > 0;
+        }
+    }
+
+    /**
+     * A helper method for recompiling the views of the hydrated database.<br/>
+     * A view replaced after its tables were created, like the view of the<br/>
+     * Journey partitions, is scripted before some of its tables and stays<br/>
+     * invalid until it is recompiled.
+     *
+     * @param statement     A statement of the database
+     * @throws SQLException Throws this if a view cannot be recompiled
+     */
+    private static void recompileViews(Statement statement)
+            throws SQLException {
+
+        List<String> views = new ArrayList<>();
+
+        try (ResultSet result = statement.executeQuery("SELECT TABLE_NAME "
+                + "FROM INFORMATION_SCHEMA.VIEWS "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC'")) {
+
+            while (result.next()) {
+                views.add(result.getString(1));
+            }
+        }
+
+        for (String view : views) {
+            statement.execute("ALTER VIEW " + quoteName(view) + " RECOMPILE");
+        }
+    }
+
+    /**
+     * A helper method for writing a String as its length and UTF-8 bytes.
+     *
+     * @param out          The dump
+     * @param value        The String
+     * @throws IOException Throws this if the String cannot be written
+     */
+    private static void writeString(DataOutputStream out, String value)
+            throws IOException {
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * A helper method for reading a String written by writeString.
+     *
+     * @param in           The dump
+     * @return             The String
+     * @throws IOException Throws this if the String cannot be read
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+
+        if (length < 0) {
+            throw new IOException("Negative length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A helper method for quoting a table or a column name.
+     *
+     * @param name The name
+     * @return     The quoted name
+     */
+    private static String quoteName(String name) {
+        return "\"" + name.replace("\"", "\"\"") + "\"";
+    }
+}
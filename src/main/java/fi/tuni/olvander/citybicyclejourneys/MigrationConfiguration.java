@@ -0,0 +1,86 @@
+package fi.tuni.olvander.citybicyclejourneys;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.flywaydb.core.api.ErrorCode;
+import org.flywaydb.core.api.output.ValidateOutput;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>A configuration class for running the Flyway migrations.</p>
+ *
+ * <p>H2 does not roll back DDL, so a migration that fails halfway stays<br/>
+ * marked as failed and blocks every later start. The migrations are<br/>
+ * written to be run again, so a failed migration is repaired and run<br/>
+ * again instead. A migration changed after it was applied is not<br/>
+ * repaired, so the validation still fails on it.</p>
+ *
+ * <p>An empty database is hydrated from the database dump, if there is<br/>
+ * one, before the migrations are run.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Configuration
+public class MigrationConfiguration {
+
+    /**
+     * The validation errors fixed by repairing the schema history.
+     */
+    private static final Set<ErrorCode> REPAIRED_ERRORS = Set.of(
+            ErrorCode.FAILED_VERSIONED_MIGRATION,
+            ErrorCode.FAILED_REPEATABLE_MIGRATION);
+
+    /**
+     * The dump the in-memory database is hydrated from.
+     */
+    @Autowired
+    private DatabaseDump databaseDump;
+
+    /**
+     * An instance of Log for logging purposes.
+     */
+    private final Log logger = LogFactory.getLog(MigrationConfiguration.class);
+
+    /**
+     * A default constructor for the MigrationConfiguration class.
+     */
+    public MigrationConfiguration() {}
+
+    /**
+     * Returns the strategy hydrating an empty database from the dump,<br/>
+     * repairing the schema history if it has a failed migration and no<br/>
+     * changed one, and then running the pending migrations.
+     *
+     * @return The FlywayMigrationStrategy
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+            databaseDump.hydrate(flyway.getConfiguration().getDataSource());
+
+            // A repair would also accept the checksums of the changed
+            // migrations, so the history is repaired only without them.
+            List<ValidateOutput> invalid = flyway.validateWithResult()
+                    .invalidMigrations;
+            boolean repair = invalid.stream().anyMatch(migration ->
+                    REPAIRED_ERRORS.contains(migration.errorDetails.errorCode))
+                    && invalid.stream().noneMatch(migration ->
+                    migration.errorDetails.errorCode
+                            == ErrorCode.CHECKSUM_MISMATCH);
+
+            if (repair) {
+                logger.info("Repairing the Flyway schema history");
+                flyway.repair();
+            }
+            flyway.migrate();
+        };
+    }
+}
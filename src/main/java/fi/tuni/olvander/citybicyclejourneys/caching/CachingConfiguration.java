@@ -0,0 +1,43 @@
+package fi.tuni.olvander.citybicyclejourneys.caching;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * A configuration class registering the conditional request interceptor<br/>
+ * for the API endpoints.
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Configuration
+public class CachingConfiguration implements WebMvcConfigurer {
+
+    /**
+     * The interceptor answering conditional requests.
+     */
+    @Autowired
+    private ConditionalRequestInterceptor conditionalRequestInterceptor;
+
+    /**
+     * A default constructor for the CachingConfiguration class.
+     */
+    public CachingConfiguration() {}
+
+    /**
+     * Registers the conditional request interceptor for the API paths.<br/>
+     * The import progress changes without a new dataset version, so it<br/>
+     * is left out.
+     *
+     * @param registry The interceptor registry
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(conditionalRequestInterceptor)
+                .addPathPatterns("/api/**")
+                .excludePathPatterns("/api/import/**");
+    }
+}
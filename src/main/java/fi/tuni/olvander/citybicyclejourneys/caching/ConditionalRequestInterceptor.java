@@ -0,0 +1,101 @@
+package fi.tuni.olvander.citybicyclejourneys.caching;
+
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyImportProgress;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * <p>An interceptor adding the ETag, Last-Modified and Cache-Control<br/>
+ * headers of the dataset version to every GET response of the API.</p>
+ *
+ * <p>A request whose If-None-Match or If-Modified-Since header matches<br/>
+ * the current version is answered with 304 Not Modified before the<br/>
+ * controller runs, so no query is run for it.</p>
+ *
+ * <p>While the Journeys are imported in the background, every request<br/>
+ * may see more Journeys than the last one, so the responses are not<br/>
+ * stored and no request is answered with 304.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class ConditionalRequestInterceptor implements HandlerInterceptor {
+
+    /**
+     * The version of the imported data.
+     */
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    /**
+     * The progress of the background Journey import.
+     */
+    @Autowired
+    private JourneyImportProgress journeyImportProgress;
+
+    /**
+     * How long a client may use a response without revalidating it, 0 if<br/>
+     * every use must be revalidated.
+     */
+    @Value("${citybicyclejourneys.cache.max-age:0s}")
+    private Duration maxAge;
+
+    /**
+     * A default constructor for the ConditionalRequestInterceptor class.
+     */
+    public ConditionalRequestInterceptor() {}
+
+    /**
+     * Adds the caching headers and answers 304 Not Modified if the client<br/>
+     * already has the current version of the response.
+     *
+     * @param request  The HTTP request
+     * @param response The HTTP response
+     * @param handler  The handler of the request
+     * @return         False if the request was answered with 304
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request,
+                             HttpServletResponse response, Object handler) {
+
+        if (!"GET".equals(request.getMethod())
+                && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+
+        if (journeyImportProgress.isImporting()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.noStore().getHeaderValue());
+
+            return true;
+        }
+        CacheControl cacheControl = maxAge.isZero() ? CacheControl.noCache()
+                : CacheControl.maxAge(maxAge).mustRevalidate();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                cacheControl.cachePublic().getHeaderValue());
+
+        if (new ServletWebRequest(request, response).checkNotModified(
+                datasetVersion.getETag(),
+                datasetVersion.getLastModified().toEpochMilli())) {
+
+            // The controllers add this header to their own responses.
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+
+            return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,124 @@
+package fi.tuni.olvander.citybicyclejourneys.caching;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.DepartureDateRange;
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * <p>The version of the imported Stations and Bicycle Journeys. The data<br/>
+ * never changes after an import, so every response of the read-only API<br/>
+ * can be identified by this version alone.</p>
+ *
+ * <p>The version is made of the row counts and the largest ids of the<br/>
+ * Station table and the Bicycle Journey partitions. A new import always<br/>
+ * adds rows with new ids and dropping a month removes rows, so both<br/>
+ * change the version.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class DatasetVersion {
+
+    /**
+     * A JdbcTemplate instance for interacting with the H2 database.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The month partitions of the Bicycle Journeys.
+     */
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    /**
+     * The current version, null until it is first needed.
+     */
+    private volatile State state;
+
+    /**
+     * A default constructor for the DatasetVersion class.
+     */
+    public DatasetVersion() {}
+
+    /**
+     * Reads the version from the database again. Called after an import.<br/>
+     * The last modified time changes only if the version has changed.
+     */
+    public synchronized void refresh() {
+        String version = journeyPartitions.count(DepartureDateRange.ALL)
+                + "." + journeyPartitions.getMaxId() + "."
+                + jdbcTemplate.queryForObject("SELECT COUNT(*) || '.' || "
+                + "COALESCE(MAX(ID), 0) FROM STATION", String.class);
+        State current = this.state;
+
+        if (current == null || !current.version().equals(version)) {
+            this.state = new State(version,
+                    Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Gets the current version.
+     *
+     * @return The version made of the row counts and the largest ids
+     */
+    public String getVersion() {
+        return getState().version();
+    }
+
+    /**
+     * Gets the strong entity tag of the current version.
+     *
+     * @return The entity tag in quotes
+     */
+    public String getETag() {
+        return "\"" + getVersion() + "\"";
+    }
+
+    /**
+     * Gets the time the current version was first seen.
+     *
+     * @return The last modified time, in whole seconds
+     */
+    public Instant getLastModified() {
+        return getState().lastModified();
+    }
+
+    /**
+     * Returns the current state, reading the version if it has not been<br/>
+     * read yet.
+     *
+     * @return The current state
+     */
+    private State getState() {
+        State current = this.state;
+
+        if (current == null) {
+            synchronized (this) {
+
+                if (this.state == null) {
+                    refresh();
+                }
+                current = this.state;
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * An immutable version and the time it was first seen.
+     *
+     * @param version      The version
+     * @param lastModified The time the version was first seen
+     */
+    private record State(String version, Instant lastModified) {}
+}
@@ -0,0 +1,285 @@
+package fi.tuni.olvander.citybicyclejourneys.columns;
+
+import fi.tuni.olvander.citybicyclejourneys.caching.DatasetVersion;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyImportProgress;
+import fi.tuni.olvander.citybicyclejourneys.journeys.DepartureDateRange;
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import fi.tuni.olvander.citybicyclejourneys.stations.Station;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCatalog;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCodes;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>The optional columnar read engine. When it is enabled, the Journey<br/>
+ * and Station endpoints are answered from JourneyColumns loaded from the<br/>
+ * database instead of querying the database for every request.</p>
+ *
+ * <p>The columns are loaded the first time they are needed and again by<br/>
+ * reload after an import. A reload replaces the columns as a whole, so<br/>
+ * concurrent readers keep using the columns they already have.</p>
+ *
+ * <p>If a snapshot file is configured, the loaded columns are written<br/>
+ * into a JourneySnapshot, and the columns are mapped from the snapshot<br/>
+ * instead of loaded from the database as long as the dataset version<br/>
+ * has not changed. No snapshot is written while the Journeys are being<br/>
+ * imported.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class JourneyColumnStore {
+
+    /**
+     * True if the endpoints are answered from the columns.
+     */
+    @Value("${citybicyclejourneys.columnar.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * The JDBC fetch size used when the columns are loaded.
+     */
+    @Value("${citybicyclejourneys.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * The JourneySnapshot file of the columns, empty for no snapshot.
+     */
+    @Value("${citybicyclejourneys.columnar.snapshot:}")
+    private String snapshot;
+
+    /**
+     * The version of the imported data, stored in the snapshot.
+     */
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    /**
+     * The progress of the Journey import, no snapshot is written during it.
+     */
+    @Autowired
+    private JourneyImportProgress journeyImportProgress;
+
+    /**
+     * The Station Catalog having the Station names for sorting.
+     */
+    @Autowired
+    private StationCatalog stationCatalog;
+
+    /**
+     * The dictionary of the Station codes stored with the Journeys.
+     */
+    @Autowired
+    private StationCodes stationCodes;
+
+    /**
+     * The month partitions the Journeys are loaded from.
+     */
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    /**
+     * An instance of Log for logging purposes.
+     */
+    private final Log logger = LogFactory.getLog(JourneyColumnStore.class);
+
+    /**
+     * The current columns, null until they are first needed.
+     */
+    private volatile JourneyColumns columns;
+
+    /**
+     * A default constructor for the JourneyColumnStore class.
+     */
+    public JourneyColumnStore() {}
+
+    /**
+     * Tells whether the endpoints are answered from the columns.
+     *
+     * @return True if the columnar read engine is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the current columns, loading them if they have not been loaded.
+     *
+     * @return The current JourneyColumns
+     */
+    public JourneyColumns getColumns() {
+        JourneyColumns current = this.columns;
+
+        if (current == null) {
+            synchronized (this) {
+
+                if (this.columns == null) {
+                    reload();
+                }
+                current = this.columns;
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Loads the Journeys from the snapshot of the current dataset version<br/>
+     * or from the database into new columns and replaces the current<br/>
+     * columns with them. Called after the Journeys have been imported.
+     */
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        datasetVersion.refresh();
+        String version = datasetVersion.getVersion();
+        JourneyColumns mapped = mapSnapshot(version);
+
+        if (mapped != null) {
+            this.columns = mapped;
+            logger.info(String.format("Mapped %d Journeys from the snapshot "
+                    + "%s in %.3f s", mapped.size(), snapshot,
+                    (System.nanoTime() - start) / 1e9));
+
+            return;
+        }
+        long count = journeyPartitions.count(DepartureDateRange.ALL);
+        JourneyColumns.Builder builder = new JourneyColumns.Builder(
+                Math.toIntExact(count));
+
+        // The month partitions are streamed one at a time without sorting,
+        // and the builder sorts the Journeys by their ids.
+        journeyPartitions.executeLazily(connection -> {
+
+            for (YearMonth month : journeyPartitions.getMonths()) {
+                readPartition(connection, month, builder);
+            }
+
+            return null;
+        });
+        Map<String, String> stationNames = new HashMap<>();
+
+        for (Station station : stationCatalog.getStations()) {
+            stationNames.putIfAbsent(station.getStationId(), station.getName());
+        }
+        JourneyColumns loaded = builder.build(stationCodes.getStationIds(),
+                stationNames);
+        this.columns = loaded;
+        logger.info(String.format("Loaded %d Journeys into columns of %d MB "
+                + "in %.1f s", loaded.size(), loaded.getSizeInBytes() >> 20,
+                (System.nanoTime() - start) / 1e9));
+
+        if (!journeyImportProgress.isImporting()) {
+            writeSnapshot(loaded, version);
+        }
+    }
+
+    /**
+     * A helper method for mapping the columns from the snapshot.
+     *
+     * @param version The current dataset version
+     * @return        The columns, or null if there is no snapshot of the
+     *                current dataset version
+     */
+    private JourneyColumns mapSnapshot(String version) {
+
+        if (snapshot.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return JourneySnapshot.map(Path.of(snapshot), version);
+        } catch (IOException e) {
+            logger.warn("Could not read the snapshot " + snapshot, e);
+
+            return null;
+        }
+    }
+
+    /**
+     * A helper method for writing the columns into the snapshot.
+     *
+     * @param loaded  The columns loaded from the database
+     * @param version The dataset version the columns were loaded from
+     */
+    private void writeSnapshot(JourneyColumns loaded, String version) {
+
+        if (snapshot.isEmpty()) {
+            return;
+        }
+
+        try {
+            JourneySnapshot.write(loaded, version, Path.of(snapshot));
+            logger.info("Wrote the snapshot " + snapshot);
+        } catch (IOException e) {
+            logger.warn("Could not write the snapshot " + snapshot, e);
+        }
+    }
+
+    /**
+     * A helper method for reading the Journeys of a month partition into<br/>
+     * the columns.
+     *
+     * @param connection    The database connection
+     * @param month         The month of the partition
+     * @param builder       The builder of the columns
+     * @throws SQLException Throws this if the Journeys cannot be read
+     */
+    private void readPartition(Connection connection, YearMonth month,
+            JourneyColumns.Builder builder) throws SQLException {
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT ID, DEPARTURE_DATE, RETURN_DATE, "
+                + "DEPARTURE_STATION_CODE, RETURN_STATION_CODE, "
+                + "COVERED_DISTANCE, JOURNEY_DURATION FROM "
+                + JourneyPartitions.getTable(month))) {
+
+            statement.setFetchSize(fetchSize);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+
+                while (resultSet.next()) {
+                    builder.add(resultSet.getLong(1),
+                            resultSet.getObject(2, LocalDateTime.class),
+                            resultSet.getObject(3, LocalDateTime.class),
+                            getStationCode(resultSet, 4),
+                            getStationCode(resultSet, 5),
+                            resultSet.getDouble(6),
+                            resultSet.getInt(7));
+                }
+            }
+        }
+    }
+
+    /**
+     * A helper method for reading a Station code column, which is null<br/>
+     * for a Journey without a Station id.
+     *
+     * @param resultSet     The ResultSet positioned on a Journey
+     * @param column        The index of the Station code column
+     * @return              The Station code, or StationCodes.UNKNOWN
+     * @throws SQLException Throws this if the column cannot be read
+     */
+    private static int getStationCode(ResultSet resultSet, int column)
+            throws SQLException {
+
+        int code = resultSet.getInt(column);
+
+        return resultSet.wasNull() ? StationCodes.UNKNOWN : code;
+    }
+}
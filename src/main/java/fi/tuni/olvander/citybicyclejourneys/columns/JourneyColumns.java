@@ -0,0 +1,1025 @@
+package fi.tuni.olvander.citybicyclejourneys.columns;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.BicycleJourney;
+import fi.tuni.olvander.citybicyclejourneys.journeys.DepartureDateRange;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * <p>All the Bicycle Journeys held in memory as parallel primitive<br/>
+ * columns, one array element per Journey, ordered by the Journey id.</p>
+ *
+ * <p>The Station ids are stored as their codes from the database and<br/>
+ * the dates as epoch seconds, so one Journey takes 28 bytes plus 8 bytes<br/>
+ * for the Station row lists and 16 bytes for the sort orders. The rows<br/>
+ * are sorted by every sort key once when the columns are built, so a<br/>
+ * sorted page is a linear pass over the order of its key which stops<br/>
+ * at the end of the page. Month filters are linear scans over the<br/>
+ * departure column and the Station queries only read the rows of one<br/>
+ * Station. BicycleJourney objects are created only when a response is<br/>
+ * written.</p>
+ *
+ * <p>The columns are never modified after they have been built, so they<br/>
+ * can be read by any number of threads. They are read through int and<br/>
+ * float buffers, which either wrap the arrays of a Builder or view a<br/>
+ * memory-mapped JourneySnapshot without copying it into the heap.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class JourneyColumns {
+
+    /**
+     * The keys the Journeys can be sorted by.
+     */
+    public enum SortKey {
+        DEPARTURE_STATION, RETURN_STATION, DISTANCE, DURATION
+    }
+
+    /**
+     * The number of buffers in the order of getBuffers.
+     */
+    static final int BUFFERS = 16;
+
+    /**
+     * The index of the only float buffer in the order of getBuffers.
+     */
+    static final int DISTANCE_BUFFER = 5;
+
+    /**
+     * The number of Journeys.
+     */
+    private final int size;
+
+    /**
+     * The Journey ids in ascending order.
+     */
+    private final IntBuffer ids;
+
+    /**
+     * The departure dates as epoch seconds.
+     */
+    private final IntBuffer departureDates;
+
+    /**
+     * The return dates as epoch seconds.
+     */
+    private final IntBuffer returnDates;
+
+    /**
+     * The departure Station codes.
+     */
+    private final IntBuffer departureStations;
+
+    /**
+     * The return Station codes.
+     */
+    private final IntBuffer returnStations;
+
+    /**
+     * The covered distances in meters.
+     */
+    private final FloatBuffer coveredDistances;
+
+    /**
+     * The Journey durations in seconds.
+     */
+    private final IntBuffer journeyDurations;
+
+    /**
+     * The Station ids by their codes.
+     */
+    private final String[] stationIds;
+
+    /**
+     * The Station codes by the Station ids.
+     */
+    private final Map<String, Integer> stationCodes;
+
+    /**
+     * The rank of the Station name of every code, 0 for unknown Stations.
+     */
+    private final IntBuffer stationNameRanks;
+
+    /**
+     * The offset of the first row of every departure Station code in<br/>
+     * departureStationRows, and the end offset after the last code.
+     */
+    private final IntBuffer departureStationOffsets;
+
+    /**
+     * The rows of every departure Station, starting at the offset of the<br/>
+     * Station code.
+     */
+    private final IntBuffer departureStationRows;
+
+    /**
+     * The offset of the first row of every return Station code in<br/>
+     * returnStationRows, and the end offset after the last code.
+     */
+    private final IntBuffer returnStationOffsets;
+
+    /**
+     * The rows of every return Station, starting at the offset of the<br/>
+     * Station code.
+     */
+    private final IntBuffer returnStationRows;
+
+    /**
+     * All the rows sorted ascending by every SortKey and then by the row,<br/>
+     * indexed by the ordinal of the SortKey.
+     */
+    private final IntBuffer[] sortOrders;
+
+    /**
+     * A constructor for the JourneyColumns class, used by the Builder.
+     *
+     * @param builder          The Builder having the columns
+     * @param stationNameRanks The Station name rank of every Station code
+     */
+    private JourneyColumns(Builder builder, int[] stationNameRanks) {
+        this.size = builder.size;
+        this.ids = IntBuffer.wrap(builder.ids);
+        this.departureDates = IntBuffer.wrap(builder.departureDates);
+        this.returnDates = IntBuffer.wrap(builder.returnDates);
+        this.departureStations = IntBuffer.wrap(builder.departureStations);
+        this.returnStations = IntBuffer.wrap(builder.returnStations);
+        this.coveredDistances = FloatBuffer.wrap(builder.coveredDistances);
+        this.journeyDurations = IntBuffer.wrap(builder.journeyDurations);
+        this.stationIds = builder.stationIds;
+        this.stationCodes = getStationCodes(stationIds);
+        this.stationNameRanks = IntBuffer.wrap(stationNameRanks);
+        int[] offsets = new int[stationIds.length + 1];
+        this.departureStationRows = IntBuffer.wrap(groupRows(
+                builder.departureStations, offsets));
+        this.departureStationOffsets = IntBuffer.wrap(offsets);
+        offsets = new int[stationIds.length + 1];
+        this.returnStationRows = IntBuffer.wrap(groupRows(
+                builder.returnStations, offsets));
+        this.returnStationOffsets = IntBuffer.wrap(offsets);
+        this.sortOrders = new IntBuffer[SortKey.values().length];
+        int[] rows = new int[size];
+
+        for (int row = 0; row < size; row++) {
+            rows[row] = row;
+        }
+
+        for (SortKey key : SortKey.values()) {
+            sortOrders[key.ordinal()] = IntBuffer.wrap(sortRows(rows,
+                    getSortValue(key)));
+        }
+    }
+
+    /**
+     * A constructor for the JourneyColumns class, used by JourneySnapshot<br/>
+     * for columns read from the buffers of a snapshot.
+     *
+     * @param size       The number of Journeys
+     * @param stationIds The Station ids by their codes
+     * @param buffers    The buffers in the order of getBuffers
+     */
+    JourneyColumns(int size, String[] stationIds, Buffer[] buffers) {
+        this.size = size;
+        this.ids = (IntBuffer) buffers[0];
+        this.departureDates = (IntBuffer) buffers[1];
+        this.returnDates = (IntBuffer) buffers[2];
+        this.departureStations = (IntBuffer) buffers[3];
+        this.returnStations = (IntBuffer) buffers[4];
+        this.coveredDistances = (FloatBuffer) buffers[DISTANCE_BUFFER];
+        this.journeyDurations = (IntBuffer) buffers[6];
+        this.stationIds = stationIds;
+        this.stationCodes = getStationCodes(stationIds);
+        this.stationNameRanks = (IntBuffer) buffers[7];
+        this.departureStationOffsets = (IntBuffer) buffers[8];
+        this.departureStationRows = (IntBuffer) buffers[9];
+        this.returnStationOffsets = (IntBuffer) buffers[10];
+        this.returnStationRows = (IntBuffer) buffers[11];
+        this.sortOrders = new IntBuffer[SortKey.values().length];
+
+        for (SortKey key : SortKey.values()) {
+            sortOrders[key.ordinal()] = (IntBuffer) buffers[12
+                    + key.ordinal()];
+        }
+    }
+
+    /**
+     * Gets the Station ids by their codes, for writing a snapshot.
+     *
+     * @return The Station ids, the last one null for the Journeys
+     *         without a Station id
+     */
+    String[] getStationIds() {
+        return stationIds;
+    }
+
+    /**
+     * Gets the buffers of the columns, for writing a snapshot. The row<br/>
+     * columns come first in the order of the fields, then the Station<br/>
+     * name ranks, the departure and return Station offsets and rows, and<br/>
+     * the sort orders by the ordinal of the SortKey. Only the covered<br/>
+     * distances are a float buffer.
+     *
+     * @return The buffers, positioned at their first element
+     */
+    Buffer[] getBuffers() {
+        Buffer[] buffers = {ids, departureDates, returnDates,
+                departureStations, returnStations, coveredDistances,
+                journeyDurations, stationNameRanks, departureStationOffsets,
+                departureStationRows, returnStationOffsets, returnStationRows,
+                sortOrders[0], sortOrders[1], sortOrders[2], sortOrders[3]};
+
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = buffers[i].duplicate().rewind();
+        }
+
+        return buffers;
+    }
+
+    /**
+     * Tells whether the columns are read from a memory-mapped snapshot.
+     *
+     * @return True if the columns are outside the heap
+     */
+    public boolean isMapped() {
+        return ids.isDirect();
+    }
+
+    /**
+     * Gets the number of Journeys in the columns.
+     *
+     * @return The number of Journeys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the approximate size of the columns in the heap or in a<br/>
+     * memory-mapped snapshot.
+     *
+     * @return The size in bytes
+     */
+    public long getSizeInBytes() {
+        return 52L * size + 8L * stationIds.length;
+    }
+
+    /**
+     * Counts the Journeys departing in the selected dates.
+     *
+     * @param dates          The departure dates of the selected Journeys
+     * @return               The number of Journeys
+     */
+    public long count(DepartureDateRange dates) {
+        int[] ranges = dates.toEpochSecondRanges();
+
+        if (ranges == null) {
+            return size;
+        }
+        long count = 0;
+
+        for (int row = 0; row < size; row++) {
+
+            if (isInRanges(departureDates.get(row), ranges)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Selects the rows of the Journeys departing in the selected dates.
+     *
+     * @param dates          The departure dates of the selected Journeys
+     * @return               The rows in the order of the Journey ids
+     */
+    public int[] selectRows(DepartureDateRange dates) {
+        int[] ranges = dates.toEpochSecondRanges();
+        int[] rows = new int[size];
+        int count = 0;
+
+        for (int row = 0; row < size; row++) {
+
+            if (ranges == null || isInRanges(departureDates.get(row), ranges)) {
+                rows[count++] = row;
+            }
+        }
+
+        return count == size ? rows : Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Returns the rows in the reverse order.
+     *
+     * @param rows The rows, reversed in place
+     * @return     The same rows
+     */
+    public static int[] reverse(int[] rows) {
+
+        for (int i = 0, j = rows.length - 1; i < j; i++, j--) {
+            int row = rows[i];
+            rows[i] = rows[j];
+            rows[j] = row;
+        }
+
+        return rows;
+    }
+
+    /**
+     * <p>Selects one page of the Journeys departing in the selected dates<br/>
+     * in the order of a SortKey. Journeys with the same distance or<br/>
+     * duration are in the order of their ids in both directions, like a<br/>
+     * stable sort. Journeys with the same Station name are in the order<br/>
+     * of their ids when sorted ascending and in the reverse order when<br/>
+     * sorted descending, the same way as sorting by the joined Station<br/>
+     * name and the id in the database, and a Journey with an unknown<br/>
+     * Station comes first when sorted ascending.</p>
+     *
+     * <p>The precomputed order is read only until the page is full.</p>
+     *
+     * @param key            The SortKey
+     * @param descending     True for the descending order
+     * @param dates          The departure dates of the selected Journeys
+     * @param offset         The number of sorted Journeys skipped
+     * @param limit          The maximum number of Journeys, or null for all
+     * @return               The rows of the page in the sorted order
+     */
+    public int[] sortRows(SortKey key, boolean descending,
+                          DepartureDateRange dates, int offset, Integer limit) {
+
+        IntBuffer order = sortOrders[key.ordinal()];
+        Page page = new Page(dates.toEpochSecondRanges(), offset, limit);
+
+        if (!descending) {
+            int i = 0;
+
+            while (i < size && page.add(order.get(i))) {
+                i++;
+            }
+        } else if (key == SortKey.DEPARTURE_STATION
+                || key == SortKey.RETURN_STATION) {
+            int i = size - 1;
+
+            while (i >= 0 && page.add(order.get(i))) {
+                i--;
+            }
+        } else {
+            IntUnaryOperator value = getSortValue(key);
+            int end = size;
+
+            // The runs of the same value are read backwards, each run in
+            // the order of the ids.
+            while (end > 0) {
+                int start = end - 1;
+                int runValue = value.applyAsInt(order.get(start));
+
+                while (start > 0 && value.applyAsInt(order.get(start - 1))
+                        == runValue) {
+                    start--;
+                }
+
+                for (int i = start; i < end; i++) {
+
+                    if (!page.add(order.get(i))) {
+                        return page.getRows();
+                    }
+                }
+                end = start;
+            }
+        }
+
+        return page.getRows();
+    }
+
+    /**
+     * Returns the Journeys of the rows as a List. The BicycleJourney<br/>
+     * objects are created one by one when the List is read.
+     *
+     * @param rows  The rows of the Journeys
+     * @param limit The maximum number of Journeys, or null for all
+     * @return      An unmodifiable List of the Journeys
+     */
+    public List<BicycleJourney> getJourneys(int[] rows, Integer limit) {
+        int count = limit == null ? rows.length
+                : Math.min(rows.length, limit);
+
+        return new JourneyList(rows, count);
+    }
+
+    /**
+     * Finds a Journey by its id.
+     *
+     * @param id The id of the Journey
+     * @return   An Optional Journey, empty if there is no such Journey
+     */
+    public Optional<BicycleJourney> findById(long id) {
+
+        if (id < Integer.MIN_VALUE || id > Integer.MAX_VALUE) {
+            return Optional.empty();
+        }
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            int row = (low + high) >>> 1;
+            int rowId = ids.get(row);
+
+            if (rowId < id) {
+                low = row + 1;
+            } else if (rowId > id) {
+                high = row - 1;
+            } else {
+                return Optional.of(getJourney(row));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Counts the Journeys and sums their distances for the Journeys<br/>
+     * departing from or returning to a Station in the selected dates.
+     *
+     * @param stationId      The Station id (not the real id)
+     * @param returns        True for the Journeys returning to the Station
+     * @param dates          The departure dates of the selected Journeys
+     * @return               The Journey count and the distance sum
+     */
+    public double[] getStationStatistics(String stationId, boolean returns,
+                                         DepartureDateRange dates) {
+
+        double[] statistics = new double[2];
+        Integer code = stationCodes.get(stationId);
+
+        if (code == null) {
+            return statistics;
+        }
+        int[] ranges = dates.toEpochSecondRanges();
+        IntBuffer offsets = returns ? returnStationOffsets
+                : departureStationOffsets;
+        IntBuffer stationRows = returns ? returnStationRows
+                : departureStationRows;
+
+        for (int i = offsets.get(code); i < offsets.get(code + 1); i++) {
+            int row = stationRows.get(i);
+
+            if (ranges == null || isInRanges(departureDates.get(row), ranges)) {
+                statistics[0]++;
+                statistics[1] += coveredDistances.get(row);
+            }
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Counts the Journeys by the other Station for the Journeys departing<br/>
+     * from or returning to a Station in the selected dates.
+     *
+     * @param stationId      The Station id (not the real id)
+     * @param returns        True for the Journeys returning to the Station,
+     *                       counted by their departure Stations
+     * @param dates          The departure dates of the selected Journeys
+     * @return               The Journey counts by the other Station id
+     */
+    public Map<String, Integer> countJourneysByOtherStation(String stationId,
+            boolean returns, DepartureDateRange dates) {
+
+        Map<String, Integer> journeys = new HashMap<>();
+        Integer code = stationCodes.get(stationId);
+
+        if (code == null) {
+            return journeys;
+        }
+        int[] ranges = dates.toEpochSecondRanges();
+        IntBuffer offsets = returns ? returnStationOffsets
+                : departureStationOffsets;
+        IntBuffer stationRows = returns ? returnStationRows
+                : departureStationRows;
+        IntBuffer others = returns ? departureStations : returnStations;
+        int[] counts = new int[stationIds.length];
+
+        for (int i = offsets.get(code); i < offsets.get(code + 1); i++) {
+            int row = stationRows.get(i);
+
+            if (ranges == null || isInRanges(departureDates.get(row), ranges)) {
+                counts[others.get(row)]++;
+            }
+        }
+
+        for (int other = 0; other < counts.length; other++) {
+
+            if (counts[other] > 0) {
+                journeys.put(stationIds[other], counts[other]);
+            }
+        }
+
+        return journeys;
+    }
+
+    /**
+     * Creates the BicycleJourney of a row.
+     *
+     * @param row The row of the Journey
+     * @return    A new BicycleJourney
+     */
+    private BicycleJourney getJourney(int row) {
+        return new BicycleJourney((long) ids.get(row),
+                LocalDateTime.ofEpochSecond(departureDates.get(row), 0,
+                        ZoneOffset.UTC),
+                LocalDateTime.ofEpochSecond(returnDates.get(row), 0,
+                        ZoneOffset.UTC),
+                stationIds[departureStations.get(row)],
+                stationIds[returnStations.get(row)],
+                // The shortest decimal of the float is the imported value.
+                Double.parseDouble(Float.toString(coveredDistances.get(row))),
+                journeyDurations.get(row));
+    }
+
+    /**
+     * Gets the int sort value of the rows for a SortKey. The value of a<br/>
+     * distance has the order of the float distance.
+     *
+     * @param key The SortKey
+     * @return    The sort value of a row
+     */
+    private IntUnaryOperator getSortValue(SortKey key) {
+        return switch (key) {
+            case DEPARTURE_STATION -> row ->
+                    stationNameRanks.get(departureStations.get(row));
+            case RETURN_STATION -> row ->
+                    stationNameRanks.get(returnStations.get(row));
+            case DISTANCE -> row -> {
+                int bits = Float.floatToIntBits(coveredDistances.get(row));
+
+                return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+            };
+            case DURATION -> row -> journeyDurations.get(row);
+        };
+    }
+
+    /**
+     * Maps the Station ids to their codes.
+     *
+     * @param stationIds The Station ids by their codes
+     * @return           The Station codes by the Station ids
+     */
+    private static Map<String, Integer> getStationCodes(String[] stationIds) {
+        Map<String, Integer> codes = new HashMap<>();
+
+        for (int code = 0; code < stationIds.length; code++) {
+
+            if (stationIds[code] != null) {
+                codes.put(stationIds[code], code);
+            }
+        }
+
+        return codes;
+    }
+
+    /**
+     * Sorts rows by an int key and then by the row, which is the order of<br/>
+     * the Journey ids. The key and the row are packed into one long, so<br/>
+     * the rows are sorted as primitives without a Comparator.
+     *
+     * @param rows The rows to sort
+     * @param key  The sort key of a row
+     * @return     The sorted rows
+     */
+    private static int[] sortRows(int[] rows, IntUnaryOperator key) {
+        long[] packed = new long[rows.length];
+
+        for (int i = 0; i < rows.length; i++) {
+            packed[i] = ((long) key.applyAsInt(rows[i]) << 32) | rows[i];
+        }
+        Arrays.parallelSort(packed);
+        int[] sorted = new int[rows.length];
+
+        for (int i = 0; i < packed.length; i++) {
+            sorted[i] = (int) packed[i];
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Groups the rows by a Station column with a counting sort. The rows<br/>
+     * of every Station stay in the order of the Journey ids.
+     *
+     * @param stations The Station codes of the rows
+     * @param offsets  Filled with the first position of every Station code
+     * @return         The rows grouped by the Station code
+     */
+    private static int[] groupRows(int[] stations, int[] offsets) {
+        int[] rows = new int[stations.length];
+
+        for (int station : stations) {
+            offsets[station + 1]++;
+        }
+
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+
+        for (int row = 0; row < stations.length; row++) {
+            rows[next[stations[row]]++] = row;
+        }
+
+        return rows;
+    }
+
+    /**
+     * Tells whether a departure date is in one of the ranges.
+     *
+     * @param departureDate The departure date in epoch seconds
+     * @param ranges        The ranges in epoch seconds
+     * @return              True if the date is in a range
+     */
+    private static boolean isInRanges(int departureDate, int[] ranges) {
+
+        for (int i = 0; i < ranges.length; i += 2) {
+
+            if (departureDate >= ranges[i] && departureDate < ranges[i + 1]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns a date as epoch seconds in an int.
+     *
+     * @param dateTime The date
+     * @return         The epoch seconds of the date as UTC
+     */
+    private static int toEpochSecond(LocalDateTime dateTime) {
+        return Math.toIntExact(dateTime.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    /**
+     * An unmodifiable List creating the BicycleJourney of a row when it<br/>
+     * is read, so a large response never has all its Journeys in memory.
+     */
+    private class JourneyList extends AbstractList<BicycleJourney>
+            implements RandomAccess {
+
+        /**
+         * The rows of the Journeys.
+         */
+        private final int[] rows;
+
+        /**
+         * The number of rows in use.
+         */
+        private final int count;
+
+        /**
+         * A constructor for the JourneyList class.
+         *
+         * @param rows  The rows of the Journeys
+         * @param count The number of rows in use
+         */
+        JourneyList(int[] rows, int count) {
+            this.rows = rows;
+            this.count = count;
+        }
+
+        @Override
+        public BicycleJourney get(int index) {
+            return getJourney(rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    /**
+     * The rows of one page, collected from the rows in the sorted order.
+     */
+    private class Page {
+
+        /**
+         * The departure date ranges as epoch seconds, or null for all<br/>
+         * dates.
+         */
+        private final int[] ranges;
+
+        /**
+         * The number of selected rows skipped before the page.
+         */
+        private final int offset;
+
+        /**
+         * The maximum number of rows of the page.
+         */
+        private final int limit;
+
+        /**
+         * The rows of the page.
+         */
+        private final int[] rows;
+
+        /**
+         * The number of selected rows skipped so far.
+         */
+        private int skipped;
+
+        /**
+         * The number of rows on the page so far.
+         */
+        private int count;
+
+        /**
+         * A constructor for the Page class.
+         *
+         * @param ranges The departure date ranges, or null for all dates
+         * @param offset The number of selected rows skipped
+         * @param limit  The maximum number of rows, or null for no limit
+         */
+        Page(int[] ranges, int offset, Integer limit) {
+            this.ranges = ranges;
+            this.offset = offset;
+            this.limit = limit == null ? Integer.MAX_VALUE : limit;
+            this.rows = new int[Math.min(size, this.limit)];
+        }
+
+        /**
+         * Adds a row if it is in the selected dates and after the offset.
+         *
+         * @param row The next row in the sorted order
+         * @return    False once the page is full
+         */
+        boolean add(int row) {
+
+            if (count == limit) {
+                return false;
+            }
+
+            if (ranges == null || isInRanges(departureDates.get(row), ranges)) {
+
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    rows[count++] = row;
+                }
+            }
+
+            return count < limit;
+        }
+
+        /**
+         * Gets the rows of the page.
+         *
+         * @return The rows, as many as were added
+         */
+        int[] getRows() {
+            return count == rows.length ? rows : Arrays.copyOf(rows, count);
+        }
+    }
+
+    /**
+     * A Builder collecting the Journeys into growing columns, one Journey<br/>
+     * at a time in the order of their ids.
+     */
+    public static class Builder {
+
+        /**
+         * The number of Journeys added.
+         */
+        private int size;
+
+        /**
+         * The Journey ids.
+         */
+        private int[] ids;
+
+        /**
+         * The departure dates as epoch seconds.
+         */
+        private int[] departureDates;
+
+        /**
+         * The return dates as epoch seconds.
+         */
+        private int[] returnDates;
+
+        /**
+         * The departure Station codes.
+         */
+        private int[] departureStations;
+
+        /**
+         * The return Station codes.
+         */
+        private int[] returnStations;
+
+        /**
+         * The covered distances in meters.
+         */
+        private float[] coveredDistances;
+
+        /**
+         * The Journey durations in seconds.
+         */
+        private int[] journeyDurations;
+
+        /**
+         * The Station ids by their codes, set when the columns are built.
+         */
+        private String[] stationIds;
+
+        /**
+         * True as long as the Journeys have been added in the order of<br/>
+         * their ids.
+         */
+        private boolean sorted = true;
+
+        /**
+         * A constructor for the Builder class.
+         *
+         * @param capacity The expected number of Journeys
+         */
+        public Builder(int capacity) {
+            int initial = Math.max(16, capacity);
+            ids = new int[initial];
+            departureDates = new int[initial];
+            returnDates = new int[initial];
+            departureStations = new int[initial];
+            returnStations = new int[initial];
+            coveredDistances = new float[initial];
+            journeyDurations = new int[initial];
+        }
+
+        /**
+         * Adds one Journey. The Journeys may be added in any order, as<br/>
+         * they are sorted by their ids when the columns are built.
+         *
+         * @param id                 The id of the Journey
+         * @param departureDate      The departure date
+         * @param returnDate         The return date
+         * @param departureStation   The departure Station code, or a
+         *                           negative code without a Station id
+         * @param returnStation      The return Station code, or a negative
+         *                           code without a Station id
+         * @param coveredDistance    The covered distance in meters
+         * @param journeyDuration    The Journey duration in seconds
+         */
+        public void add(long id, LocalDateTime departureDate,
+                        LocalDateTime returnDate, int departureStation,
+                        int returnStation, double coveredDistance,
+                        int journeyDuration) {
+
+            if (size == ids.length) {
+                resize(size * 2);
+            }
+
+            if (size > 0 && id <= ids[size - 1]) {
+                sorted = false;
+            }
+            ids[size] = Math.toIntExact(id);
+            departureDates[size] = toEpochSecond(departureDate);
+            returnDates[size] = toEpochSecond(returnDate);
+            departureStations[size] = departureStation;
+            returnStations[size] = returnStation;
+            coveredDistances[size] = (float) coveredDistance;
+            journeyDurations[size] = journeyDuration;
+            size++;
+        }
+
+        /**
+         * Builds the columns, after which the Builder must not be used.<br/>
+         * The Station names are ranked for sorting by the Station name and<br/>
+         * a Station missing from the names ranks first. The Journeys<br/>
+         * without a Station id get the extra code after the Station codes.
+         *
+         * @param stationIds   The Station ids by their codes
+         * @param stationNames The Station names by the Station ids
+         * @return             The immutable JourneyColumns
+         */
+        public JourneyColumns build(String[] stationIds,
+                                    Map<String, String> stationNames) {
+
+            if (!sorted) {
+                sortByIds();
+            }
+            this.stationIds = Arrays.copyOf(stationIds, stationIds.length + 1);
+            String[] names = new String[this.stationIds.length];
+
+            for (int code = 0; code < stationIds.length; code++) {
+                names[code] = stationIds[code] == null ? null
+                        : stationNames.get(stationIds[code]);
+            }
+
+            for (int row = 0; row < size; row++) {
+                departureStations[row] = getStationCode(departureStations[row]);
+                returnStations[row] = getStationCode(returnStations[row]);
+            }
+            Integer[] codes = new Integer[names.length];
+
+            for (int code = 0; code < codes.length; code++) {
+                codes[code] = code;
+            }
+            Arrays.sort(codes, Comparator.comparing(code -> names[code],
+                    Comparator.nullsFirst(Comparator.naturalOrder())));
+            int[] ranks = new int[names.length];
+            String previous = null;
+            int rank = 0;
+
+            for (int code : codes) {
+
+                if (names[code] != null && !names[code].equals(previous)) {
+                    previous = names[code];
+                    rank++;
+                }
+                ranks[code] = names[code] == null ? 0 : rank;
+            }
+
+            if (ids.length != size) {
+                resize(size);
+            }
+
+            return new JourneyColumns(this, ranks);
+        }
+
+        private void sortByIds() {
+            // The id and the row are packed into one long, so the rows are
+            // sorted without boxing.
+            long[] keys = new long[size];
+
+            for (int row = 0; row < size; row++) {
+                keys[row] = ((long) ids[row] << 32) | row;
+            }
+            Arrays.sort(keys);
+            int[] rows = new int[size];
+
+            for (int i = 0; i < size; i++) {
+                rows[i] = (int) keys[i];
+
+                if (i > 0 && (int) (keys[i] >> 32)
+                        == (int) (keys[i - 1] >> 32)) {
+                    throw new IllegalArgumentException("Journey "
+                            + (keys[i] >> 32) + " is added twice");
+                }
+            }
+            int[] sortedIds = new int[size];
+            int[] sortedDepartureDates = new int[size];
+            int[] sortedReturnDates = new int[size];
+            int[] sortedDepartureStations = new int[size];
+            int[] sortedReturnStations = new int[size];
+            float[] sortedDistances = new float[size];
+            int[] sortedDurations = new int[size];
+
+            for (int i = 0; i < size; i++) {
+                int row = rows[i];
+                sortedIds[i] = ids[row];
+                sortedDepartureDates[i] = departureDates[row];
+                sortedReturnDates[i] = returnDates[row];
+                sortedDepartureStations[i] = departureStations[row];
+                sortedReturnStations[i] = returnStations[row];
+                sortedDistances[i] = coveredDistances[row];
+                sortedDurations[i] = journeyDurations[row];
+            }
+            ids = sortedIds;
+            departureDates = sortedDepartureDates;
+            returnDates = sortedReturnDates;
+            departureStations = sortedDepartureStations;
+            returnStations = sortedReturnStations;
+            coveredDistances = sortedDistances;
+            journeyDurations = sortedDurations;
+            sorted = true;
+        }
+
+        private int getStationCode(int code) {
+            return code < 0 || code >= stationIds.length - 1
+                    ? stationIds.length - 1 : code;
+        }
+
+        private void resize(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            departureDates = Arrays.copyOf(departureDates, capacity);
+            returnDates = Arrays.copyOf(returnDates, capacity);
+            departureStations = Arrays.copyOf(departureStations, capacity);
+            returnStations = Arrays.copyOf(returnStations, capacity);
+            coveredDistances = Arrays.copyOf(coveredDistances, capacity);
+            journeyDurations = Arrays.copyOf(journeyDurations, capacity);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package fi.tuni.olvander.citybicyclejourneys.columns;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>A versioned binary snapshot of the JourneyColumns. The snapshot is<br/>
+ * written after the columns have been loaded from the database, and at<br/>
+ * the next start the columns are read from the memory-mapped snapshot<br/>
+ * instead, so no row is read from the database, parsed or sorted and the<br/>
+ * columns are not copied into the heap.</p>
+ *
+ * <p>The snapshot starts with a header having the format, the dataset<br/>
+ * version the columns were loaded from, the number of Journeys, the<br/>
+ * Station ids by their codes and the length of every buffer. The buffers<br/>
+ * follow in the order of JourneyColumns.getBuffers, every buffer as<br/>
+ * little-endian 32 bit values starting at a multiple of 8 bytes. A<br/>
+ * snapshot of another format or dataset version is not read.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public final class JourneySnapshot {
+
+    /**
+     * The first bytes of a snapshot, CBJS in ASCII.
+     */
+    private static final int MAGIC = 0x43424A53;
+
+    /**
+     * The format of the snapshot, changed whenever the layout changes.
+     */
+    private static final int FORMAT = 1;
+
+    /**
+     * The byte order of the header and the buffers.
+     */
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * The size of the buffer the columns are written through.
+     */
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * A private constructor, the class only has static methods.
+     */
+    private JourneySnapshot() {}
+
+    /**
+     * Writes the columns into a snapshot. The snapshot is written into a<br/>
+     * temporary file first and then moved over the old one, so a reader<br/>
+     * never sees a partial snapshot.
+     *
+     * @param columns      The columns
+     * @param version      The dataset version the columns were loaded from
+     * @param file         The snapshot file
+     * @throws IOException Throws this if the snapshot cannot be written
+     */
+    public static void write(JourneyColumns columns, String version,
+            Path file) throws IOException {
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory,
+                file.getFileName().toString(), ".tmp");
+
+        try {
+            Buffer[] buffers = columns.getBuffers();
+
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.WRITE)) {
+
+                writeFully(channel, getHeader(columns, version, buffers));
+
+                for (Buffer buffer : buffers) {
+                    writeBuffer(channel, buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads the columns from a snapshot by mapping its buffers into<br/>
+     * memory. The mapped buffers stay valid after the file is closed or<br/>
+     * replaced by a new snapshot.
+     *
+     * @param file         The snapshot file
+     * @param version      The current dataset version
+     * @return             The columns, or null if there is no snapshot of
+     *                     the current format and dataset version
+     * @throws IOException Throws this if the snapshot cannot be read
+     */
+    public static JourneyColumns map(Path file, String version)
+            throws IOException {
+
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+
+            ByteBuffer start = read(channel, 0, 12);
+
+            if (start == null || start.getInt() != MAGIC
+                    || start.getInt() != FORMAT) {
+                return null;
+            }
+            ByteBuffer header = read(channel, 0, start.getInt());
+
+            if (header == null) {
+                return null;
+            }
+            header.position(12);
+
+            try {
+                return map(channel, header, version);
+            } catch (BufferUnderflowException | IllegalArgumentException
+                    | NegativeArraySizeException e) {
+                // The header is cut short or has a negative length.
+                return null;
+            }
+        }
+    }
+
+    /**
+     * A helper method for mapping the buffers of a snapshot whose header<br/>
+     * has been read up to the dataset version.
+     *
+     * @param channel      The channel of the snapshot
+     * @param header       The header, positioned at the dataset version
+     * @param version      The current dataset version
+     * @return             The columns, or null if the snapshot is of
+     *                     another dataset version or cut short
+     * @throws IOException Throws this if the snapshot cannot be mapped
+     */
+    private static JourneyColumns map(FileChannel channel, ByteBuffer header,
+            String version) throws IOException {
+
+        if (!version.equals(getString(header))) {
+            return null;
+        }
+        int size = header.getInt();
+        String[] stationIds = new String[header.getInt()];
+
+        for (int code = 0; code < stationIds.length; code++) {
+            stationIds[code] = getString(header);
+        }
+        Buffer[] buffers = new Buffer[header.getInt()];
+
+        if (buffers.length != JourneyColumns.BUFFERS) {
+            return null;
+        }
+        long offset = align(header.limit());
+
+        for (int i = 0; i < buffers.length; i++) {
+            long length = header.getInt();
+
+            if (length < 0 || offset + 4 * length > channel.size()) {
+                return null;
+            }
+            MappedByteBuffer mapped = channel.map(
+                    FileChannel.MapMode.READ_ONLY, offset, 4 * length);
+            mapped.order(ORDER);
+            buffers[i] = i == JourneyColumns.DISTANCE_BUFFER
+                    ? mapped.asFloatBuffer() : mapped.asIntBuffer();
+            offset = align(offset + 4 * length);
+        }
+
+        return new JourneyColumns(size, stationIds, buffers);
+    }
+
+    /**
+     * A helper method for creating the header of a snapshot.
+     *
+     * @param columns The columns
+     * @param version The dataset version the columns were loaded from
+     * @param buffers The buffers of the columns
+     * @return        The header, ready to be written
+     */
+    private static ByteBuffer getHeader(JourneyColumns columns,
+            String version, Buffer[] buffers) {
+
+        String[] stationIds = columns.getStationIds();
+        int length = 12 + getLength(version) + 8 + 4 + 4 * buffers.length;
+
+        for (String stationId : stationIds) {
+            length += getLength(stationId);
+        }
+        ByteBuffer header = ByteBuffer.allocate((int) align(length))
+                .order(ORDER);
+        header.putInt(MAGIC).putInt(FORMAT).putInt(length);
+        putString(header, version);
+        header.putInt(columns.size()).putInt(stationIds.length);
+
+        for (String stationId : stationIds) {
+            putString(header, stationId);
+        }
+        header.putInt(buffers.length);
+
+        for (Buffer buffer : buffers) {
+            header.putInt(buffer.remaining());
+        }
+        header.position(0);
+
+        return header;
+    }
+
+    /**
+     * A helper method for writing the values of an int or float buffer<br/>
+     * followed by the padding to the next multiple of 8 bytes.
+     *
+     * @param channel      The channel of the snapshot
+     * @param buffer       The buffer, read from its position
+     * @throws IOException Throws this if the buffer cannot be written
+     */
+    private static void writeBuffer(FileChannel channel, Buffer buffer)
+            throws IOException {
+
+        ByteBuffer bytes = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE)
+                .order(ORDER);
+        int length = buffer.remaining();
+
+        while (buffer.hasRemaining()) {
+            int count = Math.min(buffer.remaining(), WRITE_BUFFER_SIZE / 4);
+            bytes.clear();
+
+            if (buffer instanceof FloatBuffer floats) {
+                bytes.asFloatBuffer().put(floats.slice(floats.position(),
+                        count));
+            } else {
+                IntBuffer ints = (IntBuffer) buffer;
+                bytes.asIntBuffer().put(ints.slice(ints.position(), count));
+            }
+            buffer.position(buffer.position() + count);
+            bytes.limit(4 * count);
+            writeFully(channel, bytes);
+        }
+
+        if (length % 2 != 0) {
+            writeFully(channel, ByteBuffer.allocate(4));
+        }
+    }
+
+    /**
+     * A helper method for writing all the remaining bytes of a buffer.
+     *
+     * @param channel      The channel of the snapshot
+     * @param bytes        The bytes
+     * @throws IOException Throws this if the bytes cannot be written
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer bytes)
+            throws IOException {
+
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * A helper method for reading bytes from a position of a channel.
+     *
+     * @param channel      The channel of the snapshot
+     * @param position     The position of the first byte
+     * @param length       The number of bytes
+     * @return             The bytes, or null if the file is too short
+     * @throws IOException Throws this if the bytes cannot be read
+     */
+    private static ByteBuffer read(FileChannel channel, long position,
+            int length) throws IOException {
+
+        if (length < 0 || position + length > channel.size()) {
+            return null;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(length).order(ORDER);
+
+        while (bytes.hasRemaining()) {
+
+            if (channel.read(bytes, position + bytes.position()) < 0) {
+                return null;
+            }
+        }
+
+        return bytes.flip();
+    }
+
+    /**
+     * A helper method for getting the length of a String in the header.
+     *
+     * @param value The String, or null
+     * @return      The number of bytes of its length and UTF-8 bytes
+     */
+    private static int getLength(String value) {
+        return 4 + (value == null ? 0
+                : value.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * A helper method for putting a String into the header as its length<br/>
+     * and its UTF-8 bytes, a null as the length -1.
+     *
+     * @param header The header
+     * @param value  The String, or null
+     */
+    private static void putString(ByteBuffer header, String value) {
+
+        if (value == null) {
+            header.putInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            header.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    /**
+     * A helper method for getting a String put by putString.
+     *
+     * @param header The header
+     * @return       The String, or null
+     */
+    private static String getString(ByteBuffer header) {
+        int length = header.getInt();
+
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        header.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A helper method for rounding a position up to a multiple of 8.
+     *
+     * @param position The position
+     * @return         The aligned position
+     */
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
@@ -0,0 +1,36 @@
+package fi.tuni.olvander.citybicyclejourneys.exceptions;
+
+/**
+ * This class is for Exceptions where a request has a month or a date<br/>
+ * that cannot be used for selecting the Bicycle Journeys, for example<br/>
+ * month 13 or a malformed date.
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class InvalidDateRangeException extends IllegalArgumentException {
+
+    /**
+     * A final parameter value that could not be used.
+     */
+    private final String value;
+
+    /**
+     * A constructor for saving the parameter value that cannot be used.
+     *
+     * @param value The parameter value that cannot be used
+     */
+    public InvalidDateRangeException(String value) {
+        this.value = value;
+    }
+
+    /**
+     * A getter method for the parameter value.
+     *
+     * @return The parameter value that could not be used
+     */
+    public String getValue() {
+        return value;
+    }
+}
@@ -81,4 +81,46 @@ public class ResponseEntityExceptionHandler {
         return new ResponseEntity<>(exceptionInfo, headers,
                 HttpStatus.NOT_FOUND);
     }
+
+    /**
+     * An exception handler method for paginated requests having a cursor<br/>
+     * or a sort parameter that cannot be used.
+     *
+     * @param  exception An exception stating that a parameter is invalid
+     * @return           A Response Entity with exception information and a<br/>
+     *                   BAD_REQUEST HttpStatus.
+     */
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<ExceptionInfo> returnPageRequestException(
+            InvalidPageRequestException exception) {
+
+        ExceptionInfo exceptionInfo = new ExceptionInfo(
+                "Cannot use the page parameter " + exception.getValue());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccessControlAllowOrigin("*");
+
+        return new ResponseEntity<>(exceptionInfo, headers,
+                HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * An exception handler method for requests having a month or a date<br/>
+     * that cannot be used.
+     *
+     * @param  exception An exception stating that a date is invalid
+     * @return           A Response Entity with exception information and a<br/>
+     *                   BAD_REQUEST HttpStatus.
+     */
+    @ExceptionHandler(InvalidDateRangeException.class)
+    public ResponseEntity<ExceptionInfo> returnDateRangeException(
+            InvalidDateRangeException exception) {
+
+        ExceptionInfo exceptionInfo = new ExceptionInfo(
+                "Cannot use the date parameter " + exception.getValue());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccessControlAllowOrigin("*");
+
+        return new ResponseEntity<>(exceptionInfo, headers,
+                HttpStatus.BAD_REQUEST);
+    }
 }
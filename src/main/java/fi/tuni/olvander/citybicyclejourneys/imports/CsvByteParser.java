@@ -0,0 +1,412 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <p>A streaming CSV parser working directly on bytes. The parser walks<br/>
+ * the rows of a byte array region and remembers where each field of the<br/>
+ * current row starts and ends, so that integers, doubles and timestamps<br/>
+ * can be decoded without creating intermediate Strings.</p>
+ *
+ * <p>Quoted fields are supported. Doubled quotes inside a quoted field are<br/>
+ * unescaped in place, so the parser may modify the given byte array.</p>
+ *
+ * <p>An instance is not thread-safe, but it is cheap to create one per<br/>
+ * chunk of rows.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class CsvByteParser {
+
+    /**
+     * The number of days from 0000-03-01 to 1970-01-01.
+     */
+    private static final long DAYS_0000_TO_1970 = 719_468;
+
+    /**
+     * Exact double powers of ten used for fast double decoding.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * The bytes being parsed.
+     */
+    private final byte[] data;
+
+    /**
+     * The position of the next row in the data.
+     */
+    private int position;
+
+    /**
+     * The end (exclusive) of the parsed region of the data.
+     */
+    private final int limit;
+
+    /**
+     * The start positions of the fields of the current row.
+     */
+    private int[] fieldStart = new int[16];
+
+    /**
+     * The end positions (exclusive) of the fields of the current row.
+     */
+    private int[] fieldEnd = new int[16];
+
+    /**
+     * The number of fields in the current row.
+     */
+    private int fieldCount;
+
+    /**
+     * A constructor for parsing the rows of a byte array region.
+     *
+     * @param data The bytes to be parsed
+     * @param from The start of the region (inclusive)
+     * @param to   The end of the region (exclusive)
+     */
+    public CsvByteParser(byte[] data, int from, int to) {
+        this.data = data;
+        this.position = from;
+        this.limit = to;
+    }
+
+    /**
+     * Moves to the next non-empty row.
+     *
+     * @return True if there was a row, false at the end of the region
+     */
+    public boolean nextRow() {
+
+        while (position < limit) {
+            fieldCount = 0;
+
+            if (data[position] == '\n' || data[position] == '\r') {
+                position++;
+                continue;
+            }
+
+            while (true) {
+                int end = position < limit && data[position] == '"'
+                        ? readQuotedField() : readField();
+
+                if (position >= limit || data[position] == '\n'
+                        || data[position] == '\r') {
+
+                    addField(fieldStart[fieldCount], end);
+                    break;
+                }
+                addField(fieldStart[fieldCount], end);
+                // Skips the comma between two fields.
+                position++;
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Reads an unquoted field starting at the current position.
+     *
+     * @return The end (exclusive) of the field
+     */
+    private int readField() {
+        ensureFieldCapacity();
+        fieldStart[fieldCount] = position;
+
+        while (position < limit) {
+            byte b = data[position];
+
+            if (b == ',' || b == '\n' || b == '\r') {
+                break;
+            }
+            position++;
+        }
+
+        return position;
+    }
+
+    /**
+     * Reads a quoted field starting at the current position and unescapes<br/>
+     * the doubled quotes inside it in place.
+     *
+     * @return The end (exclusive) of the unquoted field content
+     */
+    private int readQuotedField() {
+        ensureFieldCapacity();
+        position++;
+        fieldStart[fieldCount] = position;
+        int write = position;
+
+        while (position < limit) {
+            byte b = data[position];
+
+            if (b == '"') {
+
+                if (position + 1 < limit && data[position + 1] == '"') {
+                    data[write++] = '"';
+                    position += 2;
+                    continue;
+                }
+                position++;
+                break;
+            }
+            data[write++] = b;
+            position++;
+        }
+
+        // Skips anything between the closing quote and the next separator.
+        while (position < limit && data[position] != ','
+                && data[position] != '\n' && data[position] != '\r') {
+            position++;
+        }
+
+        return write;
+    }
+
+    /**
+     * Grows the field position arrays when a row has many fields.
+     */
+    private void ensureFieldCapacity() {
+
+        if (fieldCount == fieldStart.length) {
+            fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+            fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+        }
+    }
+
+    /**
+     * Stores the bounds of a field of the current row.
+     *
+     * @param start The start of the field (inclusive)
+     * @param end   The end of the field (exclusive)
+     */
+    private void addField(int start, int end) {
+        fieldStart[fieldCount] = start;
+        fieldEnd[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * Gets the number of fields in the current row.
+     *
+     * @return The number of fields (an int)
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Gets the start position of a field in the data.
+     *
+     * @param field The zero-based field index
+     * @return      The start of the field (inclusive)
+     */
+    public int getFieldStart(int field) {
+        return fieldStart[field];
+    }
+
+    /**
+     * Gets the length of a field in bytes.
+     *
+     * @param field The zero-based field index
+     * @return      The length of the field (an int)
+     */
+    public int getFieldLength(int field) {
+        return fieldEnd[field] - fieldStart[field];
+    }
+
+    /**
+     * Gets the bytes being parsed.
+     *
+     * @return The data of the parser
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * Returns a field as a UTF-8 String. Allocates, so it is meant for<br/>
+     * text columns only.
+     *
+     * @param field The zero-based field index
+     * @return      The field as a String
+     */
+    public String getString(int field) {
+        return new String(data, fieldStart[field], getFieldLength(field),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a field as an int. A fraction, if any, is truncated.
+     *
+     * @param field The zero-based field index
+     * @return      The field as an int
+     * @throws NumberFormatException If the field is not a number
+     */
+    public int parseInt(int field) {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        boolean negative = i < end && data[i] == '-';
+
+        if (negative || (i < end && data[i] == '+')) {
+            i++;
+        }
+
+        if (i >= end) {
+            throw new NumberFormatException("Empty integer field");
+        }
+        long value = 0;
+
+        for (; i < end && data[i] != '.'; i++) {
+            int digit = data[i] - '0';
+
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                throw new NumberFormatException(getString(field));
+            }
+            value = value * 10 + digit;
+        }
+
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Decodes a field as a double. Plain decimal numbers with at most 15<br/>
+     * significant digits are decoded directly from the bytes, and other<br/>
+     * numbers fall back to Double.parseDouble().
+     *
+     * @param field The zero-based field index
+     * @return      The field as a double
+     * @throws NumberFormatException If the field is not a number
+     */
+    public double parseDouble(int field) {
+        int i = fieldStart[field];
+        int end = fieldEnd[field];
+        boolean negative = i < end && data[i] == '-';
+
+        if (negative || (i < end && data[i] == '+')) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+
+        for (; i < end; i++) {
+            byte b = data[i];
+
+            if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else {
+                break;
+            }
+        }
+
+        if (i < end || digits == 0 || digits > 15) {
+            return Double.parseDouble(getString(field).trim());
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Decodes an ISO-8601 local date time field, e.g. 2021-05-31T23:57:25,<br/>
+     * into seconds since 1970-01-01T00:00 without a time zone. A field with<br/>
+     * a date only is decoded as the start of the day and the seconds may<br/>
+     * be left out.
+     *
+     * @param field The zero-based field index
+     * @return      The seconds since the epoch (a long)
+     * @throws NumberFormatException If the field is not a date time
+     */
+    public long parseEpochSecond(int field) {
+        int i = fieldStart[field];
+        int length = getFieldLength(field);
+
+        if (length < 10 || data[i + 4] != '-' || data[i + 7] != '-') {
+            throw new NumberFormatException(getString(field));
+        }
+        int year = digits(i, 4);
+        int month = digits(i + 5, 2);
+        int day = digits(i + 8, 2);
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+
+        if (length >= 16 && data[i + 10] == 'T') {
+            hour = digits(i + 11, 2);
+            minute = digits(i + 14, 2);
+
+            if (length >= 19) {
+                second = digits(i + 17, 2);
+            }
+        }
+
+        if (month < 1 || month > 12 || day < 1 || day > 31 || hour > 23
+                || minute > 59 || second > 59) {
+            throw new NumberFormatException(getString(field));
+        }
+
+        return epochDay(year, month, day) * 86_400L + hour * 3_600L
+                + minute * 60L + second;
+    }
+
+    /**
+     * Decodes a fixed number of ASCII digits.
+     *
+     * @param from  The position of the first digit
+     * @param count The number of digits
+     * @return      The decoded value (an int)
+     */
+    private int digits(int from, int count) {
+        int value = 0;
+
+        for (int i = from; i < from + count; i++) {
+            int digit = data[i] - '0';
+
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Not a digit at " + i);
+            }
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the number of days since 1970-01-01 of a proleptic<br/>
+     * Gregorian calendar date.
+     *
+     * @param year  The year
+     * @param month The month (1 - 12)
+     * @param day   The day of the month (1 - 31)
+     * @return      The epoch day (a long)
+     */
+    public static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        int shiftedMonth = month > 2 ? month - 3 : month + 9;
+        long dayOfYear = (153L * shiftedMonth + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100
+                + dayOfYear;
+
+        return era * 146_097 + dayOfEra - DAYS_0000_TO_1970;
+    }
+}
@@ -0,0 +1,246 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * <p>A reader class that reads a CSV file through a FileChannel and splits<br/>
+ * it into chunks of whole rows. Each chunk is a byte array of its own, so<br/>
+ * the chunks can be parsed by other threads with a CsvByteParser.</p>
+ *
+ * <p>The header row of the file is skipped. Line breaks inside quoted<br/>
+ * fields do not split rows. A reader may also read only the rows between<br/>
+ * two offsets of the file, which must be at the start of a row, to<br/>
+ * resume an interrupted import.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class CsvChunkReader implements Closeable {
+
+    /**
+     * A chunk of whole CSV rows and its position in the file.
+     *
+     * @param data        The bytes of the rows
+     * @param startOffset The file offset of the first byte of the chunk,
+     *                    or 0 for the first chunk after the header row
+     * @param endOffset   The file offset after the last byte of the chunk
+     * @param rows        The number of rows in the chunk
+     */
+    public record Chunk(byte[] data, long startOffset, long endOffset,
+                        int rows) {}
+
+    /**
+     * The size of one read from the FileChannel.
+     */
+    private static final int READ_SIZE = 1 << 20;
+
+    /**
+     * The channel of the CSV file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The maximum number of rows in one chunk.
+     */
+    private final int rowsPerChunk;
+
+    /**
+     * The file offset where the reading stops.
+     */
+    private final long endOffset;
+
+    /**
+     * The bytes read from the file but not yet returned in a chunk.
+     */
+    private byte[] buffer = new byte[READ_SIZE * 2];
+
+    /**
+     * The number of valid bytes in the buffer.
+     */
+    private int length;
+
+    /**
+     * The file offset of the first byte in the buffer.
+     */
+    private long bufferOffset;
+
+    /**
+     * True when the end of the file has been reached.
+     */
+    private boolean endOfFile;
+
+    /**
+     * True until the header row has been skipped.
+     */
+    private boolean header;
+
+    /**
+     * A constructor opening a CSV file for reading from its beginning.
+     *
+     * @param file         The path of the CSV file
+     * @param rowsPerChunk The maximum number of rows in one chunk
+     * @throws IOException Throws this if the file cannot be opened
+     */
+    public CsvChunkReader(Path file, int rowsPerChunk) throws IOException {
+        this(file, rowsPerChunk, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * A constructor opening a CSV file for reading the rows between two<br/>
+     * offsets. The header row is skipped only when reading from the<br/>
+     * beginning of the file.
+     *
+     * @param file         The path of the CSV file
+     * @param rowsPerChunk The maximum number of rows in one chunk
+     * @param startOffset  The offset of the first row read
+     * @param endOffset    The offset after the last row read
+     * @throws IOException Throws this if the file cannot be opened
+     */
+    public CsvChunkReader(Path file, int rowsPerChunk, long startOffset,
+                          long endOffset) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.rowsPerChunk = Math.max(1, rowsPerChunk);
+        this.endOffset = endOffset;
+        this.header = startOffset == 0;
+        this.bufferOffset = startOffset;
+        channel.position(startOffset);
+    }
+
+    /**
+     * Reads the next chunk of rows.
+     *
+     * @return             The next chunk, or null at the end of the file
+     * @throws IOException Throws this if the file cannot be read
+     */
+    public Chunk next() throws IOException {
+        long startOffset = bufferOffset;
+
+        if (header) {
+            header = false;
+            skipRows(1);
+        }
+        int position = 0;
+        int rows = 0;
+        boolean quoted = false;
+
+        while (rows < rowsPerChunk) {
+
+            if (position == length) {
+
+                if (!fill()) {
+                    break;
+                }
+                continue;
+            }
+            byte b = buffer[position++];
+
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                rows++;
+            }
+        }
+
+        if (position == 0) {
+            return null;
+        }
+
+        if (endOfFile && position == length && buffer[position - 1] != '\n') {
+            // The last row of the file has no line break.
+            rows++;
+        }
+        Chunk chunk = new Chunk(Arrays.copyOf(buffer, position),
+                startOffset, bufferOffset + position, rows);
+        consume(position);
+
+        return chunk;
+    }
+
+    /**
+     * Skips whole rows at the current position.
+     *
+     * @param count        The number of rows to be skipped
+     * @throws IOException Throws this if the file cannot be read
+     */
+    private void skipRows(int count) throws IOException {
+        int position = 0;
+        int rows = 0;
+        boolean quoted = false;
+
+        while (rows < count) {
+
+            if (position == length) {
+
+                if (!fill()) {
+                    break;
+                }
+                continue;
+            }
+            byte b = buffer[position++];
+
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                rows++;
+            }
+        }
+        consume(position);
+    }
+
+    /**
+     * Reads more bytes from the file after the valid bytes in the buffer.
+     *
+     * @return             False if the end of the file was reached
+     * @throws IOException Throws this if the file cannot be read
+     */
+    private boolean fill() throws IOException {
+
+        if (endOfFile) {
+            return false;
+        }
+
+        if (buffer.length - length < READ_SIZE) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        long remaining = endOffset - (bufferOffset + length);
+        int read = remaining <= 0 ? -1 : channel.read(ByteBuffer.wrap(buffer,
+                length, (int) Math.min(READ_SIZE, remaining)));
+
+        if (read < 0) {
+            endOfFile = true;
+
+            return false;
+        }
+        length += read;
+
+        return true;
+    }
+
+    /**
+     * Drops the bytes before a position from the buffer.
+     *
+     * @param position The number of bytes to be dropped
+     */
+    private void consume(int position) {
+        System.arraycopy(buffer, position, buffer, 0, length - position);
+        length -= position;
+        bufferOffset += position;
+    }
+
+    /**
+     * Closes the FileChannel of the CSV file.
+     *
+     * @throws IOException Throws this if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,220 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import fi.tuni.olvander.citybicyclejourneys.stations.Station;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>A parser class for the HSL City Bicycle Journey and Station CSV<br/>
+ * layouts. Works on bytes with a CsvByteParser, so dates, durations and<br/>
+ * distances are decoded without intermediate Strings. The Station ids of<br/>
+ * the Journeys are interned, so every distinct Station id becomes one<br/>
+ * String per parser.</p>
+ *
+ * <p>The Journey columns are: departure, return, departure station id,<br/>
+ * departure station name, return station id, return station name,<br/>
+ * covered distance (m) and duration (sec.).</p>
+ *
+ * <p>An instance is not thread-safe, so each parser worker has its own.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class HslCsvParser {
+
+    /**
+     * The interned Station id bytes, an open addressing hash table.
+     */
+    private byte[][] internedBytes = new byte[1024][];
+
+    /**
+     * The interned Station id Strings matching the interned bytes.
+     */
+    private String[] internedIds = new String[1024];
+
+    /**
+     * The number of interned Station ids.
+     */
+    private int internedCount;
+
+    /**
+     * The number of rows skipped because they could not be parsed.
+     */
+    private long invalidRows;
+
+    /**
+     * A default constructor for the HslCsvParser class.
+     */
+    public HslCsvParser() {}
+
+    /**
+     * Parses the Journey rows of a chunk into a batch of primitive<br/>
+     * columns. Excludes the Bicycle Journeys having a distance or a<br/>
+     * duration less than 10 meters or seconds and the rows that cannot be<br/>
+     * parsed.
+     *
+     * @param file  The name of the file the chunk was read from
+     * @param chunk The chunk of whole Journey rows
+     * @return      A batch with the valid Journeys of the chunk
+     */
+    public JourneyBatch parseJourneys(String file, CsvChunkReader.Chunk chunk) {
+        JourneyBatch batch = new JourneyBatch(file, chunk.startOffset(),
+                chunk.endOffset(), chunk.rows());
+        CsvByteParser csv = new CsvByteParser(chunk.data(), 0,
+                chunk.data().length);
+
+        while (csv.nextRow()) {
+
+            if (csv.getFieldCount() < 8) {
+                invalidRows++;
+                continue;
+            }
+
+            try {
+                double distance = csv.parseDouble(6);
+                int duration = csv.parseInt(7);
+
+                if (distance >= JourneyRowParser.MIN_DISTANCE
+                        && duration >= JourneyRowParser.MIN_DURATION) {
+
+                    batch.add(csv.parseEpochSecond(0),
+                            csv.parseEpochSecond(1), intern(csv, 2),
+                            intern(csv, 4), distance, duration);
+                }
+            } catch (NumberFormatException e) {
+                invalidRows++;
+            }
+        }
+
+        return batch;
+    }
+
+    /**
+     * Parses all the Stations of a Station CSV file. Removes possible<br/>
+     * commas and the text after the commas in Station names for a<br/>
+     * cleaner look.
+     *
+     * @param file         The path of the Station CSV file
+     * @return             A List of the parsed Stations
+     * @throws IOException Throws this if the file cannot be read
+     */
+    public List<Station> parseStations(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        CsvByteParser csv = new CsvByteParser(data, 0, data.length);
+        ArrayList<Station> stations = new ArrayList<>();
+
+        // Skips the header row.
+        csv.nextRow();
+
+        while (csv.nextRow()) {
+
+            if (csv.getFieldCount() < 13) {
+                invalidRows++;
+                continue;
+            }
+
+            try {
+                String name = csv.getString(2);
+
+                if (name.contains(",")) {
+                    name = name.substring(0, name.indexOf(","));
+                }
+                stations.add(new Station(csv.getString(1), name,
+                        csv.getString(5), csv.parseDouble(11),
+                        csv.parseDouble(12)));
+            } catch (NumberFormatException e) {
+                invalidRows++;
+            }
+        }
+
+        return stations;
+    }
+
+    /**
+     * Gets the number of rows skipped because they could not be parsed.
+     *
+     * @return The number of invalid rows (a long)
+     */
+    public long getInvalidRows() {
+        return invalidRows;
+    }
+
+    /**
+     * Returns the interned String of a field, creating a String only the<br/>
+     * first time the bytes of the field are seen.
+     *
+     * @param csv   The parser positioned at the row
+     * @param field The zero-based field index
+     * @return      The interned field value
+     */
+    private String intern(CsvByteParser csv, int field) {
+        byte[] data = csv.getData();
+        int start = csv.getFieldStart(field);
+        int length = csv.getFieldLength(field);
+        int hash = 1;
+
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + data[i];
+        }
+        int mask = internedBytes.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+
+        while (internedBytes[slot] != null) {
+            byte[] candidate = internedBytes[slot];
+
+            if (Arrays.equals(candidate, 0, candidate.length, data, start,
+                    start + length)) {
+
+                return internedIds[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        byte[] bytes = Arrays.copyOfRange(data, start, start + length);
+        String id = new String(bytes, StandardCharsets.UTF_8);
+        internedBytes[slot] = bytes;
+        internedIds[slot] = id;
+        internedCount++;
+
+        if (internedCount * 2 > internedBytes.length) {
+            rehash();
+        }
+
+        return id;
+    }
+
+    /**
+     * Doubles the size of the interned Station id hash table.
+     */
+    private void rehash() {
+        byte[][] oldBytes = internedBytes;
+        String[] oldIds = internedIds;
+        internedBytes = new byte[oldBytes.length * 2][];
+        internedIds = new String[oldIds.length * 2];
+        int mask = internedBytes.length - 1;
+
+        for (int i = 0; i < oldBytes.length; i++) {
+
+            if (oldBytes[i] != null) {
+                int hash = 1;
+
+                for (byte b : oldBytes[i]) {
+                    hash = 31 * hash + b;
+                }
+                int slot = (hash ^ (hash >>> 16)) & mask;
+
+                while (internedBytes[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                internedBytes[slot] = oldBytes[i];
+                internedIds[slot] = oldIds[i];
+            }
+        }
+    }
+}
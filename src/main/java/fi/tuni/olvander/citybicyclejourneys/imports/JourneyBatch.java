@@ -0,0 +1,259 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A batch of parsed Bicycle Journeys stored in primitive columns instead<br/>
+ * of BicycleJourney objects. The departure and return dates are seconds<br/>
+ * since 1970-01-01T00:00 in local time, without a time zone.
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class JourneyBatch {
+
+    /**
+     * The name of the file the Journeys were read from.
+     */
+    private final String file;
+
+    /**
+     * The file offset of the first row the Journeys were parsed from.
+     */
+    private final long startOffset;
+
+    /**
+     * The file offset after the last row the Journeys were parsed from.
+     */
+    private final long endOffset;
+
+    /**
+     * The departure dates as epoch seconds.
+     */
+    private long[] departureDates;
+
+    /**
+     * The return dates as epoch seconds.
+     */
+    private long[] returnDates;
+
+    /**
+     * The departure Station reference ids.
+     */
+    private String[] departureStationIds;
+
+    /**
+     * The return Station reference ids.
+     */
+    private String[] returnStationIds;
+
+    /**
+     * The covered distances in meters.
+     */
+    private double[] coveredDistances;
+
+    /**
+     * The Journey durations in seconds.
+     */
+    private int[] journeyDurations;
+
+    /**
+     * The number of Journeys in the batch.
+     */
+    private int size;
+
+    /**
+     * A constructor for an empty batch.
+     *
+     * @param file     The name of the file the Journeys are read from
+     * @param capacity The expected number of Journeys in the batch
+     */
+    public JourneyBatch(String file, int capacity) {
+        this(file, 0, 0, capacity);
+    }
+
+    /**
+     * A constructor for an empty batch of the Journeys parsed from a<br/>
+     * range of rows of a file, so the import of the range can be recorded<br/>
+     * with the Journeys.
+     *
+     * @param file        The name of the file the Journeys are read from
+     * @param startOffset The file offset of the first row
+     * @param endOffset   The file offset after the last row
+     * @param capacity    The expected number of Journeys in the batch
+     */
+    public JourneyBatch(String file, long startOffset, long endOffset,
+                        int capacity) {
+        int initial = Math.max(1, capacity);
+        this.file = file;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.departureDates = new long[initial];
+        this.returnDates = new long[initial];
+        this.departureStationIds = new String[initial];
+        this.returnStationIds = new String[initial];
+        this.coveredDistances = new double[initial];
+        this.journeyDurations = new int[initial];
+    }
+
+    /**
+     * Adds a Journey to the end of the batch.
+     *
+     * @param departureDate      The departure date as epoch seconds
+     * @param returnDate         The return date as epoch seconds
+     * @param departureStationId The departure Station reference id
+     * @param returnStationId    The return Station reference id
+     * @param coveredDistance    The covered distance in meters
+     * @param journeyDuration    The Journey duration in seconds
+     */
+    public void add(long departureDate, long returnDate,
+                    String departureStationId, String returnStationId,
+                    double coveredDistance, int journeyDuration) {
+
+        if (size == departureDates.length) {
+            int capacity = size * 2;
+            departureDates = Arrays.copyOf(departureDates, capacity);
+            returnDates = Arrays.copyOf(returnDates, capacity);
+            departureStationIds = Arrays.copyOf(departureStationIds, capacity);
+            returnStationIds = Arrays.copyOf(returnStationIds, capacity);
+            coveredDistances = Arrays.copyOf(coveredDistances, capacity);
+            journeyDurations = Arrays.copyOf(journeyDurations, capacity);
+        }
+        departureDates[size] = departureDate;
+        returnDates[size] = returnDate;
+        departureStationIds[size] = departureStationId;
+        returnStationIds[size] = returnStationId;
+        coveredDistances[size] = coveredDistance;
+        journeyDurations[size] = journeyDuration;
+        size++;
+    }
+
+    /**
+     * Gets the name of the file the Journeys were read from.
+     *
+     * @return The file name (a String)
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the file offset of the first row the Journeys were parsed from.
+     *
+     * @return The offset, equal to the end offset if the batch was not
+     *         parsed from a file
+     */
+    public long getStartOffset() {
+        return startOffset;
+    }
+
+    /**
+     * Gets the file offset after the last row the Journeys were parsed<br/>
+     * from.
+     *
+     * @return The offset (a long)
+     */
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Gets the number of Journeys in the batch.
+     *
+     * @return The size of the batch (an int)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the departure date of a Journey as epoch seconds.
+     *
+     * @param i The index of the Journey in the batch
+     * @return  The departure date (a long)
+     */
+    public long getDepartureDate(int i) {
+        return departureDates[i];
+    }
+
+    /**
+     * Gets the return date of a Journey as epoch seconds.
+     *
+     * @param i The index of the Journey in the batch
+     * @return  The return date (a long)
+     */
+    public long getReturnDate(int i) {
+        return returnDates[i];
+    }
+
+    /**
+     * Gets the departure Station reference id of a Journey.
+     *
+     * @param i The index of the Journey in the batch
+     * @return  The departure Station id (a String)
+     */
+    public String getDepartureStationId(int i) {
+        return departureStationIds[i];
+    }
+
+    /**
+     * Gets the return Station reference id of a Journey.
+     *
+     * @param i The index of the Journey in the batch
+     * @return  The return Station id (a String)
+     */
+    public String getReturnStationId(int i) {
+        return returnStationIds[i];
+    }
+
+    /**
+     * Gets the covered distance of a Journey in meters.
+     *
+     * @param i The index of the Journey in the batch
+     * @return  The covered distance (a double)
+     */
+    public double getCoveredDistance(int i) {
+        return coveredDistances[i];
+    }
+
+    /**
+     * Gets the duration of a Journey in seconds.
+     *
+     * @param i The index of the Journey in the batch
+     * @return  The Journey duration (an int)
+     */
+    public int getJourneyDuration(int i) {
+        return journeyDurations[i];
+    }
+
+    /**
+     * Gets the months the Journeys of the batch depart in.
+     *
+     * @return The departure months in ascending order
+     */
+    public Set<YearMonth> getMonths() {
+        Set<YearMonth> months = new TreeSet<>();
+
+        for (int i = 0; i < size; i++) {
+            months.add(YearMonth.from(toLocalDateTime(departureDates[i])));
+        }
+
+        return months;
+    }
+
+    /**
+     * Returns an epoch second value as a LocalDateTime.
+     *
+     * @param epochSecond Seconds since 1970-01-01T00:00
+     * @return            A LocalDateTime object
+     */
+    public static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
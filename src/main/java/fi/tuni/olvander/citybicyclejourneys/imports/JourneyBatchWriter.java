@@ -0,0 +1,207 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCodes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A writer class for bulk loading Bicycle Journeys into the H2 database<br/>
+ * with JDBC batches instead of saving every Journey through JPA one at a<br/>
+ * time. Each batch is written in its own transaction together with its<br/>
+ * Station month statistics and the rows of the CSV file it was parsed<br/>
+ * from. The Journeys are written into the partitions of their departure<br/>
+ * months, which are created before the transaction.
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class JourneyBatchWriter {
+
+    /**
+     * The SQL insert statement used for every Bicycle Journey in a batch,<br/>
+     * after the table of the month partition.
+     */
+    private static final String INSERT_SQL = " "
+            + "(DEPARTURE_DATE, RETURN_DATE, DEPARTURE_STATION_CODE, "
+            + "RETURN_STATION_CODE, COVERED_DISTANCE, JOURNEY_DURATION) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * A JdbcTemplate instance for interacting with the H2 database.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * A TransactionTemplate for committing one batch at a time.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * A writer for the Station month statistics of every batch.
+     */
+    @Autowired
+    private StationStatisticsWriter stationStatisticsWriter;
+
+    /**
+     * The dictionary encoding the Station ids of the Journeys.
+     */
+    @Autowired
+    private StationCodes stationCodes;
+
+    /**
+     * The month partitions the Journeys are written to.
+     */
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    /**
+     * The import progress of the CSV files the Journeys are read from.
+     */
+    @Autowired
+    private JourneyImportFiles journeyImportFiles;
+
+    /**
+     * The number of Bicycle Journeys written to the database in one batch.
+     */
+    @Value("${citybicyclejourneys.import.batch-size:10000}")
+    private int batchSize;
+
+    /**
+     * A default constructor for the JourneyBatchWriter class.
+     */
+    public JourneyBatchWriter() {}
+
+    /**
+     * Gets the configured batch size.
+     *
+     * @return The number of Bicycle Journeys in one batch (an int)
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Writes the given Bicycle Journeys to the database as one JDBC batch<br/>
+     * in a single transaction with their Station month statistics and the<br/>
+     * import progress of their file.
+     *
+     * @param batch The Bicycle Journeys to be written
+     * @return      The number of Bicycle Journeys written (an int)
+     */
+    public int write(JourneyBatch batch) {
+
+        if (batch.size() == 0) {
+            // The rows of the file are done even if none of them was valid.
+            transactionTemplate.executeWithoutResult(status ->
+                    journeyImportFiles.add(batch));
+
+            return 0;
+        }
+        // The new Station ids get their codes and the new months their
+        // partitions before the batch transaction.
+        int[] departureCodes = new int[batch.size()];
+        int[] returnCodes = new int[batch.size()];
+        Map<YearMonth, List<Integer>> rowsByMonth = new TreeMap<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            departureCodes[i] = stationCodes.encode(
+                    batch.getDepartureStationId(i));
+            returnCodes[i] = stationCodes.encode(batch.getReturnStationId(i));
+            YearMonth month = YearMonth.from(JourneyBatch.toLocalDateTime(
+                    batch.getDepartureDate(i)));
+            rowsByMonth.computeIfAbsent(month, key -> new ArrayList<>())
+                    .add(i);
+        }
+        journeyPartitions.create(rowsByMonth.keySet());
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            for (Map.Entry<YearMonth, List<Integer>> month
+                    : rowsByMonth.entrySet()) {
+
+                jdbcTemplate.batchUpdate("INSERT INTO "
+                        + JourneyPartitions.getTable(month.getKey())
+                        + INSERT_SQL, getSetter(batch, month.getValue(),
+                                departureCodes, returnCodes));
+            }
+            stationStatisticsWriter.add(batch, departureCodes, returnCodes);
+            journeyImportFiles.add(batch);
+        });
+
+        return batch.size();
+    }
+
+    /**
+     * A helper method for getting the parameters of the Journeys of one<br/>
+     * month partition.
+     *
+     * @param batch          The Bicycle Journeys
+     * @param rows           The rows of the batch in the month
+     * @param departureCodes The departure Station codes of the batch
+     * @param returnCodes    The return Station codes of the batch
+     * @return               The setter of the insert statement
+     */
+    private static BatchPreparedStatementSetter getSetter(JourneyBatch batch,
+            List<Integer> rows, int[] departureCodes, int[] returnCodes) {
+
+        return new BatchPreparedStatementSetter() {
+
+            @Override
+            public void setValues(PreparedStatement ps, int j)
+                    throws SQLException {
+
+                int i = rows.get(j);
+                ps.setObject(1, JourneyBatch.toLocalDateTime(
+                        batch.getDepartureDate(i)));
+                ps.setObject(2, JourneyBatch.toLocalDateTime(
+                        batch.getReturnDate(i)));
+                setStationCode(ps, 3, departureCodes[i]);
+                setStationCode(ps, 4, returnCodes[i]);
+                ps.setDouble(5, batch.getCoveredDistance(i));
+                ps.setInt(6, batch.getJourneyDuration(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        };
+    }
+
+    /**
+     * A helper method for setting a Station code parameter, which is null<br/>
+     * for a Journey without a Station id.
+     *
+     * @param ps            The insert statement
+     * @param index         The index of the parameter
+     * @param code          The Station code
+     * @throws SQLException Throws this if the parameter cannot be set
+     */
+    private static void setStationCode(PreparedStatement ps, int index,
+            int code) throws SQLException {
+
+        if (code == StationCodes.UNKNOWN) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, code);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * An Import Controller class showing the progress of the Bicycle Journey<br/>
+ * import running in the background. The liveness and readiness of the<br/>
+ * app are shown by the health probes of Spring Boot Actuator.
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Controller
+public class JourneyImportController {
+
+    /**
+     * The progress of the Bicycle Journey import.
+     */
+    @Autowired
+    private JourneyImportProgress journeyImportProgress;
+
+    /**
+     * A default constructor for the JourneyImportController class.
+     */
+    public JourneyImportController() {}
+
+    /**
+     * An endpoint for getting the progress of the Bicycle Journey import.
+     *
+     * @return A Response Entity with the import Status
+     */
+    @RequestMapping(value = "api/import/", method = RequestMethod.GET)
+    public ResponseEntity<JourneyImportProgress.Status> getImportProgress() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccessControlAllowOrigin("*");
+        headers.setCacheControl(CacheControl.noStore());
+
+        return new ResponseEntity<>(journeyImportProgress.getStatus(), headers,
+                HttpStatus.OK);
+    }
+}
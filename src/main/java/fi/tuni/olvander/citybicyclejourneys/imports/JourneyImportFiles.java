@@ -0,0 +1,353 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>The import progress of the Bicycle Journey CSV files. A file is<br/>
+ * known by its name, size and checksum, and the ranges of its rows that<br/>
+ * have been committed are recorded with the Journeys written from them,<br/>
+ * so a restart imports only the rows that were not committed.</p>
+ *
+ * <p>A file is imported once. A new file in the CSV directory is imported<br/>
+ * next to the months already in the database, and a file whose content<br/>
+ * has changed after its rows were committed is not imported again, since<br/>
+ * its rows would be imported twice. Its month must be reloaded instead.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class JourneyImportFiles {
+
+    /**
+     * The rows of a file still to be imported.
+     *
+     * @param file     The CSV file name
+     * @param checksum The checksum of the file content
+     * @param ranges   Pairs of the start and the end offset of the rows
+     *                 still to be imported, empty if there are none
+     */
+    public record Plan(String file, String checksum, List<long[]> ranges) {}
+
+    /**
+     * A JdbcTemplate instance for interacting with the H2 database.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * A TransactionTemplate for merging the ranges of a file.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * An instance of Log for logging purposes.
+     */
+    private final Log logger = LogFactory.getLog(JourneyImportFiles.class);
+
+    /**
+     * A default constructor for the JourneyImportFiles class.
+     */
+    public JourneyImportFiles() {}
+
+    /**
+     * Finds the Journey CSV files of a directory that have not been<br/>
+     * imported completely.
+     *
+     * @param directory    The CSV directory
+     * @param excluded     The name of a CSV file that has no Journeys,
+     *                     such as the Station file
+     * @return             The file names in the order of their names
+     * @throws IOException Throws this if the directory cannot be listed
+     */
+    public List<String> findPending(Path directory, String excluded)
+            throws IOException {
+
+        List<String> pending = new ArrayList<>();
+
+        if (!Files.isDirectory(directory)) {
+            return pending;
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+
+            for (Path file : files.sorted().toList()) {
+                String name = file.getFileName().toString();
+
+                if (!name.endsWith(".csv") || name.equals(excluded)) {
+                    continue;
+                }
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                        "SELECT FILE_SIZE, COMPLETED FROM JOURNEY_IMPORT_FILE "
+                        + "WHERE FILE_NAME = ?", name);
+
+                if (rows.isEmpty() || !(Boolean) rows.get(0).get(
+                        "COMPLETED")) {
+                    pending.add(file.toString());
+                } else if (((Number) rows.get(0).get("FILE_SIZE"))
+                        .longValue() != Files.size(file)) {
+                    logger.warn("The file " + file + " has changed after it "
+                            + "was imported, reload its month to import it "
+                            + "again");
+                }
+            }
+        }
+
+        return pending;
+    }
+
+    /**
+     * Tells whether any file has been recorded.
+     *
+     * @return True if an import has been started
+     */
+    public boolean hasFiles() {
+        Integer files = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "JOURNEY_IMPORT_FILE", Integer.class);
+
+        return files != null && files > 0;
+    }
+
+    /**
+     * Records files as imported without importing them, for a database<br/>
+     * whose Journeys were imported before the imports were recorded.
+     *
+     * @param files        The CSV file names
+     * @throws IOException Throws this if a file cannot be read
+     */
+    public void markImported(List<String> files) throws IOException {
+
+        for (String file : files) {
+            Path path = Path.of(file);
+            jdbcTemplate.update("MERGE INTO JOURNEY_IMPORT_FILE (FILE_NAME, "
+                    + "CHECKSUM, FILE_SIZE, COMMITTED_OFFSET, COMPLETED, "
+                    + "UPDATED_AT) KEY (FILE_NAME) VALUES (?, ?, ?, ?, TRUE, "
+                    + "?)", getName(file), getChecksum(path),
+                    Files.size(path), Files.size(path), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Plans the import of a file. A new file is recorded and all of its<br/>
+     * rows are imported. The committed ranges of an interrupted import<br/>
+     * are merged and only the rows between them are imported.
+     *
+     * @param file         The CSV file name
+     * @return             The rows of the file still to be imported
+     * @throws IOException Throws this if the file cannot be read
+     */
+    public Plan prepare(String file) throws IOException {
+        Path path = Path.of(file);
+        String name = getName(file);
+        long size = Files.size(path);
+        String checksum = getChecksum(path);
+        List<long[]> ranges = new ArrayList<>();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            merge(name);
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT CHECKSUM, COMMITTED_OFFSET, COMPLETED FROM "
+                    + "JOURNEY_IMPORT_FILE WHERE FILE_NAME = ?", name);
+            long offset = rows.isEmpty() ? 0 : ((Number) rows.get(0).get(
+                    "COMMITTED_OFFSET")).longValue();
+            List<long[]> committed = getRanges(name);
+
+            if (!rows.isEmpty() && !checksum.equals(rows.get(0).get(
+                    "CHECKSUM")) && (offset > 0 || !committed.isEmpty())) {
+                logger.warn("The file " + file + " has changed after its "
+                        + "rows were imported, reload its month to import "
+                        + "it again");
+                return;
+            }
+
+            if (!rows.isEmpty() && (Boolean) rows.get(0).get("COMPLETED")) {
+                return;
+            }
+            jdbcTemplate.update("MERGE INTO JOURNEY_IMPORT_FILE (FILE_NAME, "
+                    + "CHECKSUM, FILE_SIZE, COMMITTED_OFFSET, COMPLETED, "
+                    + "UPDATED_AT) KEY (FILE_NAME) VALUES (?, ?, ?, ?, "
+                    + "FALSE, ?)", name, checksum, size, offset,
+                    LocalDateTime.now());
+
+            for (long[] range : committed) {
+
+                if (range[0] > offset) {
+                    ranges.add(new long[] {offset, range[0]});
+                }
+                offset = Math.max(offset, range[1]);
+            }
+
+            if (offset < size) {
+                ranges.add(new long[] {offset, size});
+            }
+        });
+
+        if (!ranges.isEmpty() && (ranges.size() > 1 || ranges.get(0)[0] > 0)) {
+            logger.info("Resuming the import of " + file + " from offset "
+                    + ranges.get(0)[0]);
+        }
+
+        return new Plan(file, checksum, ranges);
+    }
+
+    /**
+     * Records the rows a Journey batch was parsed from as committed.<br/>
+     * Called in the transaction that writes the Journeys of the batch.
+     *
+     * @param batch The Journeys written to the database
+     */
+    public void add(JourneyBatch batch) {
+
+        if (batch.getFile() == null
+                || batch.getEndOffset() <= batch.getStartOffset()) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO JOURNEY_IMPORT_RANGE (FILE_NAME, "
+                + "START_OFFSET, END_OFFSET, JOURNEY_ROWS) VALUES (?, ?, ?, "
+                + "?)", getName(batch.getFile()), batch.getStartOffset(),
+                batch.getEndOffset(), batch.size());
+    }
+
+    /**
+     * Marks a file as completely imported once all of its rows have been<br/>
+     * committed.
+     *
+     * @param file The CSV file name
+     * @return     The number of Journeys imported from the file
+     */
+    public long complete(String file) {
+        String name = getName(file);
+
+        return transactionTemplate.execute(status -> {
+            merge(name);
+            jdbcTemplate.update("UPDATE JOURNEY_IMPORT_FILE SET COMPLETED = "
+                    + "COMMITTED_OFFSET >= FILE_SIZE, UPDATED_AT = ? WHERE "
+                    + "FILE_NAME = ?", LocalDateTime.now(), name);
+            Long rows = jdbcTemplate.queryForObject("SELECT COMMITTED_ROWS "
+                    + "FROM JOURNEY_IMPORT_FILE WHERE FILE_NAME = ?",
+                    Long.class, name);
+
+            return rows == null ? 0 : rows;
+        });
+    }
+
+    /**
+     * Forgets the import of a file, so it is imported again.
+     *
+     * @param file The CSV file name
+     */
+    public void forget(String file) {
+        String name = getName(file);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM JOURNEY_IMPORT_RANGE WHERE "
+                    + "FILE_NAME = ?", name);
+            jdbcTemplate.update("DELETE FROM JOURNEY_IMPORT_FILE WHERE "
+                    + "FILE_NAME = ?", name);
+        });
+    }
+
+    /**
+     * A helper method for merging the committed ranges that continue the<br/>
+     * committed offset of a file into its offset and rows.
+     *
+     * @param name The name of the file
+     */
+    private void merge(String name) {
+        Long offset = jdbcTemplate.queryForObject("SELECT MAX("
+                + "COMMITTED_OFFSET) FROM JOURNEY_IMPORT_FILE WHERE "
+                + "FILE_NAME = ?", Long.class, name);
+
+        if (offset == null) {
+            return;
+        }
+        long end = offset;
+        long rows = 0;
+
+        for (long[] range : getRanges(name)) {
+
+            if (range[0] > end) {
+                break;
+            }
+            end = Math.max(end, range[1]);
+            rows += range[2];
+        }
+
+        if (end > offset) {
+            jdbcTemplate.update("UPDATE JOURNEY_IMPORT_FILE SET "
+                    + "COMMITTED_OFFSET = ?, COMMITTED_ROWS = COMMITTED_ROWS "
+                    + "+ ? WHERE FILE_NAME = ?", end, rows, name);
+            jdbcTemplate.update("DELETE FROM JOURNEY_IMPORT_RANGE WHERE "
+                    + "FILE_NAME = ? AND END_OFFSET <= ?", name, end);
+        }
+    }
+
+    /**
+     * A helper method for reading the committed ranges of a file.
+     *
+     * @param name The name of the file
+     * @return     The start offset, the end offset and the number of
+     *             Journeys of every range in the order of the offsets
+     */
+    private List<long[]> getRanges(String name) {
+        return jdbcTemplate.query("SELECT START_OFFSET, END_OFFSET, "
+                + "JOURNEY_ROWS FROM JOURNEY_IMPORT_RANGE WHERE FILE_NAME = ? "
+                + "ORDER BY START_OFFSET", (resultSet, row) -> new long[] {
+                        resultSet.getLong(1), resultSet.getLong(2),
+                        resultSet.getLong(3)}, name);
+    }
+
+    /**
+     * A helper method for getting the name a file is recorded by, so the<br/>
+     * CSV directory can be moved.
+     *
+     * @param file The CSV file name
+     * @return     The name without the directory
+     */
+    private static String getName(String file) {
+        return Path.of(file).getFileName().toString();
+    }
+
+    /**
+     * A helper method for computing the CRC-32C checksum of a file.
+     *
+     * @param file         The file
+     * @return             The checksum in hexadecimal
+     * @throws IOException Throws this if the file cannot be read
+     */
+    private static String getChecksum(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        return String.format("%08x", crc.getValue());
+    }
+}
@@ -0,0 +1,411 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>A pipeline class for importing several Bicycle Journey CSV files at<br/>
+ * the same time. The pipeline has three stages joined by bounded queues:</p>
+ *
+ * <ol>
+ *     <li>readers, one per file, reading chunks of raw CSV row bytes</li>
+ *     <li>parser workers decoding and validating the rows into batches</li>
+ *     <li>writers saving the Journeys to the database in JDBC batches</li>
+ * </ol>
+ *
+ * <p>Every batch is committed with the range of rows it was parsed from,<br/>
+ * so the readers of an interrupted import only read the rows that were<br/>
+ * not committed, and a file is marked as imported once all of its rows<br/>
+ * have been committed. The listener of the imported files is told which<br/>
+ * departure months no unfinished file has written to, so the caller can<br/>
+ * finish those months while the other files are still imported.</p>
+ *
+ * <p>The number of parser workers, the number of writers and the queue<br/>
+ * depth are configurable. The writers are kept few by default because<br/>
+ * H2 serializes most of the work of concurrent inserts to one table.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class JourneyImportPipeline {
+
+    /**
+     * A chunk of raw CSV rows read from one file.
+     *
+     * @param file  The file the rows were read from
+     * @param chunk The raw CSV rows
+     */
+    private record RowChunk(String file, CsvChunkReader.Chunk chunk) {}
+
+    /**
+     * A marker chunk telling a parser worker that no more rows will come.
+     */
+    private static final RowChunk END_OF_ROWS = new RowChunk(null, null);
+
+    /**
+     * A marker batch telling a writer that no more Journeys will come.
+     */
+    private static final JourneyBatch END_OF_BATCHES = new JourneyBatch(null,
+            1);
+
+    /**
+     * A writer for saving Bicycle Journeys to the database in batches.
+     */
+    @Autowired
+    private JourneyBatchWriter journeyBatchWriter;
+
+    /**
+     * The import progress of the CSV files.
+     */
+    @Autowired
+    private JourneyImportFiles journeyImportFiles;
+
+    /**
+     * The progress of the import, counting the committed Journeys.
+     */
+    @Autowired
+    private JourneyImportProgress journeyImportProgress;
+
+    /**
+     * A writer for merging the Station month statistics after an import.
+     */
+    @Autowired
+    private StationStatisticsWriter stationStatisticsWriter;
+
+    /**
+     * The number of parser worker threads.
+     */
+    @Value("${citybicyclejourneys.import.workers:0}")
+    private int workers;
+
+    /**
+     * The number of writer threads inserting batches into the database.
+     */
+    @Value("${citybicyclejourneys.import.writers:2}")
+    private int writers;
+
+    /**
+     * The maximum number of chunks or batches waiting in each queue.
+     */
+    @Value("${citybicyclejourneys.import.queue-depth:8}")
+    private int queueDepth;
+
+    /**
+     * An instance of Log for logging purposes.
+     */
+    private final Log logger = LogFactory.getLog(JourneyImportPipeline.class);
+
+    /**
+     * A default constructor for the JourneyImportPipeline class.
+     */
+    public JourneyImportPipeline() {}
+
+    /**
+     * Imports the given Bicycle Journey CSV files in parallel and returns<br/>
+     * the total number of imported Bicycle Journeys. The rows committed by<br/>
+     * an earlier import of a file are skipped. The Station month<br/>
+     * statistics are compacted once all the files have been imported.
+     *
+     * @param files          The CSV file names (Strings)
+     * @param onFileImported Called with the file name and the finished
+     *                       months when a file is done
+     * @return               The number of imported Bicycle Journeys (a long)
+     * @throws Exception     Throws this if a pipeline stage fails
+     */
+    public long importFiles(List<String> files,
+            BiConsumer<String, Set<YearMonth>> onFileImported)
+            throws Exception {
+
+        int parserCount = workers > 0 ? workers
+                : Runtime.getRuntime().availableProcessors();
+        int writerCount = Math.max(1, writers);
+        int readerCount = Math.max(1, Math.min(files.size(), parserCount));
+        int chunkSize = journeyBatchWriter.getBatchSize();
+
+        BlockingQueue<RowChunk> rowQueue = new ArrayBlockingQueue<>(queueDepth);
+        BlockingQueue<JourneyBatch> batchQueue =
+                new ArrayBlockingQueue<>(queueDepth);
+        Map<String, AtomicLong> pendingChunks = new ConcurrentHashMap<>();
+        Map<String, AtomicLong> importedRows = new ConcurrentHashMap<>();
+        Map<String, Set<YearMonth>> writtenMonths = new ConcurrentHashMap<>();
+        Set<String> unreadFiles = ConcurrentHashMap.newKeySet();
+        AtomicLong total = new AtomicLong();
+
+        for (String file : files) {
+            // One extra pending chunk is released when the reader is done.
+            pendingChunks.put(file, new AtomicLong(1));
+            importedRows.put(file, new AtomicLong());
+            writtenMonths.put(file, ConcurrentHashMap.newKeySet());
+        }
+
+        ExecutorService readerPool = Executors.newFixedThreadPool(readerCount);
+        ExecutorService parserPool = Executors.newFixedThreadPool(parserCount);
+        ExecutorService writerPool = Executors.newFixedThreadPool(writerCount);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Runnable abort = () -> {
+            readerPool.shutdownNow();
+            parserPool.shutdownNow();
+            writerPool.shutdownNow();
+        };
+        List<Future<?>> readerTasks = new ArrayList<>();
+        List<Future<?>> parserTasks = new ArrayList<>();
+        List<Future<?>> writerTasks = new ArrayList<>();
+        long startTime = System.nanoTime();
+
+        try {
+            for (int i = 0; i < writerCount; i++) {
+                writerTasks.add(submit(writerPool, failure, abort, () -> {
+                    JourneyBatch batch = batchQueue.take();
+
+                    while (batch != END_OF_BATCHES) {
+                        int rows = journeyBatchWriter.write(batch);
+                        writtenMonths.get(batch.getFile()).addAll(
+                                batch.getMonths());
+                        total.addAndGet(rows);
+                        importedRows.get(batch.getFile()).addAndGet(rows);
+                        journeyImportProgress.addRows(batch.getFile(), rows);
+                        completeChunk(batch.getFile(), pendingChunks,
+                                importedRows, writtenMonths, unreadFiles,
+                                onFileImported);
+                        batch = batchQueue.take();
+                    }
+
+                    return null;
+                }));
+            }
+
+            for (int i = 0; i < parserCount; i++) {
+                parserTasks.add(submit(parserPool, failure, abort, () -> {
+                    HslCsvParser parser = new HslCsvParser();
+                    RowChunk chunk = rowQueue.take();
+
+                    while (chunk != END_OF_ROWS) {
+                        batchQueue.put(parser.parseJourneys(chunk.file(),
+                                chunk.chunk()));
+                        chunk = rowQueue.take();
+                    }
+
+                    if (parser.getInvalidRows() > 0) {
+                        logger.info("Skipped " + parser.getInvalidRows()
+                                + " Bicycle Journey rows that could not be "
+                                + "parsed");
+                    }
+
+                    return null;
+                }));
+            }
+
+            for (String file : files) {
+                readerTasks.add(submit(readerPool, failure, abort, () -> {
+                    if (!readRows(file, chunkSize, rowQueue, pendingChunks)) {
+                        unreadFiles.add(file);
+                    }
+                    completeChunk(file, pendingChunks, importedRows,
+                            writtenMonths, unreadFiles, onFileImported);
+
+                    return null;
+                }));
+            }
+
+            awaitAll(readerTasks, failure);
+
+            for (int i = 0; i < parserCount; i++) {
+                put(rowQueue, END_OF_ROWS, failure);
+            }
+            awaitAll(parserTasks, failure);
+
+            for (int i = 0; i < writerCount; i++) {
+                put(batchQueue, END_OF_BATCHES, failure);
+            }
+            awaitAll(writerTasks, failure);
+        } finally {
+            abort.run();
+        }
+        stationStatisticsWriter.compact();
+
+        double seconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        logger.info(String.format("Imported %d rows from %d files in %.1f s "
+                + "(%d rows/s) with %d parser workers and %d writers",
+                total.get(), files.size(), seconds,
+                Math.round(total.get() / Math.max(seconds, 0.001)),
+                parserCount, writerCount));
+
+        return total.get();
+    }
+
+    /**
+     * Reads the raw rows of one CSV file that have not been committed yet<br/>
+     * into chunks and puts the chunks into the row queue.
+     *
+     * @param file          The CSV file name (a String)
+     * @param chunkSize     The number of rows in one chunk (an int)
+     * @param rowQueue      The queue between the readers and the parsers
+     * @param pendingChunks The number of unwritten chunks per file
+     * @return              False if the file could not be read
+     * @throws Exception    Throws this if the reader is interrupted
+     */
+    private boolean readRows(String file, int chunkSize,
+            BlockingQueue<RowChunk> rowQueue,
+            Map<String, AtomicLong> pendingChunks) throws Exception {
+
+        try {
+            JourneyImportFiles.Plan plan = journeyImportFiles.prepare(file);
+
+            for (long[] range : plan.ranges()) {
+
+                try (CsvChunkReader reader = new CsvChunkReader(Path.of(file),
+                        chunkSize, range[0], range[1])) {
+
+                    CsvChunkReader.Chunk chunk = reader.next();
+
+                    while (chunk != null) {
+                        pendingChunks.get(file).incrementAndGet();
+                        rowQueue.put(new RowChunk(file, chunk));
+                        chunk = reader.next();
+                    }
+                }
+            }
+
+            return true;
+        } catch (IOException | InvalidPathException e) {
+            logger.info("Could not read file " + file
+                    + ", please check the file name");
+
+            return false;
+        }
+    }
+
+    /**
+     * Marks one chunk of a file as done. When all the chunks of the file<br/>
+     * have been written, the file is marked as imported and the listener<br/>
+     * is called with the months of the file that no unfinished file has<br/>
+     * written to.
+     *
+     * @param file           The CSV file name (a String)
+     * @param pendingChunks  The number of unwritten chunks per file
+     * @param importedRows   The number of imported rows per file
+     * @param writtenMonths  The departure months written per file
+     * @param unreadFiles    The files that could not be read
+     * @param onFileImported Called with the file name and the finished
+     *                       months when a file is done
+     */
+    private void completeChunk(String file, Map<String, AtomicLong>
+            pendingChunks, Map<String, AtomicLong> importedRows,
+            Map<String, Set<YearMonth>> writtenMonths, Set<String>
+            unreadFiles, BiConsumer<String, Set<YearMonth>> onFileImported) {
+
+        if (pendingChunks.get(file).decrementAndGet() == 0
+                && !unreadFiles.contains(file)) {
+            long rows = journeyImportFiles.complete(file);
+            logger.info("Imported " + importedRows.get(file).get()
+                    + " rows from " + file + ", " + rows + " in total");
+            journeyImportProgress.fileImported(file);
+            Set<YearMonth> months = new TreeSet<>(writtenMonths.get(file));
+
+            for (Map.Entry<String, AtomicLong> other
+                    : pendingChunks.entrySet()) {
+
+                if (other.getValue().get() > 0) {
+                    months.removeAll(writtenMonths.get(other.getKey()));
+                }
+            }
+            onFileImported.accept(file, months);
+        }
+    }
+
+    /**
+     * Submits a pipeline task which records its failure and stops the<br/>
+     * other stages, so that no stage is left blocked on a full queue.
+     *
+     * @param pool    The executor of the stage
+     * @param failure The first failure of any stage
+     * @param abort   Stops all the stages of the pipeline
+     * @param task    The task to be run
+     * @return        A Future of the task
+     */
+    private Future<?> submit(ExecutorService pool,
+            AtomicReference<Exception> failure, Runnable abort,
+            Callable<Void> task) {
+
+        return pool.submit(() -> {
+
+            try {
+                return task.call();
+            } catch (Exception e) {
+
+                if (failure.compareAndSet(null, e)) {
+                    abort.run();
+                }
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Puts an end marker into a queue unless a stage has already failed.
+     *
+     * @param queue      The queue between two stages
+     * @param item       The end marker
+     * @param failure    The first failure of any stage
+     * @param <T>        The type of the queue items
+     * @throws Exception Throws the failure of a stage if there is one
+     */
+    private <T> void put(BlockingQueue<T> queue, T item,
+            AtomicReference<Exception> failure) throws Exception {
+
+        while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+        }
+    }
+
+    /**
+     * Waits for all the tasks of a stage and rethrows the first failure.
+     *
+     * @param tasks      The tasks of one pipeline stage
+     * @param failure    The first failure of any stage
+     * @throws Exception Throws the first failure of a stage
+     */
+    private void awaitAll(List<Future<?>> tasks,
+            AtomicReference<Exception> failure) throws Exception {
+
+        for (Future<?> task : tasks) {
+
+            try {
+                task.get();
+            } catch (ExecutionException | CancellationException e) {
+                throw failure.get() != null ? failure.get() : e;
+            }
+        }
+    }
+}
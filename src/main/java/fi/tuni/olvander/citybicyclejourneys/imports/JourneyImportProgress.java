@@ -0,0 +1,212 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>The progress of the Bicycle Journey import started at startup. The<br/>
+ * import runs in the background while the API is served, so the progress<br/>
+ * tells which datasets have been imported and how many Journeys have<br/>
+ * been committed so far.</p>
+ *
+ * <p>The rows are counted as the Journey import pipeline commits them,<br/>
+ * so the progress also follows a month reloaded after startup.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class JourneyImportProgress {
+
+    /**
+     * The state of the startup import.
+     */
+    public enum State {
+
+        /**
+         * The import has not been started.
+         */
+        WAITING,
+
+        /**
+         * The datasets are being imported.
+         */
+        IMPORTING,
+
+        /**
+         * Every dataset has been imported.
+         */
+        COMPLETED,
+
+        /**
+         * The import was stopped by an error.
+         */
+        FAILED
+    }
+
+    /**
+     * The progress of one dataset.
+     *
+     * @param file     The CSV file name without the directory
+     * @param rows     The number of Journeys committed from the file
+     * @param imported True once all the rows of the file are committed
+     */
+    public record FileProgress(String file, long rows, boolean imported) {}
+
+    /**
+     * A copy of the progress at one moment.
+     *
+     * @param state      The state of the import
+     * @param startedAt  When the import was started, null if it has not
+     * @param finishedAt When the import was finished, null if it has not
+     * @param rows       The number of Journeys committed so far
+     * @param files      The progress of every dataset in the import order
+     * @param months     The departure months that can already be queried
+     * @param error      The error that stopped the import, null if none
+     */
+    public record Status(State state, LocalDateTime startedAt,
+            LocalDateTime finishedAt, long rows, List<FileProgress> files,
+            List<YearMonth> months, String error) {}
+
+    /**
+     * The month partitions the imported Journeys are written to.
+     */
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    /**
+     * The state of the import.
+     */
+    private State state = State.WAITING;
+
+    /**
+     * When the import was started.
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * When the import was finished.
+     */
+    private LocalDateTime finishedAt;
+
+    /**
+     * The number of Journeys committed so far.
+     */
+    private long rows;
+
+    /**
+     * The progress of every dataset by its file name.
+     */
+    private final Map<String, FileProgress> files = new LinkedHashMap<>();
+
+    /**
+     * The error that stopped the import.
+     */
+    private String error;
+
+    /**
+     * A default constructor for the JourneyImportProgress class.
+     */
+    public JourneyImportProgress() {}
+
+    /**
+     * Starts following an import of the given datasets.
+     *
+     * @param files The CSV file names in the import order
+     */
+    public synchronized void start(List<String> files) {
+        this.state = State.IMPORTING;
+        this.startedAt = LocalDateTime.now();
+        this.finishedAt = null;
+        this.rows = 0;
+        this.error = null;
+        this.files.clear();
+
+        for (String file : files) {
+            this.files.put(getName(file), new FileProgress(getName(file), 0,
+                    false));
+        }
+    }
+
+    /**
+     * Adds Journeys committed from a dataset.
+     *
+     * @param file The CSV file name
+     * @param rows The number of committed Journeys
+     */
+    public synchronized void addRows(String file, long rows) {
+        FileProgress progress = files.get(getName(file));
+        this.rows += rows;
+
+        if (progress != null) {
+            files.put(progress.file(), new FileProgress(progress.file(),
+                    progress.rows() + rows, progress.imported()));
+        }
+    }
+
+    /**
+     * Marks a dataset as imported.
+     *
+     * @param file The CSV file name
+     */
+    public synchronized void fileImported(String file) {
+        FileProgress progress = files.get(getName(file));
+
+        if (progress != null) {
+            files.put(progress.file(), new FileProgress(progress.file(),
+                    progress.rows(), true));
+        }
+    }
+
+    /**
+     * Marks the import as finished, successfully unless an error is given.
+     *
+     * @param error The error that stopped the import, null if none
+     */
+    public synchronized void finish(Exception error) {
+        this.state = error == null ? State.COMPLETED : State.FAILED;
+        this.finishedAt = LocalDateTime.now();
+        this.error = error == null ? null : String.valueOf(error.getMessage());
+    }
+
+    /**
+     * Tells whether the import is running, so the Journeys may still<br/>
+     * change between two requests.
+     *
+     * @return True while the datasets are being imported
+     */
+    public synchronized boolean isImporting() {
+        return state == State.IMPORTING;
+    }
+
+    /**
+     * Gets a copy of the current progress.
+     *
+     * @return The current Status
+     */
+    public synchronized Status getStatus() {
+        return new Status(state, startedAt, finishedAt, rows,
+                new ArrayList<>(files.values()), journeyPartitions.getMonths(),
+                error);
+    }
+
+    /**
+     * A helper method for getting the name a dataset is shown by.
+     *
+     * @param file The CSV file name
+     * @return     The name without the directory
+     */
+    private static String getName(String file) {
+        return Path.of(file).getFileName().toString();
+    }
+}
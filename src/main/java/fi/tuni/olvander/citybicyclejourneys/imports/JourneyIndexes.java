@@ -0,0 +1,64 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.Collection;
+
+/**
+ * <p>A class for leaving out the secondary indexes of the Bicycle Journey<br/>
+ * partitions created by a bulk import and for creating them afterwards.<br/>
+ * Building an index once over all the rows is much faster than updating<br/>
+ * every index for every inserted batch. The months imported earlier keep<br/>
+ * their indexes, so they can be queried during an import.</p>
+ *
+ * <p>The index definitions are read from the partition template with<br/>
+ * SCRIPT, so the Flyway migrations stay the only place where the indexes<br/>
+ * are defined.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class JourneyIndexes {
+
+    /**
+     * The month partitions of the Bicycle Journeys.
+     */
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    /**
+     * A default constructor for the JourneyIndexes class.
+     */
+    public JourneyIndexes() {}
+
+    /**
+     * Creates the new Bicycle Journey partitions without their secondary<br/>
+     * indexes.
+     */
+    public void drop() {
+        journeyPartitions.setIndexed(false);
+    }
+
+    /**
+     * Creates the missing secondary indexes of every Bicycle Journey<br/>
+     * partition.
+     */
+    public void create() {
+        journeyPartitions.setIndexed(true);
+    }
+
+    /**
+     * Creates the missing secondary indexes of the partitions of the<br/>
+     * months, while the other new partitions stay without them.
+     *
+     * @param months The months whose Journeys have been imported
+     */
+    public void create(Collection<YearMonth> months) {
+        journeyPartitions.createIndexes(months);
+    }
+}
@@ -0,0 +1,100 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.BicycleJourney;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Optional;
+
+/**
+ * A parser class for turning the column values of one Bicycle Journey<br/>
+ * CSV row into a Bicycle Journey. Excludes the Bicycle Journeys having a<br/>
+ * distance or a duration less than 10 meters or seconds.<br/><br/>
+ *
+ * The class holds no state, so one instance can be shared by threads.
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class JourneyRowParser {
+
+    /**
+     * The minimum distance in meters of an imported Bicycle Journey.
+     */
+    public static final double MIN_DISTANCE = 10;
+
+    /**
+     * The minimum duration in seconds of an imported Bicycle Journey.
+     */
+    public static final int MIN_DURATION = 10;
+
+    /**
+     * A default constructor for the JourneyRowParser class.
+     */
+    public JourneyRowParser() {}
+
+    /**
+     * Returns an Optional Bicycle Journey from the column values of a<br/>
+     * CSV row, or an empty Optional if the Journey is too short.
+     *
+     * @param departureDateTime  The departure date and time (a String)
+     * @param returnDateTime     The return date and time (a String)
+     * @param departureStationId The departure Station id (a String)
+     * @param returnStationId    The return Station id (a String)
+     * @param distance           The covered distance in meters (a double)
+     * @param duration           The Journey duration in seconds (an int)
+     * @return                   An Optional Bicycle Journey object
+     */
+    public Optional<BicycleJourney> parse(String departureDateTime,
+            String returnDateTime, String departureStationId,
+            String returnStationId, double distance, int duration) {
+
+        if (distance < MIN_DISTANCE || duration < MIN_DURATION) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new BicycleJourney(
+                getLocalDateTime(departureDateTime),
+                getLocalDateTime(returnDateTime), departureStationId,
+                returnStationId, distance, duration));
+    }
+
+    /**
+     * Returns an Optional Bicycle Journey from a raw CSV row having the<br/>
+     * HSL Journey column layout, or an empty Optional if the row cannot<br/>
+     * be parsed or the Journey is too short.
+     *
+     * @param row The CSV row values (a String array)
+     * @return    An Optional Bicycle Journey object
+     */
+    public Optional<BicycleJourney> parse(String[] row) {
+
+        try {
+            return parse(row[0], row[1], row[2], row[4],
+                    Double.parseDouble(row[6]), Integer.parseInt(row[7]));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A helper method. Returns a LocalDateTime object from a given String.<br/>
+     * The LocalDateTime object is set a default value "00:00" if the<br/>
+     * dateTime String does not include a time.
+     *
+     * @param dateTime A dateTime String having a date
+     * @return         A LocalDateTime object
+     */
+    public LocalDateTime getLocalDateTime(String dateTime) {
+        String date = dateTime.substring(0, 10);
+        String time = "00:00";
+
+        if (dateTime.contains("T")) {
+            time = dateTime.substring(11);
+        }
+
+        return LocalDateTime.of(LocalDate.parse(date), LocalTime.parse(time));
+    }
+}
@@ -0,0 +1,170 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCodes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>A writer class for the Station month statistics, the Journey counts<br/>
+ * and the distance and duration sums by Station, direction and departure<br/>
+ * month.</p>
+ *
+ * <p>Every Journey batch appends its own statistics rows in the<br/>
+ * transaction of the batch, so concurrent writers never update the same<br/>
+ * row and the statistics always match the committed Journeys. The rows of<br/>
+ * a key are merged into one row by compact once an import is done.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class StationStatisticsWriter {
+
+    /**
+     * The SQL insert statement used for every statistics row of a batch.
+     */
+    private static final String INSERT_SQL = "INSERT INTO "
+            + "STATION_MONTH_STATISTICS (STATION_CODE, DIRECTION, JOURNEY_MONTH, "
+            + "JOURNEY_COUNT, DISTANCE_SUM, DURATION_SUM) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * The direction of the Journeys departing from a Station.
+     */
+    public static final String DEPARTURES = "D";
+
+    /**
+     * The direction of the Journeys returning to a Station.
+     */
+    public static final String RETURNS = "R";
+
+    /**
+     * A JdbcTemplate instance for interacting with the H2 database.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * A TransactionTemplate for merging the statistics in one transaction.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * A default constructor for the StationStatisticsWriter class.
+     */
+    public StationStatisticsWriter() {}
+
+    /**
+     * Appends the statistics of a Journey batch. Called in the transaction<br/>
+     * that writes the Journeys of the batch. The Journeys without a<br/>
+     * Station id have no statistics for it.
+     *
+     * @param batch          The Journeys written to the database
+     * @param departureCodes The departure Station codes of the Journeys
+     * @param returnCodes    The return Station codes of the Journeys
+     */
+    public void add(JourneyBatch batch, int[] departureCodes,
+            int[] returnCodes) {
+        Map<Key, Totals> statistics = new HashMap<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            LocalDate month = JourneyBatch.toLocalDateTime(
+                    batch.getDepartureDate(i)).toLocalDate().withDayOfMonth(1);
+            double distance = batch.getCoveredDistance(i);
+            int duration = batch.getJourneyDuration(i);
+
+            if (departureCodes[i] != StationCodes.UNKNOWN) {
+                statistics.computeIfAbsent(new Key(departureCodes[i],
+                        DEPARTURES, month), key -> new Totals())
+                        .add(distance, duration);
+            }
+
+            if (returnCodes[i] != StationCodes.UNKNOWN) {
+                statistics.computeIfAbsent(new Key(returnCodes[i], RETURNS,
+                        month), key -> new Totals()).add(distance, duration);
+            }
+        }
+        List<Object[]> rows = new ArrayList<>(statistics.size());
+
+        for (Map.Entry<Key, Totals> entry : statistics.entrySet()) {
+            Key key = entry.getKey();
+            Totals totals = entry.getValue();
+            rows.add(new Object[] {key.stationCode(), key.direction(),
+                    key.month(), totals.count, totals.distance,
+                    totals.duration});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Merges the statistics rows of every key into one row. Must not run<br/>
+     * while Journeys are being imported.
+     */
+    public void compact() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Long lastId = jdbcTemplate.queryForObject(
+                    "SELECT MAX(ID) FROM STATION_MONTH_STATISTICS", Long.class);
+
+            if (lastId == null) {
+                return;
+            }
+            jdbcTemplate.update("INSERT INTO STATION_MONTH_STATISTICS "
+                    + "(STATION_CODE, DIRECTION, JOURNEY_MONTH, "
+                    + "JOURNEY_COUNT, DISTANCE_SUM, DURATION_SUM) SELECT "
+                    + "STATION_CODE, DIRECTION, JOURNEY_MONTH, "
+                    + "SUM(JOURNEY_COUNT), "
+                    + "SUM(DISTANCE_SUM), SUM(DURATION_SUM) FROM "
+                    + "STATION_MONTH_STATISTICS WHERE ID <= ? GROUP BY "
+                    + "STATION_CODE, DIRECTION, JOURNEY_MONTH", lastId);
+            jdbcTemplate.update("DELETE FROM STATION_MONTH_STATISTICS WHERE "
+                    + "ID <= ?", lastId);
+        });
+    }
+
+    /**
+     * Deletes the statistics of the Journeys departing in a month, when<br/>
+     * the partition of the month is dropped.
+     *
+     * @param month The departure month
+     * @return      The number of statistics rows deleted
+     */
+    public int delete(YearMonth month) {
+        return jdbcTemplate.update("DELETE FROM STATION_MONTH_STATISTICS "
+                + "WHERE JOURNEY_MONTH = ?", month.atDay(1));
+    }
+
+    /**
+     * The key of one statistics row.
+     *
+     * @param stationCode The Station code
+     * @param direction   The direction, DEPARTURES or RETURNS
+     * @param month       The first day of the departure month
+     */
+    private record Key(int stationCode, String direction, LocalDate month) {}
+
+    /**
+     * The Journey count and sums of one statistics row.
+     */
+    private static class Totals {
+        private long count;
+        private double distance;
+        private long duration;
+
+        void add(double coveredDistance, int journeyDuration) {
+            count++;
+            distance += coveredDistance;
+            duration += journeyDuration;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package fi.tuni.olvander.citybicyclejourneys.journeys;
 
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCodeConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -9,7 +12,10 @@ import java.time.LocalDateTime;
 
 /**
  * A Bicycle Journey class that is used when Bicycle Journeys are added to<br/>
- * the Bicycle Journey database and getting Bicycle Journey related data.
+ * the Bicycle Journey database and getting Bicycle Journey related data.<br/>
+ * The entity is read from the BICYCLE_JOURNEY view of the month<br/>
+ * partitions, which are created by the Flyway migrations and written by<br/>
+ * the JourneyBatchWriter.
  *
  * @author  Olli Pertovaara
  * @version 2023.12.13
@@ -19,7 +25,8 @@ import java.time.LocalDateTime;
 public class BicycleJourney {
 
     /**
-     * A Long type id which is auto-incremented in the Bicycle Journey.
+     * A Long type id of the Bicycle Journey, taken from the id sequence<br/>
+     * shared by the month partitions.
      */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,14 +44,18 @@ public class BicycleJourney {
 
     /**
      * A String type departure Station id (the reference id<br/>
-     * in the Station database, not the true id).
+     * in the Station database, not the true id), stored as its code.
      */
+    @Column(name = "DEPARTURE_STATION_CODE")
+    @Convert(converter = StationCodeConverter.class)
     private String departureStationId;
 
     /**
      * A String type return Station id (the reference id<br/>
-     * in the Station database, not the true id).
+     * in the Station database, not the true id), stored as its code.
      */
+    @Column(name = "RETURN_STATION_CODE")
+    @Convert(converter = StationCodeConverter.class)
     private String returnStationId;
 
     /**
@@ -1,13 +1,21 @@
 package fi.tuni.olvander.citybicyclejourneys.journeys;
 
+import fi.tuni.olvander.citybicyclejourneys.columns.JourneyColumnStore;
+import fi.tuni.olvander.citybicyclejourneys.columns.JourneyColumns;
 import fi.tuni.olvander.citybicyclejourneys.exceptions
         .BicycleJourneyNotFoundException;
 import fi.tuni.olvander.citybicyclejourneys.exceptions.IdNotANumberException;
-import fi.tuni.olvander.citybicyclejourneys.stations.Station;
-import fi.tuni.olvander.citybicyclejourneys.stations.StationRepository;
+import fi.tuni.olvander.citybicyclejourneys.exceptions
+        .InvalidPageRequestException;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCodes;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Controller;
@@ -15,10 +23,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
-
+import org.springframework.web.servlet.mvc.method.annotation
+        .StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.*;
 
 /**
@@ -32,12 +48,6 @@ import java.util.*;
 @Controller
 public class BicycleJourneyController {
 
-    /**
-     * An instance of the Station repository
-     */
-    @Autowired
-    private StationRepository stationDb;
-
     /**
      * An instance of the Bicycle Journey repository
      */
@@ -51,23 +61,57 @@ public class BicycleJourneyController {
     private JdbcTemplate jdbcTemplate;
 
     /**
-     * An Iterable of all current Bicycle Journeys. The size of it<br/>
-     * depends on how many months have been selected in the UI<br/>
-     * and its order varies when the UI columns have been sorted.
+     * The columnar read engine, used instead of the database if enabled.
+     */
+    @Autowired
+    private JourneyColumnStore journeyColumnStore;
+
+    /**
+     * The dictionary translating the stored Station codes into Station ids.
+     */
+    @Autowired
+    private StationCodes stationCodes;
+
+    /**
+     * The month partitions the Journeys of the selected dates are read from.
+     */
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    /**
+     * The sort columns of the paginated Journeys endpoint by their names.
      */
-    private Iterable<BicycleJourney> allJourneys;
+    private static final Map<String, String> PAGE_SORT_COLUMNS = Map.of(
+            "departureDate", "DEPARTURE_DATE",
+            "distance", "COVERED_DISTANCE",
+            "duration", "JOURNEY_DURATION");
 
     /**
-     * All Stations in the H2 database. Used with the stationsMap instance<br/>
-     * to get the Station faster from the database than without a HashMap.
+     * The maximum number of Bicycle Journeys on one page.
      */
-    private ArrayList<Station> stations;
+    private static final int MAX_PAGE_SIZE = 1000;
 
     /**
-     * A HashMap of types String and Station to get the Station faster.<br/>
-     * The Station id is a String and the Station is the Station object.
+     * The media type of the newline delimited JSON Journey export.
      */
-    private HashMap<String, Station> stationsMap;
+    private static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * The number of exported Journeys after which the output is flushed.
+     */
+    private static final int EXPORT_FLUSH_ROWS = 1000;
+
+    /**
+     * An ObjectMapper used for writing the Journey export.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * The JDBC fetch size used when Journeys are exported.
+     */
+    @Value("${citybicyclejourneys.export.fetch-size:1000}")
+    private int exportFetchSize;
 
     /**
      * A default constructor for the BicycleJourneyController class.
@@ -75,25 +119,24 @@ public class BicycleJourneyController {
     public BicycleJourneyController() {}
 
     /**
-     * For getting the number of Bicycle Journeys in the database if the UI<br/>
-     * has not yet loaded all the Bicycle Journeys or the number of the<br/>
-     * Iterable allJourneys if the Journeys have been loaded at least once.
+     * For getting the number of Bicycle Journeys in the selected dates,<br/>
+     * or the number of all the Bicycle Journeys if no dates are given.
      *
-     * @return A ResponseEntity with the number of Bicycle Journeys as a Long
+     * @param dates The departure dates of the selected Journeys
+     * @return      A ResponseEntity with the number of Journeys
      */
     @RequestMapping(value = "api/journeysCount/", method = RequestMethod.GET)
-    public synchronized ResponseEntity<Long> getAllJourneysCount() {
+    public ResponseEntity<Long> getAllJourneysCount(DepartureDateRange dates) {
+
         HttpHeaders headers = new HttpHeaders();
         Long count;
 
         headers.setAccessControlAllowOrigin("*");
 
-        if (this.allJourneys == null) {
-            count = this.bicycleJourneyDb.count();
+        if (journeyColumnStore.isEnabled()) {
+            count = journeyColumnStore.getColumns().count(dates);
         } else {
-            count = ((ArrayList<BicycleJourney>) this.allJourneys)
-                    .stream()
-                    .count();
+            count = journeyPartitions.count(dates);
         }
 
         return new ResponseEntity<>(count, headers, HttpStatus.OK);
@@ -101,387 +144,757 @@ public class BicycleJourneyController {
 
     /**
      * Returns all the Bicycle Journeys, either all of them<br/>
-     * or a part of them according to the selected months.
+     * or a part of them according to the selected dates.
      *
-     * @param selectedMonths The selected months (1 to 3 months selected)
-     * @return               A Response Entity with all the Bicycle Journeys
+     * @param dates The departure dates of the selected Journeys
+     * @return      A Response Entity with all the Bicycle Journeys
      */
 
     @RequestMapping(value = "api/journeys/", method = RequestMethod.GET)
-    public synchronized ResponseEntity<Iterable<BicycleJourney>> getJourneys(
-            @RequestParam int[] selectedMonths) {
+    public ResponseEntity<Iterable<BicycleJourney>> getJourneys(
+            DepartureDateRange dates) {
 
-        if (selectedMonths.length == 3) {
-            this.allJourneys = this.bicycleJourneyDb.findAll();
-            Collections.reverse((ArrayList<BicycleJourney>) this.allJourneys);
-        } else {
-            this.allJourneys = this.getJourneysBetweenDates(selectedMonths);
-            Collections.reverse((ArrayList<BicycleJourney>) this.allJourneys);
+        if (journeyColumnStore.isEnabled()) {
+            JourneyColumns columns = journeyColumnStore.getColumns();
+
+            return getBicycleJourneysWithResponseEntity(columns.getJourneys(
+                    JourneyColumns.reverse(columns.selectRows(dates)),
+                    null));
         }
+        ArrayList<BicycleJourney> journeys = this.getJourneysBetweenDates(
+                dates);
+        Collections.reverse(journeys);
 
-        return getBicycleJourneysWithResponseEntity();
+        return getBicycleJourneysWithResponseEntity(journeys);
     }
 
     /**
-     * Returns a single Bicycle Journey with the id in the URL path.
+     * <p>Returns one page of Bicycle Journeys using keyset pagination. The<br/>
+     * Journeys are ordered by the sort column and the id, and the next<br/>
+     * page starts right after the sort column value and the id stored in<br/>
+     * the cursor, so every page costs the same as the first one.</p>
      *
-     * @param id         The id (a String) of a Bicycle Journey
-     * @return           Returns a Response Entity with the Bicycle Journey
-     * @throws Exception BicycleJourneyNotFoundException / IdNotANumberException
+     * <p>The sort column is departureDate, distance or duration and the<br/>
+     * direction is either ascending or descending. Only the departure date<br/>
+     * is indexed, since indexes on distance and duration would slow down<br/>
+     * the import a lot, so pages sorted by them scan the selected dates<br/>
+     * but still keep only one page in memory. Pages sorted by the<br/>
+     * departure date read the month partitions in order and stop at the<br/>
+     * month that fills the page.</p>
+     *
+     * @param limit          The maximum number of Journeys on the page
+     * @param cursor         The next cursor of the previous page, if any
+     * @param sortBy         The name of the sort column
+     * @param direction      The sort direction, ascending or descending
+     * @param dates          The departure dates of the selected Journeys
+     * @return               A Response Entity with the page of Journeys
      */
-    @RequestMapping(value = "api/journeys/{id}/", method = RequestMethod.GET)
-    public synchronized ResponseEntity<BicycleJourney> getJourney(
-            @PathVariable String id) throws Exception {
+    @RequestMapping(value = "api/journeys/page/", method = RequestMethod.GET)
+    public ResponseEntity<BicycleJourneyPage> getJourneysPage(
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "departureDate") String sortBy,
+            @RequestParam(defaultValue = "ascending") String direction,
+            DepartureDateRange dates) {
+
+        String column = PAGE_SORT_COLUMNS.get(sortBy);
+
+        if (column == null) {
+            throw new InvalidPageRequestException(sortBy);
+        }
 
-        HttpHeaders headers = new HttpHeaders();
+        if (!direction.equals("ascending")
+                && !direction.equals("descending")) {
+            throw new InvalidPageRequestException(direction);
+        }
+        boolean descending = direction.equals("descending");
+        String sortOrder = sortBy + "," + direction;
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Object value = null;
+        Long id = null;
+
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = BicycleJourneyPage.decodeCursor(cursor,
+                    sortOrder);
+            value = getPageSortValue(sortBy, position[0], cursor);
+            id = parsePageId(position[1], cursor);
+        }
+        List<BicycleJourney> journeys = new ArrayList<>();
 
-        headers.setAccessControlAllowOrigin("*");
+        if (column.equals("DEPARTURE_DATE")) {
+            // The months are read in the sort order, each with the index on
+            // its departure dates, until the page is full.
+            List<JourneyPartitions.Selection> partitions =
+                    new ArrayList<>(journeyPartitions.select(dates));
 
-        try {
-            Long idAsLong = Long.parseLong(id);
-            Optional<BicycleJourney> optionalJourney = this.bicycleJourneyDb
-                    .findById(idAsLong);
+            if (descending) {
+                Collections.reverse(partitions);
+            }
 
-            if (optionalJourney.isPresent()) {
-                BicycleJourney journey = optionalJourney.get();
+            for (JourneyPartitions.Selection partition : partitions) {
 
-                return new ResponseEntity<>(journey, headers, HttpStatus.OK);
-            } else {
-                throw new BicycleJourneyNotFoundException(idAsLong);
+                if (value != null && isBeforeCursor(partition.month(),
+                        (LocalDateTime) value, descending)) {
+                    continue;
+                }
+                journeys.addAll(getPage(partition.table(), List.of(),
+                        partition.dates(), column, descending, value, id,
+                        pageSize + 1 - journeys.size()));
+
+                if (journeys.size() > pageSize) {
+                    break;
+                }
             }
-        } catch (NumberFormatException e) {
-            throw new IdNotANumberException(id);
+        } else {
+            List<Object> tableArgs = new ArrayList<>();
+            String table = journeyPartitions.from(dates, tableArgs);
+            journeys = getPage(table, tableArgs, DepartureDateRange.ALL,
+                    column, descending, value, id, pageSize + 1);
         }
+        String nextCursor = null;
+
+        if (journeys.size() > pageSize) {
+            journeys = journeys.subList(0, pageSize);
+            BicycleJourney last = journeys.get(pageSize - 1);
+            nextCursor = BicycleJourneyPage.encodeCursor(sortOrder,
+                    getPageSortValue(sortBy, last), last.getId());
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccessControlAllowOrigin("*");
+
+        return new ResponseEntity<>(new BicycleJourneyPage(journeys,
+                nextCursor), headers, HttpStatus.OK);
     }
 
     /**
-     * A helper method to get a Response Entity with sorted Bicycle Journeys.
+     * A helper method for reading the Journeys of a page from a table.
      *
-     * @return A Response Entity with Bicycle Journeys
+     * @param table      The table or the table expression of the Journeys
+     * @param tableArgs  The bind parameters of the table expression
+     * @param dates      The departure dates read from the table
+     * @param column     The sort column
+     * @param descending True for the descending order
+     * @param value      The sort column value of the cursor, or null
+     * @param id         The Journey id of the cursor, or null
+     * @param rows       The maximum number of Journeys read
+     * @return           The Journeys after the cursor in the sort order
      */
-    public ResponseEntity<Iterable<BicycleJourney>>
-    getBicycleJourneysWithResponseEntity() {
-
-        HttpHeaders headers = new HttpHeaders();
+    private List<BicycleJourney> getPage(String table, List<Object> tableArgs,
+            DepartureDateRange dates, String column, boolean descending,
+            Object value, Long id, int rows) {
+
+        String order = descending ? " DESC" : " ASC";
+        String comparison = descending ? " < " : " > ";
+        List<Object> args = new ArrayList<>(tableArgs);
+        List<String> conditions = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ID, DEPARTURE_DATE, "
+                + "RETURN_DATE, DEPARTURE_STATION_CODE, RETURN_STATION_CODE, "
+                + "COVERED_DISTANCE, JOURNEY_DURATION FROM ").append(table)
+                .append(" J");
+
+        if (!dates.isAll()) {
+            conditions.add(dates.toSql("DEPARTURE_DATE"));
+            args.addAll(dates.getArgs());
+        }
 
-        headers.setAccessControlAllowOrigin("*");
+        if (value != null) {
+            // The first condition lets H2 seek the index on the column.
+            conditions.add(column + comparison.trim() + "= ? AND (" + column
+                    + comparison + "? OR ID" + comparison + "?)");
+            args.add(value);
+            args.add(value);
+            args.add(id);
+        }
 
-        return new ResponseEntity<>(this.allJourneys, headers, HttpStatus.OK);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ").append(column).append(order).append(", ID")
+                .append(order).append(" LIMIT ?");
+        args.add(rows);
+
+        return jdbcTemplate.query(sql.toString(),
+                (resultSet, row) -> new BicycleJourney(
+                        resultSet.getLong("ID"),
+                        resultSet.getObject("DEPARTURE_DATE",
+                                LocalDateTime.class),
+                        resultSet.getObject("RETURN_DATE",
+                                LocalDateTime.class),
+                        getStationId(resultSet, "DEPARTURE_STATION_CODE"),
+                        getStationId(resultSet, "RETURN_STATION_CODE"),
+                        resultSet.getDouble("COVERED_DISTANCE"),
+                        resultSet.getInt("JOURNEY_DURATION")),
+                args.toArray());
     }
 
     /**
-     * A method to get the Bicycle Journeys between dates specified by the<br/>
-     * months to display parameter.
+     * A helper method telling whether every Journey of a month comes<br/>
+     * before the cursor of a page sorted by the departure date.
      *
-     * @param monthsToDisplay 1 to 3 months (int values) selected to display
-     * @return                An ArrayList with the Bicycle Journeys
+     * @param month      The month of a partition
+     * @param cursor     The departure date of the cursor
+     * @param descending True for the descending order
+     * @return           True if the month can be skipped
      */
-    public ArrayList<BicycleJourney> getJourneysBetweenDates(
-            int[] monthsToDisplay) {
+    private static boolean isBeforeCursor(YearMonth month,
+            LocalDateTime cursor, boolean descending) {
 
-        if (monthsToDisplay.length >= 3) {
-            this.allJourneys = bicycleJourneyDb.findAll();
-            ArrayList<BicycleJourney> journeys =
-                    (ArrayList<BicycleJourney>) this.allJourneys;
+        return descending ? month.atDay(1).atStartOfDay().isAfter(cursor)
+                : !cursor.isBefore(month.plusMonths(1).atDay(1)
+                        .atStartOfDay());
+    }
 
-            return journeys;
-        } else {
-            ArrayList<BicycleJourney> journeys = new ArrayList<>();
-            String dates =
-                    getDepartureDateRangeForMonthsToDisplay(monthsToDisplay);
-            String sql = "SELECT * FROM BICYCLE_JOURNEY WHERE " + dates;
-            jdbcTemplate.query(sql, resultSet -> {
-                journeys.add(
-                        new BicycleJourney(
-                                resultSet.getLong(1),
-                                this.getLocalDateTime(resultSet.getString(3)),
-                                this.getLocalDateTime(resultSet.getString(6)),
-                                resultSet.getString(4),
-                                resultSet.getString(7),
-                                resultSet.getDouble(2),
-                                resultSet.getInt(5)));
-            });
+    /**
+     * A helper method for getting the sort column value of a Journey as<br/>
+     * a String for a page cursor.
+     *
+     * @param sortBy  The name of the sort column
+     * @param journey The Bicycle Journey
+     * @return        The sort column value as a String
+     */
+    private String getPageSortValue(String sortBy, BicycleJourney journey) {
+        return switch (sortBy) {
+            case "distance" -> String.valueOf(journey.getCoveredDistance());
+            case "duration" -> String.valueOf(journey.getJourneyDuration());
+            default -> journey.getDepartureDate().toString();
+        };
+    }
 
-            return journeys;
+    /**
+     * A helper method for parsing a sort column value from a page cursor.
+     *
+     * @param sortBy The name of the sort column
+     * @param value  The sort column value in the cursor (a String)
+     * @param cursor The cursor, used in the exception if the value is bad
+     * @return       The sort column value for the SQL query
+     */
+    private Object getPageSortValue(String sortBy, String value,
+                                    String cursor) {
+        try {
+            return switch (sortBy) {
+                case "distance" -> Double.parseDouble(value);
+                case "duration" -> Integer.parseInt(value);
+                default -> LocalDateTime.parse(value);
+            };
+        } catch (RuntimeException e) {
+            throw new InvalidPageRequestException(cursor);
         }
     }
 
     /**
-     * A helper method for getting a date range.<br/>
-     * The selected months parameter determines the departure dates of the<br/>
-     * Bicycle Journeys so that they must start during the selected month(s).
+     * A helper method for parsing the Journey id from a page cursor.
      *
-     * @param selectedMonths The selected months
-     * @return               The Departure dates as a String SQL query
+     * @param id     The id in the cursor (a String)
+     * @param cursor The cursor, used in the exception if the id is bad
+     * @return       The Journey id (a long)
      */
-    public String getDepartureDateRangeForMonthsToDisplay(
-            int[] selectedMonths) {
+    private long parsePageId(String id, String cursor) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new InvalidPageRequestException(cursor);
+        }
+    }
 
-        StringBuilder dates = new StringBuilder();
+    /**
+     * <p>Exports the Bicycle Journeys of the selected dates, or all of<br/>
+     * them, as newline delimited JSON, one Journey per line. The rows are<br/>
+     * written to the response straight from the JDBC cursor, so the<br/>
+     * memory use stays the same however many Journeys match.</p>
+     *
+     * <p>The output is flushed after the first Journey and then regularly,<br/>
+     * so that the client gets the first bytes right away.</p>
+     *
+     * @param dates The departure dates of the selected Journeys
+     * @return      A Response Entity streaming the Journeys
+     */
+    @RequestMapping(value = "api/journeys/export/", method = RequestMethod.GET,
+            produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportJourneys(
+            DepartureDateRange dates) {
+
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT ID, DEPARTURE_DATE, RETURN_DATE, "
+                + "DEPARTURE_STATION_CODE, RETURN_STATION_CODE, "
+                + "COVERED_DISTANCE, JOURNEY_DURATION FROM "
+                + journeyPartitions.from(dates, args) + " J";
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory()
+                    .createGenerator(outputStream, JsonEncoding.UTF8);
+            generator.setPrettyPrinter(null);
+            generator.setRootValueSeparator(null);
+
+            journeyPartitions.executeLazily(connection -> {
+
+                try (PreparedStatement statement = connection
+                        .prepareStatement(sql)) {
+
+                    statement.setFetchSize(exportFetchSize);
+
+                    for (int i = 0; i < args.size(); i++) {
+                        statement.setObject(i + 1, args.get(i));
+                    }
+
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        writeJourneysAsJson(resultSet, generator);
+                    }
+                }
+
+                return null;
+            });
+            generator.close();
+        };
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccessControlAllowOrigin("*");
+        headers.setContentType(MediaType.parseMediaType(NDJSON));
 
-        for (int i = 0; i < selectedMonths.length; i++) {
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
 
-            if (i == 0) {
-                dates.append("(");
-            }
+    /**
+     * A helper method for writing the Journeys of a ResultSet as newline<br/>
+     * delimited JSON objects having the same fields as a BicycleJourney.
+     *
+     * @param resultSet     The Journeys from the Journey export query
+     * @param generator     The JSON generator writing to the response
+     * @throws SQLException Throws this if the Journeys cannot be read
+     */
+    private void writeJourneysAsJson(ResultSet resultSet,
+            JsonGenerator generator) throws SQLException {
+
+        long rows = 0;
 
-            if (i != 0) {
-                dates.append(" OR ");
+        try {
+            while (resultSet.next()) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", resultSet.getLong(1));
+                generator.writeStringField("departureDate", resultSet
+                        .getObject(2, LocalDateTime.class).toString());
+                generator.writeStringField("returnDate", resultSet
+                        .getObject(3, LocalDateTime.class).toString());
+                generator.writeStringField("departureStationId",
+                        getStationId(resultSet, 4));
+                generator.writeStringField("returnStationId",
+                        getStationId(resultSet, 5));
+                generator.writeNumberField("coveredDistance",
+                        resultSet.getDouble(6));
+                generator.writeNumberField("journeyDuration",
+                        resultSet.getInt(7));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+
+                if (rows++ % EXPORT_FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
             }
-            dates.append("DEPARTURE_DATE BETWEEN '2021-0");
-            dates.append(selectedMonths[i]);
-            dates.append("-01 00:00:00' AND '2021-0");
-            dates.append((selectedMonths[i] + 1));
-            dates.append("-01 00:00:00'");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        dates.append(")");
+    }
+
+    /**
+     * A helper method for reading a Station code column of a ResultSet as<br/>
+     * the Station id of the code.
+     *
+     * @param resultSet     The ResultSet positioned on a Journey
+     * @param column        The index of the Station code column
+     * @return              The Station id, or null if the code is null
+     * @throws SQLException Throws this if the column cannot be read
+     */
+    private String getStationId(ResultSet resultSet, int column)
+            throws SQLException {
+
+        int code = resultSet.getInt(column);
 
-        return dates.toString();
+        return resultSet.wasNull() ? null : stationCodes.decode(code);
     }
 
     /**
-     * <p>For sorting Bicycle Journeys with the sort direction<br/>
-     * (either ascending or descending) and with the type<br/>
-     * (either return or departure) and with the<br/>
-     * months to display as the parameters.</p>
+     * A helper method for reading a Station code column of a ResultSet as<br/>
+     * the Station id of the code.
      *
-     * <p>Uses ArrayList sorting and comparing the Station names<br/>
-     * instead of SQL sorting, to make the sorting faster.</p>
+     * @param resultSet     The ResultSet positioned on a Journey
+     * @param column        The label of the Station code column
+     * @return              The Station id, or null if the code is null
+     * @throws SQLException Throws this if the column cannot be read
+     */
+    private String getStationId(ResultSet resultSet, String column)
+            throws SQLException {
+
+        return getStationId(resultSet, resultSet.findColumn(column));
+    }
+
+    /**
+     * Returns a single Bicycle Journey with the id in the URL path.
      *
-     * @param sortDirection   The direction (String), ascending or descending
-     * @param type            The type (a String), either return or departure
-     * @param monthsToDisplay The months to display as int values
+     * @param id         The id (a String) of a Bicycle Journey
+     * @return           Returns a Response Entity with the Bicycle Journey
+     * @throws Exception BicycleJourneyNotFoundException / IdNotANumberException
      */
-    public void sortJourneys(String sortDirection, String type,
-            int[] monthsToDisplay) {
+    @RequestMapping(value = "api/journeys/{id}/", method = RequestMethod.GET)
+    public ResponseEntity<BicycleJourney> getJourney(
+            @PathVariable String id) throws Exception {
 
-        ArrayList<BicycleJourney> journeys =
-                this.getJourneysBetweenDates(monthsToDisplay);
+        HttpHeaders headers = new HttpHeaders();
 
-        journeys.sort((o1, o2) -> {
-            Optional<Station> s1 = Optional.empty();
-            Optional<Station> s2 = Optional.empty();
+        headers.setAccessControlAllowOrigin("*");
 
-            if (type.equals("return")) {
-                s1 = findStationFromMap(o1.getReturnStationId());
-                s2 = findStationFromMap(o2.getReturnStationId());
-            } else if (type.equals("departure")) {
-                s1 = findStationFromMap(o1.getDepartureStationId());
-                s2 = findStationFromMap(o2.getDepartureStationId());
-            }
+        try {
+            Long idAsLong = Long.parseLong(id);
+            Optional<BicycleJourney> optionalJourney =
+                    journeyColumnStore.isEnabled()
+                            ? journeyColumnStore.getColumns().findById(idAsLong)
+                            : this.bicycleJourneyDb.findById(idAsLong);
+
+            if (optionalJourney.isPresent()) {
+                BicycleJourney journey = optionalJourney.get();
 
-            if (s1.isEmpty() && s2.isEmpty()) {
-                return 0;
-            } else if (s1.isEmpty()) {
-                return -1;
-            } else if (s2.isEmpty()) {
-                return 1;
+                return new ResponseEntity<>(journey, headers, HttpStatus.OK);
             } else {
-                return s1.get().getName().compareTo(s2.get().getName());
+                throw new BicycleJourneyNotFoundException(idAsLong);
             }
-        });
-
-        if (sortDirection.equals("descending")) {
-            Collections.reverse(journeys);
+        } catch (NumberFormatException e) {
+            throw new IdNotANumberException(id);
         }
-        this.allJourneys = journeys;
     }
 
     /**
-     * For getting all the Stations.
+     * A helper method to get a Response Entity with sorted Bicycle Journeys.
+     *
+     * @param journeys The Bicycle Journeys of the request
+     * @return         A Response Entity with Bicycle Journeys
      */
-    public void getAllStations() {
+    public ResponseEntity<Iterable<BicycleJourney>>
+    getBicycleJourneysWithResponseEntity(Iterable<BicycleJourney> journeys) {
 
-        if (this.stations == null) {
-            this.stations = (ArrayList<Station>) this.stationDb.findAll();
-        }
+        HttpHeaders headers = new HttpHeaders();
+
+        headers.setAccessControlAllowOrigin("*");
+
+        return new ResponseEntity<>(journeys, headers, HttpStatus.OK);
     }
 
     /**
-     * For finding a Station from the Station HashMap in order<br/>
-     * to hasten the sorting of the Bicycle Journeys.
+     * A method to get the Bicycle Journeys departing in the selected dates.
      *
-     * @param stationId The Station id (not the true id) of the Station
-     * @return          An Optional Station to be returned
+     * @param dates The departure dates of the selected Journeys
+     * @return      An ArrayList with the Bicycle Journeys
      */
-    public Optional<Station> findStationFromMap(String stationId) {
-        Optional<Station> station = Optional.empty();
-        getAllStations();
-        addStationsToHashMap();
-
-        if (this.stationsMap.get(stationId) != null) {
-            station = Optional.of(this.stationsMap.get(stationId));
-        }
-
-        return station;
+    public ArrayList<BicycleJourney> getJourneysBetweenDates(
+            DepartureDateRange dates) {
+
+        ArrayList<BicycleJourney> journeys = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT ID, DEPARTURE_DATE, RETURN_DATE, "
+                + "DEPARTURE_STATION_CODE, RETURN_STATION_CODE, "
+                + "COVERED_DISTANCE, JOURNEY_DURATION FROM "
+                + journeyPartitions.from(dates, args) + " J";
+        jdbcTemplate.query(sql, resultSet -> {
+            journeys.add(
+                    new BicycleJourney(
+                            resultSet.getLong(1),
+                            resultSet.getObject(2, LocalDateTime.class),
+                            resultSet.getObject(3, LocalDateTime.class),
+                            getStationId(resultSet, 4),
+                            getStationId(resultSet, 5),
+                            resultSet.getDouble(6),
+                            resultSet.getInt(7)));
+        }, args.toArray());
+
+        return journeys;
     }
 
     /**
-     * For adding Stations to the Station Hash Map in order<br/>
-     * to hasten the sorting of the Bicycle Journeys.
+     * <p>For sorting Bicycle Journeys with the sort direction<br/>
+     * (either ascending or descending) and with the type<br/>
+     * (return, departure, distance or duration) and with the<br/>
+     * departure dates as the parameters.</p>
+     *
+     * <p>The Journeys are joined with the Station names and sorted by the<br/>
+     * database, so they arrive already in order and only the rows of the<br/>
+     * page are read. Journeys with an unknown Station come first when<br/>
+     * sorted ascending and last when sorted descending. The Journeys<br/>
+     * sorted by the distance or the duration are sorted in memory, with<br/>
+     * the same values in the order of their ids.</p>
+     *
+     * @param sortDirection   The direction (String), ascending or descending
+     * @param type            The type (a String), return, departure,
+     *                        distance or duration
+     * @param dates           The departure dates of the selected Journeys
+     * @param offset          The number of sorted Journeys skipped
+     * @param limit           The maximum number of Journeys, or null for all
+     * @return                The sorted Bicycle Journeys
      */
-    public void addStationsToHashMap() {
+    public List<BicycleJourney> sortJourneys(String sortDirection,
+            String type, DepartureDateRange dates, int offset, Integer limit) {
 
-        if (this.stationsMap == null) {
-            HashMap<String, Station> map = new HashMap<>();
+        if (limit != null && limit < 1) {
+            throw new InvalidPageRequestException(limit.toString());
+        }
 
-            for (int i = 0; i < stations.size(); i++) {
-                map.put(this.stations.get(i).getStationId(), stations.get(i));
-            }
-            this.stationsMap = map;
+        if (offset < 0) {
+            throw new InvalidPageRequestException(String.valueOf(offset));
         }
+        boolean descending = sortDirection.equals("descending");
+
+        if (journeyColumnStore.isEnabled()) {
+            return sortJourneysInColumns(type, descending, dates, offset,
+                    limit);
+        }
+
+        if (type.equals("distance") || type.equals("duration")) {
+            ArrayList<BicycleJourney> journeys =
+                    this.getJourneysBetweenDates(dates);
+            Comparator<BicycleJourney> comparator = type.equals("distance")
+                    ? Comparator.comparingDouble(
+                            BicycleJourney::getCoveredDistance)
+                    : Comparator.comparingInt(
+                            BicycleJourney::getJourneyDuration);
+
+            journeys.sort((descending ? comparator.reversed() : comparator)
+                    .thenComparing(BicycleJourney::getId));
+            int from = Math.min(offset, journeys.size());
+            int to = limit == null ? journeys.size()
+                    : (int) Math.min(journeys.size(), (long) from + limit);
+
+            return journeys.subList(from, to);
+        }
+        String stationColumn = type.equals("return") ? "RETURN_STATION_CODE"
+                : "DEPARTURE_STATION_CODE";
+        String order = descending ? " DESC NULLS LAST" : " ASC NULLS FIRST";
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT J.ID, "
+                + "J.DEPARTURE_DATE, J.RETURN_DATE, J.DEPARTURE_STATION_CODE, "
+                + "J.RETURN_STATION_CODE, J.COVERED_DISTANCE, "
+                + "J.JOURNEY_DURATION FROM ")
+                .append(journeyPartitions.from(dates, args))
+                .append(" J LEFT JOIN STATION S ON S.STATION_CODE = J.")
+                .append(stationColumn);
+        sql.append(" ORDER BY S.NAME").append(order).append(", J.ID")
+                .append(descending ? " DESC" : "");
+
+        if (limit != null) {
+            sql.append(" LIMIT ?");
+            args.add(limit);
+        }
+
+        if (offset > 0) {
+            sql.append(" OFFSET ?");
+            args.add(offset);
+        }
+
+        return jdbcTemplate.query(sql.toString(),
+                (resultSet, row) -> new BicycleJourney(
+                        resultSet.getLong(1),
+                        resultSet.getObject(2, LocalDateTime.class),
+                        resultSet.getObject(3, LocalDateTime.class),
+                        getStationId(resultSet, 4),
+                        getStationId(resultSet, 5),
+                        resultSet.getDouble(6),
+                        resultSet.getInt(7)), args.toArray());
+    }
+
+    /**
+     * Sorts the Bicycle Journeys of the selected dates in the columnar<br/>
+     * read engine by reading the precomputed order of the sort key.
+     *
+     * @param type            departure, return, distance or duration
+     * @param descending      True for the descending order
+     * @param dates           The departure dates of the selected Journeys
+     * @param offset          The number of sorted Journeys skipped
+     * @param limit           The maximum number of Journeys, or null for all
+     * @return                The sorted Bicycle Journeys
+     */
+    private List<BicycleJourney> sortJourneysInColumns(String type,
+            boolean descending, DepartureDateRange dates, int offset,
+            Integer limit) {
+
+        JourneyColumns columns = journeyColumnStore.getColumns();
+        JourneyColumns.SortKey key = switch (type) {
+            case "distance" -> JourneyColumns.SortKey.DISTANCE;
+            case "duration" -> JourneyColumns.SortKey.DURATION;
+            case "return" -> JourneyColumns.SortKey.RETURN_STATION;
+            default -> JourneyColumns.SortKey.DEPARTURE_STATION;
+        };
+
+        return columns.getJourneys(columns.sortRows(key, descending,
+                dates, offset, limit), null);
     }
 
     /**
      * For getting Bicycle Journeys sorted descending by departure Station.
      *
-     * @param selectedMonths The selected months as int values
+     * @param dates          The departure dates of the selected Journeys
+     * @param offset         The number of sorted Journeys skipped, 0 by
+     *                       default
+     * @param limit          The maximum number of Journeys, 100 by default
+     * @param all            True for all the Journeys without a limit
      * @return               A Response Entity with sorted Bicycle Journeys
      */
     @RequestMapping(value = "api/journeys/departureDesc/",
             method = RequestMethod.GET) public ResponseEntity
             <Iterable<BicycleJourney>> getJourneysSortedByDepartureStationDesc(
-            @RequestParam int[] selectedMonths) {
-
-        sortJourneys("descending", "departure", selectedMonths);
+            DepartureDateRange dates,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean all) {
 
-        return getBicycleJourneysWithResponseEntity();
+        return getBicycleJourneysWithResponseEntity(sortJourneys(
+                "descending", "departure", dates, offset, all ? null : limit));
     }
 
     /**
      * For getting Bicycle Journeys sorted ascending by departure Station.
      *
-     * @param selectedMonths The selected months as int values
+     * @param dates          The departure dates of the selected Journeys
+     * @param offset         The number of sorted Journeys skipped, 0 by
+     *                       default
+     * @param limit          The maximum number of Journeys, 100 by default
+     * @param all            True for all the Journeys without a limit
      * @return               A Response Entity with sorted Bicycle Journeys
      */
     @RequestMapping(value = "api/journeys/departureAsc/",
-            method =RequestMethod.GET) public ResponseEntity
+            method = RequestMethod.GET) public ResponseEntity
             <Iterable<BicycleJourney>> getJourneysSortedByDepartureStationAsc(
-            @RequestParam int[] selectedMonths) {
-
-        sortJourneys("ascending", "departure", selectedMonths);
+            DepartureDateRange dates,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean all) {
 
-        return getBicycleJourneysWithResponseEntity();
+        return getBicycleJourneysWithResponseEntity(sortJourneys(
+                "ascending", "departure", dates, offset, all ? null : limit));
     }
 
     /**
      * For getting Bicycle Journeys sorted descending by return Station.
      *
-     * @param selectedMonths The selected months as int values
+     * @param dates          The departure dates of the selected Journeys
+     * @param offset         The number of sorted Journeys skipped, 0 by
+     *                       default
+     * @param limit          The maximum number of Journeys, 100 by default
+     * @param all            True for all the Journeys without a limit
      * @return               A Response Entity with sorted Bicycle Journeys
      */
     @RequestMapping(value = "api/journeys/returnDesc/",
             method = RequestMethod.GET) public ResponseEntity
             <Iterable<BicycleJourney>> getJourneysSortedByReturnStationDesc(
-            @RequestParam int[] selectedMonths) {
-
-        sortJourneys("descending", "return", selectedMonths);
+            DepartureDateRange dates,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean all) {
 
-        return getBicycleJourneysWithResponseEntity();
+        return getBicycleJourneysWithResponseEntity(sortJourneys(
+                "descending", "return", dates, offset, all ? null : limit));
     }
 
     /**
-     * For getting Bicycle Journeys sorted ascending by return Station
+     * For getting Bicycle Journeys sorted ascending by return Station.
      *
-     * @param selectedMonths The selected months as int values
+     * @param dates          The departure dates of the selected Journeys
+     * @param offset         The number of sorted Journeys skipped, 0 by
+     *                       default
+     * @param limit          The maximum number of Journeys, 100 by default
+     * @param all            True for all the Journeys without a limit
      * @return               A Response Entity with sorted Bicycle Journeys
      */
     @RequestMapping(value = "api/journeys/returnAsc/",
             method = RequestMethod.GET) public ResponseEntity
             <Iterable<BicycleJourney>> getJourneysSortedByReturnStationAsc(
-                    @RequestParam int[] selectedMonths) {
+            DepartureDateRange dates,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean all) {
 
-        sortJourneys("ascending", "return", selectedMonths);
-
-        return getBicycleJourneysWithResponseEntity();
+        return getBicycleJourneysWithResponseEntity(sortJourneys(
+                "ascending", "return", dates, offset, all ? null : limit));
     }
 
     /**
      * For getting Bicycle Journeys sorted descending by distance.
      *
-     * @param selectedMonths The selected months as int values
+     * @param dates          The departure dates of the selected Journeys
+     * @param offset         The number of sorted Journeys skipped, 0 by
+     *                       default
+     * @param limit          The maximum number of Journeys, 100 by default
+     * @param all            True for all the Journeys without a limit
      * @return               A Response Entity with sorted Bicycle Journeys
      */
     @RequestMapping(value = "api/journeys/distanceDesc/",
             method = RequestMethod.GET) public ResponseEntity
             <Iterable<BicycleJourney>> getJourneysSortedByDistanceDesc(
-            @RequestParam int[] selectedMonths) {
-
-        ArrayList<BicycleJourney> journeys = this.getJourneysBetweenDates(
-                selectedMonths);
+            DepartureDateRange dates,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean all) {
 
-        journeys.sort(Comparator.comparingDouble(
-                BicycleJourney::getCoveredDistance).reversed());
-
-        this.allJourneys = journeys;
-
-        return getBicycleJourneysWithResponseEntity();
+        return getBicycleJourneysWithResponseEntity(sortJourneys(
+                "descending", "distance", dates, offset, all ? null : limit));
     }
 
     /**
      * For getting Bicycle Journeys sorted ascending by Journey distance.
      *
-     * @param selectedMonths The selected months as int values
+     * @param dates          The departure dates of the selected Journeys
+     * @param offset         The number of sorted Journeys skipped, 0 by
+     *                       default
+     * @param limit          The maximum number of Journeys, 100 by default
+     * @param all            True for all the Journeys without a limit
      * @return               A Response Entity with sorted Bicycle Journeys
      */
     @RequestMapping(value = "api/journeys/distanceAsc/",
             method = RequestMethod.GET) public ResponseEntity
             <Iterable<BicycleJourney>> getJourneysSortedByDistanceAsc(
-                    @RequestParam int[] selectedMonths) {
+            DepartureDateRange dates,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean all) {
 
-        ArrayList<BicycleJourney> journeys = this.getJourneysBetweenDates(
-                selectedMonths);
-
-        journeys.sort(Comparator.comparingDouble(
-                BicycleJourney::getCoveredDistance));
-
-        this.allJourneys = journeys;
-
-        return getBicycleJourneysWithResponseEntity();
+        return getBicycleJourneysWithResponseEntity(sortJourneys(
+                "ascending", "distance", dates, offset, all ? null : limit));
     }
 
     /**
      * For getting Bicycle Journeys sorted descending by Journey duration.
      *
-     * @param selectedMonths The selected months as int values
+     * @param dates          The departure dates of the selected Journeys
+     * @param offset         The number of sorted Journeys skipped, 0 by
+     *                       default
+     * @param limit          The maximum number of Journeys, 100 by default
+     * @param all            True for all the Journeys without a limit
      * @return               A Response Entity with sorted Bicycle Journeys
      */
     @RequestMapping(value = "api/journeys/durationDesc/",
             method = RequestMethod.GET) public ResponseEntity
             <Iterable<BicycleJourney>> getJourneysSortedByDurationDesc(
-            @RequestParam int[] selectedMonths) {
-
-        ArrayList<BicycleJourney> journeys = this.getJourneysBetweenDates(
-                selectedMonths);
-
-        journeys.sort(Comparator.comparingInt(
-                BicycleJourney::getJourneyDuration).reversed());
+            DepartureDateRange dates,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean all) {
 
-        this.allJourneys = journeys;
-
-        return getBicycleJourneysWithResponseEntity();
+        return getBicycleJourneysWithResponseEntity(sortJourneys(
+                "descending", "duration", dates, offset, all ? null : limit));
     }
 
     /**
      * For getting Bicycle Journeys sorted ascending by Journey duration.
      *
-     * @param selectedMonths The selected months as int values
+     * @param dates          The departure dates of the selected Journeys
+     * @param offset         The number of sorted Journeys skipped, 0 by
+     *                       default
+     * @param limit          The maximum number of Journeys, 100 by default
+     * @param all            True for all the Journeys without a limit
      * @return               A Response Entity with sorted Bicycle Journeys
      */
     @RequestMapping(value = "api/journeys/durationAsc/",
             method = RequestMethod.GET) public ResponseEntity
             <Iterable<BicycleJourney>> getJourneysSortedByDurationAsc(
-                    @RequestParam int[] selectedMonths) {
-
-        ArrayList<BicycleJourney> journeys = this.getJourneysBetweenDates(
-                selectedMonths);
-
-        journeys.sort(Comparator.comparingInt(
-                BicycleJourney::getJourneyDuration));
-
-        this.allJourneys = journeys;
+            DepartureDateRange dates,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "false") boolean all) {
 
-        return getBicycleJourneysWithResponseEntity();
+        return getBicycleJourneysWithResponseEntity(sortJourneys(
+                "ascending", "duration", dates, offset, all ? null : limit));
     }
 
     /**
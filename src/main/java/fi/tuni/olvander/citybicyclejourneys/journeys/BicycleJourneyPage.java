@@ -0,0 +1,105 @@
+package fi.tuni.olvander.citybicyclejourneys.journeys;
+
+import fi.tuni.olvander.citybicyclejourneys.exceptions
+        .InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A page of Bicycle Journeys returned by the paginated Journeys endpoint.<br/>
+ * The next cursor is an opaque String which points right after the last<br/>
+ * Journey of the page, or null if there are no more Journeys.
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class BicycleJourneyPage {
+
+    /**
+     * The Bicycle Journeys of the page.
+     */
+    private final List<BicycleJourney> journeys;
+
+    /**
+     * The cursor for fetching the next page, null on the last page.
+     */
+    private final String nextCursor;
+
+    /**
+     * A constructor for the BicycleJourneyPage class.
+     *
+     * @param journeys   The Bicycle Journeys of the page
+     * @param nextCursor The cursor of the next page, or null
+     */
+    public BicycleJourneyPage(List<BicycleJourney> journeys,
+                              String nextCursor) {
+
+        this.journeys = journeys;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the Bicycle Journeys of the page.
+     *
+     * @return A List of Bicycle Journeys
+     */
+    public List<BicycleJourney> getJourneys() {
+        return journeys;
+    }
+
+    /**
+     * Gets the cursor for fetching the next page.
+     *
+     * @return The next cursor (a String), or null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Encodes a cursor from the sort order and from the sort column value<br/>
+     * and the id of the last Journey of a page.
+     *
+     * @param sortOrder The sort column and direction, e.g.
+     *                  "distance,descending"
+     * @param value     The sort column value of the last Journey (a String)
+     * @param id        The id of the last Journey (a long)
+     * @return          An opaque cursor String
+     */
+    public static String encodeCursor(String sortOrder, String value,
+                                      long id) {
+
+        String cursor = sortOrder + "|" + value + "|" + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into the sort column value and the id of the last<br/>
+     * Journey of the previous page.
+     *
+     * @param cursor    The opaque cursor String
+     * @param sortOrder The sort order the cursor must have been made for
+     * @return          The sort column value and the id as Strings
+     * @throws InvalidPageRequestException If the cursor cannot be used
+     */
+    public static String[] decodeCursor(String cursor, String sortOrder) {
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8).split("\\|");
+
+            if (parts.length != 3 || !parts[0].equals(sortOrder)) {
+                throw new InvalidPageRequestException(cursor);
+            }
+
+            return new String[] {parts[1], parts[2]};
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException(cursor);
+        }
+    }
+}
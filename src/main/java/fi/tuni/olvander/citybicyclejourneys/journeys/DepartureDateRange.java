@@ -0,0 +1,319 @@
+package fi.tuni.olvander.citybicyclejourneys.journeys;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>The departure dates of the selected Bicycle Journeys as half-open<br/>
+ * ranges, each from a first departure date to the date right after the<br/>
+ * last one. A range may be open at either end.</p>
+ *
+ * <p>The ranges are written into SQL as bind parameters, so the SQL of<br/>
+ * a query only depends on the number of ranges and H2 reuses the plan<br/>
+ * of a prepared statement for any dates.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public final class DepartureDateRange {
+
+    /**
+     * The range selecting every Bicycle Journey.
+     */
+    public static final DepartureDateRange ALL = new DepartureDateRange(
+            new LocalDateTime[] {null}, new LocalDateTime[] {null});
+
+    /**
+     * The first departure dates of the ranges, null for an open start.
+     */
+    private final LocalDateTime[] starts;
+
+    /**
+     * The dates right after the ranges, null for an open end.
+     */
+    private final LocalDateTime[] ends;
+
+    /**
+     * A constructor for the DepartureDateRange class.
+     *
+     * @param starts The first departure dates of the ranges
+     * @param ends   The dates right after the ranges
+     */
+    private DepartureDateRange(LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Creates the range of the Journeys departing from a date and before<br/>
+     * another date.
+     *
+     * @param from The first departure date, or null for no start
+     * @param to   The date right after the last departure date, or null
+     *             for no end
+     * @return     The DepartureDateRange
+     */
+    public static DepartureDateRange between(LocalDateTime from,
+                                             LocalDateTime to) {
+
+        return ALL.clip(from, to);
+    }
+
+    /**
+     * Creates the ranges of the Journeys departing in the selected months<br/>
+     * of a year. Consecutive months are joined into one range.
+     *
+     * @param year           The year of the months
+     * @param selectedMonths The selected months, 1 to 12, or every Journey
+     *                       if null or empty
+     * @return               The DepartureDateRange
+     */
+    public static DepartureDateRange ofMonths(int year, int[] selectedMonths) {
+
+        if (selectedMonths == null || selectedMonths.length == 0) {
+            return ALL;
+        }
+        int[] months = Arrays.stream(selectedMonths).sorted().distinct()
+                .toArray();
+        List<LocalDateTime> starts = new ArrayList<>();
+        List<LocalDateTime> ends = new ArrayList<>();
+
+        for (int i = 0; i < months.length; i++) {
+            LocalDateTime start = LocalDate.of(year, months[i], 1)
+                    .atStartOfDay();
+
+            while (i + 1 < months.length && months[i + 1] == months[i] + 1) {
+                i++;
+            }
+            starts.add(start);
+            ends.add(LocalDate.of(year, months[i], 1).plusMonths(1)
+                    .atStartOfDay());
+        }
+
+        return new DepartureDateRange(starts.toArray(new LocalDateTime[0]),
+                ends.toArray(new LocalDateTime[0]));
+    }
+
+    /**
+     * Limits the ranges to the Journeys departing from a date and before<br/>
+     * another date.
+     *
+     * @param from The first departure date, or null for no limit
+     * @param to   The date right after the last departure date, or null
+     *             for no limit
+     * @return     The limited DepartureDateRange
+     */
+    public DepartureDateRange clip(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> clippedStarts = new ArrayList<>();
+        List<LocalDateTime> clippedEnds = new ArrayList<>();
+
+        for (int i = 0; i < starts.length; i++) {
+            LocalDateTime start = later(starts[i], from);
+            LocalDateTime end = earlier(ends[i], to);
+
+            if (start == null || end == null || start.isBefore(end)) {
+                clippedStarts.add(start);
+                clippedEnds.add(end);
+            }
+        }
+
+        return new DepartureDateRange(
+                clippedStarts.toArray(new LocalDateTime[0]),
+                clippedEnds.toArray(new LocalDateTime[0]));
+    }
+
+    /**
+     * Tells whether every Journey is selected.
+     *
+     * @return True if there is one range open at both ends
+     */
+    public boolean isAll() {
+        return starts.length == 1 && starts[0] == null && ends[0] == null;
+    }
+
+    /**
+     * Tells whether no Journey is selected.
+     *
+     * @return True if there are no ranges
+     */
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /**
+     * Tells whether every Journey departing from a date and before<br/>
+     * another date is selected.
+     *
+     * @param from The first departure date
+     * @param to   The date right after the last departure date
+     * @return     True if one of the ranges covers the dates
+     */
+    public boolean contains(LocalDateTime from, LocalDateTime to) {
+
+        for (int i = 0; i < starts.length; i++) {
+
+            if ((starts[i] == null || !starts[i].isAfter(from))
+                    && (ends[i] == null || !ends[i].isBefore(to))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Tells whether the ranges start and end at the first moment of a<br/>
+     * month, so the Station month statistics can answer them.
+     *
+     * @return True if every range is made of whole months
+     */
+    public boolean isWholeMonths() {
+
+        for (int i = 0; i < starts.length; i++) {
+
+            if (!isMonthStart(starts[i]) || !isMonthStart(ends[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes the ranges as an SQL condition on a date column with a bind<br/>
+     * parameter for every date, in the order of getArgs.
+     *
+     * @param column The date column
+     * @return       The SQL condition in parentheses
+     */
+    public String toSql(String column) {
+
+        if (starts.length == 0) {
+            return "(FALSE)";
+        }
+        StringBuilder sql = new StringBuilder("(");
+
+        for (int i = 0; i < starts.length; i++) {
+
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append("(").append(column).append(" >= ? AND ").append(column)
+                    .append(" < ?)");
+        }
+
+        return sql.append(")").toString();
+    }
+
+    /**
+     * Gets the bind parameters of the SQL condition. The open ends are<br/>
+     * given as the smallest and the largest dates, so the SQL is the same<br/>
+     * for every range.
+     *
+     * @return The dates of the SQL condition
+     */
+    public List<Object> getArgs() {
+        List<Object> args = new ArrayList<>();
+
+        for (int i = 0; i < starts.length; i++) {
+            args.add(starts[i] == null ? LocalDateTime.MIN : starts[i]);
+            args.add(ends[i] == null ? LocalDateTime.MAX : ends[i]);
+        }
+
+        return args;
+    }
+
+    /**
+     * Gets the ranges in epoch seconds for the columnar read engine.
+     *
+     * @return Pairs of the first second of a range and the second right
+     *         after it, or null if every Journey is selected
+     */
+    public int[] toEpochSecondRanges() {
+
+        if (isAll()) {
+            return null;
+        }
+        int[] ranges = new int[starts.length * 2];
+
+        for (int i = 0; i < starts.length; i++) {
+            ranges[i * 2] = toEpochSecond(starts[i], Integer.MIN_VALUE);
+            ranges[i * 2 + 1] = toEpochSecond(ends[i], Integer.MAX_VALUE);
+        }
+
+        return ranges;
+    }
+
+    /**
+     * Returns the ranges as text for logging and tests.
+     *
+     * @return The ranges, for example [2021-05-01T00:00, 2021-08-01T00:00)
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < starts.length; i++) {
+            text.append(i == 0 ? "" : " ").append("[").append(starts[i])
+                    .append(", ").append(ends[i]).append(")");
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * A helper method for getting the later of two range starts.
+     *
+     * @param a A start, or null for an open start
+     * @param b Another start, or null for an open start
+     * @return  The later start
+     */
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a == null ? b : b == null || a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * A helper method for getting the earlier of two range ends.
+     *
+     * @param a An end, or null for an open end
+     * @param b Another end, or null for an open end
+     * @return  The earlier end
+     */
+    private static LocalDateTime earlier(LocalDateTime a, LocalDateTime b) {
+        return a == null ? b : b == null || a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * A helper method telling whether a date is the first moment of a month.
+     *
+     * @param date The date, or null for an open end
+     * @return     True for an open end or the first moment of a month
+     */
+    private static boolean isMonthStart(LocalDateTime date) {
+        return date == null || (date.getDayOfMonth() == 1
+                && date.toLocalTime().toNanoOfDay() == 0);
+    }
+
+    /**
+     * A helper method for getting a date as epoch seconds in an int.
+     *
+     * @param date The date, or null for an open end
+     * @param open The value of an open end
+     * @return     The epoch second, limited to the int values
+     */
+    private static int toEpochSecond(LocalDateTime date, int open) {
+
+        if (date == null) {
+            return open;
+        }
+        long second = date.toEpochSecond(ZoneOffset.UTC);
+
+        return (int) Math.max(Integer.MIN_VALUE,
+                Math.min(Integer.MAX_VALUE, second));
+    }
+}
@@ -0,0 +1,43 @@
+package fi.tuni.olvander.citybicyclejourneys.journeys;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * A configuration class registering the resolver of the departure date<br/>
+ * ranges of the endpoints.
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Configuration
+public class DepartureDateRangeConfiguration implements WebMvcConfigurer {
+
+    /**
+     * The resolver of the DepartureDateRange parameters.
+     */
+    @Autowired
+    private DepartureDateRangeResolver departureDateRangeResolver;
+
+    /**
+     * A default constructor for the DepartureDateRangeConfiguration class.
+     */
+    public DepartureDateRangeConfiguration() {}
+
+    /**
+     * Adds the resolver of the DepartureDateRange parameters.
+     *
+     * @param resolvers The argument resolvers
+     */
+    @Override
+    public void addArgumentResolvers(
+            List<HandlerMethodArgumentResolver> resolvers) {
+
+        resolvers.add(departureDateRangeResolver);
+    }
+}
@@ -0,0 +1,168 @@
+package fi.tuni.olvander.citybicyclejourneys.journeys;
+
+import fi.tuni.olvander.citybicyclejourneys.exceptions
+        .InvalidDateRangeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Resolves the DepartureDateRange parameter of an endpoint from the<br/>
+ * request parameters selectedMonths, from and to.</p>
+ *
+ * <p>The selected months are months of the dataset year, given either as<br/>
+ * repeated parameters or separated by commas. The from and to parameters<br/>
+ * are ISO dates or date-times limiting the departure dates further. A<br/>
+ * from date includes the whole day and a to date-time is the first moment<br/>
+ * not included, while a to date includes the whole day. Without any of<br/>
+ * the parameters every Journey is selected.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class DepartureDateRangeResolver
+        implements HandlerMethodArgumentResolver {
+
+    /**
+     * The year of the selected months.
+     */
+    @Value("${citybicyclejourneys.dataset-year:2021}")
+    private int datasetYear;
+
+    /**
+     * A default constructor for the DepartureDateRangeResolver class.
+     */
+    public DepartureDateRangeResolver() {}
+
+    /**
+     * Tells whether the parameter is a DepartureDateRange.
+     *
+     * @param parameter The method parameter
+     * @return          True for a DepartureDateRange parameter
+     */
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == DepartureDateRange.class;
+    }
+
+    /**
+     * Creates the DepartureDateRange of the request parameters.
+     *
+     * @param parameter     The method parameter
+     * @param mavContainer  The ModelAndViewContainer, not used
+     * @param webRequest    The request
+     * @param binderFactory The WebDataBinderFactory, not used
+     * @return              The DepartureDateRange
+     */
+    @Override
+    public Object resolveArgument(MethodParameter parameter,
+            ModelAndViewContainer mavContainer, NativeWebRequest webRequest,
+            WebDataBinderFactory binderFactory) {
+
+        return resolve(webRequest.getParameterValues("selectedMonths"),
+                webRequest.getParameter("from"),
+                webRequest.getParameter("to"));
+    }
+
+    /**
+     * Creates the DepartureDateRange of the parameter values.
+     *
+     * @param selectedMonths The selectedMonths parameter values, or null
+     * @param from           The from parameter value, or null
+     * @param to             The to parameter value, or null
+     * @return               The DepartureDateRange
+     */
+    public DepartureDateRange resolve(String[] selectedMonths, String from,
+                                      String to) {
+
+        LocalDateTime start = parseDate(from, false);
+        LocalDateTime end = parseDate(to, true);
+
+        if (start != null && end != null && !start.isBefore(end)) {
+            throw new InvalidDateRangeException(from + " - " + to);
+        }
+
+        return DepartureDateRange.ofMonths(datasetYear,
+                parseMonths(selectedMonths)).clip(start, end);
+    }
+
+    /**
+     * A helper method for parsing the selected months.
+     *
+     * @param values The selectedMonths parameter values, or null
+     * @return       The months (int values)
+     */
+    private int[] parseMonths(String[] values) {
+        List<Integer> months = new ArrayList<>();
+
+        if (values != null) {
+            for (String value : values) {
+                for (String month : value.split(",")) {
+
+                    if (!month.isBlank()) {
+                        months.add(parseMonth(month.trim()));
+                    }
+                }
+            }
+        }
+
+        return months.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * A helper method for parsing one selected month.
+     *
+     * @param month The month (a String)
+     * @return      The month from 1 to 12
+     */
+    private int parseMonth(String month) {
+        try {
+            int value = Integer.parseInt(month);
+
+            if (value >= 1 && value <= 12) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below as an invalid month.
+        }
+
+        throw new InvalidDateRangeException(month);
+    }
+
+    /**
+     * A helper method for parsing a from or a to parameter.
+     *
+     * @param value The parameter value, an ISO date or date-time, or null
+     * @param end   True if a date means the moment right after the day
+     * @return      The date-time, or null if not given
+     */
+    private LocalDateTime parseDate(String value, boolean end) {
+
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+
+        try {
+            if (value.contains("T")) {
+                return LocalDateTime.parse(value);
+            }
+            LocalDate date = LocalDate.parse(value);
+
+            return (end ? date.plusDays(1) : date).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new InvalidDateRangeException(value);
+        }
+    }
+}
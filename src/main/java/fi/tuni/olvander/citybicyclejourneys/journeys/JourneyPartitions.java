@@ -0,0 +1,550 @@
+package fi.tuni.olvander.citybicyclejourneys.journeys;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>The month partitions of the Bicycle Journeys. The Journeys departing<br/>
+ * in a month are stored in their own table, created as a copy of the<br/>
+ * empty template table when the first Journey of the month is written,<br/>
+ * so a month can be dropped or loaded again without touching the other<br/>
+ * months.</p>
+ *
+ * <p>The queries read the partitions through from, which leaves out the<br/>
+ * months outside the departure dates, reads a month inside them without<br/>
+ * any date condition and unions the rest. The BICYCLE_JOURNEY view unions<br/>
+ * every month for the queries that do not depend on the dates, such as<br/>
+ * finding a Journey by its id.</p>
+ *
+ * <p>Creating and dropping a table commits the open transaction in H2,<br/>
+ * so the partitions are changed in a transaction of their own.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class JourneyPartitions {
+
+    /**
+     * The empty table every month partition is copied from.
+     */
+    public static final String TEMPLATE = "BICYCLE_JOURNEY_TEMPLATE";
+
+    /**
+     * The view of all the month partitions.
+     */
+    public static final String VIEW = "BICYCLE_JOURNEY";
+
+    /**
+     * The names of the month partitions, BICYCLE_JOURNEY_year_month.
+     */
+    private static final Pattern PARTITION_NAME = Pattern.compile(
+            "BICYCLE_JOURNEY_(\\d{4})_(\\d{2})");
+
+    /**
+     * A JdbcTemplate instance for interacting with the H2 database.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The transaction manager used for changing the partitions in a<br/>
+     * transaction of their own.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * An instance of Log for logging purposes.
+     */
+    private final Log logger = LogFactory.getLog(JourneyPartitions.class);
+
+    /**
+     * The months having a partition in ascending order, replaced when a<br/>
+     * partition is created or dropped.
+     */
+    private volatile List<YearMonth> months;
+
+    /**
+     * True if new partitions are created with their secondary indexes.
+     */
+    private boolean indexed = true;
+
+    /**
+     * A default constructor for the JourneyPartitions class.
+     */
+    public JourneyPartitions() {}
+
+    /**
+     * A month partition read by a query and the departure dates read from<br/>
+     * it.
+     *
+     * @param month The month of the partition
+     * @param table The table of the partition
+     * @param dates The departure dates read, DepartureDateRange.ALL if the
+     *              whole month is read
+     */
+    public record Selection(YearMonth month, String table,
+                            DepartureDateRange dates) {}
+
+    /**
+     * Gets the months having a partition.
+     *
+     * @return The months in ascending order
+     */
+    public List<YearMonth> getMonths() {
+        List<YearMonth> current = this.months;
+
+        if (current == null) {
+            synchronized (this) {
+
+                if (this.months == null) {
+                    this.months = readMonths(jdbcTemplate);
+                }
+                current = this.months;
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Selects the partitions having Journeys departing in the dates.
+     *
+     * @param dates The departure dates
+     * @return      The selected partitions in ascending order
+     */
+    public List<Selection> select(DepartureDateRange dates) {
+        List<Selection> selections = new ArrayList<>();
+
+        for (YearMonth month : getMonths()) {
+            LocalDateTime start = month.atDay(1).atStartOfDay();
+            LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+            DepartureDateRange part = dates.clip(start, end);
+
+            if (!part.isEmpty()) {
+                selections.add(new Selection(month, getTable(month),
+                        dates.contains(start, end) ? DepartureDateRange.ALL
+                                : part));
+            }
+        }
+
+        return selections;
+    }
+
+    /**
+     * Writes the table expression reading the Journeys departing in the<br/>
+     * dates, either a single partition or a union of the partitions, and<br/>
+     * adds its bind parameters to the arguments of the query.
+     *
+     * @param dates The departure dates
+     * @param args  The arguments of the query, the parameters of the table
+     *              expression are added to them
+     * @return      The table expression for the FROM clause, to be given
+     *              an alias
+     */
+    public String from(DepartureDateRange dates, List<Object> args) {
+        List<Selection> selections = select(dates);
+
+        if (selections.isEmpty()) {
+            return TEMPLATE;
+        }
+
+        if (selections.size() == 1 && selections.get(0).dates().isAll()) {
+            return selections.get(0).table();
+        }
+        StringBuilder union = new StringBuilder("(");
+
+        for (Selection selection : selections) {
+
+            if (union.length() > 1) {
+                union.append(" UNION ALL ");
+            }
+            union.append("SELECT * FROM ").append(selection.table());
+
+            if (!selection.dates().isAll()) {
+                union.append(" WHERE ").append(selection.dates().toSql(
+                        "DEPARTURE_DATE"));
+                args.addAll(selection.dates().getArgs());
+            }
+        }
+
+        return union.append(")").toString();
+    }
+
+    /**
+     * Counts the Journeys departing in the dates. A whole month is counted<br/>
+     * from the row count of its partition.
+     *
+     * @param dates The departure dates
+     * @return      The number of Journeys
+     */
+    public long count(DepartureDateRange dates) {
+        long count = 0;
+
+        for (Selection selection : select(dates)) {
+            String sql = "SELECT COUNT(*) FROM " + selection.table();
+            Long rows = selection.dates().isAll()
+                    ? jdbcTemplate.queryForObject(sql, Long.class)
+                    : jdbcTemplate.queryForObject(sql + " WHERE "
+                            + selection.dates().toSql("DEPARTURE_DATE"),
+                            Long.class, selection.dates().getArgs().toArray());
+            count += rows == null ? 0 : rows;
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the largest Journey id, read from the primary key of every<br/>
+     * partition.
+     *
+     * @return The largest id, or 0 if there are no Journeys
+     */
+    public long getMaxId() {
+        long maxId = 0;
+
+        for (YearMonth month : getMonths()) {
+            Long id = jdbcTemplate.queryForObject("SELECT MAX(ID) FROM "
+                    + getTable(month), Long.class);
+            maxId = Math.max(maxId, id == null ? 0 : id);
+        }
+
+        return maxId;
+    }
+
+    /**
+     * Runs the action on a connection with the H2 lazy query execution on,<br/>
+     * so the rows of its queries are streamed as they are found instead<br/>
+     * of computing the whole result before returning the first row.
+     *
+     * @param action The action reading the Journeys
+     * @param <T>    The type of the result
+     * @return       The result of the action
+     */
+    public <T> T executeLazily(ConnectionCallback<T> action) {
+        return jdbcTemplate.execute((ConnectionCallback<T>) connection -> {
+            setLazyQueryExecution(connection, true);
+
+            try {
+                return action.doInConnection(connection);
+            } finally {
+                setLazyQueryExecution(connection, false);
+            }
+        });
+    }
+
+    /**
+     * Creates the partitions of the months that do not have one yet.
+     *
+     * @param newMonths The months the Journeys are written to
+     */
+    public synchronized void create(Collection<YearMonth> newMonths) {
+        TreeSet<YearMonth> all = new TreeSet<>(getMonths());
+        List<YearMonth> missing = new ArrayList<>();
+
+        for (YearMonth month : newMonths) {
+
+            if (all.add(month)) {
+                missing.add(month);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return;
+        }
+        inOwnTransaction(() -> {
+            List<String> script = readTemplate(jdbcTemplate);
+
+            for (YearMonth month : missing) {
+                createPartition(jdbcTemplate, script, month, indexed);
+                logger.info("Created the Journey partition "
+                        + getTable(month));
+            }
+            jdbcTemplate.execute(getViewStatement(all));
+        });
+        this.months = List.copyOf(all);
+    }
+
+    /**
+     * Drops the partition of a month and its Journeys. The other months<br/>
+     * are not touched.
+     *
+     * @param month The month
+     * @return      True if the month had a partition
+     */
+    public synchronized boolean drop(YearMonth month) {
+        TreeSet<YearMonth> all = new TreeSet<>(getMonths());
+
+        if (!all.remove(month)) {
+            return false;
+        }
+        // The partition is left out before it is dropped, so the new
+        // queries do not read it.
+        this.months = List.copyOf(all);
+        inOwnTransaction(() -> {
+            jdbcTemplate.execute(getViewStatement(all));
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + getTable(month));
+        });
+        logger.info("Dropped the Journey partition " + getTable(month));
+
+        return true;
+    }
+
+    /**
+     * Drops the partitions of every month found in the database.
+     */
+    public synchronized void dropAll() {
+        reload();
+
+        for (YearMonth month : getMonths()) {
+            drop(month);
+        }
+    }
+
+    /**
+     * Turns the secondary indexes of the new partitions off or on. A bulk<br/>
+     * import into new months is faster without them, as building an index<br/>
+     * once over all the rows is much faster than updating it for every<br/>
+     * batch. The partitions that already exist keep their indexes, so the<br/>
+     * months already imported stay fast to query. Turning the indexes on<br/>
+     * creates the missing indexes of every partition.
+     *
+     * @param on True to create the indexes, false to create the new
+     *           partitions without them
+     */
+    public synchronized void setIndexed(boolean on) {
+        this.indexed = on;
+
+        if (on) {
+            createIndexes(getMonths());
+        }
+    }
+
+    /**
+     * Creates the missing secondary indexes of the partitions of the<br/>
+     * months, so they can be queried fast while the other new partitions<br/>
+     * are still being written without indexes. The partitions are not<br/>
+     * locked meanwhile, so the writers of the other months are not held<br/>
+     * up by the index builds.
+     *
+     * @param indexedMonths The months whose partitions are indexed
+     */
+    public void createIndexes(
+            Collection<YearMonth> indexedMonths) {
+
+        if (indexedMonths.isEmpty()) {
+            return;
+        }
+        inOwnTransaction(() -> {
+            List<String> script = readTemplate(jdbcTemplate);
+
+            for (YearMonth month : indexedMonths) {
+                List<String> names = jdbcTemplate.queryForList("SELECT "
+                        + "INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE "
+                        + "TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ?",
+                        String.class, getTable(month));
+
+                for (String statement : getIndexStatements(script, month)) {
+
+                    if (names.stream().anyMatch(name -> statement.contains(
+                            "\"" + name + "\""))) {
+                        continue;
+                    }
+                    long start = System.nanoTime();
+                    jdbcTemplate.execute(statement);
+                    logger.info(String.format("%s in %.1f s", statement,
+                            (System.nanoTime() - start) / 1e9));
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads the months having a partition from the database again.
+     */
+    public synchronized void reload() {
+        this.months = readMonths(jdbcTemplate);
+    }
+
+    /**
+     * Gets the table of a month partition.
+     *
+     * @param month The month
+     * @return      The table name, for example BICYCLE_JOURNEY_2021_05
+     */
+    public static String getTable(YearMonth month) {
+        return String.format("BICYCLE_JOURNEY_%04d_%02d", month.getYear(),
+                month.getMonthValue());
+    }
+
+    /**
+     * Reads the months having a partition.
+     *
+     * @param jdbcTemplate The JdbcTemplate of the database
+     * @return             The months in ascending order
+     */
+    public static List<YearMonth> readMonths(JdbcTemplate jdbcTemplate) {
+        TreeSet<YearMonth> months = new TreeSet<>();
+
+        for (String table : jdbcTemplate.queryForList("SELECT TABLE_NAME "
+                + "FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = "
+                + "'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'", String.class)) {
+
+            Matcher matcher = PARTITION_NAME.matcher(table);
+
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)),
+                        Integer.parseInt(matcher.group(2))));
+            }
+        }
+
+        return List.copyOf(months);
+    }
+
+    /**
+     * Reads the statements creating the template table and its indexes.
+     *
+     * @param jdbcTemplate The JdbcTemplate of the database
+     * @return             The statements of the template table
+     */
+    public static List<String> readTemplate(JdbcTemplate jdbcTemplate) {
+        List<String> statements = new ArrayList<>();
+
+        for (String statement : jdbcTemplate.queryForList("SCRIPT NODATA "
+                + "NOPASSWORDS NOSETTINGS TABLE " + TEMPLATE, String.class)) {
+
+            if (!statement.startsWith("--")
+                    && statement.contains("\"" + TEMPLATE + "\"")) {
+                statements.add(statement);
+            }
+        }
+
+        return statements;
+    }
+
+    /**
+     * Creates the partition of a month as a copy of the template table.
+     *
+     * @param jdbcTemplate The JdbcTemplate of the database
+     * @param script       The statements from readTemplate
+     * @param month        The month
+     * @param indexes      True to create the secondary indexes too
+     */
+    public static void createPartition(JdbcTemplate jdbcTemplate,
+            List<String> script, YearMonth month, boolean indexes) {
+
+        for (String statement : script) {
+
+            if (!statement.startsWith("CREATE INDEX")) {
+                jdbcTemplate.execute(statement.replace(TEMPLATE,
+                        getTable(month)));
+            }
+        }
+
+        if (indexes) {
+            for (String statement : getIndexStatements(script, month)) {
+                jdbcTemplate.execute(statement);
+            }
+        }
+    }
+
+    /**
+     * Writes the statement replacing the view of all the partitions.
+     *
+     * @param months The months having a partition
+     * @return       The CREATE VIEW statement
+     */
+    public static String getViewStatement(Collection<YearMonth> months) {
+        StringBuilder sql = new StringBuilder("CREATE OR REPLACE VIEW "
+                + VIEW + " AS ");
+
+        if (months.isEmpty()) {
+            return sql.append("SELECT * FROM ").append(TEMPLATE).toString();
+        }
+
+        for (YearMonth month : new TreeSet<>(months)) {
+
+            if (!sql.toString().endsWith(" AS ")) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT * FROM ").append(getTable(month));
+        }
+
+        return sql.toString();
+    }
+
+    /**
+     * A helper method for getting the statements creating the secondary<br/>
+     * indexes of a partition if they do not exist.
+     *
+     * @param script The statements from readTemplate
+     * @param month  The month of the partition
+     * @return       The CREATE INDEX statements
+     */
+    private static List<String> getIndexStatements(List<String> script,
+                                                   YearMonth month) {
+        List<String> statements = new ArrayList<>();
+
+        for (String statement : script) {
+
+            if (statement.startsWith("CREATE INDEX")) {
+                statements.add(statement.replace(TEMPLATE, getTable(month))
+                        .replace("CREATE INDEX", "CREATE INDEX IF NOT EXISTS"));
+            }
+        }
+
+        return statements;
+    }
+
+    /**
+     * A helper method for running DDL in a transaction of its own, so the<br/>
+     * implicit commit of H2 does not commit the transaction of the caller.
+     *
+     * @param ddl The statements to run
+     */
+    private void inOwnTransaction(Runnable ddl) {
+        TransactionTemplate ownTransaction =
+                new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        ownTransaction.executeWithoutResult(status -> ddl.run());
+    }
+
+    /**
+     * A helper method for turning the H2 lazy query execution on or off<br/>
+     * for a connection.
+     *
+     * @param connection    The database connection
+     * @param lazy          True for streaming rows as they are found
+     * @throws SQLException Throws this if the setting cannot be changed
+     */
+    private static void setLazyQueryExecution(Connection connection,
+                                              boolean lazy)
+            throws SQLException {
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + lazy);
+        }
+    }
+}
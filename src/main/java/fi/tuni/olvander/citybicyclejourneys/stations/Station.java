@@ -1,5 +1,7 @@
 package fi.tuni.olvander.citybicyclejourneys.stations;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -7,7 +9,8 @@ import jakarta.persistence.Id;
 
 /**
  * A Station class, that is used when Station objects are added to the<br/>
- * Station database and for getting Station related data.
+ * Station database and for getting Station related data.<br/>
+ * The table and its indexes are created by the Flyway migrations.
  *
  * @author  Olli Pertovaara
  * @version 2023.12.13
@@ -27,8 +30,10 @@ public class Station {
 
     /**
      * A String type station reference id used together with<br/>
-     * BicycleJourney objects to fetch Station data.
+     * BicycleJourney objects to fetch Station data, stored as its code.
      */
+    @Column(name = "STATION_CODE")
+    @Convert(converter = StationCodeConverter.class)
     private String stationId;
 
     /**
@@ -75,6 +80,24 @@ public class Station {
         this.y = y;
     }
 
+    /**
+     * A constructor for the Station object comprising six parameters, used<br/>
+     * when a Station is read from the database without the repository.
+     *
+     * @param id        The Station id (an int)
+     * @param stationId The Station reference id (a String)
+     * @param name      The Station name (a String)
+     * @param address   The Station address (a String)
+     * @param x         The Station x position (a double)
+     * @param y         The Station y position (a double)
+     */
+    public Station(int id, String stationId, String name, String address,
+                   double x, double y) {
+
+        this(stationId, name, address, x, y);
+        this.id = id;
+    }
+
     /**
      * Gets the Station id of type integer.
      *
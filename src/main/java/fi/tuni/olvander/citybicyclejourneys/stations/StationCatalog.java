@@ -0,0 +1,145 @@
+package fi.tuni.olvander.citybicyclejourneys.stations;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <p>A catalog of all the Stations kept in memory, so reading a Station<br/>
+ * never touches the database. The Stations are loaded into an immutable<br/>
+ * snapshot indexed by both the id and the Station reference id the first<br/>
+ * time they are needed.</p>
+ *
+ * <p>The snapshot is replaced as a whole by reload, so concurrent readers<br/>
+ * see either the old or the new Stations but never a mix of them. The<br/>
+ * Stations of the catalog are shared and must not be modified.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class StationCatalog {
+
+    /**
+     * The Station Repository the Stations are loaded from.
+     */
+    @Autowired
+    private StationRepository stationDb;
+
+    /**
+     * The current snapshot, null until the Stations are first needed.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * A default constructor for the StationCatalog class.
+     */
+    public StationCatalog() {}
+
+    /**
+     * Loads the Stations from the database again and replaces the<br/>
+     * snapshot with them. Called after the Stations have been imported.
+     */
+    public void reload() {
+        ArrayList<Station> loaded = new ArrayList<>();
+        stationDb.findAll().forEach(loaded::add);
+        Station[] stations = loaded.toArray(new Station[0]);
+        Arrays.sort(stations, Comparator.comparingInt(Station::getId));
+
+        int maxId = stations.length == 0 ? 0
+                : stations[stations.length - 1].getId();
+        Station[] byId = new Station[maxId + 1];
+        HashMap<String, Station> byStationId = new HashMap<>();
+
+        for (Station station : stations) {
+
+            if (station.getId() >= 0) {
+                byId[station.getId()] = station;
+            }
+            byStationId.putIfAbsent(station.getStationId(), station);
+        }
+        this.snapshot = new Snapshot(Collections.unmodifiableList(
+                Arrays.asList(stations)), byId, Map.copyOf(byStationId));
+    }
+
+    /**
+     * Gets all the Stations ordered by their ids.
+     *
+     * @return An unmodifiable List of the Stations
+     */
+    public List<Station> getStations() {
+        return getSnapshot().stations();
+    }
+
+    /**
+     * Finds a Station by its id.
+     *
+     * @param id The id of the Station
+     * @return   An Optional Station, empty if there is no such Station
+     */
+    public Optional<Station> findById(int id) {
+        Station[] byId = getSnapshot().byId();
+
+        if (id < 0 || id >= byId.length) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(byId[id]);
+    }
+
+    /**
+     * Finds a Station by its Station reference id.
+     *
+     * @param stationId The Station id which is not the same as the real id
+     * @return          An Optional Station, empty if there is no such Station
+     */
+    public Optional<Station> findByStationId(String stationId) {
+
+        if (stationId == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(getSnapshot().byStationId().get(stationId));
+    }
+
+    /**
+     * Returns the current snapshot, loading the Stations if they have not<br/>
+     * been loaded yet.
+     *
+     * @return The current snapshot
+     */
+    private Snapshot getSnapshot() {
+        Snapshot current = this.snapshot;
+
+        if (current == null) {
+            synchronized (this) {
+
+                if (this.snapshot == null) {
+                    reload();
+                }
+                current = this.snapshot;
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * An immutable snapshot of the Stations.
+     *
+     * @param stations    The Stations ordered by their ids
+     * @param byId        The Stations at the index of their ids
+     * @param byStationId The Stations by their Station reference ids
+     */
+    private record Snapshot(List<Station> stations, Station[] byId,
+                            Map<String, Station> byStationId) {}
+}
@@ -0,0 +1,55 @@
+package fi.tuni.olvander.citybicyclejourneys.stations;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * A JPA converter storing a Station id as its code from StationCodes, so<br/>
+ * the entities keep their String Station ids while the tables store the<br/>
+ * int codes.
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+@Converter
+public class StationCodeConverter
+        implements AttributeConverter<String, Integer> {
+
+    /**
+     * The dictionary of the Station ids.
+     */
+    @Autowired
+    private StationCodes stationCodes;
+
+    /**
+     * A default constructor for the StationCodeConverter class.
+     */
+    public StationCodeConverter() {}
+
+    /**
+     * Converts a Station id into its code, adding the id to the<br/>
+     * dictionary if it has no code yet.
+     *
+     * @param stationId The Station id
+     * @return          The code, or null if the Station id is null
+     */
+    @Override
+    public Integer convertToDatabaseColumn(String stationId) {
+        return stationId == null ? null : stationCodes.encode(stationId);
+    }
+
+    /**
+     * Converts a code into its Station id.
+     *
+     * @param code The code
+     * @return     The Station id, or null if the code is null
+     */
+    @Override
+    public String convertToEntityAttribute(Integer code) {
+        return code == null ? null : stationCodes.decode(code);
+    }
+}
@@ -0,0 +1,192 @@
+package fi.tuni.olvander.citybicyclejourneys.stations;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>The dictionary of the Station ids. Every Station id has an int code<br/>
+ * and the database and the in-memory structures store the code instead<br/>
+ * of the id. The dictionary is kept in memory, so a code and an id are<br/>
+ * translated without a query.</p>
+ *
+ * <p>A new Station id gets the next code when it is first encoded. The<br/>
+ * code is committed in its own transaction, so a code is never lost even<br/>
+ * if the transaction storing the Journey or the Station is rolled back.</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+@Component
+public class StationCodes {
+
+    /**
+     * The code of a Station id missing from the dictionary.
+     */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * A JdbcTemplate instance for interacting with the H2 database.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The transaction manager, lazy since the JPA converter of the Station<br/>
+     * codes is needed while the transaction manager is being created.
+     */
+    @Autowired
+    @Lazy
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * The codes by the Station ids.
+     */
+    private final ConcurrentHashMap<String, Integer> codes =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The Station ids by their codes, replaced when a code is added.
+     */
+    private volatile String[] stationIds;
+
+    /**
+     * A default constructor for the StationCodes class.
+     */
+    public StationCodes() {}
+
+    /**
+     * Gets the code of a Station id.
+     *
+     * @param stationId The Station id
+     * @return          The code, or UNKNOWN if the id has no code
+     */
+    public int getCode(String stationId) {
+        getStationIds();
+        Integer code = stationId == null ? null : codes.get(stationId);
+
+        return code == null ? UNKNOWN : code;
+    }
+
+    /**
+     * Gets the code of a Station id, adding the id to the dictionary if<br/>
+     * it has no code yet.
+     *
+     * @param stationId The Station id
+     * @return          The code, or UNKNOWN if the Station id is null
+     */
+    public int encode(String stationId) {
+        int code = getCode(stationId);
+
+        if (code != UNKNOWN || stationId == null) {
+            return code;
+        }
+
+        return addCode(stationId);
+    }
+
+    /**
+     * Gets the Station id of a code.
+     *
+     * @param code The code
+     * @return     The Station id, or null if there is no such code
+     */
+    public String decode(int code) {
+        String[] ids = getStationIds();
+
+        if (code >= 0 && (code >= ids.length || ids[code] == null)) {
+            // The code may have been added by another application sharing
+            // the database.
+            reload();
+            ids = getStationIds();
+        }
+
+        return code >= 0 && code < ids.length ? ids[code] : null;
+    }
+
+    /**
+     * Gets the Station ids by their codes.
+     *
+     * @return An array having the Station id at the index of its code,
+     *         which must not be modified
+     */
+    public String[] getStationIds() {
+        String[] ids = this.stationIds;
+
+        if (ids == null) {
+            synchronized (this) {
+
+                if (this.stationIds == null) {
+                    reload();
+                }
+                ids = this.stationIds;
+            }
+        }
+
+        return ids;
+    }
+
+    /**
+     * Loads the dictionary from the database again.
+     */
+    public synchronized void reload() {
+        Integer maxCode = jdbcTemplate.queryForObject("SELECT MAX(CODE) FROM "
+                + "STATION_CODE", Integer.class);
+        String[] ids = new String[maxCode == null ? 0 : maxCode + 1];
+
+        // The codes are never removed, so the readers can keep using the
+        // codes while they are loaded.
+        jdbcTemplate.query("SELECT CODE, STATION_ID FROM STATION_CODE",
+                resultSet -> {
+                    ids[resultSet.getInt(1)] = resultSet.getString(2);
+                    codes.put(resultSet.getString(2), resultSet.getInt(1));
+                });
+        this.stationIds = ids;
+    }
+
+    /**
+     * Adds a Station id to the dictionary.
+     *
+     * @param stationId The Station id
+     * @return          The new code of the Station id
+     */
+    private synchronized int addCode(String stationId) {
+        Integer existing = codes.get(stationId);
+
+        if (existing != null) {
+            return existing;
+        }
+        TransactionTemplate newCodeTransaction =
+                new TransactionTemplate(transactionManager);
+        newCodeTransaction.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Integer code = newCodeTransaction.execute(status -> {
+            jdbcTemplate.update("MERGE INTO STATION_CODE (STATION_ID) KEY "
+                    + "(STATION_ID) VALUES (?)", stationId);
+
+            return jdbcTemplate.queryForObject("SELECT CODE FROM "
+                    + "STATION_CODE WHERE STATION_ID = ?", Integer.class,
+                    stationId);
+        });
+        String[] ids = stationIds;
+
+        if (code >= ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(code + 1, ids.length * 2));
+        } else {
+            ids = ids.clone();
+        }
+        ids[code] = stationId;
+        this.stationIds = ids;
+        codes.put(stationId, code);
+
+        return code;
+    }
+}
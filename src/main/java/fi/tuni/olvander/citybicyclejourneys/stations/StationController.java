@@ -1,8 +1,16 @@
 package fi.tuni.olvander.citybicyclejourneys.stations;
 
+import fi.tuni.olvander.citybicyclejourneys.columns.JourneyColumnStore;
+import fi.tuni.olvander.citybicyclejourneys.columns.JourneyColumns;
 import fi.tuni.olvander.citybicyclejourneys.exceptions.IdNotANumberException;
+import fi.tuni.olvander.citybicyclejourneys.exceptions
+        .InvalidPageRequestException;
 import fi.tuni.olvander.citybicyclejourneys.exceptions.StationNotFoundException;
+import fi.tuni.olvander.citybicyclejourneys.imports.StationStatisticsWriter;
+import fi.tuni.olvander.citybicyclejourneys.journeys.DepartureDateRange;
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,7 +23,13 @@ import org.springframework.web.bind.annotation.RequestParam;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * A Station Controller class used to make accessing City Bicycle Station<br/>
@@ -29,10 +43,10 @@ import java.util.Optional;
 public class StationController {
 
     /**
-     * The Station Repository for interacting with the Station database.<br/>
+     * The in-memory Station Catalog every Station is looked up from.
      */
     @Autowired
-    private StationRepository stationDb;
+    private StationCatalog stationCatalog;
 
     /**
      * A Jdbc Template for interacting with the H2 database<br/>
@@ -41,6 +55,37 @@ public class StationController {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    /**
+     * The columnar read engine, used instead of the database if enabled.
+     */
+    @Autowired
+    private JourneyColumnStore journeyColumnStore;
+
+    /**
+     * The dictionary of the Station codes stored with the Journeys.
+     */
+    @Autowired
+    private StationCodes stationCodes;
+
+    /**
+     * The month partitions the Journeys of the selected dates are read from.
+     */
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    /**
+     * The application task executor used for running the top 5 Station<br/>
+     * queries of the Station summary in parallel.
+     */
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    /**
+     * The number of most popular Stations in the Station summary.
+     */
+    private static final int TOP_STATIONS = 5;
+
     /**
      * A default constructor for the StationController class.
      */
@@ -52,10 +97,10 @@ public class StationController {
      * @return A Response Entity with an Iterable Station List
      */
     @RequestMapping(value = "api/stations/", method = RequestMethod.GET)
-    public synchronized ResponseEntity<Iterable<Station>> getStations() {
+    public ResponseEntity<Iterable<Station>> getStations() {
+        List<Station> stations = stationCatalog.getStations();
 
-        if (stationDb.count() > 0) {
-            Iterable<Station> stations = stationDb.findAll();
+        if (!stations.isEmpty()) {
             HttpHeaders headers = new HttpHeaders();
             headers.setAccessControlAllowOrigin("*");
 
@@ -74,14 +119,14 @@ public class StationController {
      * @throws Exception StationNotFoundException / IdNotANumberException
      */
     @RequestMapping(value = "api/stations/{id}/", method = RequestMethod.GET)
-    public synchronized ResponseEntity<Station> getStationWithId(
+    public ResponseEntity<Station> getStationWithId(
             @PathVariable String id) throws Exception {
 
         ResponseEntity<Station> stationEntity;
 
         try {
             int idAsInt = Integer.parseInt(id);
-            Optional<Station> optionalStation = this.stationDb
+            Optional<Station> optionalStation = this.stationCatalog
                     .findById(idAsInt);
 
             if (optionalStation.isPresent()) {
@@ -105,14 +150,14 @@ public class StationController {
      * Station with the id in the URL path.
      *
      * @param id             The id in the URL path
-     * @param selectedMonths 1 to 3 months selected (int values)
+     * @param dates          The departure dates of the selected Journeys
      * @return               A Response Entity with the Journey count (Int)
      * @throws Exception     StationNotFoundException / IdNotANumberException
      */
     @RequestMapping(value = "api/stations/{id}/totalJourneysFrom/",
             method = RequestMethod.GET) public ResponseEntity<Integer>
             getTotalJourneysStartingFromStation(@PathVariable String id,
-                    @RequestParam int[] selectedMonths) throws Exception {
+                    DepartureDateRange dates) throws Exception {
 
         int noOfJourneys;
         HttpHeaders headers = new HttpHeaders();
@@ -121,14 +166,14 @@ public class StationController {
 
         try {
             int idAsInt = Integer.parseInt(id);
-            Optional<Station> optionalStation = this.stationDb
+            Optional<Station> optionalStation = this.stationCatalog
                     .findById(idAsInt);
 
             if (optionalStation.isPresent()) {
                 Station station = optionalStation.get();
                 String stationId = station.getStationId();
                 noOfJourneys = getNumberOfJourneysStartingFromStation(stationId,
-                        selectedMonths);
+                        dates);
             } else {
                 throw new StationNotFoundException(idAsInt);
             }
@@ -144,14 +189,14 @@ public class StationController {
      * Station with the id in the URL path.
      *
      * @param id             The id of the Station whose journeys are fetched
-     * @param selectedMonths 1 to 3 months selected (int values)
+     * @param dates          The departure dates of the selected Journeys
      * @return               A Response Entity with the Journey count (Int)
      * @throws Exception     StationNotFoundException / IdNotANumberException
      */
     @RequestMapping(value = "api/stations/{id}/totalJourneysTo/",
             method = RequestMethod.GET) public ResponseEntity<Integer>
             getTotalJourneysEndingAtStation(@PathVariable String id,
-                    @RequestParam int[] selectedMonths) throws Exception {
+                    DepartureDateRange dates) throws Exception {
 
         int noOfJourneys;
         HttpHeaders headers = new HttpHeaders();
@@ -160,14 +205,14 @@ public class StationController {
 
         try {
             int idAsInt = Integer.parseInt(id);
-            Optional<Station> optionalStation = this.stationDb
+            Optional<Station> optionalStation = this.stationCatalog
                     .findById(idAsInt);
 
             if (optionalStation.isPresent()) {
                 Station station = optionalStation.get();
                 String stationId = station.getStationId();
                 noOfJourneys = getNumberOfJourneysEndingAtStation(stationId,
-                        selectedMonths);
+                        dates);
             } else {
                 throw new StationNotFoundException(idAsInt);
             }
@@ -183,17 +228,16 @@ public class StationController {
      * starting from the Station whose id is in the URL path.
      *
      * @param id             The Station id whose average distance is fetched
-     * @param selectedMonths 1 to 3 selected months (int values)
+     * @param dates          The departure dates of the selected Journeys
      * @return               Response Entity with an avg distance as a Double
      * @throws Exception     StationNotFoundException / IdNotANumberException
      */
     @RequestMapping(value = "api/stations/{id}/averageDistanceFrom/")
     public ResponseEntity<Double> getAverageDistanceStartingFromStation(
-            @PathVariable String id, @RequestParam int[] selectedMonths) throws
+            @PathVariable String id, DepartureDateRange dates) throws
             Exception {
 
         double[] avgDistanceFrom = new double[1];
-        DecimalFormat decimalFormat = new DecimalFormat("#.##");
         HttpHeaders headers = new HttpHeaders();
 
         avgDistanceFrom[0] = 0.0;
@@ -201,39 +245,22 @@ public class StationController {
 
         try {
             int idAsInt = Integer.parseInt(id);
-            Optional<Station> optionalStation = this.stationDb
+            Optional<Station> optionalStation = this.stationCatalog
                     .findById(idAsInt);
 
             if (optionalStation.isPresent()) {
                 Station station = optionalStation.get();
                 String stationId = station.getStationId();
 
-                if (selectedMonths.length == 3) {
-
-                    String sql = "SELECT AVG(COVERED_DISTANCE) FROM "
-                            + "BICYCLE_JOURNEY WHERE (DEPARTURE_STATION_ID = '"
-                            + stationId + "');";
-                    avgDistanceFrom[0] = getAverageJourneyDistanceFromDb(sql);
-
-                } else {
-                    String dates = getDepartureDateRangeForSelectedMonths(
-                            selectedMonths);
-
-                    String sql = "SELECT AVG(COVERED_DISTANCE) FROM "
-                            + "BICYCLE_JOURNEY WHERE (DEPARTURE_STATION_ID = '"
-                            + stationId + "')" + dates + ";";
-
-                    avgDistanceFrom[0] = getAverageJourneyDistanceFromDb(sql);
-                }
+                avgDistanceFrom[0] = getAverageJourneyDistance(stationId,
+                        StationStatisticsWriter.DEPARTURES, dates);
             } else {
                 throw new StationNotFoundException(idAsInt);
             }
         } catch (NumberFormatException e) {
             throw new IdNotANumberException(id);
         }
-        avgDistanceFrom[0] = Double.parseDouble(decimalFormat.format(
-                avgDistanceFrom[0] / 1000).replace(",", ".")
-        );
+        avgDistanceFrom[0] = getDistanceInKilometers(avgDistanceFrom[0]);
 
         return new ResponseEntity<>(avgDistanceFrom[0], headers, HttpStatus.OK);
     }
@@ -243,16 +270,16 @@ public class StationController {
      * ending at the Station whose id is in the URL path.
      *
      * @param id             The Station id whose average distance is fetched
-     * @param selectedMonths 1 to 3 selected months (int values)
+     * @param dates          The departure dates of the selected Journeys
      * @return               Response Entity with an avg distance as a Double
      * @throws Exception     StationNotFoundException / IdNotFoundException
      */
     @RequestMapping(value = "api/stations/{id}/averageDistanceTo/")
     public ResponseEntity<Double> getAverageDistanceEndingAtStation(
-            @PathVariable String id, int[] selectedMonths) throws Exception {
+            @PathVariable String id, DepartureDateRange dates)
+            throws Exception {
 
         double[] avgDistanceTo = new double[1];
-        DecimalFormat decimalFormat = new DecimalFormat("#.##");
         HttpHeaders headers = new HttpHeaders();
 
         avgDistanceTo[0] = 0.0;
@@ -260,29 +287,15 @@ public class StationController {
 
         try {
             int idAsInt = Integer.parseInt(id);
-            Optional<Station> optionalStation = this.stationDb
+            Optional<Station> optionalStation = this.stationCatalog
                     .findById(idAsInt);
 
             if (optionalStation.isPresent()) {
                 Station station = optionalStation.get();
                 String stationId = station.getStationId();
 
-                if (selectedMonths.length == 3) {
-
-                    String sql = "SELECT AVG(COVERED_DISTANCE) FROM "
-                            + "BICYCLE_JOURNEY WHERE (RETURN_STATION_ID = '"
-                            + stationId + "')";
-                    avgDistanceTo[0] = getAverageJourneyDistanceFromDb(sql);
-                } else {
-
-                    String dates = getDepartureDateRangeForSelectedMonths(
-                            selectedMonths);
-
-                    String sql = "SELECT AVG(COVERED_DISTANCE) FROM "
-                            + "BICYCLE_JOURNEY WHERE (RETURN_STATION_ID = '"
-                            + stationId + "')" + dates + ";";
-                    avgDistanceTo[0] = getAverageJourneyDistanceFromDb(sql);
-                }
+                avgDistanceTo[0] = getAverageJourneyDistance(stationId,
+                        StationStatisticsWriter.RETURNS, dates);
             } else {
                 throw new StationNotFoundException(idAsInt);
             }
@@ -290,81 +303,82 @@ public class StationController {
             throw new IdNotANumberException(id);
         }
 
-        avgDistanceTo[0] = Double.parseDouble(decimalFormat.format(
-                avgDistanceTo[0] / 1000).replace(",", ".")
-        );
+        avgDistanceTo[0] = getDistanceInKilometers(avgDistanceTo[0]);
 
         return new ResponseEntity<>(avgDistanceTo[0], headers, HttpStatus.OK);
     }
 
     /**
-     * Returns the average distance from the Bicycle Journey database.
+     * Returns the average distance of the Bicycle Journeys departing from<br/>
+     * or returning to a Station from the Station month statistics.
      *
-     * @param sql The sql query to be performed
-     * @return    The average distance (a Double)
+     * @param stationId      The Station id (not the real id)
+     * @param direction      StationStatisticsWriter.DEPARTURES or RETURNS
+     * @param dates          The departure dates of the selected Journeys
+     * @return               The average distance (a Double), 0 if none
      */
-    public double getAverageJourneyDistanceFromDb(String sql) {
-        double[] avgDistance = new double[1];
+    public double getAverageJourneyDistance(String stationId,
+            String direction, DepartureDateRange dates) {
 
-        jdbcTemplate.query(sql, resultSet -> {
-            avgDistance[0] = resultSet.getDouble(1);
-        });
+        return getAverage(getStationMonthStatistics(stationId, dates)
+                .get(direction));
+    }
 
-        return avgDistance[0];
+    /**
+     * Returns the average distance of a Journey count and a distance sum.
+     *
+     * @param statistics The Journey count and the distance sum
+     * @return           The average distance (a Double), 0 if no Journeys
+     */
+    private static double getAverage(double[] statistics) {
+        return statistics[0] > 0 ? statistics[1] / statistics[0] : 0.0;
     }
 
     /**
-     * An endpoint for returning the top 5 return Stations starting from<br/>
-     * the Station whose id is in the URL path.
+     * Returns a distance in meters as kilometers rounded to two decimals.
+     *
+     * @param meters The distance in meters
+     * @return       The distance in kilometers (a Double)
+     */
+    public double getDistanceInKilometers(double meters) {
+        DecimalFormat decimalFormat = new DecimalFormat("#.##");
+
+        return Double.parseDouble(decimalFormat.format(meters / 1000)
+                .replace(",", "."));
+    }
+
+    /**
+     * An endpoint for returning the most popular return Stations starting<br/>
+     * from the Station whose id is in the URL path, 5 if no limit is given.
      *
      * @param id             The id of the Station
-     * @param selectedMonths 1 to 3 selected months (int values)
-     * @return               A Response Entity with the top 5 Stations
+     * @param dates          The departure dates of the selected Journeys
+     * @param limit          The maximum number of Stations, 5 by default
+     * @return               A Response Entity with the top Stations
      * @throws Exception     StationNotFoundException / IdNotANumberException
      */
-    @RequestMapping(value = "api/stations/{id}/top5ReturnStationsStartingFrom/")
-    public ResponseEntity<ArrayList<Station>> getTop5ReturnStationsStartingFrom(
-            @PathVariable String id, @RequestParam int[] selectedMonths) throws
-            Exception {
+    @RequestMapping(value = {"api/stations/{id}/top5ReturnStationsStartingFrom/",
+            "api/stations/{id}/topReturnStationsStartingFrom/"})
+    public ResponseEntity<ArrayList<Station>> getTopReturnStationsStartingFrom(
+            @PathVariable String id, DepartureDateRange dates,
+            @RequestParam(defaultValue = "5") int limit) throws Exception {
 
-        ArrayList<Station> top5Stations;
+        ArrayList<Station> topStations;
         HttpHeaders headers = new HttpHeaders();
 
         headers.setAccessControlAllowOrigin("*");
 
         try {
             int idAsInt = Integer.parseInt(id);
-            Optional<Station> optionalStation = this.stationDb
+            Optional<Station> optionalStation = this.stationCatalog
                     .findById(idAsInt);
 
             if (optionalStation.isPresent()) {
                 Station station = optionalStation.get();
                 String stationId = station.getStationId();
 
-                if (selectedMonths.length >= 3) {
-
-                    String sql = "SELECT RETURN_STATION_ID, STATION.NAME, "
-                            + "COUNT(*) FROM BICYCLE_JOURNEY INNER JOIN STATION"
-                            +" ON BICYCLE_JOURNEY.RETURN_STATION_ID = "
-                            + "STATION.STATION_ID WHERE (DEPARTURE_STATION_ID ="
-                            + "'" + stationId + "') GROUP BY RETURN_STATION_ID "
-                            + "ORDER BY COUNT(*) DESC, STATION.NAME ASC "
-                            + "LIMIT 5;";
-
-                    top5Stations = getMostPopularStations(sql);
-                } else {
-                    String dates = getDepartureDateRangeForSelectedMonths(
-                            selectedMonths);
-
-                    String sql = "SELECT RETURN_STATION_ID, STATION.NAME, "
-                            + "COUNT(*) FROM BICYCLE_JOURNEY INNER JOIN STATION"
-                            + " ON BICYCLE_JOURNEY.RETURN_STATION_ID = "
-                            + "STATION.STATION_ID WHERE (DEPARTURE_STATION_ID ="
-                            + "'" + stationId + "')" + dates + " GROUP BY "
-                            + "RETURN_STATION_ID ORDER BY COUNT(*) DESC, "
-                            + "STATION.NAME ASC LIMIT 5;";
-                    top5Stations = getMostPopularStations(sql);
-                }
+                topStations = getTopReturnStations(stationId,
+                        dates, limit);
             } else {
                 throw new StationNotFoundException(idAsInt);
             }
@@ -372,59 +386,41 @@ public class StationController {
             throw new IdNotANumberException(id);
         }
 
-        return new ResponseEntity<>(top5Stations, headers, HttpStatus.OK);
+        return new ResponseEntity<>(topStations, headers, HttpStatus.OK);
     }
 
     /**
-     * An endpoint for returning the top 5 departure Stations ending at the<br/>
-     * Station whose id is in the URL path.
+     * An endpoint for returning the most popular departure Stations ending<br/>
+     * at the Station whose id is in the URL path, 5 if no limit is given.
      *
      * @param id             The id of the Station
-     * @param selectedMonths 1 to 3 months selected (int values)
-     * @return               Response Entity with the top 5 Stations
+     * @param dates          The departure dates of the selected Journeys
+     * @param limit          The maximum number of Stations, 5 by default
+     * @return               Response Entity with the top Stations
      * @throws Exception     StationNotFoundException or IdNotFoundException
      */
-    @RequestMapping(value = "api/stations/{id}/top5DepartureStationsEndingAt/")
-    public ResponseEntity<ArrayList<Station>> getTop5DepartureStationsEndingAt(
-            @PathVariable String id, @RequestParam int[] selectedMonths) throws
-            Exception {
+    @RequestMapping(value = {"api/stations/{id}/top5DepartureStationsEndingAt/",
+            "api/stations/{id}/topDepartureStationsEndingAt/"})
+    public ResponseEntity<ArrayList<Station>> getTopDepartureStationsEndingAt(
+            @PathVariable String id, DepartureDateRange dates,
+            @RequestParam(defaultValue = "5") int limit) throws Exception {
 
-        ArrayList<Station> top5Stations;
+        ArrayList<Station> topStations;
         HttpHeaders headers = new HttpHeaders();
 
         headers.setAccessControlAllowOrigin("*");
 
         try {
             int idAsInt = Integer.parseInt(id);
-            Optional<Station> optionalStation = this.stationDb
+            Optional<Station> optionalStation = this.stationCatalog
                     .findById(idAsInt);
 
             if (optionalStation.isPresent()) {
                 Station station = optionalStation.get();
                 String stationId = station.getStationId();
 
-                if (selectedMonths.length >= 3) {
-                    String sql = "SELECT DEPARTURE_STATION_ID, STATION.NAME, "
-                            + "COUNT(*) FROM BICYCLE_JOURNEY INNER JOIN STATION"
-                            + " ON BICYCLE_JOURNEY.DEPARTURE_STATION_ID = "
-                            + "STATION.STATION_ID WHERE (RETURN_STATION_ID = '"
-                            + stationId + "') GROUP BY DEPARTURE_STATION_ID "
-                            + "ORDER BY COUNT(*) DESC, STATION.NAME ASC "
-                            + "LIMIT 5;";
-                    top5Stations = getMostPopularStations(sql);
-                } else {
-                    String dates = getDepartureDateRangeForSelectedMonths(
-                            selectedMonths);
-
-                    String sql = "SELECT DEPARTURE_STATION_ID, STATION.NAME, "
-                            + " COUNT(*) FROM BICYCLE_JOURNEY INNER JOIN "
-                            + "STATION ON BICYCLE_JOURNEY.DEPARTURE_STATION_ID "
-                            + "= STATION.STATION_ID WHERE (RETURN_STATION_ID = "
-                            + "'" + stationId + "')" + dates + " GROUP BY "
-                            + "DEPARTURE_STATION_ID ORDER BY COUNT(*) DESC, "
-                            + "STATION.NAME ASC LIMIT 5;";
-                    top5Stations = (getMostPopularStations(sql));
-                }
+                topStations = getTopDepartureStations(stationId,
+                        dates, limit);
             } else {
                 throw new StationNotFoundException(idAsInt);
             }
@@ -432,130 +428,253 @@ public class StationController {
             throw new IdNotANumberException(id);
         }
 
-        return new ResponseEntity<>(top5Stations, headers, HttpStatus.OK);
+        return new ResponseEntity<>(topStations, headers, HttpStatus.OK);
     }
 
     /**
-     * Returns an ArrayList of the most popular Stations.
+     * An endpoint for getting all the details of the Station whose id is in<br/>
+     * the URL path at once: the Journey totals and the average distances,<br/>
+     * and the top 5 Stations in both directions if topStations is true.<br/>
+     * The totals and the averages come from one grouped query and the top<br/>
+     * 5 queries run in parallel. The UI loads the top 5 Stations only on<br/>
+     * demand, so they are left out by default.
      *
-     * @param sql The SQL query to be performed
-     * @return    An ArrayList having the most popular Stations
+     * @param id             The id of the Station
+     * @param topStations    True to include the top 5 Stations
+     * @param dates          The departure dates of the selected Journeys
+     * @return               A Response Entity with the StationSummary
+     * @throws Exception     StationNotFoundException / IdNotANumberException
      */
-    public ArrayList<Station> getMostPopularStations(String sql) {
-        ArrayList<Station> mostPopularStations = new ArrayList<>();
+    @RequestMapping(value = "api/stations/{id}/summary/",
+            method = RequestMethod.GET)
+    public ResponseEntity<StationSummary> getStationSummary(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "false") boolean topStations,
+            DepartureDateRange dates) throws Exception {
+
+        StationSummary summary;
+        HttpHeaders headers = new HttpHeaders();
+
+        headers.setAccessControlAllowOrigin("*");
 
-        jdbcTemplate.query(sql,
-                resultSet -> {
-                    Optional<Station> optionalStation = stationDb
-                            .findByStationId(resultSet.getString(1));
-                    optionalStation.ifPresent(mostPopularStations::add);
-                });
+        try {
+            int idAsInt = Integer.parseInt(id);
+            Optional<Station> optionalStation = this.stationCatalog
+                    .findById(idAsInt);
 
-        return mostPopularStations;
+            if (optionalStation.isPresent()) {
+                Station station = optionalStation.get();
+                String stationId = station.getStationId();
+                CompletableFuture<ArrayList<Station>> top5Returns =
+                        CompletableFuture.completedFuture(null);
+                CompletableFuture<ArrayList<Station>> top5Departures =
+                        CompletableFuture.completedFuture(null);
+
+                if (topStations) {
+                    top5Returns = CompletableFuture.supplyAsync(() ->
+                            getTopReturnStations(stationId, dates,
+                                    TOP_STATIONS), taskExecutor);
+                    top5Departures = CompletableFuture.supplyAsync(() ->
+                            getTopDepartureStations(stationId, dates,
+                                    TOP_STATIONS), taskExecutor);
+                }
+                Map<String, double[]> statistics =
+                        getStationMonthStatistics(stationId, dates);
+                double[] from = statistics.get(
+                        StationStatisticsWriter.DEPARTURES);
+                double[] to = statistics.get(StationStatisticsWriter.RETURNS);
+
+                summary = new StationSummary(station, (int) from[0],
+                        (int) to[0], getDistanceInKilometers(
+                                getAverage(from)), getDistanceInKilometers(
+                                getAverage(to)), top5Returns.join(),
+                        top5Departures.join());
+            } else {
+                throw new StationNotFoundException(idAsInt);
+            }
+        } catch (NumberFormatException e) {
+            throw new IdNotANumberException(id);
+        }
+
+        return new ResponseEntity<>(summary, headers, HttpStatus.OK);
     }
 
     /**
-     * Returns the number of Bicycle Journeys starting from the Station<br/>
-     * having the specified Station id (not the real id but a reference id).
+     * Returns the most popular return Stations of the Journeys starting<br/>
+     * from the Station having the specified Station id.
      *
-     * @param stationId      The Station id
-     * @param selectedMonths 1 to 3 months selected (int values)
-     * @return               The number (an int value) of Bicycle Journeys
+     * @param stationId      The Station id (not the real id)
+     * @param dates          The departure dates of the selected Journeys
+     * @param limit          The maximum number of Stations
+     * @return               An ArrayList with at most limit Stations
      */
-    public int getNumberOfJourneysStartingFromStation(String stationId,
-            int[] selectedMonths) {
+    public ArrayList<Station> getTopReturnStations(String stationId,
+            DepartureDateRange dates, int limit) {
 
-        String sql = "SELECT COUNT(*) as count FROM BICYCLE_JOURNEY WHERE "
-                + "(DEPARTURE_STATION_ID = '" + stationId + "');";
-        int[] noOfJourneys = new int[1];
+        return getMostPopularStations("RETURN_STATION_CODE",
+                "DEPARTURE_STATION_CODE", stationId, dates, limit);
+    }
 
-        if (selectedMonths.length >= 3) {
-            noOfJourneys[0] = getNumberOfJourneysFromDb(sql);
-        } else {
-            String dates = getDepartureDateRangeForSelectedMonths(
-                    selectedMonths);
-            sql = "SELECT COUNT(*) as count FROM BICYCLE_JOURNEY WHERE "
-                    + "(DEPARTURE_STATION_ID = '" + stationId + "')" + dates
-                    + ";";
-            noOfJourneys[0] = getNumberOfJourneysFromDb(sql);
-        }
+    /**
+     * Returns the most popular departure Stations of the Journeys ending<br/>
+     * at the Station having the specified Station id.
+     *
+     * @param stationId      The Station id (not the real id)
+     * @param dates          The departure dates of the selected Journeys
+     * @param limit          The maximum number of Stations
+     * @return               An ArrayList with at most limit Stations
+     */
+    public ArrayList<Station> getTopDepartureStations(String stationId,
+            DepartureDateRange dates, int limit) {
 
-        return noOfJourneys[0];
+        return getMostPopularStations("DEPARTURE_STATION_CODE",
+                "RETURN_STATION_CODE", stationId, dates, limit);
     }
 
     /**
-     * Returns the number of Bicycle Journeys ending at the Station<br/>
-     * having the specified Station id (not the real id but a reference id).
+     * <p>Returns an ArrayList of the most popular Stations, ordered by the<br/>
+     * number of Journeys and then by the Station name.</p>
      *
-     * @param stationId      The Station id
-     * @param selectedMonths 1 to 3 months selected (int values)
-     * @return               The Number of Journeys ending at the Station
+     * <p>Only the Journeys are counted, in the database or in the columnar<br/>
+     * read engine. The counted Station ids are looked up from the Station<br/>
+     * Catalog, so the Station table is not joined at all.</p>
+     *
+     * @param popularColumn  The Station code column of the counted Stations
+     * @param stationColumn  The Station code column matching the Station
+     * @param stationId      The Station id (not the real id)
+     * @param dates          The departure dates of the selected Journeys
+     * @param limit          The maximum number of Stations, at least 1
+     * @return               An ArrayList having the most popular Stations
      */
-    public int getNumberOfJourneysEndingAtStation(String stationId,
-                                                  int[] selectedMonths) {
-
-        String sql = "SELECT COUNT(*) as count FROM BICYCLE_JOURNEY WHERE "
-                + "(RETURN_STATION_ID = '" + stationId + "');";
-        int[] noOfJourneys = new int[1];
+    public ArrayList<Station> getMostPopularStations(String popularColumn,
+            String stationColumn, String stationId, DepartureDateRange dates,
+            int limit) {
 
-        if (selectedMonths.length >= 3) {
-            noOfJourneys[0] = getNumberOfJourneysFromDb(sql);
+        if (limit < 1) {
+            throw new InvalidPageRequestException(String.valueOf(limit));
+        }
+        HashMap<Station, Integer> journeys = new HashMap<>();
+
+        if (journeyColumnStore.isEnabled()) {
+            journeyColumnStore.getColumns().countJourneysByOtherStation(
+                    stationId, stationColumn.equals("RETURN_STATION_CODE"),
+                    dates).forEach((otherId, count) ->
+                    stationCatalog.findByStationId(otherId).ifPresent(
+                            station -> journeys.put(station, count)));
         } else {
-            String dates = getDepartureDateRangeForSelectedMonths(
-                    selectedMonths);
-            sql = "SELECT COUNT(*) as count FROM BICYCLE_JOURNEY WHERE "
-                    + "(RETURN_STATION_ID = '" + stationId + "')" + dates + ";";
-            noOfJourneys[0] = getNumberOfJourneysFromDb(sql);
+            ArrayList<Object> args = new ArrayList<>();
+            String sql = "SELECT " + popularColumn + ", COUNT(*) FROM "
+                    + journeyPartitions.from(dates, args) + " J WHERE "
+                    + stationColumn + " = ? GROUP BY " + popularColumn;
+            args.add(stationCodes.getCode(stationId));
+
+            jdbcTemplate.query(sql, resultSet -> {
+                int count = resultSet.getInt(2);
+                stationCatalog.findByStationId(stationCodes.decode(
+                        resultSet.getInt(1))).ifPresent(station ->
+                        journeys.put(station, count));
+            }, args.toArray());
         }
+        ArrayList<Station> topStations = new ArrayList<>(journeys.keySet());
+
+        topStations.sort(Comparator.comparing((Station station) ->
+                        journeys.get(station)).reversed()
+                .thenComparing(Station::getName));
 
-        return noOfJourneys[0];
+        return new ArrayList<>(topStations.subList(0,
+                Math.min(topStations.size(), limit)));
     }
 
     /**
-     * Returns a date range used in an SQL query where the departure date<br/>
-     * is the determining factor for the selected months.
+     * Returns the number of Bicycle Journeys starting from the Station<br/>
+     * having the specified Station id (not the real id but a reference id).
      *
-     * @param selectedMonths The selected months as int array values
-     * @return               A String that can be used in an SQL query
+     * @param stationId      The Station id
+     * @param dates          The departure dates of the selected Journeys
+     * @return               The number (an int value) of Bicycle Journeys
      */
-    public String getDepartureDateRangeForSelectedMonths(int[] selectedMonths) {
-        StringBuilder dates = new StringBuilder();
-
-        for (int i = 0; i < selectedMonths.length; i++) {
+    public int getNumberOfJourneysStartingFromStation(String stationId,
+            DepartureDateRange dates) {
 
-            if (i == 0) {
-                dates.append(" AND (");
-            }
+        return (int) getStationMonthStatistics(stationId, dates)
+                .get(StationStatisticsWriter.DEPARTURES)[0];
+    }
 
-            if (i != 0) {
-                dates.append(" OR ");
-            }
-            dates.append("DEPARTURE_DATE BETWEEN '2021-0");
-            dates.append(selectedMonths[i]);
-            dates.append("-01 00:00:00' AND '2021-0");
-            dates.append((selectedMonths[i] + 1));
-            dates.append("-01 00:00:00'");
-        }
-        dates.append(")");
+    /**
+     * Returns the number of Bicycle Journeys ending at the Station<br/>
+     * having the specified Station id (not the real id but a reference id).
+     *
+     * @param stationId      The Station id
+     * @param dates          The departure dates of the selected Journeys
+     * @return               The Number of Journeys ending at the Station
+     */
+    public int getNumberOfJourneysEndingAtStation(String stationId,
+                                                  DepartureDateRange dates) {
 
-        return dates.toString();
+        return (int) getStationMonthStatistics(stationId, dates)
+                .get(StationStatisticsWriter.RETURNS)[0];
     }
 
     /**
-     * Returns the number of Bicycle Journeys from the Bicycle Journey<br/>
-     * database with a condition given in the Sql query, e.g. Journeys<br/>
-     * starting from or ending at the Station.
+     * Returns the number of Bicycle Journeys and the sum of their<br/>
+     * distances in both directions for a Station by summing its Station<br/>
+     * month statistics in one grouped query, or from the Station rows of<br/>
+     * the columnar read engine if it is enabled. Dates that do not cover<br/>
+     * whole months are counted from the Journeys instead.
      *
-     * @param sql The SQL query used for fetching the number of Journeys
-     * @return    The number (an int value) of Bicycle Journeys
+     * @param stationId      The Station id (not the real id)
+     * @param dates          The departure dates of the selected Journeys
+     * @return               The Journey count and the distance sum by the
+     *                       direction, StationStatisticsWriter.DEPARTURES
+     *                       or RETURNS
      */
-    public int getNumberOfJourneysFromDb(String sql) {
-        int[] noOfJourneys = new int[1];
+    public Map<String, double[]> getStationMonthStatistics(String stationId,
+            DepartureDateRange dates) {
+
+        if (journeyColumnStore.isEnabled()) {
+            JourneyColumns columns = journeyColumnStore.getColumns();
+
+            return Map.of(StationStatisticsWriter.DEPARTURES,
+                    columns.getStationStatistics(stationId, false,
+                            dates),
+                    StationStatisticsWriter.RETURNS,
+                    columns.getStationStatistics(stationId, true,
+                            dates));
+        }
+
+        Map<String, double[]> statistics = new HashMap<>();
+        ArrayList<Object> args = new ArrayList<>();
+        String sql;
+        statistics.put(StationStatisticsWriter.DEPARTURES, new double[2]);
+        statistics.put(StationStatisticsWriter.RETURNS, new double[2]);
+
+        if (dates.isWholeMonths()) {
+            sql = "SELECT DIRECTION, SUM(JOURNEY_COUNT), SUM(DISTANCE_SUM) "
+                    + "FROM STATION_MONTH_STATISTICS WHERE STATION_CODE = ? "
+                    + "AND " + dates.toSql("JOURNEY_MONTH")
+                    + " GROUP BY DIRECTION";
+            args.add(stationCodes.getCode(stationId));
+            args.addAll(dates.getArgs());
+        } else {
+            // A part of a month is counted from the Journeys of its month
+            // partitions, using the indexes on the Station codes and the
+            // departure date.
+            String sum = ", COUNT(*), SUM(COVERED_DISTANCE) FROM ";
+            sql = "SELECT '" + StationStatisticsWriter.DEPARTURES + "'" + sum
+                    + journeyPartitions.from(dates, args) + " J WHERE "
+                    + "DEPARTURE_STATION_CODE = ?";
+            args.add(stationCodes.getCode(stationId));
+            sql += " UNION ALL SELECT '" + StationStatisticsWriter.RETURNS
+                    + "'" + sum + journeyPartitions.from(dates, args)
+                    + " J WHERE RETURN_STATION_CODE = ?";
+            args.add(stationCodes.getCode(stationId));
+        }
 
         jdbcTemplate.query(sql, resultSet -> {
-            noOfJourneys[0] = resultSet.getInt(1);
-        });
+            statistics.put(resultSet.getString(1), new double[] {
+                    resultSet.getLong(2), resultSet.getDouble(3)});
+        }, args.toArray());
 
-        return noOfJourneys[0];
+        return statistics;
     }
 }
@@ -0,0 +1,144 @@
+package fi.tuni.olvander.citybicyclejourneys.stations;
+
+import java.util.List;
+
+/**
+ * The details of one Station for the selected months, returned by the<br/>
+ * Station summary endpoint instead of six separate responses.
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class StationSummary {
+
+    /**
+     * The Station of the summary.
+     */
+    private final Station station;
+
+    /**
+     * The number of Journeys starting from the Station.
+     */
+    private final int totalJourneysFrom;
+
+    /**
+     * The number of Journeys ending at the Station.
+     */
+    private final int totalJourneysTo;
+
+    /**
+     * The average distance in kilometers of the Journeys starting from<br/>
+     * the Station.
+     */
+    private final double averageDistanceFrom;
+
+    /**
+     * The average distance in kilometers of the Journeys ending at the<br/>
+     * Station.
+     */
+    private final double averageDistanceTo;
+
+    /**
+     * The top 5 return Stations of the Journeys starting from the Station,<br/>
+     * or null if they were not asked for.
+     */
+    private final List<Station> top5ReturnStationsStartingFrom;
+
+    /**
+     * The top 5 departure Stations of the Journeys ending at the Station,<br/>
+     * or null if they were not asked for.
+     */
+    private final List<Station> top5DepartureStationsEndingAt;
+
+    /**
+     * A constructor for the StationSummary class.
+     *
+     * @param station                        The Station of the summary
+     * @param totalJourneysFrom              The Journeys starting from it
+     * @param totalJourneysTo                The Journeys ending at it
+     * @param averageDistanceFrom            The average distance from it
+     * @param averageDistanceTo              The average distance to it
+     * @param top5ReturnStationsStartingFrom The top 5 return Stations
+     * @param top5DepartureStationsEndingAt  The top 5 departure Stations
+     */
+    public StationSummary(Station station, int totalJourneysFrom,
+                          int totalJourneysTo, double averageDistanceFrom,
+                          double averageDistanceTo,
+                          List<Station> top5ReturnStationsStartingFrom,
+                          List<Station> top5DepartureStationsEndingAt) {
+
+        this.station = station;
+        this.totalJourneysFrom = totalJourneysFrom;
+        this.totalJourneysTo = totalJourneysTo;
+        this.averageDistanceFrom = averageDistanceFrom;
+        this.averageDistanceTo = averageDistanceTo;
+        this.top5ReturnStationsStartingFrom = top5ReturnStationsStartingFrom;
+        this.top5DepartureStationsEndingAt = top5DepartureStationsEndingAt;
+    }
+
+    /**
+     * Gets the Station of the summary.
+     *
+     * @return The Station
+     */
+    public Station getStation() {
+        return station;
+    }
+
+    /**
+     * Gets the number of Journeys starting from the Station.
+     *
+     * @return The number of Journeys (an int)
+     */
+    public int getTotalJourneysFrom() {
+        return totalJourneysFrom;
+    }
+
+    /**
+     * Gets the number of Journeys ending at the Station.
+     *
+     * @return The number of Journeys (an int)
+     */
+    public int getTotalJourneysTo() {
+        return totalJourneysTo;
+    }
+
+    /**
+     * Gets the average distance of the Journeys starting from the Station.
+     *
+     * @return The average distance in kilometers (a double)
+     */
+    public double getAverageDistanceFrom() {
+        return averageDistanceFrom;
+    }
+
+    /**
+     * Gets the average distance of the Journeys ending at the Station.
+     *
+     * @return The average distance in kilometers (a double)
+     */
+    public double getAverageDistanceTo() {
+        return averageDistanceTo;
+    }
+
+    /**
+     * Gets the top 5 return Stations of the Journeys starting from the<br/>
+     * Station.
+     *
+     * @return A List of at most 5 Stations, or null
+     */
+    public List<Station> getTop5ReturnStationsStartingFrom() {
+        return top5ReturnStationsStartingFrom;
+    }
+
+    /**
+     * Gets the top 5 departure Stations of the Journeys ending at the<br/>
+     * Station.
+     *
+     * @return A List of at most 5 Stations, or null
+     */
+    public List<Station> getTop5DepartureStationsEndingAt() {
+        return top5DepartureStationsEndingAt;
+    }
+}
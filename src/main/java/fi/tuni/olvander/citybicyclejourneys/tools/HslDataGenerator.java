@@ -0,0 +1,591 @@
+package fi.tuni.olvander.citybicyclejourneys.tools;
+
+import fi.tuni.olvander.citybicyclejourneys.CityBicycleJourneys;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * <p>Generates City Bicycle Station and Journey CSV files shaped like the<br/>
+ * HSL open data, for load testing the import and the endpoints with more<br/>
+ * data than the three 2021 datasets. The files have the same columns as<br/>
+ * the HSL files, so they are imported like them.</p>
+ *
+ * <p>The Stations are spread around the center of Helsinki and the ones<br/>
+ * near the center are the most popular. A Journey returns more likely to<br/>
+ * a popular Station near its departure Station, its distance follows the<br/>
+ * distance between the Stations and its duration follows the distance.<br/>
+ * Weekday Journeys peak in the morning and the afternoon and weekend<br/>
+ * Journeys in the afternoon. There are Journeys from April to October<br/>
+ * only, like in the HSL season, and a few Journeys too short to be<br/>
+ * imported.</p>
+ *
+ * <p>One Journey file is written for every month with Journeys, named<br/>
+ * like 2021-05.csv and sorted by the departure date in descending order<br/>
+ * like the HSL files. The same arguments always give the same files.</p>
+ *
+ * <p>Run it with, for example:<br/>
+ * mvn compile exec:java<br/>
+ * -Dexec.mainClass=fi.tuni.olvander.citybicyclejourneys.tools.HslDataGenerator
+ * <br/>
+ * -Dexec.args="--journeys=30000000 --from=2019-04 --to=2021-10"</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class HslDataGenerator {
+
+    /**
+     * The header row of a Station CSV file.
+     */
+    static final String STATION_HEADER = "FID,ID,Nimi,Namn,Name,Osoite,"
+            + "Adress,Kaupunki,Stad,Operaattor,Kapasiteet,x,y";
+
+    /**
+     * The header row of a Journey CSV file.
+     */
+    static final String JOURNEY_HEADER = "Departure,Return,Departure "
+            + "station id,Departure station name,Return station id,Return "
+            + "station name,Covered distance (m),Duration (sec.)";
+
+    /**
+     * The maximum number of Stations. The return Station weights take<br/>
+     * 4 bytes for every pair of Stations.
+     */
+    public static final int MAX_STATIONS = 5000;
+
+    /**
+     * The longitude of the center of Helsinki.
+     */
+    private static final double CENTER_X = 24.9384;
+
+    /**
+     * The latitude of the center of Helsinki.
+     */
+    private static final double CENTER_Y = 60.1699;
+
+    /**
+     * The meters of a degree of latitude.
+     */
+    private static final double METERS_PER_Y = 111_320;
+
+    /**
+     * The meters of a degree of longitude at the latitude of Helsinki.
+     */
+    private static final double METERS_PER_X =
+            METERS_PER_Y * Math.cos(Math.toRadians(CENTER_Y));
+
+    /**
+     * The mean distance of a Station from the center in meters.
+     */
+    private static final double STATION_SPREAD = 3_500;
+
+    /**
+     * The distance in meters making a Station 1/e times as popular.
+     */
+    private static final double POPULARITY_DECAY = 3_000;
+
+    /**
+     * The distance in meters making a return Station 1/e times as likely.
+     */
+    private static final double RETURN_DECAY = 1_800;
+
+    /**
+     * The share of the Journeys returning to their departure Station.
+     */
+    private static final double ROUND_TRIPS = 0.04;
+
+    /**
+     * The share of the Journeys with a stop on the way.
+     */
+    private static final double STOPS = 0.08;
+
+    /**
+     * The share of the Journeys too short to be imported.
+     */
+    private static final double SHORT_JOURNEYS = 0.02;
+
+    /**
+     * The Journeys of every month relative to May, from January to<br/>
+     * December. The HSL season is from April to October.
+     */
+    private static final double[] SEASON =
+            {0, 0, 0, 0.5, 1.0, 1.1, 1.2, 1.1, 0.9, 0.6, 0, 0};
+
+    /**
+     * The Journeys departing at every hour of a weekday, relative.
+     */
+    private static final double[] WEEKDAY_HOURS = {1.2, 0.7, 0.4, 0.2, 0.2,
+            0.5, 2.2, 5.5, 7.5, 4.5, 3.4, 3.8, 4.4, 4.5, 4.9, 6.2, 8.0, 8.4,
+            6.6, 5.0, 4.0, 3.2, 2.4, 1.7};
+
+    /**
+     * The Journeys departing at every hour of a weekend day, relative.
+     */
+    private static final double[] WEEKEND_HOURS = {2.4, 2.0, 1.5, 0.9, 0.5,
+            0.4, 0.6, 1.0, 1.6, 2.6, 3.8, 4.8, 5.6, 6.1, 6.3, 6.2, 6.0, 5.6,
+            5.0, 4.3, 3.7, 3.2, 2.8, 2.5};
+
+    /**
+     * The Journeys of a weekend day relative to a weekday.
+     */
+    private static final double WEEKEND = 0.8;
+
+    /**
+     * The format of the departure and return dates.
+     */
+    private static final DateTimeFormatter DATE_TIME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    /**
+     * The logger.
+     */
+    private static final Log logger = LogFactory.getLog(
+            HslDataGenerator.class);
+
+    /**
+     * The number of Journeys.
+     */
+    private final long journeys;
+
+    /**
+     * The first month of the Journeys.
+     */
+    private final YearMonth from;
+
+    /**
+     * The last month of the Journeys.
+     */
+    private final YearMonth to;
+
+    /**
+     * The seed of the random numbers.
+     */
+    private final long seed;
+
+    /**
+     * The Station ids.
+     */
+    private final String[] ids;
+
+    /**
+     * The longitudes of the Stations.
+     */
+    private final double[] x;
+
+    /**
+     * The latitudes of the Stations.
+     */
+    private final double[] y;
+
+    /**
+     * The popularity of the Stations, summed up to every Station.
+     */
+    private final double[] departureWeights;
+
+    /**
+     * The return Station weights of every departure Station, summed up<br/>
+     * to every return Station.
+     */
+    private final float[][] returnWeights;
+
+    /**
+     * Creates a generator and its Stations.
+     *
+     * @param journeys The number of Journeys
+     * @param from     The first month of the Journeys
+     * @param to       The last month of the Journeys
+     * @param stations The number of Stations, 2 to MAX_STATIONS
+     * @param seed     The seed of the random numbers
+     */
+    public HslDataGenerator(long journeys, YearMonth from, YearMonth to,
+                            int stations, long seed) {
+
+        if (journeys < 0 || stations < 2 || stations > MAX_STATIONS
+                || to.isBefore(from)) {
+            throw new IllegalArgumentException("journeys " + journeys
+                    + ", stations " + stations + ", months " + from + " - "
+                    + to);
+        }
+
+        if (journeys > 0 && countDays(from, to) == 0) {
+            throw new IllegalArgumentException("No months from April to "
+                    + "October between " + from + " and " + to);
+        }
+        this.journeys = journeys;
+        this.from = from;
+        this.to = to;
+        this.seed = seed;
+        ids = new String[stations];
+        x = new double[stations];
+        y = new double[stations];
+        departureWeights = new double[stations];
+        returnWeights = new float[stations][];
+        createStations(new Random(seed));
+    }
+
+    /**
+     * Generates the CSV files into a directory.
+     *
+     * @param args The options --directory (./csv), --journeys (3000000),
+     *             --from (2021-05), --to (2021-07), --stations (457)
+     *             and --seed (2021)
+     */
+    public static void main(String[] args) {
+        Path directory = Path.of("./csv");
+        long journeys = 3_000_000;
+        YearMonth from = YearMonth.of(2021, 5);
+        YearMonth to = YearMonth.of(2021, 7);
+        int stations = 457;
+        long seed = 2021;
+
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+
+            switch (arg.substring(0, Math.max(arg.indexOf('='), 0))) {
+                case "--directory" -> directory = Path.of(value);
+                case "--journeys" -> journeys = Long.parseLong(value);
+                case "--from" -> from = YearMonth.parse(value);
+                case "--to" -> to = YearMonth.parse(value);
+                case "--stations" -> stations = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown "
+                        + "option " + arg);
+            }
+        }
+        HslDataGenerator generator = new HslDataGenerator(journeys, from, to,
+                stations, seed);
+
+        try {
+            Files.createDirectories(directory);
+            generator.writeStations(directory.resolve(
+                    CityBicycleJourneys.STATIONS_FILE));
+            List<Path> files = generator.writeJourneys(directory);
+            logger.info(stations + " Stations and " + journeys
+                    + " Journeys in " + files.size() + " files written to "
+                    + directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the Station CSV file.
+     *
+     * @param file         The Station CSV file
+     * @throws IOException Throws this if the file cannot be written
+     */
+    public void writeStations(Path file) throws IOException {
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file,
+                StandardCharsets.UTF_8)) {
+
+            writer.write(STATION_HEADER);
+            writer.newLine();
+
+            for (int i = 0; i < ids.length; i++) {
+                boolean espoo = x[i] < 24.83;
+                double popularity = departureWeights[i]
+                        - (i == 0 ? 0 : departureWeights[i - 1]);
+                int capacity = 10 + 2 * (int) Math.min(15,
+                        popularity * ids.length * 4);
+
+                writer.write((i + 1) + "," + ids[i] + "," + getName(i)
+                        + ",Station " + (i + 1) + ",Station " + (i + 1)
+                        + ",Katu " + (i + 1) + ",Gatan " + (i + 1) + ","
+                        + (espoo ? "Espoo,Esbo" : "Helsinki,Helsingfors")
+                        + ",CityBike Finland," + capacity + ","
+                        + String.format(Locale.ROOT, "%.6f,%.6f", x[i], y[i]));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Writes the Journey CSV file of every month having Journeys.
+     *
+     * @param directory    The directory of the files
+     * @return             The written files in the order of the months
+     * @throws IOException Throws this if a file cannot be written
+     */
+    public List<Path> writeJourneys(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Random weather = new Random(seed);
+        double total = 0;
+        double[] weights = new double[(int) (to.atEndOfMonth().toEpochDay()
+                - from.atDay(1).toEpochDay() + 1)];
+
+        // Every day gets its share of the Journeys by the season, the
+        // weekday and the weather, rounded so that the shares add up.
+        for (int i = 0; i < weights.length; i++) {
+            LocalDate day = from.atDay(1).plusDays(i);
+            weights[i] = SEASON[day.getMonthValue() - 1]
+                    * (isWeekend(day) ? WEEKEND : 1)
+                    * (0.6 + 0.6 * weather.nextDouble());
+            total += weights[i];
+        }
+        double sum = 0;
+        long[] counts = new long[weights.length];
+
+        for (int i = 0; i < weights.length; i++) {
+            long before = Math.round(journeys * sum / total);
+            sum += weights[i];
+            counts[i] = Math.round(journeys * sum / total) - before;
+        }
+
+        for (YearMonth month = from; !month.isAfter(to);
+             month = month.plusMonths(1)) {
+
+            if (SEASON[month.getMonthValue() - 1] == 0) {
+                continue;
+            }
+            Path file = directory.resolve(month + ".csv");
+
+            try (BufferedWriter writer = Files.newBufferedWriter(file,
+                    StandardCharsets.UTF_8)) {
+
+                writer.write(JOURNEY_HEADER);
+                writer.newLine();
+
+                for (int day = month.lengthOfMonth(); day > 0; day--) {
+                    LocalDate date = month.atDay(day);
+                    writeDay(writer, date, counts[(int) (date.toEpochDay()
+                            - from.atDay(1).toEpochDay())]);
+                }
+            }
+            files.add(file);
+        }
+
+        return files;
+    }
+
+    /**
+     * A helper method for writing the Journeys departing on a day, the<br/>
+     * latest first.
+     *
+     * @param writer       The writer of the Journey CSV file
+     * @param date         The departure date
+     * @param count        The number of Journeys
+     * @throws IOException Throws this if the Journeys cannot be written
+     */
+    private void writeDay(BufferedWriter writer, LocalDate date, long count)
+            throws IOException {
+
+        Random random = new Random(seed ^ date.toEpochDay()
+                * 0x9E3779B97F4A7C15L);
+        double[] hours = cumulate(isWeekend(date) ? WEEKEND_HOURS
+                : WEEKDAY_HOURS);
+        long[] departures = new long[(int) count];
+
+        // The second of the day and the index of the Journey, so the
+        // Journeys are sorted by sorting the longs.
+        for (int i = 0; i < departures.length; i++) {
+            long second = pick(hours, random) * 3600L + random.nextInt(3600);
+            departures[i] = second << 32 | i;
+        }
+        Arrays.sort(departures);
+        long midnight = date.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        StringBuilder row = new StringBuilder(128);
+
+        for (int i = departures.length - 1; i >= 0; i--) {
+            long departure = midnight + (departures[i] >>> 32);
+            int start = pick(departureWeights, random);
+            int end = random.nextDouble() < ROUND_TRIPS ? start
+                    : pick(returnWeights[start], random);
+            int distance;
+            int duration;
+
+            if (random.nextDouble() < SHORT_JOURNEYS) {
+                distance = random.nextInt(10);
+                duration = random.nextInt(10);
+            } else {
+                distance = (int) (start == end
+                        ? 300 - 2_500 * Math.log(1 - random.nextDouble())
+                        : getDistance(start, end)
+                                * (1.15 + 0.35 * random.nextDouble()));
+                double speed = Math.min(7.5, Math.max(1.5,
+                        4.2 + 0.9 * random.nextGaussian()));
+                duration = (int) (distance / speed);
+
+                if (random.nextDouble() < STOPS) {
+                    duration += (int) (-900 * Math.log(1
+                            - random.nextDouble()));
+                }
+            }
+            row.setLength(0);
+            row.append(DATE_TIME.format(LocalDateTime.ofEpochSecond(
+                    departure, 0, ZoneOffset.UTC))).append(',')
+                    .append(DATE_TIME.format(LocalDateTime.ofEpochSecond(
+                            departure + duration, 0, ZoneOffset.UTC)))
+                    .append(',').append(ids[start]).append(',')
+                    .append(getName(start)).append(',').append(ids[end])
+                    .append(',').append(getName(end)).append(',')
+                    .append(distance).append(',').append(duration);
+            writer.append(row);
+            writer.newLine();
+        }
+    }
+
+    /**
+     * A helper method for placing the Stations and weighting them.
+     *
+     * @param random The random numbers
+     */
+    private void createStations(Random random) {
+        double[] popularity = new double[ids.length];
+
+        for (int i = 0; i < ids.length; i++) {
+            // Helsinki is on the coast, so the Stations are spread to the
+            // north, west and east of the center.
+            double distance = -STATION_SPREAD * Math.log(1
+                    - random.nextDouble());
+            double angle = Math.toRadians(-20 + 220 * random.nextDouble());
+            ids[i] = String.format("%03d", i + 1);
+            x[i] = CENTER_X + distance * Math.cos(angle) / METERS_PER_X;
+            y[i] = CENTER_Y + distance * Math.sin(angle) / METERS_PER_Y;
+            popularity[i] = Math.exp(-distance / POPULARITY_DECAY
+                    + 0.6 * random.nextGaussian());
+        }
+        double total = Arrays.stream(popularity).sum();
+
+        for (int i = 0; i < ids.length; i++) {
+            departureWeights[i] = (i == 0 ? 0 : departureWeights[i - 1])
+                    + popularity[i] / total;
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            double[] weights = new double[ids.length];
+
+            for (int j = 0; j < ids.length; j++) {
+                weights[j] = i == j ? 0 : popularity[j]
+                        * Math.exp(-getDistance(i, j) / RETURN_DECAY);
+            }
+            double[] cumulated = cumulate(weights);
+            returnWeights[i] = new float[ids.length];
+
+            for (int j = 0; j < ids.length; j++) {
+                returnWeights[i][j] = (float) cumulated[j];
+            }
+        }
+    }
+
+    /**
+     * A helper method for getting the name of a Station.
+     *
+     * @param station The index of the Station
+     * @return        The name
+     */
+    private static String getName(int station) {
+        return "Asema " + (station + 1);
+    }
+
+    /**
+     * A helper method for getting the straight distance between two<br/>
+     * Stations.
+     *
+     * @param a The index of a Station
+     * @param b The index of the other Station
+     * @return  The distance in meters
+     */
+    private double getDistance(int a, int b) {
+        return Math.hypot((x[a] - x[b]) * METERS_PER_X,
+                (y[a] - y[b]) * METERS_PER_Y);
+    }
+
+    /**
+     * A helper method for summing up relative weights to fractions of<br/>
+     * their total.
+     *
+     * @param weights The weights
+     * @return        The sums up to every weight, the last one 1
+     */
+    private static double[] cumulate(double[] weights) {
+        double total = Arrays.stream(weights).sum();
+        double[] cumulated = new double[weights.length];
+        double sum = 0;
+
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulated[i] = sum / total;
+        }
+
+        return cumulated;
+    }
+
+    /**
+     * A helper method for picking an index by cumulated weights.
+     *
+     * @param cumulated The cumulated weights, the last one 1
+     * @param random    The random numbers
+     * @return          The index
+     */
+    private static int pick(double[] cumulated, Random random) {
+        int index = Arrays.binarySearch(cumulated, random.nextDouble());
+
+        return Math.min(index < 0 ? -index - 1 : index, cumulated.length - 1);
+    }
+
+    /**
+     * A helper method for picking an index by cumulated weights.
+     *
+     * @param cumulated The cumulated weights, the last one 1
+     * @param random    The random numbers
+     * @return          The index
+     */
+    private static int pick(float[] cumulated, Random random) {
+        int index = Arrays.binarySearch(cumulated, random.nextFloat());
+
+        return Math.min(index < 0 ? -index - 1 : index, cumulated.length - 1);
+    }
+
+    /**
+     * A helper method for telling if a day is a weekend day.
+     *
+     * @param date The day
+     * @return     True for a Saturday or a Sunday
+     */
+    private static boolean isWeekend(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SATURDAY
+                || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    /**
+     * A helper method for counting the days in the HSL season between<br/>
+     * two months.
+     *
+     * @param from The first month
+     * @param to   The last month
+     * @return     The number of days
+     */
+    private static long countDays(YearMonth from, YearMonth to) {
+        long days = 0;
+
+        for (YearMonth month = from; !month.isAfter(to);
+             month = month.plusMonths(1)) {
+
+            if (SEASON[month.getMonthValue() - 1] > 0) {
+                days += month.lengthOfMonth();
+            }
+        }
+
+        return days;
+    }
+}
@@ -0,0 +1,492 @@
+package fi.tuni.olvander.citybicyclejourneys.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * <p>A load test replaying the workload of the UI against a running app.<br/>
+ * Every worker plays one user at a time: a user lists the Journeys<br/>
+ * sorted by a column and pages through them, pages through the Journeys<br/>
+ * with the cursor and opens one, or lists the Stations and opens the<br/>
+ * details of a popular or a long-tail Station. The selected months vary<br/>
+ * from user to user.</p>
+ *
+ * <p>The latency of every endpoint is recorded into an HdrHistogram<br/>
+ * after a warmup and reported with the p50, p99 and p99.9 latencies.<br/>
+ * The Station endpoints are reported separately for the popular and the<br/>
+ * long-tail Stations. The workers send the next request as soon as the<br/>
+ * previous one has been answered, so the concurrency is the number of<br/>
+ * requests in flight. The same seed replays the same users, so a run<br/>
+ * before and after a change can be compared.</p>
+ *
+ * <p>Run it against an app with imported data with, for example:<br/>
+ * mvn compile exec:java<br/>
+ * -Dexec.mainClass=fi.tuni.olvander.citybicyclejourneys.tools.LoadTest<br/>
+ * -Dexec.args="--concurrency=8 --warmup=30 --duration=60"</p>
+ *
+ * @author  Olli Pertovaara
+ * @version 2026.10.18
+ * @since   1.22
+ */
+public class LoadTest {
+
+    /**
+     * The number of Journeys on a page of the UI.
+     */
+    static final int PAGE_SIZE = 25;
+
+    /**
+     * The share of the Stations that are popular, by the Journeys<br/>
+     * starting from them.
+     */
+    static final double POPULAR_STATIONS = 0.1;
+
+    /**
+     * The share of the Station visits to popular Stations.
+     */
+    private static final double POPULAR_VISITS = 0.7;
+
+    /**
+     * The sorted Journey endpoints, one for every column and direction.
+     */
+    private static final String[] SORTS = {"departureAsc", "departureDesc",
+            "returnAsc", "returnDesc", "distanceAsc", "distanceDesc",
+            "durationAsc", "durationDesc"};
+
+    /**
+     * The sort columns of the Journey page endpoint.
+     */
+    private static final String[] PAGE_SORTS = {"departureDate", "distance",
+            "duration"};
+
+    /**
+     * The Station detail endpoints opened by the single Station view.
+     */
+    private static final String[] STATION_DETAILS = {"", "totalJourneysFrom/",
+            "totalJourneysTo/", "averageDistanceFrom/", "averageDistanceTo/",
+            "top5ReturnStationsStartingFrom/",
+            "top5DepartureStationsEndingAt/", "summary/"};
+
+    /**
+     * The largest latency recorded in microseconds, one minute.
+     */
+    private static final long MAX_LATENCY = 60_000_000;
+
+    /**
+     * The base URL of the app.
+     */
+    private final URI baseUrl;
+
+    /**
+     * The months of the dataset, the users select some of them.
+     */
+    private final int[] months;
+
+    /**
+     * The HTTP client shared by the workers.
+     */
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10)).build();
+
+    /**
+     * The JSON reader of the responses.
+     */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * The latencies of every endpoint in microseconds.
+     */
+    private final Map<String, Histogram> latencies =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The failed requests of every endpoint.
+     */
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    /**
+     * The ids of the popular Stations.
+     */
+    private int[] popular = new int[0];
+
+    /**
+     * The ids of the long-tail Stations.
+     */
+    private int[] longTail = new int[0];
+
+    /**
+     * True while the latencies are recorded, false during the warmup.
+     */
+    private volatile boolean recording;
+
+    /**
+     * The length of the recording in nanoseconds.
+     */
+    private long recorded;
+
+    /**
+     * Creates a load test.
+     *
+     * @param baseUrl The base URL of the app, like http://localhost:8080/
+     * @param months  The months of the dataset
+     */
+    public LoadTest(URI baseUrl, int[] months) {
+        this.baseUrl = baseUrl;
+        this.months = months;
+    }
+
+    /**
+     * Runs a load test against a running app and prints the latencies.
+     *
+     * @param args The options --url (http://localhost:8080/),
+     *             --concurrency (8), --warmup (30 seconds), --duration
+     *             (60 seconds), --months (5,6,7), --seed (2021) and
+     *             --output (a directory for the latency distributions)
+     */
+    public static void main(String[] args) {
+        URI url = URI.create("http://localhost:8080/");
+        int concurrency = 8;
+        Duration warmup = Duration.ofSeconds(30);
+        Duration duration = Duration.ofSeconds(60);
+        int[] months = {5, 6, 7};
+        long seed = 2021;
+        Path output = null;
+
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+
+            switch (arg.substring(0, Math.max(arg.indexOf('='), 0))) {
+                case "--url" -> url = URI.create(value.endsWith("/") ? value
+                        : value + "/");
+                case "--concurrency" -> concurrency = Integer.parseInt(value);
+                case "--warmup" -> warmup = Duration.ofSeconds(
+                        Long.parseLong(value));
+                case "--duration" -> duration = Duration.ofSeconds(
+                        Long.parseLong(value));
+                case "--months" -> months = Arrays.stream(value.split(","))
+                        .mapToInt(Integer::parseInt).toArray();
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--output" -> output = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown "
+                        + "option " + arg);
+            }
+        }
+        LoadTest loadTest = new LoadTest(url, months);
+        loadTest.prepare();
+        loadTest.run(concurrency, warmup, duration, seed);
+        loadTest.report(System.out);
+
+        if (output != null) {
+            loadTest.writeLatencies(output);
+        }
+    }
+
+    /**
+     * Splits the Stations into the popular and the long-tail ones by the<br/>
+     * Journeys starting from them. These requests are not recorded.
+     */
+    public void prepare() {
+        Map<Integer, Integer> departures = new TreeMap<>();
+        JsonNode stations = get("stations", "api/stations/");
+
+        if (stations == null) {
+            throw new IllegalStateException("Could not get the Stations "
+                    + "from " + baseUrl);
+        }
+
+        for (JsonNode station : stations) {
+            int id = station.get("id").asInt();
+            JsonNode count = get("stations", "api/stations/" + id
+                    + "/totalJourneysFrom/");
+            departures.put(id, count == null ? 0 : count.asInt());
+        }
+
+        if (departures.isEmpty()) {
+            throw new IllegalStateException("The app has no Stations");
+        }
+        int[] ids = departures.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue()
+                        .reversed())
+                .mapToInt(Map.Entry::getKey).toArray();
+        int split = Math.max(1, (int) (ids.length * POPULAR_STATIONS));
+        popular = Arrays.copyOfRange(ids, 0, split);
+        longTail = split < ids.length ? Arrays.copyOfRange(ids, split,
+                ids.length) : popular;
+    }
+
+    /**
+     * Runs the users of the workers until the warmup and the recording<br/>
+     * have passed.
+     *
+     * @param concurrency The number of workers
+     * @param warmup      The time before the latencies are recorded
+     * @param duration    The time the latencies are recorded
+     * @param seed        The seed of the random users
+     */
+    public void run(int concurrency, Duration warmup, Duration duration,
+                    long seed) {
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        long end = start + warmup.plus(duration).toNanos();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < concurrency; i++) {
+            Random random = new Random(seed + i);
+            futures.add(workers.submit(() -> {
+
+                while (System.nanoTime() < end) {
+                    playUser(random);
+                }
+            }));
+        }
+
+        try {
+            Thread.sleep(warmup.toMillis());
+            recording = true;
+            long recordingStart = System.nanoTime();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            recording = false;
+            recorded = System.nanoTime() - recordingStart;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            throw new IllegalStateException("A worker failed", e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Prints the request count, the errors, the throughput and the p50,<br/>
+     * p99, p99.9 and maximum latencies of every endpoint.
+     *
+     * @param out The stream to print to
+     */
+    public void report(PrintStream out) {
+        double seconds = Math.max(recorded, 1) / 1e9;
+        out.printf(Locale.ROOT, "%-58s %8s %6s %8s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms",
+                "p99 ms", "p99.9 ms", "max ms");
+
+        for (Map.Entry<String, Histogram> entry : getLatencies().entrySet()) {
+            Histogram histogram = entry.getValue();
+            out.printf(Locale.ROOT, "%-58s %8d %6d %8.1f %9.2f %9.2f %9.2f "
+                    + "%9.2f%n", entry.getKey(), histogram.getTotalCount(),
+                    getErrors(entry.getKey()),
+                    histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+        }
+    }
+
+    /**
+     * Writes the latency distribution of every endpoint into a directory<br/>
+     * in the HdrHistogram percentile format, in milliseconds. The files<br/>
+     * of two runs can be plotted together with the HdrHistogram plotter.
+     *
+     * @param directory The directory
+     */
+    public void writeLatencies(Path directory) {
+
+        try {
+            Files.createDirectories(directory);
+
+            for (Map.Entry<String, Histogram> entry
+                    : getLatencies().entrySet()) {
+
+                String name = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_")
+                        .replaceAll("^_|_$", "");
+
+                try (PrintStream out = new PrintStream(Files.newOutputStream(
+                        directory.resolve(name + ".hgrm")), false,
+                        StandardCharsets.UTF_8)) {
+
+                    entry.getValue().outputPercentileDistribution(out,
+                            1000.0);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the latencies of every endpoint recorded so far.
+     *
+     * @return The latencies in microseconds by the endpoint, sorted
+     */
+    public Map<String, Histogram> getLatencies() {
+        return new TreeMap<>(latencies);
+    }
+
+    /**
+     * Gets the number of failed requests of an endpoint.
+     *
+     * @param endpoint The endpoint
+     * @return         The number of failed requests while recording
+     */
+    public long getErrors(String endpoint) {
+        LongAdder count = errors.get(endpoint);
+
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * A helper method for playing one user of the UI.
+     *
+     * @param random The random numbers of the worker
+     */
+    private void playUser(Random random) {
+        String dates = "selectedMonths=" + selectMonths(random);
+        double user = random.nextDouble();
+
+        if (user < 0.45) {
+            String sort = SORTS[random.nextInt(SORTS.length)];
+            get("api/journeysCount/", "api/journeysCount/?" + dates);
+
+            for (int page = 0; page < 1 + random.nextInt(4); page++) {
+                get("api/journeys/" + sort + "/", "api/journeys/" + sort
+                        + "/?" + dates + "&offset=" + page * PAGE_SIZE
+                        + "&limit=" + PAGE_SIZE);
+            }
+        } else if (user < 0.65) {
+            String query = "api/journeys/page/?" + dates + "&limit="
+                    + PAGE_SIZE + "&sortBy="
+                    + PAGE_SORTS[random.nextInt(PAGE_SORTS.length)]
+                    + "&direction=" + (random.nextBoolean() ? "ascending"
+                    : "descending");
+            JsonNode page = get("api/journeys/page/", query);
+
+            for (int next = random.nextInt(4); next > 0 && page != null
+                    && page.hasNonNull("nextCursor"); next--) {
+
+                page = get("api/journeys/page/", query + "&cursor="
+                        + URLEncoder.encode(page.get("nextCursor").asText(),
+                        StandardCharsets.UTF_8));
+            }
+
+            if (page != null && !page.path("journeys").isEmpty()) {
+                JsonNode journeys = page.get("journeys");
+                get("api/journeys/{id}/", "api/journeys/" + journeys.get(
+                        random.nextInt(journeys.size())).get("id").asText()
+                        + "/");
+            }
+        } else {
+
+            if (random.nextDouble() < 0.2) {
+                get("api/stations/", "api/stations/");
+            }
+            boolean isPopular = random.nextDouble() < POPULAR_VISITS;
+            int[] stations = isPopular ? popular : longTail;
+            int id = stations[random.nextInt(stations.length)];
+
+            for (String detail : STATION_DETAILS) {
+                get("api/stations/{id}/" + detail + (isPopular ? " popular"
+                        : " long tail"), "api/stations/" + id + "/" + detail
+                        + (detail.isEmpty() ? "" : "?" + dates));
+            }
+        }
+    }
+
+    /**
+     * A helper method for selecting the months of a user: every month,<br/>
+     * one month or all but one month.
+     *
+     * @param random The random numbers of the worker
+     * @return       The selected months separated by commas
+     */
+    private String selectMonths(Random random) {
+        double selection = random.nextDouble();
+
+        if (selection < 0.5 || months.length == 1) {
+            return Arrays.stream(months).mapToObj(String::valueOf)
+                    .collect(Collectors.joining(","));
+        }
+        int month = months[random.nextInt(months.length)];
+
+        return Arrays.stream(months)
+                .filter(m -> selection < 0.8 ? m == month : m != month)
+                .mapToObj(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * A helper method for sending a GET request and recording its latency<br/>
+     * under its endpoint while recording.
+     *
+     * @param endpoint The endpoint of the latency
+     * @param path     The path and the query relative to the base URL
+     * @return         The JSON response, or null if the request failed
+     */
+    private JsonNode get(String endpoint, String path) {
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(Duration.ofSeconds(60)).GET().build();
+        long start = System.nanoTime();
+        boolean failed = true;
+        byte[] body = null;
+
+        try {
+            HttpResponse<byte[]> response = client.send(request,
+                    HttpResponse.BodyHandlers.ofByteArray());
+            failed = response.statusCode() != 200;
+            body = response.body();
+        } catch (IOException e) {
+            failed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        long latency = (System.nanoTime() - start) / 1000;
+
+        if (recording) {
+            latencies.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(
+                    MAX_LATENCY, 3)).recordValue(Math.min(latency,
+                    MAX_LATENCY));
+
+            if (failed) {
+                errors.computeIfAbsent(endpoint, key -> new LongAdder())
+                        .increment();
+            }
+        }
+
+        try {
+            return failed ? null : mapper.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
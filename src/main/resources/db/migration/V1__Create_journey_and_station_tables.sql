@@ -0,0 +1,23 @@
+-- The schema the application had while Hibernate created it with
+-- ddl-auto=update. The column order is kept, since some queries read the
+-- Bicycle Journey columns by position. Databases created before the
+-- migrations are baselined at this version instead of running it.
+
+CREATE TABLE IF NOT EXISTS BICYCLE_JOURNEY (
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    COVERED_DISTANCE DOUBLE PRECISION NOT NULL,
+    DEPARTURE_DATE TIMESTAMP(6),
+    DEPARTURE_STATION_ID VARCHAR(255),
+    JOURNEY_DURATION INTEGER NOT NULL,
+    RETURN_DATE TIMESTAMP(6),
+    RETURN_STATION_ID VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS STATION (
+    ID INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    ADDRESS VARCHAR(255),
+    NAME VARCHAR(255),
+    STATION_ID VARCHAR(255),
+    X DOUBLE PRECISION NOT NULL,
+    Y DOUBLE PRECISION NOT NULL
+);
@@ -0,0 +1,22 @@
+-- The indexes added while Hibernate still managed the schema. A baselined
+-- database may not have them yet.
+
+-- Keyset pagination of the Journeys by departure date.
+CREATE INDEX IF NOT EXISTS IDX_JOURNEY_DEPARTURE_DATE_ID
+    ON BICYCLE_JOURNEY (DEPARTURE_DATE, ID);
+
+-- Sorting the Journeys by Station name.
+CREATE INDEX IF NOT EXISTS IDX_STATION_STATION_ID_NAME
+    ON STATION (STATION_ID, NAME);
+
+-- The Station statistics filter the Journeys by a departure or a return
+-- Station and by a departure date range. The other Station id is the last
+-- column, so the top 5 Station queries are answered from the index alone.
+
+CREATE INDEX IF NOT EXISTS IDX_JOURNEY_DEPARTURE_STATION_DATE
+    ON BICYCLE_JOURNEY (DEPARTURE_STATION_ID, DEPARTURE_DATE,
+                        RETURN_STATION_ID);
+
+CREATE INDEX IF NOT EXISTS IDX_JOURNEY_RETURN_STATION_DATE
+    ON BICYCLE_JOURNEY (RETURN_STATION_ID, DEPARTURE_DATE,
+                        DEPARTURE_STATION_ID);
@@ -0,0 +1,50 @@
+-- Journey counts and sums by Station, direction and departure month. The
+-- direction is D for Journeys departing from the Station and R for
+-- Journeys returning to it. Every imported batch appends its own rows in
+-- the same transaction as the Journeys, and the import merges the rows of
+-- a key into one row when it is done, so a Station view sums at most a
+-- few rows.
+
+CREATE TABLE IF NOT EXISTS STATION_MONTH_STATISTICS (
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    STATION_ID VARCHAR(255) NOT NULL,
+    DIRECTION CHAR(1) NOT NULL,
+    JOURNEY_MONTH DATE NOT NULL,
+    JOURNEY_COUNT BIGINT NOT NULL,
+    DISTANCE_SUM DOUBLE PRECISION NOT NULL,
+    DURATION_SUM BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS IDX_STATION_MONTH_STATISTICS
+    ON STATION_MONTH_STATISTICS (STATION_ID, DIRECTION, JOURNEY_MONTH);
+
+-- The Journeys imported before this migration. H2 needs the month as a
+-- column of a derived table to group by it. The rows of a failed earlier
+-- run of this migration are deleted first.
+DELETE FROM STATION_MONTH_STATISTICS;
+
+INSERT INTO STATION_MONTH_STATISTICS (STATION_ID, DIRECTION, JOURNEY_MONTH,
+        JOURNEY_COUNT, DISTANCE_SUM, DURATION_SUM)
+    SELECT STATION_ID, 'D', JOURNEY_MONTH, COUNT(*), SUM(COVERED_DISTANCE),
+            SUM(JOURNEY_DURATION)
+    FROM (SELECT DEPARTURE_STATION_ID AS STATION_ID,
+                CAST(DATE_TRUNC('MONTH', DEPARTURE_DATE) AS DATE)
+                        AS JOURNEY_MONTH,
+                COVERED_DISTANCE, JOURNEY_DURATION
+            FROM BICYCLE_JOURNEY
+            WHERE DEPARTURE_STATION_ID IS NOT NULL
+                AND DEPARTURE_DATE IS NOT NULL) J
+    GROUP BY STATION_ID, JOURNEY_MONTH;
+
+INSERT INTO STATION_MONTH_STATISTICS (STATION_ID, DIRECTION, JOURNEY_MONTH,
+        JOURNEY_COUNT, DISTANCE_SUM, DURATION_SUM)
+    SELECT STATION_ID, 'R', JOURNEY_MONTH, COUNT(*), SUM(COVERED_DISTANCE),
+            SUM(JOURNEY_DURATION)
+    FROM (SELECT RETURN_STATION_ID AS STATION_ID,
+                CAST(DATE_TRUNC('MONTH', DEPARTURE_DATE) AS DATE)
+                        AS JOURNEY_MONTH,
+                COVERED_DISTANCE, JOURNEY_DURATION
+            FROM BICYCLE_JOURNEY
+            WHERE RETURN_STATION_ID IS NOT NULL
+                AND DEPARTURE_DATE IS NOT NULL) J
+    GROUP BY STATION_ID, JOURNEY_MONTH;
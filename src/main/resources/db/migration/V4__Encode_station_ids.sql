@@ -0,0 +1,87 @@
+-- The Station ids are dictionary encoded. Every Station id has an int
+-- code in STATION_CODE, and the Journeys, the Stations and the Station
+-- month statistics store the code instead of the id. The ids are looked
+-- up by their codes only when a response is written.
+
+CREATE TABLE IF NOT EXISTS STATION_CODE (
+    CODE INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    STATION_ID VARCHAR(255) NOT NULL,
+    CONSTRAINT UQ_STATION_CODE_STATION_ID UNIQUE (STATION_ID)
+);
+
+INSERT INTO STATION_CODE (STATION_ID)
+    SELECT STATION_ID FROM (
+            SELECT STATION_ID FROM STATION
+            UNION SELECT DEPARTURE_STATION_ID FROM BICYCLE_JOURNEY
+            UNION SELECT RETURN_STATION_ID FROM BICYCLE_JOURNEY) I
+    WHERE STATION_ID IS NOT NULL
+    ORDER BY STATION_ID;
+
+-- The Journeys. Updating every Journey in place is slow, so the encoded
+-- Journeys are copied into a new table which then replaces the old one.
+-- The column order of the Journeys is kept.
+
+DROP TABLE IF EXISTS BICYCLE_JOURNEY_ENCODED;
+
+CREATE TABLE BICYCLE_JOURNEY_ENCODED (
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    COVERED_DISTANCE DOUBLE PRECISION NOT NULL,
+    DEPARTURE_DATE TIMESTAMP(6),
+    DEPARTURE_STATION_CODE INTEGER,
+    JOURNEY_DURATION INTEGER NOT NULL,
+    RETURN_DATE TIMESTAMP(6),
+    RETURN_STATION_CODE INTEGER
+);
+
+INSERT INTO BICYCLE_JOURNEY_ENCODED
+    SELECT J.ID, J.COVERED_DISTANCE, J.DEPARTURE_DATE, D.CODE,
+           J.JOURNEY_DURATION, J.RETURN_DATE, R.CODE
+    FROM BICYCLE_JOURNEY J
+    LEFT JOIN STATION_CODE D ON D.STATION_ID = J.DEPARTURE_STATION_ID
+    LEFT JOIN STATION_CODE R ON R.STATION_ID = J.RETURN_STATION_ID;
+
+ALTER TABLE BICYCLE_JOURNEY_ENCODED ALTER COLUMN ID RESTART WITH
+    (SELECT COALESCE(MAX(ID), 0) + 1 FROM BICYCLE_JOURNEY_ENCODED);
+
+DROP TABLE BICYCLE_JOURNEY;
+ALTER TABLE BICYCLE_JOURNEY_ENCODED RENAME TO BICYCLE_JOURNEY;
+
+CREATE INDEX IDX_JOURNEY_DEPARTURE_DATE_ID
+    ON BICYCLE_JOURNEY (DEPARTURE_DATE, ID);
+
+CREATE INDEX IDX_JOURNEY_DEPARTURE_STATION_DATE
+    ON BICYCLE_JOURNEY (DEPARTURE_STATION_CODE, DEPARTURE_DATE,
+                        RETURN_STATION_CODE);
+
+CREATE INDEX IDX_JOURNEY_RETURN_STATION_DATE
+    ON BICYCLE_JOURNEY (RETURN_STATION_CODE, DEPARTURE_DATE,
+                        DEPARTURE_STATION_CODE);
+
+-- The Stations.
+
+DROP INDEX IF EXISTS IDX_STATION_STATION_ID_NAME;
+
+ALTER TABLE STATION ADD COLUMN STATION_CODE INTEGER AFTER STATION_ID;
+
+UPDATE STATION S SET STATION_CODE = (SELECT C.CODE FROM STATION_CODE C
+        WHERE C.STATION_ID = S.STATION_ID);
+
+ALTER TABLE STATION DROP COLUMN STATION_ID;
+
+CREATE INDEX IDX_STATION_STATION_CODE_NAME ON STATION (STATION_CODE, NAME);
+
+-- The Station month statistics.
+
+DROP INDEX IF EXISTS IDX_STATION_MONTH_STATISTICS;
+
+ALTER TABLE STATION_MONTH_STATISTICS ADD COLUMN STATION_CODE INTEGER
+    AFTER STATION_ID;
+
+UPDATE STATION_MONTH_STATISTICS M SET STATION_CODE = (SELECT C.CODE
+        FROM STATION_CODE C WHERE C.STATION_ID = M.STATION_ID);
+
+ALTER TABLE STATION_MONTH_STATISTICS DROP COLUMN STATION_ID;
+ALTER TABLE STATION_MONTH_STATISTICS ALTER COLUMN STATION_CODE SET NOT NULL;
+
+CREATE INDEX IDX_STATION_MONTH_STATISTICS
+    ON STATION_MONTH_STATISTICS (STATION_CODE, DIRECTION, JOURNEY_MONTH);
@@ -0,0 +1,30 @@
+-- The Journeys are stored in one table per departure month, named
+-- BICYCLE_JOURNEY_<year>_<month>. Every month table is created as a copy
+-- of BICYCLE_JOURNEY_TEMPLATE with its primary key and indexes, so this
+-- table is the only place where the month tables are defined. The
+-- template itself stays empty. The ids come from one sequence, so they
+-- stay unique over all the months.
+
+CREATE SEQUENCE IF NOT EXISTS BICYCLE_JOURNEY_ID_SEQ;
+
+CREATE TABLE IF NOT EXISTS BICYCLE_JOURNEY_TEMPLATE (
+    ID BIGINT DEFAULT NEXT VALUE FOR BICYCLE_JOURNEY_ID_SEQ NOT NULL,
+    COVERED_DISTANCE DOUBLE PRECISION NOT NULL,
+    DEPARTURE_DATE TIMESTAMP(6) NOT NULL,
+    DEPARTURE_STATION_CODE INTEGER,
+    JOURNEY_DURATION INTEGER NOT NULL,
+    RETURN_DATE TIMESTAMP(6),
+    RETURN_STATION_CODE INTEGER,
+    CONSTRAINT PK_BICYCLE_JOURNEY_TEMPLATE PRIMARY KEY (ID)
+);
+
+CREATE INDEX IF NOT EXISTS IDX_BICYCLE_JOURNEY_TEMPLATE_DEPARTURE_DATE_ID
+    ON BICYCLE_JOURNEY_TEMPLATE (DEPARTURE_DATE, ID);
+
+CREATE INDEX IF NOT EXISTS IDX_BICYCLE_JOURNEY_TEMPLATE_DEPARTURE_STATION_DATE
+    ON BICYCLE_JOURNEY_TEMPLATE (DEPARTURE_STATION_CODE, DEPARTURE_DATE,
+                                 RETURN_STATION_CODE);
+
+CREATE INDEX IF NOT EXISTS IDX_BICYCLE_JOURNEY_TEMPLATE_RETURN_STATION_DATE
+    ON BICYCLE_JOURNEY_TEMPLATE (RETURN_STATION_CODE, DEPARTURE_DATE,
+                                 DEPARTURE_STATION_CODE);
@@ -0,0 +1,26 @@
+-- The progress of the Journey CSV file imports. A file is read in chunks
+-- of whole rows and every chunk is recorded in JOURNEY_IMPORT_RANGE in the
+-- transaction that writes its Journeys, so an interrupted import resumes
+-- with the rows that were not committed. The ranges are only appended, so
+-- concurrent writers never wait for each other. They are merged into the
+-- committed offset and rows of the file when the import is resumed or
+-- done.
+
+CREATE TABLE IF NOT EXISTS JOURNEY_IMPORT_FILE (
+    FILE_NAME VARCHAR(255) NOT NULL,
+    CHECKSUM VARCHAR(16) NOT NULL,
+    FILE_SIZE BIGINT NOT NULL,
+    COMMITTED_OFFSET BIGINT DEFAULT 0 NOT NULL,
+    COMMITTED_ROWS BIGINT DEFAULT 0 NOT NULL,
+    COMPLETED BOOLEAN DEFAULT FALSE NOT NULL,
+    UPDATED_AT TIMESTAMP(6) NOT NULL,
+    CONSTRAINT PK_JOURNEY_IMPORT_FILE PRIMARY KEY (FILE_NAME)
+);
+
+CREATE TABLE IF NOT EXISTS JOURNEY_IMPORT_RANGE (
+    FILE_NAME VARCHAR(255) NOT NULL,
+    START_OFFSET BIGINT NOT NULL,
+    END_OFFSET BIGINT NOT NULL,
+    JOURNEY_ROWS INTEGER NOT NULL,
+    CONSTRAINT PK_JOURNEY_IMPORT_RANGE PRIMARY KEY (FILE_NAME, START_OFFSET)
+);
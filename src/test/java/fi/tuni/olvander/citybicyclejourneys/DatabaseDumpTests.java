@@ -0,0 +1,142 @@
+package fi.tuni.olvander.citybicyclejourneys;
+
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatch;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatchWriter;
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that an empty in-memory database is hydrated from the dump of<br/>
+ * another database with every table, partition and migration, and that<br/>
+ * a dump that cannot be read leaves the database empty for a CSV import.
+ */
+@SpringBootTest(properties = "citybicyclejourneys.import.background=false")
+class DatabaseDumpTests {
+
+    private static final YearMonth MAY = YearMonth.of(2021, 5);
+
+    private static final YearMonth JUNE = YearMonth.of(2021, 6);
+
+    @TempDir
+    static Path directory;
+
+    @Autowired
+    private DatabaseDump databaseDump;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    @Autowired
+    private JourneyBatchWriter journeyBatchWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DataSource hydrated;
+
+    @DynamicPropertySource
+    static void dumpFile(DynamicPropertyRegistry registry) {
+        registry.add("citybicyclejourneys.dump.file",
+                () -> directory.resolve("db.dump.gz").toString());
+    }
+
+    @BeforeEach
+    void writeJourneys() {
+        journeyPartitions.dropAll();
+        jdbcTemplate.update("DELETE FROM STATION_MONTH_STATISTICS");
+        writeJourneys(MAY, 10);
+        writeJourneys(JUNE, 20);
+        hydrated = new DriverManagerDataSource(
+                "jdbc:h2:mem:hydrated;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    @AfterEach
+    void dropHydrated() {
+        new JdbcTemplate(hydrated).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void hydratesAnEmptyDatabaseFromTheDump() {
+        databaseDump.save(dataSource);
+
+        assertTrue(databaseDump.exists());
+        assertTrue(databaseDump.hydrate(hydrated));
+        assertFalse(databaseDump.hydrate(hydrated));
+
+        JdbcTemplate copy = new JdbcTemplate(hydrated);
+
+        for (String query : List.of(
+                "SELECT COUNT(*) FROM BICYCLE_JOURNEY",
+                "SELECT SUM(COVERED_DISTANCE) FROM BICYCLE_JOURNEY",
+                "SELECT COUNT(*) FROM STATION",
+                "SELECT COUNT(*) FROM STATION_MONTH_STATISTICS",
+                "SELECT MAX(\"version\") FROM \"flyway_schema_history\"",
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE "
+                        + "TABLE_NAME = '" + JourneyPartitions.getTable(JUNE)
+                        + "' AND INDEX_TYPE_NAME = 'INDEX'")) {
+
+            assertEquals(jdbcTemplate.queryForObject(query, String.class),
+                    copy.queryForObject(query, String.class), query);
+        }
+        assertEquals(30L, copy.queryForObject("SELECT COUNT(*) FROM "
+                + "BICYCLE_JOURNEY", Long.class));
+    }
+
+    @Test
+    void leavesTheDatabaseEmptyWhenTheDumpCannotBeRead() throws Exception {
+        Path dump = directory.resolve("db.dump.gz");
+        databaseDump.save(dataSource);
+        byte[] bytes = Files.readAllBytes(dump);
+        Files.write(dump, Arrays.copyOf(bytes, bytes.length - 100));
+
+        assertFalse(databaseDump.hydrate(hydrated));
+        assertEquals(0L, countTables());
+
+        Files.writeString(dump, "not a dump");
+
+        assertFalse(databaseDump.hydrate(hydrated));
+        assertEquals(0L, countTables());
+    }
+
+    private long countTables() {
+        return new JdbcTemplate(hydrated).queryForObject("SELECT COUNT(*) "
+                + "FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = "
+                + "'PUBLIC'", Long.class);
+    }
+
+    private void writeJourneys(YearMonth month, int count) {
+        JourneyBatch batch = new JourneyBatch("test", count);
+
+        for (int i = 0; i < count; i++) {
+            long departure = month.atDay(1 + i % 28).atTime(i % 24, 15)
+                    .toEpochSecond(ZoneOffset.UTC);
+            batch.add(departure, departure + 600, "001", "002", 100 + i,
+                    60 + i);
+        }
+        journeyBatchWriter.write(batch);
+    }
+}
@@ -0,0 +1,139 @@
+package fi.tuni.olvander.citybicyclejourneys;
+
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatch;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatchWriter;
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import fi.tuni.olvander.citybicyclejourneys.stations.Station;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCatalog;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+/**
+ * The Stations and Journeys shared by the Journey and Station endpoint<br/>
+ * tests and the helpers for querying them by month.
+ */
+public final class JourneyTestFixture {
+
+    /**
+     * The number of Stations, named "Asema 9" to "Asema 0" by the id.
+     */
+    public static final int STATIONS = 10;
+
+    /**
+     * Selects the Station code of the Station id parameter.
+     */
+    public static final String STATION_CODE = "(SELECT CODE FROM "
+            + "STATION_CODE WHERE STATION_ID = ?)";
+
+    private JourneyTestFixture() {}
+
+    /**
+     * Deletes every Journey and the Station month statistics and saves<br/>
+     * the Stations that are missing.
+     *
+     * @param jdbcTemplate      The database
+     * @param journeyPartitions The Journey partitions
+     * @param stationDb         The Station repository
+     * @param stationCatalog    The Station catalog, reloaded afterwards
+     */
+    public static void reset(JdbcTemplate jdbcTemplate,
+                             JourneyPartitions journeyPartitions,
+                             StationRepository stationDb,
+                             StationCatalog stationCatalog) {
+        journeyPartitions.dropAll();
+        jdbcTemplate.update("DELETE FROM STATION_MONTH_STATISTICS");
+
+        for (int i = 0; i < STATIONS; i++) {
+            String stationId = stationId(i);
+
+            if (stationDb.findByStationId(stationId).isEmpty()) {
+                stationDb.save(new Station(stationId, "Asema " + (9 - i),
+                        "Katu " + i, 24.9, 60.1));
+            }
+        }
+        stationCatalog.reload();
+    }
+
+    /**
+     * Writes random Journeys of May, June and July of 2021 in batches.
+     *
+     * @param journeyBatchWriter The Journey batch writer
+     * @param seed               The seed of the random Journeys
+     * @param batches            The number of batches
+     * @param size               The number of Journeys in a batch
+     * @param stations           The number of Station ids used, the ones<br/>
+     *                           above STATIONS have no Station
+     */
+    public static void writeRandomJourneys(
+            JourneyBatchWriter journeyBatchWriter, long seed, int batches,
+            int size, int stations) {
+        Random random = new Random(seed);
+
+        for (int b = 0; b < batches; b++) {
+            JourneyBatch batch = new JourneyBatch("test", size);
+
+            for (int i = 0; i < size; i++) {
+                long departure = LocalDateTime.of(2021, 5 + random.nextInt(3),
+                        1 + random.nextInt(28), random.nextInt(24), 30)
+                        .toEpochSecond(ZoneOffset.UTC);
+                batch.add(departure, departure + 600,
+                        stationId(random.nextInt(stations)),
+                        stationId(random.nextInt(stations)),
+                        10 + random.nextInt(5000) + random.nextInt(4) / 4.0,
+                        10 + random.nextInt(3000));
+            }
+            journeyBatchWriter.write(batch);
+        }
+    }
+
+    /**
+     * Formats a Station id of the fixture.
+     *
+     * @param i The number of the Station
+     * @return  The Station id
+     */
+    public static String stationId(int i) {
+        return String.format("%03d", i);
+    }
+
+    /**
+     * Gets the SQL condition selecting the Journeys departing in the months.
+     *
+     * @param months The months
+     * @return       The condition, starting with AND
+     */
+    public static String getDates(int[] months) {
+        StringBuilder dates = new StringBuilder(" AND MONTH(DEPARTURE_DATE) "
+                + "IN (");
+
+        for (int i = 0; i < months.length; i++) {
+            dates.append(i == 0 ? "" : ", ").append(months[i]);
+        }
+
+        return dates.append(")").toString();
+    }
+
+    /**
+     * Joins the months into the selectedMonths parameter.
+     *
+     * @param months The months
+     * @return       The comma separated months
+     */
+    public static String join(int[] months) {
+        StringBuilder joined = new StringBuilder();
+
+        for (int month : months) {
+
+            if (!joined.isEmpty()) {
+                joined.append(",");
+            }
+            joined.append(month);
+        }
+
+        return joined.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package fi.tuni.olvander.citybicyclejourneys.caching;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import fi.tuni.olvander.citybicyclejourneys.stations.Station;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCatalog;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests that the API responses carry the dataset version as their ETag<br/>
+ * and that a matching conditional request is answered with 304.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConditionalRequestTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private StationRepository stationDb;
+
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    @Autowired
+    private StationCatalog stationCatalog;
+
+    @BeforeEach
+    void writeStation() {
+
+        if (stationDb.findByStationId("100").isEmpty()) {
+            stationDb.save(new Station("100", "Asema 100", "Katu 100", 24.9,
+                    60.1));
+            stationCatalog.reload();
+        }
+        // The other test contexts may have changed the partitions.
+        journeyPartitions.reload();
+        datasetVersion.refresh();
+    }
+
+    @Test
+    void answersAMatchingETagWithNotModified() {
+        ResponseEntity<String> first = get("/api/stations/", new HttpHeaders());
+        String eTag = first.getHeaders().getETag();
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(datasetVersion.getETag(), eTag);
+        assertNotNull(first.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+        assertEquals("no-cache, public",
+                first.getHeaders().getCacheControl());
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(eTag);
+        ResponseEntity<String> second = get("/api/stations/", conditional);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertNull(second.getBody());
+        assertEquals(eTag, second.getHeaders().getETag());
+    }
+
+    @Test
+    void answersAnUnchangedDatasetWithNotModified() {
+        ResponseEntity<String> first = get("/api/journeysCount/",
+                new HttpHeaders());
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfModifiedSince(first.getHeaders().getLastModified());
+
+        assertEquals(HttpStatus.NOT_MODIFIED, get("/api/journeysCount/",
+                conditional).getStatusCode());
+    }
+
+    @Test
+    void changesTheETagWhenTheDatasetChanges() {
+        String eTag = datasetVersion.getETag();
+        Station station = stationDb.save(new Station("101", "Asema 101",
+                "Katu 101", 24.9, 60.1));
+
+        try {
+            datasetVersion.refresh();
+            HttpHeaders conditional = new HttpHeaders();
+            conditional.setIfNoneMatch(eTag);
+            ResponseEntity<String> response = get("/api/stations/",
+                    conditional);
+
+            assertNotEquals(eTag, datasetVersion.getETag());
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(datasetVersion.getETag(),
+                    response.getHeaders().getETag());
+        } finally {
+            stationDb.delete(station);
+        }
+    }
+
+    private ResponseEntity<String> get(String url, HttpHeaders headers) {
+        return restTemplate.exchange(url, HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,201 @@
+package fi.tuni.olvander.citybicyclejourneys.columns;
+
+import fi.tuni.olvander.citybicyclejourneys.JourneyTestFixture;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatchWriter;
+import fi.tuni.olvander.citybicyclejourneys.journeys.BicycleJourney;
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import fi.tuni.olvander.citybicyclejourneys.stations.Station;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCatalog;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static fi.tuni.olvander.citybicyclejourneys.JourneyTestFixture.STATION_CODE;
+import static fi.tuni.olvander.citybicyclejourneys.JourneyTestFixture.getDates;
+import static fi.tuni.olvander.citybicyclejourneys.JourneyTestFixture.join;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that the Journey and Station endpoints answered by the columnar<br/>
+ * read engine match the same queries run in the database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "citybicyclejourneys.columnar.enabled=true")
+class JourneyColumnStoreTests {
+
+    private static final int[][] MONTHS = {{5}, {7}, {5, 6}, {5, 6, 7}};
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JourneyBatchWriter journeyBatchWriter;
+
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    @Autowired
+    private StationRepository stationDb;
+
+    @Autowired
+    private StationCatalog stationCatalog;
+
+    @Autowired
+    private JourneyColumnStore journeyColumnStore;
+
+    @BeforeEach
+    void writeJourneys() {
+        JourneyTestFixture.reset(jdbcTemplate, journeyPartitions, stationDb,
+                stationCatalog);
+
+        // Station 010 is not in the Station table, so it has no name.
+        JourneyTestFixture.writeRandomJourneys(journeyBatchWriter, 11, 1,
+                3000, JourneyTestFixture.STATIONS + 1);
+        journeyColumnStore.reload();
+    }
+
+    @Test
+    void countsAndSortsLikeTheDatabase() {
+
+        for (int[] months : MONTHS) {
+            String query = "?selectedMonths=" + join(months);
+            String dates = getDates(months);
+            String all = query + "&all=true";
+
+            assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                    + "BICYCLE_JOURNEY J WHERE TRUE" + dates, Long.class),
+                    restTemplate.getForObject("/api/journeysCount/" + query,
+                            Long.class));
+            assertSameIds("SELECT J.ID FROM BICYCLE_JOURNEY J WHERE TRUE"
+                    + dates + " ORDER BY J.ID DESC", "/api/journeys/" + query);
+            assertSameIds("SELECT J.ID FROM BICYCLE_JOURNEY J LEFT JOIN "
+                    + "STATION S ON S.STATION_CODE = J.DEPARTURE_STATION_CODE "
+                    + "WHERE TRUE" + dates + " ORDER BY S.NAME ASC NULLS "
+                    + "FIRST, J.ID", "/api/journeys/departureAsc/" + all);
+            assertSameIds("SELECT J.ID FROM BICYCLE_JOURNEY J LEFT JOIN "
+                    + "STATION S ON S.STATION_CODE = J.RETURN_STATION_CODE "
+                    + "WHERE TRUE" + dates + " ORDER BY S.NAME DESC NULLS "
+                    + "LAST, J.ID DESC LIMIT 40", "/api/journeys/returnDesc/"
+                    + query + "&limit=40");
+            assertSameIds("SELECT J.ID FROM BICYCLE_JOURNEY J WHERE TRUE"
+                    + dates + " ORDER BY J.COVERED_DISTANCE DESC, J.ID",
+                    "/api/journeys/distanceDesc/" + all);
+            assertSameIds("SELECT J.ID FROM BICYCLE_JOURNEY J WHERE TRUE"
+                    + dates + " ORDER BY J.JOURNEY_DURATION, J.ID",
+                    "/api/journeys/durationAsc/" + all);
+        }
+    }
+
+    @Test
+    void pagesLikeTheDatabase() {
+        String dates = getDates(new int[] {6});
+
+        assertSameIds("SELECT J.ID FROM BICYCLE_JOURNEY J WHERE TRUE" + dates
+                + " ORDER BY J.COVERED_DISTANCE DESC, J.ID LIMIT 50 OFFSET "
+                + "120", "/api/journeys/distanceDesc/?selectedMonths=6"
+                + "&offset=120&limit=50");
+        assertSameIds("SELECT J.ID FROM BICYCLE_JOURNEY J WHERE TRUE" + dates
+                + " ORDER BY J.JOURNEY_DURATION DESC, J.ID OFFSET 990",
+                "/api/journeys/durationDesc/?selectedMonths=6&offset=990"
+                + "&all=true");
+        assertSameIds("SELECT J.ID FROM BICYCLE_JOURNEY J LEFT JOIN "
+                + "STATION S ON S.STATION_CODE = J.DEPARTURE_STATION_CODE "
+                + "WHERE TRUE ORDER BY S.NAME DESC NULLS LAST, J.ID DESC "
+                + "LIMIT 30 OFFSET 2900", "/api/journeys/departureDesc/"
+                + "?selectedMonths=5,6,7&offset=2900&limit=30");
+    }
+
+    @Test
+    void returnsTheStoredJourneys() {
+        long id = jdbcTemplate.queryForObject("SELECT MAX(ID) FROM "
+                + "BICYCLE_JOURNEY WHERE COVERED_DISTANCE <> "
+                + "FLOOR(COVERED_DISTANCE)", Long.class);
+        BicycleJourney journey = restTemplate.getForObject("/api/journeys/"
+                + id + "/", BicycleJourney.class);
+
+        assertEquals(jdbcTemplate.queryForObject("SELECT CONCAT_WS(' ', "
+                + "J.DEPARTURE_DATE, J.RETURN_DATE, D.STATION_ID, "
+                + "R.STATION_ID, J.COVERED_DISTANCE, J.JOURNEY_DURATION) "
+                + "FROM BICYCLE_JOURNEY J INNER JOIN STATION_CODE D ON "
+                + "D.CODE = J.DEPARTURE_STATION_CODE INNER JOIN STATION_CODE "
+                + "R ON R.CODE = J.RETURN_STATION_CODE WHERE J.ID = ?",
+                String.class, id),
+                String.join(" ", journey.getDepartureDate().toString()
+                        .replace('T', ' ') + ":00", journey.getReturnDate()
+                        .toString().replace('T', ' ') + ":00",
+                        journey.getDepartureStationId(),
+                        journey.getReturnStationId(),
+                        String.valueOf(journey.getCoveredDistance()),
+                        String.valueOf(journey.getJourneyDuration())));
+    }
+
+    @Test
+    void answersTheStationQueriesLikeTheDatabase() {
+
+        for (String stationId : new String[] {"001", "006"}) {
+            int id = stationDb.findByStationId(stationId).get().getId();
+
+            for (int[] months : MONTHS) {
+                String query = "?selectedMonths=" + join(months);
+                String dates = getDates(months);
+
+                assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) "
+                        + "FROM BICYCLE_JOURNEY J WHERE "
+                        + "DEPARTURE_STATION_CODE = " + STATION_CODE + dates,
+                        Integer.class, stationId),
+                        restTemplate.getForObject("/api/stations/" + id
+                                + "/totalJourneysFrom/" + query,
+                                Integer.class));
+                assertEquals(Math.round(jdbcTemplate.queryForObject("SELECT "
+                        + "AVG(COVERED_DISTANCE) FROM BICYCLE_JOURNEY J WHERE "
+                        + "RETURN_STATION_CODE = " + STATION_CODE + dates,
+                        Double.class,
+                        stationId) / 10) / 100.0,
+                        restTemplate.getForObject("/api/stations/" + id
+                                + "/averageDistanceTo/" + query,
+                                Double.class));
+
+                List<String> expected = jdbcTemplate.queryForList("SELECT "
+                        + "C.STATION_ID FROM (SELECT RETURN_STATION_CODE AS "
+                        + "STATION_CODE, COUNT(*) AS JOURNEYS FROM "
+                        + "BICYCLE_JOURNEY J WHERE DEPARTURE_STATION_CODE = "
+                        + STATION_CODE + dates + " GROUP BY "
+                        + "RETURN_STATION_CODE) J INNER JOIN STATION S ON "
+                        + "S.STATION_CODE = J.STATION_CODE INNER JOIN "
+                        + "STATION_CODE C ON C.CODE = S.STATION_CODE ORDER BY "
+                        + "J.JOURNEYS DESC, S.NAME ASC LIMIT 8", String.class,
+                        stationId);
+                Station[] top = restTemplate.getForObject("/api/stations/"
+                        + id + "/topReturnStationsStartingFrom/" + query
+                        + "&limit=8", Station[].class);
+
+                assertEquals(expected.size(), top.length);
+
+                for (int i = 0; i < top.length; i++) {
+                    assertEquals(expected.get(i), top[i].getStationId());
+                }
+            }
+        }
+    }
+
+    private void assertSameIds(String sql, String url) {
+        List<Long> expected = jdbcTemplate.queryForList(sql, Long.class);
+        BicycleJourney[] journeys = restTemplate.getForObject(url,
+                BicycleJourney[].class);
+
+        assertEquals(expected.size(), journeys.length, url);
+
+        for (int i = 0; i < journeys.length; i++) {
+            assertEquals(expected.get(i), journeys[i].getId(), url);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package fi.tuni.olvander.citybicyclejourneys.columns;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.BicycleJourney;
+import fi.tuni.olvander.citybicyclejourneys.journeys.DepartureDateRange;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the JourneyColumns mapped from a snapshot answer every<br/>
+ * query like the columns the snapshot was written from, and that a<br/>
+ * snapshot of another dataset version or a cut snapshot is not read.
+ */
+class JourneySnapshotTests {
+
+    private static final String VERSION = "2001.2001.10.10";
+
+    private static final List<DepartureDateRange> DATES = List.of(
+            DepartureDateRange.ALL,
+            DepartureDateRange.ofMonths(2021, new int[] {6}),
+            DepartureDateRange.between(LocalDateTime.of(2021, 5, 20, 0, 0),
+                    LocalDateTime.of(2021, 7, 3, 12, 0)));
+
+    @TempDir
+    static Path directory;
+
+    private static JourneyColumns loaded;
+
+    private static Path snapshot;
+
+    @BeforeAll
+    static void writeSnapshot() throws Exception {
+        Random random = new Random(7);
+        JourneyColumns.Builder builder = new JourneyColumns.Builder(16);
+        String[] stationIds = new String[10];
+        Map<String, String> stationNames = new HashMap<>();
+
+        // Code 4 has no Station id and Station 009 has no name.
+        for (int code = 0; code < stationIds.length; code++) {
+            stationIds[code] = code == 4 ? null : String.format("%03d", code);
+            stationNames.put(stationIds[code], code == 9 ? null
+                    : "Asema " + (code % 5));
+        }
+
+        for (int id = 2001; id > 0; id--) {
+            LocalDateTime departure = LocalDateTime.of(2021,
+                    5 + random.nextInt(3), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60));
+            builder.add(id, departure, departure.plusMinutes(10),
+                    random.nextInt(12) - 1, random.nextInt(12) - 1,
+                    10 + random.nextInt(500) + random.nextInt(4) / 4.0,
+                    10 + random.nextInt(300));
+        }
+        loaded = builder.build(stationIds, stationNames);
+        snapshot = directory.resolve("journeys.snapshot");
+        JourneySnapshot.write(loaded, VERSION, snapshot);
+    }
+
+    @Test
+    void answersLikeTheLoadedColumns() throws Exception {
+        JourneyColumns mapped = JourneySnapshot.map(snapshot, VERSION);
+
+        assertNotNull(mapped);
+        assertTrue(mapped.isMapped());
+        assertFalse(loaded.isMapped());
+        assertEquals(loaded.size(), mapped.size());
+
+        for (DepartureDateRange dates : DATES) {
+            assertEquals(loaded.count(dates), mapped.count(dates));
+            assertArrayEquals(loaded.selectRows(dates),
+                    mapped.selectRows(dates));
+
+            for (JourneyColumns.SortKey key : JourneyColumns.SortKey.values()) {
+
+                for (boolean descending : new boolean[] {false, true}) {
+                    assertArrayEquals(loaded.sortRows(key, descending, dates,
+                            0, null), mapped.sortRows(key, descending, dates,
+                            0, null));
+                    assertArrayEquals(loaded.sortRows(key, descending, dates,
+                            37, 25), mapped.sortRows(key, descending, dates,
+                            37, 25));
+                }
+            }
+
+            for (String stationId : new String[] {"000", "005", "009"}) {
+
+                for (boolean returns : new boolean[] {false, true}) {
+                    assertArrayEquals(loaded.getStationStatistics(stationId,
+                            returns, dates), mapped.getStationStatistics(
+                            stationId, returns, dates));
+                    assertEquals(loaded.countJourneysByOtherStation(
+                            stationId, returns, dates),
+                            mapped.countJourneysByOtherStation(stationId,
+                            returns, dates));
+                }
+            }
+        }
+        int[] rows = loaded.selectRows(DepartureDateRange.ALL);
+
+        assertEquals(describe(loaded.getJourneys(rows, null)),
+                describe(mapped.getJourneys(rows, null)));
+
+        for (long id : new long[] {1, 1000, 2001}) {
+            assertEquals(describe(List.of(loaded.findById(id).get())),
+                    describe(List.of(mapped.findById(id).get())));
+        }
+        assertTrue(mapped.findById(0).isEmpty());
+        assertTrue(mapped.findById(2002).isEmpty());
+    }
+
+    @Test
+    void doesNotReadAnotherVersionOrACutSnapshot() throws Exception {
+        Path cut = directory.resolve("cut.snapshot");
+        JourneySnapshot.write(loaded, VERSION, cut);
+
+        try (FileChannel channel = FileChannel.open(cut,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 100);
+        }
+
+        assertNull(JourneySnapshot.map(snapshot, "2002.2002.10.10"));
+        assertNull(JourneySnapshot.map(cut, VERSION));
+        assertNull(JourneySnapshot.map(directory.resolve("missing"),
+                VERSION));
+    }
+
+    private static List<String> describe(List<BicycleJourney> journeys) {
+        List<String> values = new ArrayList<>();
+
+        for (BicycleJourney journey : journeys) {
+            values.add(journey.getId() + " " + journey.getDepartureDate()
+                    + " " + journey.getReturnDate() + " "
+                    + journey.getDepartureStationId() + " "
+                    + journey.getReturnStationId() + " "
+                    + journey.getCoveredDistance() + " "
+                    + journey.getJourneyDuration());
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,153 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.BicycleJourney;
+import org.h2.tools.Csv;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that the byte based HSL CSV parser reads the same Journeys as<br/>
+ * the Csv().read() path. Their speed is measured by ImportBenchmark.
+ */
+class HslCsvParserTests {
+
+    private static final int ROWS = 200_000;
+
+    @TempDir
+    static Path directory;
+
+    private static Path journeys;
+
+    @BeforeAll
+    static void writeJourneys() throws Exception {
+        journeys = directory.resolve("2021-05.csv");
+        Random random = new Random(42);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(journeys,
+                StandardCharsets.UTF_8)) {
+
+            writer.write("Departure,Return,Departure station id,Departure "
+                    + "station name,Return station id,Return station name,"
+                    + "Covered distance (m),Duration (sec.)\n");
+
+            for (int i = 0; i < ROWS; i++) {
+                LocalDateTime departure = LocalDateTime.of(2021, 5, 1, 0, 0)
+                        .plusSeconds(random.nextInt(31 * 86_400));
+                int duration = random.nextInt(3_000);
+                String distance = i % 7 == 0 ? random.nextInt(6_000) + ".0"
+                        : String.valueOf(random.nextInt(6_000));
+                int from = random.nextInt(500);
+                int to = random.nextInt(500);
+                writer.write(departure + "," + departure.plusSeconds(duration)
+                        + "," + String.format("%03d", from) + ",\"Asema, "
+                        + from + "\"," + String.format("%03d", to) + ",Asema "
+                        + to + "," + distance + "," + duration + "\n");
+            }
+        }
+    }
+
+    @Test
+    void parsesTheSameJourneysAsCsvRead() throws Exception {
+        assertEquals(readWithCsv(), readWithByteParser());
+    }
+
+    @Test
+    void decodesDatesAndQuotedFields() {
+        byte[] row = ("2021-05-31T23:57:25,2021-06-01,\"a \"\"b\"\", c\","
+                + "-12.5,0042").getBytes(StandardCharsets.UTF_8);
+        CsvByteParser csv = new CsvByteParser(row, 0, row.length);
+        csv.nextRow();
+
+        assertEquals(LocalDateTime.of(2021, 5, 31, 23, 57, 25)
+                .toEpochSecond(ZoneOffset.UTC), csv.parseEpochSecond(0));
+        assertEquals(LocalDateTime.of(2021, 6, 1, 0, 0)
+                .toEpochSecond(ZoneOffset.UTC), csv.parseEpochSecond(1));
+        assertEquals("a \"b\", c", csv.getString(2));
+        assertEquals(-12.5, csv.parseDouble(3));
+        assertEquals(42, csv.parseInt(4));
+    }
+
+    private static String readWithCsv() throws Exception {
+        JourneyRowParser parser = new JourneyRowParser();
+        Summary summary = new Summary();
+
+        try (ResultSet rs = new Csv().read(journeys.toString(), null,
+                null)) {
+
+            while (rs.next()) {
+                Optional<BicycleJourney> journey = parser.parse(
+                        rs.getString(1), rs.getString(2), rs.getString(3),
+                        rs.getString(5), rs.getDouble(7), rs.getInt(8));
+
+                journey.ifPresent(j -> summary.add(
+                        j.getDepartureDate().toEpochSecond(ZoneOffset.UTC),
+                        j.getReturnDate().toEpochSecond(ZoneOffset.UTC),
+                        j.getDepartureStationId(), j.getReturnStationId(),
+                        j.getCoveredDistance(), j.getJourneyDuration()));
+            }
+        }
+
+        return summary.toString();
+    }
+
+    private static String readWithByteParser() throws Exception {
+        HslCsvParser parser = new HslCsvParser();
+        Summary summary = new Summary();
+
+        try (CsvChunkReader reader = new CsvChunkReader(journeys, 10_000)) {
+            CsvChunkReader.Chunk chunk = reader.next();
+
+            while (chunk != null) {
+                JourneyBatch batch = parser.parseJourneys("2021-05", chunk);
+
+                for (int i = 0; i < batch.size(); i++) {
+                    summary.add(batch.getDepartureDate(i),
+                            batch.getReturnDate(i),
+                            batch.getDepartureStationId(i),
+                            batch.getReturnStationId(i),
+                            batch.getCoveredDistance(i),
+                            batch.getJourneyDuration(i));
+                }
+                chunk = reader.next();
+            }
+        }
+
+        return summary.toString();
+    }
+
+    private static class Summary {
+        private long rows;
+        private long dates;
+        private long stations;
+        private double distance;
+        private long duration;
+
+        void add(long departure, long returned, String from, String to,
+                 double coveredDistance, int journeyDuration) {
+            rows++;
+            dates += departure * 31 + returned;
+            stations += from.hashCode() * 31L + to.hashCode();
+            distance += coveredDistance;
+            duration += journeyDuration;
+        }
+
+        @Override
+        public String toString() {
+            return rows + " " + dates + " " + stations + " " + distance + " "
+                    + duration;
+        }
+    }
+}
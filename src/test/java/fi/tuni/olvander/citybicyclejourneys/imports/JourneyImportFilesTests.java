@@ -0,0 +1,181 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import fi.tuni.olvander.citybicyclejourneys.journeys.DepartureDateRange;
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that an interrupted Journey import resumes with the rows that<br/>
+ * were not committed and that a file is imported only once.
+ */
+@SpringBootTest
+class JourneyImportFilesTests {
+
+    private static final int ROWS = 1000;
+
+    @TempDir
+    private Path directory;
+
+    @Autowired
+    private JourneyImportFiles journeyImportFiles;
+
+    @Autowired
+    private JourneyImportPipeline journeyImportPipeline;
+
+    @Autowired
+    private JourneyBatchWriter journeyBatchWriter;
+
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        journeyPartitions.dropAll();
+        jdbcTemplate.update("DELETE FROM STATION_MONTH_STATISTICS");
+        jdbcTemplate.update("DELETE FROM JOURNEY_IMPORT_RANGE");
+        jdbcTemplate.update("DELETE FROM JOURNEY_IMPORT_FILE");
+    }
+
+    @Test
+    void importsAFileOnce() throws Exception {
+        String file = writeFile("2021-09.csv", 9);
+
+        assertEquals(List.of(file), journeyImportFiles.findPending(directory,
+                "stations.csv"));
+        assertEquals(ROWS, journeyImportPipeline.importFiles(List.of(file),
+                (imported, months) -> {}));
+        assertEquals(ROWS, journeyPartitions.count(DepartureDateRange.ALL));
+        assertEquals(ROWS, jdbcTemplate.queryForObject("SELECT "
+                + "COMMITTED_ROWS FROM JOURNEY_IMPORT_FILE WHERE COMPLETED",
+                Long.class));
+        assertTrue(journeyImportFiles.findPending(directory, "stations.csv")
+                .isEmpty());
+        assertEquals(0, journeyImportPipeline.importFiles(List.of(file),
+                (imported, months) -> {}));
+
+        String next = writeFile("2021-10.csv", 10);
+
+        assertEquals(List.of(next), journeyImportFiles.findPending(directory,
+                "stations.csv"));
+        assertEquals(ROWS, journeyImportPipeline.importFiles(List.of(next),
+                (imported, months) -> {}));
+        assertEquals(2 * ROWS, journeyPartitions.count(
+                DepartureDateRange.ALL));
+    }
+
+    @Test
+    void resumesAnInterruptedImport() throws Exception {
+        String file = writeFile("2021-09.csv", 9);
+        long committed = writeChunks(file, 0, 3, 4, 8);
+
+        assertEquals(committed, journeyPartitions.count(
+                DepartureDateRange.ALL));
+        assertEquals(List.of(file), journeyImportFiles.findPending(directory,
+                "stations.csv"));
+        assertEquals(ROWS - committed, journeyImportPipeline.importFiles(
+                List.of(file), (imported, months) -> {}));
+        assertEquals(ROWS, journeyPartitions.count(DepartureDateRange.ALL));
+        assertEquals(ROWS, jdbcTemplate.queryForObject("SELECT COUNT("
+                + "DISTINCT DEPARTURE_DATE) FROM BICYCLE_JOURNEY",
+                Long.class));
+        assertEquals(ROWS, jdbcTemplate.queryForObject("SELECT "
+                + "COMMITTED_ROWS FROM JOURNEY_IMPORT_FILE WHERE COMPLETED",
+                Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "JOURNEY_IMPORT_RANGE", Integer.class));
+    }
+
+    @Test
+    void reportsTheMonthsOfEveryImportedFile() throws Exception {
+        String september = writeFile("2021-09.csv", 9);
+        String october = writeFile("2021-10.csv", 10);
+        Map<String, Set<YearMonth>> months = new ConcurrentHashMap<>();
+
+        assertEquals(2 * ROWS, journeyImportPipeline.importFiles(List.of(
+                september, october), months::put));
+        assertEquals(Map.of(september, Set.of(YearMonth.of(2021, 9)),
+                october, Set.of(YearMonth.of(2021, 10))), months);
+    }
+
+    @Test
+    void doesNotResumeAChangedFile() throws Exception {
+        String file = writeFile("2021-09.csv", 9);
+        long committed = writeChunks(file, 1);
+        Files.writeString(Path.of(file), "2021-09-30T10:00:00,"
+                + "2021-09-30T10:30:00,001,A,002,B,1000,1800\n",
+                StandardOpenOption.APPEND);
+
+        assertTrue(journeyImportFiles.prepare(file).ranges().isEmpty());
+        assertEquals(committed, journeyPartitions.count(
+                DepartureDateRange.ALL));
+    }
+
+    private long writeChunks(String file, int... chunks) throws Exception {
+        journeyImportFiles.prepare(file);
+        HslCsvParser parser = new HslCsvParser();
+        long rows = 0;
+        int index = 0;
+
+        try (CsvChunkReader reader = new CsvChunkReader(Path.of(file), 100)) {
+
+            for (CsvChunkReader.Chunk chunk = reader.next(); chunk != null;
+                    chunk = reader.next(), index++) {
+
+                for (int written : chunks) {
+
+                    if (written == index) {
+                        rows += journeyBatchWriter.write(parser.parseJourneys(
+                                file, chunk));
+                    }
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    private String writeFile(String name, int month) throws Exception {
+        Path file = directory.resolve(name);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file,
+                StandardCharsets.UTF_8)) {
+
+            writer.write("Departure,Return,Departure station id,Departure "
+                    + "station name,Return station id,Return station name,"
+                    + "Covered distance (m),Duration (sec.)\n");
+
+            for (int i = 0; i < ROWS; i++) {
+                LocalDateTime departure = LocalDateTime.of(2021, month, 1, 0,
+                        0).plusSeconds(i * 60L);
+                writer.write(departure + "," + departure.plusSeconds(600)
+                        + "," + String.format("%03d", i % 10) + ",\"Asema, "
+                        + i % 10 + "\",002,Asema 2," + (100 + i) + ",600\n");
+            }
+        }
+
+        return file.toString();
+    }
+}
@@ -0,0 +1,145 @@
+package fi.tuni.olvander.citybicyclejourneys.imports;
+
+import fi.tuni.olvander.citybicyclejourneys.CityBicycleJourneys;
+import fi.tuni.olvander.citybicyclejourneys.journeys.DepartureDateRange;
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the Journeys are imported in the background while the API<br/>
+ * is served and that the import progress and the health probes are<br/>
+ * shown.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class JourneyImportProgressTests {
+
+    private static final int ROWS = 500;
+
+    @TempDir
+    private Path directory;
+
+    @Autowired
+    private CityBicycleJourneys cityBicycleJourneys;
+
+    @Autowired
+    private JourneyImportProgress journeyImportProgress;
+
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        journeyPartitions.dropAll();
+        jdbcTemplate.update("DELETE FROM STATION_MONTH_STATISTICS");
+        jdbcTemplate.update("DELETE FROM JOURNEY_IMPORT_RANGE");
+        jdbcTemplate.update("DELETE FROM JOURNEY_IMPORT_FILE");
+    }
+
+    @Test
+    void importsInTheBackgroundWhileTheApiIsServed() throws Exception {
+        List<String> files = List.of(writeFile("2021-09.csv", 9),
+                writeFile("2021-10.csv", 10));
+        Future<?> done;
+
+        // The import waits for the lock until the API has been checked.
+        synchronized (cityBicycleJourneys) {
+            done = cityBicycleJourneys.startJourneyImport(files);
+
+            assertTrue(journeyImportProgress.isImporting());
+            assertEquals("no-store", restTemplate.getForEntity(
+                    "/api/journeysCount/", String.class).getHeaders()
+                    .getCacheControl());
+            assertTrue(restTemplate.getForObject("/api/import/", String.class)
+                    .contains("\"IMPORTING\""));
+        }
+        done.get(60, TimeUnit.SECONDS);
+
+        JourneyImportProgress.Status status =
+                journeyImportProgress.getStatus();
+
+        assertEquals(JourneyImportProgress.State.COMPLETED, status.state());
+        assertEquals(2 * ROWS, status.rows());
+        assertEquals(List.of(
+                new JourneyImportProgress.FileProgress("2021-09.csv", ROWS,
+                        true),
+                new JourneyImportProgress.FileProgress("2021-10.csv", ROWS,
+                        true)), status.files());
+        assertEquals(List.of(YearMonth.of(2021, 9), YearMonth.of(2021, 10)),
+                status.months());
+        assertNull(status.error());
+        assertEquals(2 * ROWS, journeyPartitions.count(
+                DepartureDateRange.ALL));
+
+        for (YearMonth month : status.months()) {
+            assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) "
+                    + "FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = ? "
+                    + "AND INDEX_TYPE_NAME = 'INDEX'", Integer.class,
+                    JourneyPartitions.getTable(month)));
+        }
+        assertEquals("no-cache, public", restTemplate.getForEntity(
+                "/api/journeysCount/", String.class).getHeaders()
+                .getCacheControl());
+    }
+
+    @Test
+    void showsTheLivenessAndReadiness() {
+
+        for (String probe : List.of("liveness", "readiness")) {
+            ResponseEntity<String> response = restTemplate.getForEntity(
+                    "/actuator/health/" + probe, String.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertTrue(response.getBody().contains("\"UP\""),
+                    response.getBody());
+        }
+    }
+
+    private String writeFile(String name, int month) throws Exception {
+        Path file = directory.resolve(name);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file,
+                StandardCharsets.UTF_8)) {
+
+            writer.write("Departure,Return,Departure station id,Departure "
+                    + "station name,Return station id,Return station name,"
+                    + "Covered distance (m),Duration (sec.)\n");
+
+            for (int i = 0; i < ROWS; i++) {
+                LocalDateTime departure = LocalDateTime.of(2021, month, 1, 0,
+                        0).plusSeconds(i * 60L);
+                writer.write(departure + "," + departure.plusSeconds(600)
+                        + ",001,Asema 1,002,Asema 2," + (100 + i) + ",600\n");
+            }
+        }
+
+        return file.toString();
+    }
+}
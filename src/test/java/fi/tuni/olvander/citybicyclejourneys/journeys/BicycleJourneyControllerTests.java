@@ -0,0 +1,297 @@
+package fi.tuni.olvander.citybicyclejourneys.journeys;
+
+import fi.tuni.olvander.citybicyclejourneys.JourneyTestFixture;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatch;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatchWriter;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCatalog;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static fi.tuni.olvander.citybicyclejourneys.JourneyTestFixture.join;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that concurrent Journey requests for different months never see<br/>
+ * each other's results. Their latencies are measured by LoadTest.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BicycleJourneyControllerTests {
+
+    private static final int[][] MONTHS = {{5}, {6}, {7}, {5, 6}, {6, 7}};
+
+    private static final String[] SORTS = {"departureDesc", "departureAsc",
+            "returnDesc", "returnAsc", "distanceDesc", "distanceAsc",
+            "durationDesc", "durationAsc"};
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JourneyBatchWriter journeyBatchWriter;
+
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    @Autowired
+    private StationRepository stationDb;
+
+    @Autowired
+    private StationCatalog stationCatalog;
+
+    @BeforeEach
+    void writeJourneys() {
+        JourneyTestFixture.reset(jdbcTemplate, journeyPartitions, stationDb,
+                stationCatalog);
+        JourneyBatch batch = new JourneyBatch("test", 600);
+
+        // Every month has a different number of Journeys.
+        for (int month = 5; month <= 7; month++) {
+
+            for (int i = 0; i < journeysIn(month); i++) {
+                long departure = LocalDateTime.of(2021, month, 1 + i % 28,
+                        i % 24, 30).toEpochSecond(ZoneOffset.UTC);
+                batch.add(departure, departure + 60 + i,
+                        JourneyTestFixture.stationId(i % 10),
+                        JourneyTestFixture.stationId((i + 3) % 10), 100 + i,
+                        60 + i);
+            }
+        }
+        journeyBatchWriter.write(batch);
+    }
+
+    @Test
+    void countsTheSelectedMonths() {
+
+        for (int[] months : MONTHS) {
+            assertEquals(expectedCount(months), restTemplate.getForObject(
+                    "/api/journeysCount/?selectedMonths=" + join(months),
+                    Long.class));
+        }
+        assertEquals(expectedCount(5, 6, 7), restTemplate.getForObject(
+                "/api/journeysCount/", Long.class));
+    }
+
+    @Test
+    void filtersByAnyDepartureDates() {
+        JourneyBatch batch = new JourneyBatch("test", 30);
+
+        // Months with two digits and a second year.
+        for (int i = 0; i < 30; i++) {
+            long departure = (i < 10 ? LocalDateTime.of(2021, 10, 1 + i, 8, 0)
+                    : LocalDateTime.of(2022, 1, i, 8, 0))
+                    .toEpochSecond(ZoneOffset.UTC);
+            batch.add(departure, departure + 600, "001", "002", 500, 600);
+        }
+        journeyBatchWriter.write(batch);
+
+        assertEquals(10L, restTemplate.getForObject(
+                "/api/journeysCount/?selectedMonths=10", Long.class));
+        assertEquals(20L, restTemplate.getForObject(
+                "/api/journeysCount/?from=2022-01-01", Long.class));
+        assertEquals(expectedCount(5, 6, 7) + 10, restTemplate.getForObject(
+                "/api/journeysCount/?to=2021-12-31", Long.class));
+        assertEquals(5L, restTemplate.getForObject("/api/journeysCount/"
+                + "?from=2022-01-10T08:00&to=2022-01-15T08:00", Long.class));
+
+        String query = "?selectedMonths=6,7&from=2021-06-10&to=2021-07-05";
+        long expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "BICYCLE_JOURNEY WHERE DEPARTURE_DATE >= '2021-06-10' AND "
+                + "DEPARTURE_DATE < '2021-07-06'", Long.class);
+
+        assertEquals(expected, restTemplate.getForObject("/api/journeysCount/"
+                + query, Long.class));
+        assertEquals(expected, restTemplate.getForObject("/api/journeys/"
+                + query, BicycleJourney[].class).length);
+        assertEquals(expected, restTemplate.getForObject("/api/journeys/"
+                + "page/" + query + "&limit=1000", BicycleJourneyPage.class)
+                .getJourneys().size());
+
+        for (String sort : SORTS) {
+            BicycleJourney[] journeys = restTemplate.getForObject(
+                    "/api/journeys/" + sort + "/" + query + "&all=true",
+                    BicycleJourney[].class);
+
+            assertEquals(expected, journeys.length, sort);
+
+            for (BicycleJourney journey : journeys) {
+                assertTrue(!journey.getDepartureDate().isBefore(
+                        LocalDateTime.of(2021, 6, 10, 0, 0))
+                        && journey.getDepartureDate().isBefore(
+                        LocalDateTime.of(2021, 7, 6, 0, 0)), sort);
+            }
+        }
+        assertEquals(400, restTemplate.getForEntity("/api/journeysCount/"
+                + "?selectedMonths=13", String.class).getStatusCode().value());
+        assertEquals(400, restTemplate.getForEntity("/api/journeysCount/"
+                + "?from=2021-07-01&to=2021-06-01", String.class)
+                .getStatusCode().value());
+        assertEquals(400, restTemplate.getForEntity("/api/journeys/page/"
+                + "?sortBy=distance&direction=desc", String.class)
+                .getStatusCode().value());
+    }
+
+    @Test
+    void returnsTheDepartureAndReturnTimes() {
+
+        for (String path : new String[] {"", "distanceAsc/"}) {
+            BicycleJourney[] journeys = restTemplate.getForObject(
+                    "/api/journeys/" + path + "?selectedMonths=6&all=true",
+                    BicycleJourney[].class);
+
+            assertEquals(expectedCount(6), journeys.length, path);
+
+            for (BicycleJourney journey : journeys) {
+                assertEquals(30, journey.getDepartureDate().getMinute(),
+                        path);
+                assertEquals(journey.getDepartureDate().plusSeconds(
+                        journey.getJourneyDuration()),
+                        journey.getReturnDate(), path);
+            }
+        }
+    }
+
+    @Test
+    void sortsByStationNameInTheDatabase() {
+        BicycleJourney[] all = restTemplate.getForObject(
+                "/api/journeys/departureAsc/?selectedMonths=6&all=true",
+                BicycleJourney[].class);
+        BicycleJourney[] limited = restTemplate.getForObject(
+                "/api/journeys/returnDesc/?selectedMonths=5,6&limit=25",
+                BicycleJourney[].class);
+
+        assertEquals(expectedCount(6), all.length);
+        assertEquals(25, limited.length);
+
+        // The Station with the id 009 is named "Asema 0".
+        assertEquals("009", all[0].getDepartureStationId());
+        assertEquals("000", limited[0].getReturnStationId());
+
+        for (int i = 1; i < all.length; i++) {
+            assertTrue(all[i - 1].getDepartureStationId().compareTo(
+                    all[i].getDepartureStationId()) >= 0);
+        }
+    }
+
+    @Test
+    void pagesEverySortWithAnOffset() {
+
+        for (String sort : SORTS) {
+            BicycleJourney[] all = restTemplate.getForObject("/api/journeys/"
+                    + sort + "/?selectedMonths=5,6&all=true",
+                    BicycleJourney[].class);
+            BicycleJourney[] page = restTemplate.getForObject("/api/journeys/"
+                    + sort + "/?selectedMonths=5,6&offset=40&limit=15",
+                    BicycleJourney[].class);
+
+            assertEquals(15, page.length, sort);
+            assertEquals(100, restTemplate.getForObject("/api/journeys/"
+                    + sort + "/?selectedMonths=5,6", BicycleJourney[].class)
+                    .length, sort);
+
+            for (int i = 0; i < page.length; i++) {
+                assertEquals(all[40 + i].getId(), page[i].getId(), sort);
+            }
+        }
+    }
+
+    @Test
+    void concurrentRequestsGetOnlyTheirOwnMonths() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+
+            for (int i = 0; i < 400; i++) {
+                int request = i;
+                results.add(pool.submit(() -> {
+                    request(request);
+                    return null;
+                }));
+            }
+
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void request(int request) {
+        int[] months = MONTHS[request % MONTHS.length];
+        String sort = SORTS[request % SORTS.length];
+        BicycleJourney[] journeys = restTemplate.getForObject("/api/journeys/"
+                + sort + "/?selectedMonths=" + join(months) + "&all=true",
+                BicycleJourney[].class);
+
+        assertEquals(expectedCount(months), journeys.length);
+
+        for (BicycleJourney journey : journeys) {
+            int month = journey.getDepartureDate().getMonthValue();
+            assertTrue(contains(months, month), sort + " " + join(months)
+                    + " returned a Journey of month " + month);
+        }
+
+        if (sort.startsWith("distance")) {
+            double[] distances = new double[journeys.length];
+            double[] sorted = new double[journeys.length];
+
+            for (int i = 0; i < journeys.length; i++) {
+                distances[i] = journeys[i].getCoveredDistance();
+                sorted[i] = sort.endsWith("Asc") ? distances[i]
+                        : -distances[i];
+            }
+            Arrays.sort(sorted);
+
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = sort.endsWith("Asc") ? sorted[i] : -sorted[i];
+            }
+            assertArrayEquals(sorted, distances);
+        }
+    }
+
+    private static int journeysIn(int month) {
+        return month == 5 ? 300 : month == 6 ? 200 : 100;
+    }
+
+    private static long expectedCount(int... months) {
+        long count = 0;
+
+        for (int month : months) {
+            count += journeysIn(month);
+        }
+
+        return count;
+    }
+
+    private static boolean contains(int[] months, int month) {
+
+        for (int value : months) {
+
+            if (value == month) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,166 @@
+package fi.tuni.olvander.citybicyclejourneys.journeys;
+
+import fi.tuni.olvander.citybicyclejourneys.CityBicycleJourneys;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatch;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatchWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the Bicycle Journeys are stored in their month partitions,<br/>
+ * that the queries only read the selected months and that a month is<br/>
+ * dropped and written again without touching the other months.
+ */
+@SpringBootTest
+class JourneyPartitionsTests {
+
+    private static final YearMonth MAY = YearMonth.of(2021, 5);
+
+    private static final YearMonth JUNE = YearMonth.of(2021, 6);
+
+    private static final YearMonth JULY = YearMonth.of(2021, 7);
+
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    @Autowired
+    private JourneyBatchWriter journeyBatchWriter;
+
+    @Autowired
+    private CityBicycleJourneys cityBicycleJourneys;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void writeJourneys() {
+        journeyPartitions.dropAll();
+        jdbcTemplate.update("DELETE FROM STATION_MONTH_STATISTICS");
+        writeJourneys(MAY, 10);
+        writeJourneys(JUNE, 20);
+        writeJourneys(JULY, 30);
+    }
+
+    @Test
+    void storesEveryMonthInItsOwnPartition() {
+        assertEquals(List.of(MAY, JUNE, JULY), journeyPartitions.getMonths());
+
+        for (YearMonth month : List.of(MAY, JUNE, JULY)) {
+            assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) "
+                    + "FROM " + JourneyPartitions.getTable(month)
+                    + " WHERE YEAR(DEPARTURE_DATE) <> ? OR "
+                    + "MONTH(DEPARTURE_DATE) <> ?", Long.class,
+                    month.getYear(), month.getMonthValue()));
+        }
+        assertEquals(60L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "BICYCLE_JOURNEY", Long.class));
+        assertEquals(60L, jdbcTemplate.queryForObject("SELECT COUNT("
+                + "DISTINCT ID) FROM BICYCLE_JOURNEY", Long.class));
+    }
+
+    @Test
+    void readsOnlyTheSelectedMonths() {
+        List<Object> args = new ArrayList<>();
+
+        assertEquals(JourneyPartitions.getTable(JUNE), journeyPartitions.from(
+                DepartureDateRange.ofMonths(2021, new int[] {6}), args));
+        assertTrue(args.isEmpty());
+
+        DepartureDateRange dates = DepartureDateRange.between(
+                LocalDateTime.of(2021, 6, 10, 0, 0), null);
+        String union = journeyPartitions.from(dates, args);
+
+        assertFalse(union.contains(JourneyPartitions.getTable(MAY)), union);
+        assertTrue(union.contains(JourneyPartitions.getTable(JULY)), union);
+        assertEquals(2, args.size());
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "BICYCLE_JOURNEY WHERE DEPARTURE_DATE >= '2021-06-10'",
+                Long.class), journeyPartitions.count(dates));
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + union + " J", Long.class, args.toArray()),
+                journeyPartitions.count(dates));
+        assertEquals(JourneyPartitions.TEMPLATE, journeyPartitions.from(
+                DepartureDateRange.ofMonths(2021, new int[] {9}), args));
+        assertEquals(0L, journeyPartitions.count(
+                DepartureDateRange.ofMonths(2021, new int[] {9})));
+    }
+
+    @Test
+    void dropsAndReloadsOneMonth() {
+        long lastId = journeyPartitions.getMaxId();
+        List<Long> julyIds = jdbcTemplate.queryForList("SELECT ID FROM "
+                + JourneyPartitions.getTable(JULY) + " ORDER BY ID",
+                Long.class);
+
+        assertTrue(cityBicycleJourneys.dropJourneysOfMonth(JUNE));
+        assertFalse(cityBicycleJourneys.dropJourneysOfMonth(JUNE));
+        assertEquals(List.of(MAY, JULY), journeyPartitions.getMonths());
+        assertEquals(40L, journeyPartitions.count(DepartureDateRange.ALL));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "STATION_MONTH_STATISTICS WHERE JOURNEY_MONTH = ?",
+                Long.class, JUNE.atDay(1)));
+        assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "STATION_MONTH_STATISTICS WHERE JOURNEY_MONTH = ?",
+                Long.class, JULY.atDay(1)) > 0);
+        assertEquals(julyIds, jdbcTemplate.queryForList("SELECT ID FROM "
+                + JourneyPartitions.getTable(JULY) + " ORDER BY ID",
+                Long.class));
+
+        writeJourneys(JUNE, 5);
+
+        assertEquals(List.of(MAY, JUNE, JULY), journeyPartitions.getMonths());
+        assertEquals(5L, journeyPartitions.count(
+                DepartureDateRange.ofMonths(2021, new int[] {6})));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + JourneyPartitions.getTable(JUNE) + " WHERE ID <= ?",
+                Long.class, lastId));
+    }
+
+    @Test
+    void createsTheIndexesOfNewPartitionsAfterABulkImport() {
+        journeyPartitions.setIndexed(false);
+
+        try {
+            writeJourneys(YearMonth.of(2021, 8), 5);
+
+            assertEquals(0, countIndexes(YearMonth.of(2021, 8)));
+            assertEquals(3, countIndexes(MAY));
+        } finally {
+            journeyPartitions.setIndexed(true);
+        }
+        assertEquals(3, countIndexes(YearMonth.of(2021, 8)));
+        assertEquals(3, countIndexes(MAY));
+    }
+
+    private int countIndexes(YearMonth month) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = ? AND "
+                + "INDEX_TYPE_NAME = 'INDEX'", Integer.class,
+                JourneyPartitions.getTable(month));
+    }
+
+    private void writeJourneys(YearMonth month, int count) {
+        JourneyBatch batch = new JourneyBatch("test", count);
+
+        for (int i = 0; i < count; i++) {
+            long departure = month.atDay(1 + i % 28).atTime(i % 24, 15)
+                    .toEpochSecond(ZoneOffset.UTC);
+            batch.add(departure, departure + 600, "001", "002", 100 + i,
+                    60 + i);
+        }
+        journeyBatchWriter.write(batch);
+    }
+}
@@ -0,0 +1,280 @@
+package fi.tuni.olvander.citybicyclejourneys.stations;
+
+import fi.tuni.olvander.citybicyclejourneys.JourneyTestFixture;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatchWriter;
+import fi.tuni.olvander.citybicyclejourneys.imports.StationStatisticsWriter;
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static fi.tuni.olvander.citybicyclejourneys.JourneyTestFixture.STATION_CODE;
+import static fi.tuni.olvander.citybicyclejourneys.JourneyTestFixture.getDates;
+import static fi.tuni.olvander.citybicyclejourneys.JourneyTestFixture.join;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the Station statistics endpoints answered from the Station<br/>
+ * month statistics match the statistics computed from the Journeys.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StationControllerTests {
+
+    private static final int[][] MONTHS = {{5}, {6}, {7}, {5, 7}, {5, 6, 7}};
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JourneyBatchWriter journeyBatchWriter;
+
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    @Autowired
+    private StationStatisticsWriter stationStatisticsWriter;
+
+    @Autowired
+    private StationRepository stationDb;
+
+    @Autowired
+    private StationCatalog stationCatalog;
+
+    @BeforeEach
+    void writeJourneys() {
+        JourneyTestFixture.reset(jdbcTemplate, journeyPartitions, stationDb,
+                stationCatalog);
+
+        // Several batches, so every key has several rows before compact.
+        JourneyTestFixture.writeRandomJourneys(journeyBatchWriter, 7, 4, 500,
+                JourneyTestFixture.STATIONS);
+    }
+
+    @Test
+    void answersFromTheStationMonthStatistics() {
+        assertStatisticsMatchTheJourneys();
+
+        stationStatisticsWriter.compact();
+
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "(SELECT DISTINCT STATION_CODE, DIRECTION, JOURNEY_MONTH FROM "
+                + "STATION_MONTH_STATISTICS)", Integer.class),
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                        + "STATION_MONTH_STATISTICS", Integer.class));
+        assertStatisticsMatchTheJourneys();
+    }
+
+    @Test
+    void summaryMatchesTheSeparateEndpoints() {
+        stationStatisticsWriter.compact();
+
+        for (String stationId : new String[] {"001", "008"}) {
+            int id = stationDb.findByStationId(stationId).get().getId();
+
+            for (int[] months : MONTHS) {
+                String query = "?selectedMonths=" + join(months);
+                String url = "/api/stations/" + id + "/";
+                StationSummary summary = restTemplate.getForObject(url
+                        + "summary/" + query + "&topStations=true",
+                        StationSummary.class);
+                StationSummary withoutTop = restTemplate.getForObject(url
+                        + "summary/" + query, StationSummary.class);
+
+                assertEquals(summary.getTotalJourneysFrom(),
+                        withoutTop.getTotalJourneysFrom());
+                assertNull(withoutTop.getTop5ReturnStationsStartingFrom());
+                assertNull(withoutTop.getTop5DepartureStationsEndingAt());
+
+                assertEquals(stationId, summary.getStation().getStationId());
+                assertEquals(restTemplate.getForObject(url
+                        + "totalJourneysFrom/" + query, Integer.class),
+                        summary.getTotalJourneysFrom());
+                assertEquals(restTemplate.getForObject(url
+                        + "totalJourneysTo/" + query, Integer.class),
+                        summary.getTotalJourneysTo());
+                assertEquals(restTemplate.getForObject(url
+                        + "averageDistanceFrom/" + query, Double.class),
+                        summary.getAverageDistanceFrom());
+                assertEquals(restTemplate.getForObject(url
+                        + "averageDistanceTo/" + query, Double.class),
+                        summary.getAverageDistanceTo());
+                assertEquals(stationIds(restTemplate.getForObject(url
+                        + "top5ReturnStationsStartingFrom/" + query,
+                        Station[].class)), stationIds(summary
+                        .getTop5ReturnStationsStartingFrom()
+                        .toArray(new Station[0])));
+                assertEquals(stationIds(restTemplate.getForObject(url
+                        + "top5DepartureStationsEndingAt/" + query,
+                        Station[].class)), stationIds(summary
+                        .getTop5DepartureStationsEndingAt()
+                        .toArray(new Station[0])));
+            }
+        }
+    }
+
+    @Test
+    void countsPartsOfMonthsFromTheJourneys() {
+        stationStatisticsWriter.compact();
+        String[][] ranges = {{"from=2021-05-10&to=2021-06-20", "2021-05-10",
+                "2021-06-21"}, {"selectedMonths=5,6&from=2021-06-01T12:00",
+                "2021-06-01 12:00", "2021-07-01"}};
+
+        for (String stationId : new String[] {"003", "006"}) {
+            int id = stationDb.findByStationId(stationId).get().getId();
+
+            for (String[] range : ranges) {
+                String query = "?" + range[0];
+                String dates = " AND DEPARTURE_DATE >= '" + range[1]
+                        + "' AND DEPARTURE_DATE < '" + range[2] + "'";
+
+                assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) "
+                        + "FROM BICYCLE_JOURNEY WHERE DEPARTURE_STATION_CODE = "
+                        + STATION_CODE + dates, Integer.class, stationId),
+                        restTemplate.getForObject("/api/stations/" + id
+                                + "/totalJourneysFrom/" + query,
+                                Integer.class));
+                assertEquals(averageInKm("RETURN_STATION_CODE", stationId,
+                        dates), restTemplate.getForObject("/api/stations/"
+                        + id + "/averageDistanceTo/" + query, Double.class));
+                assertEquals(jdbcTemplate.queryForList("SELECT "
+                        + "C.STATION_ID FROM BICYCLE_JOURNEY J INNER JOIN "
+                        + "STATION_CODE C ON C.CODE = J.RETURN_STATION_CODE "
+                        + "INNER JOIN STATION S ON S.STATION_CODE = C.CODE "
+                        + "WHERE J.DEPARTURE_STATION_CODE = " + STATION_CODE
+                        + dates + " GROUP BY C.STATION_ID, S.NAME ORDER BY "
+                        + "COUNT(*) DESC, S.NAME LIMIT 5", String.class,
+                        stationId).stream().reduce("", (ids, next) -> ids
+                        + next + " "), stationIds(restTemplate.getForObject(
+                        "/api/stations/" + id + "/top5ReturnStations"
+                        + "StartingFrom/" + query, Station[].class)));
+            }
+        }
+    }
+
+    @Test
+    void limitsTheMostPopularStations() {
+        stationStatisticsWriter.compact();
+        int id = stationDb.findByStationId("003").get().getId();
+        Station[] top5 = restTemplate.getForObject("/api/stations/" + id
+                + "/top5ReturnStationsStartingFrom/?selectedMonths=5,6,7",
+                Station[].class);
+        Station[] top8 = restTemplate.getForObject("/api/stations/" + id
+                + "/topReturnStationsStartingFrom/?selectedMonths=5,6,7"
+                + "&limit=8", Station[].class);
+
+        assertEquals(5, top5.length);
+        assertEquals(8, top8.length);
+        assertEquals(stationIds(top5), stationIds(Arrays.copyOf(top8, 5)));
+        assertEquals(stationDb.findByStationId(top8[7].getStationId()).get()
+                .getName(), top8[7].getName());
+        assertEquals(stationDb.findByStationId(top8[7].getStationId()).get()
+                .getId(), top8[7].getId());
+
+        for (String limit : new String[] {"0", "-1"}) {
+            assertEquals(400, restTemplate.getForEntity("/api/stations/" + id
+                    + "/topDepartureStationsEndingAt/?limit=" + limit,
+                    String.class).getStatusCode().value());
+        }
+    }
+
+    @Test
+    void ordersTheMostPopularStationsLikeTheJoinedQuery() {
+
+        for (String stationId : new String[] {"002", "007"}) {
+            int id = stationDb.findByStationId(stationId).get().getId();
+            List<String> expected = jdbcTemplate.queryForList("SELECT "
+                    + "C.STATION_ID FROM (SELECT DEPARTURE_STATION_CODE AS "
+                    + "STATION_CODE, COUNT(*) AS JOURNEYS FROM BICYCLE_JOURNEY "
+                    + "WHERE RETURN_STATION_CODE = " + STATION_CODE + " AND "
+                    + "MONTH(DEPARTURE_DATE) IN (5, 7) GROUP BY "
+                    + "DEPARTURE_STATION_CODE) J INNER JOIN STATION S ON "
+                    + "S.STATION_CODE = J.STATION_CODE INNER JOIN STATION_CODE "
+                    + "C ON C.CODE = S.STATION_CODE ORDER BY J.JOURNEYS DESC, "
+                    + "S.NAME ASC LIMIT 10", String.class, stationId);
+            Station[] top = restTemplate.getForObject("/api/stations/" + id
+                    + "/topDepartureStationsEndingAt/?selectedMonths=5,7"
+                    + "&limit=10", Station[].class);
+
+            assertEquals(String.join(" ", expected) + " ", stationIds(top));
+        }
+    }
+
+    @Test
+    void readsTheStationsFromTheCatalog() {
+        Station[] stations = restTemplate.getForObject("/api/stations/",
+                Station[].class);
+
+        assertEquals(stationDb.count(), stations.length);
+
+        for (int i = 1; i < stations.length; i++) {
+            assertTrue(stations[i - 1].getId() < stations[i].getId());
+        }
+        assertSame(stationCatalog.findByStationId("005").get(),
+                stationCatalog.findById(stationDb.findByStationId("005").get()
+                        .getId()).get());
+        assertTrue(stationCatalog.findById(-1).isEmpty());
+        assertTrue(stationCatalog.findByStationId("unknown").isEmpty());
+    }
+
+    private static String stationIds(Station[] stations) {
+        StringBuilder ids = new StringBuilder();
+
+        for (Station station : stations) {
+            ids.append(station.getStationId()).append(" ");
+        }
+
+        return ids.toString();
+    }
+
+    private void assertStatisticsMatchTheJourneys() {
+
+        for (String stationId : new String[] {"000", "004", "009"}) {
+            int id = stationDb.findByStationId(stationId).get().getId();
+
+            for (int[] months : MONTHS) {
+                String query = "?selectedMonths=" + join(months);
+                String dates = getDates(months);
+
+                assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) "
+                        + "FROM BICYCLE_JOURNEY WHERE DEPARTURE_STATION_CODE = "
+                        + STATION_CODE + dates, Integer.class, stationId),
+                        restTemplate.getForObject("/api/stations/" + id
+                                + "/totalJourneysFrom/" + query,
+                                Integer.class));
+                assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) "
+                        + "FROM BICYCLE_JOURNEY WHERE RETURN_STATION_CODE = "
+                        + STATION_CODE + dates, Integer.class, stationId),
+                        restTemplate.getForObject("/api/stations/" + id
+                                + "/totalJourneysTo/" + query,
+                                Integer.class));
+                assertEquals(averageInKm("DEPARTURE_STATION_CODE", stationId,
+                        dates), restTemplate.getForObject("/api/stations/"
+                        + id + "/averageDistanceFrom/" + query, Double.class));
+                assertEquals(averageInKm("RETURN_STATION_CODE", stationId,
+                        dates), restTemplate.getForObject("/api/stations/"
+                        + id + "/averageDistanceTo/" + query, Double.class));
+            }
+        }
+    }
+
+    private double averageInKm(String column, String stationId,
+                               String dates) {
+        Double average = jdbcTemplate.queryForObject("SELECT "
+                + "AVG(COVERED_DISTANCE) FROM BICYCLE_JOURNEY WHERE " + column
+                + " = " + STATION_CODE + dates, Double.class, stationId);
+
+        return Math.round((average == null ? 0 : average) / 10) / 100.0;
+    }
+}
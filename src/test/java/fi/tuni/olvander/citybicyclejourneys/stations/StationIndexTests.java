@@ -0,0 +1,100 @@
+package fi.tuni.olvander.citybicyclejourneys.stations;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the Flyway migrations have been applied and that H2 uses the<br/>
+ * Station and departure date indexes of every month partition for the<br/>
+ * Station statistics.
+ */
+@SpringBootTest
+class StationIndexTests {
+
+    private static final String DATES = " AND (DEPARTURE_DATE BETWEEN "
+            + "'2021-05-01 00:00:00' AND '2021-06-01 00:00:00')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StationCodes stationCodes;
+
+    @Test
+    void appliesTheMigrations() {
+        assertEquals("7", jdbcTemplate.queryForObject("SELECT MAX(\"version\") "
+                + "FROM \"flyway_schema_history\" WHERE \"success\"",
+                String.class));
+    }
+
+    @Test
+    void storesTheStationIdsAsCodes() {
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM "
+                + "INFORMATION_SCHEMA.COLUMNS WHERE DATA_TYPE = 'INTEGER' AND "
+                + "COLUMN_NAME IN ('DEPARTURE_STATION_CODE', "
+                + "'RETURN_STATION_CODE', 'STATION_CODE') AND TABLE_NAME IN "
+                + "('BICYCLE_JOURNEY', 'STATION')", Integer.class));
+
+        int code = stationCodes.encode("encoded");
+
+        assertEquals(code, stationCodes.encode("encoded"));
+        assertEquals("encoded", stationCodes.decode(code));
+        assertEquals(code, jdbcTemplate.queryForObject("SELECT CODE FROM "
+                + "STATION_CODE WHERE STATION_ID = 'encoded'", Integer.class));
+        assertEquals(StationCodes.UNKNOWN, stationCodes.getCode("unknown"));
+    }
+
+    @Test
+    void usesTheDepartureStationIndex() {
+        assertUses("_DEPARTURE_STATION_DATE", "SELECT COUNT(*) "
+                + "FROM BICYCLE_JOURNEY WHERE (DEPARTURE_STATION_CODE = 1)"
+                + DATES);
+        assertUses("_DEPARTURE_STATION_DATE", "SELECT "
+                + "AVG(COVERED_DISTANCE) FROM BICYCLE_JOURNEY WHERE "
+                + "(DEPARTURE_STATION_CODE = 1)");
+        assertUses("_DEPARTURE_STATION_DATE", "SELECT "
+                + "RETURN_STATION_CODE, COUNT(*) FROM BICYCLE_JOURNEY WHERE "
+                + "(DEPARTURE_STATION_CODE = 1)" + DATES + " GROUP BY "
+                + "RETURN_STATION_CODE");
+    }
+
+    @Test
+    void usesTheReturnStationIndex() {
+        assertUses("_RETURN_STATION_DATE", "SELECT COUNT(*) "
+                + "FROM BICYCLE_JOURNEY WHERE (RETURN_STATION_CODE = 1)"
+                + DATES);
+        assertUses("_RETURN_STATION_DATE", "SELECT "
+                + "AVG(COVERED_DISTANCE) FROM BICYCLE_JOURNEY WHERE "
+                + "(RETURN_STATION_CODE = 1)" + DATES);
+        assertUses("_RETURN_STATION_DATE", "SELECT "
+                + "DEPARTURE_STATION_CODE, COUNT(*) FROM BICYCLE_JOURNEY WHERE "
+                + "(RETURN_STATION_CODE = 1) GROUP BY DEPARTURE_STATION_CODE");
+    }
+
+    private void assertUses(String index, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql,
+                String.class);
+
+        // Every partition of the view must use its own index.
+        assertFalse(plan.contains("tableScan"), plan);
+        int start = plan.indexOf(index + ":");
+
+        assertTrue(start >= 0, plan);
+
+        for (; start >= 0; start = plan.indexOf(index + ":", start + 1)) {
+
+            // A date range must be a seek on the index, not a filter after
+            // it.
+            if (sql.contains("BETWEEN")) {
+                assertTrue(plan.substring(start, plan.indexOf("*/", start))
+                        .contains("DEPARTURE_DATE >="), plan);
+            }
+        }
+    }
+}
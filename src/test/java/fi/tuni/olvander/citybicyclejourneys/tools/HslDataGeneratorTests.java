@@ -0,0 +1,172 @@
+package fi.tuni.olvander.citybicyclejourneys.tools;
+
+import fi.tuni.olvander.citybicyclejourneys.CityBicycleJourneys;
+import fi.tuni.olvander.citybicyclejourneys.journeys.BicycleJourney;
+import fi.tuni.olvander.citybicyclejourneys.stations.Station;
+import org.h2.tools.Csv;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the generated Station and Journey CSV files are read by<br/>
+ * getStationData and getBicycleJourneyData and have the skew and the<br/>
+ * correlations of the HSL data.
+ */
+class HslDataGeneratorTests {
+
+    private static final int JOURNEYS = 40_000;
+
+    private static final int STATIONS = 100;
+
+    @TempDir
+    static Path directory;
+
+    private static List<Path> files;
+
+    private static final List<Station> stations = new ArrayList<>();
+
+    private static final List<BicycleJourney> journeys = new ArrayList<>();
+
+    private static int rows;
+
+    @BeforeAll
+    static void generate() throws Exception {
+        HslDataGenerator generator = new HslDataGenerator(JOURNEYS,
+                YearMonth.of(2021, 3), YearMonth.of(2021, 5), STATIONS, 7);
+        generator.writeStations(directory.resolve("stations.csv"));
+        files = generator.writeJourneys(directory);
+        CityBicycleJourneys app = new CityBicycleJourneys();
+
+        try (ResultSet rs = new Csv().read(directory.resolve("stations.csv")
+                .toString(), null, "UTF-8")) {
+
+            while (rs.next()) {
+                app.getStationData(rs).ifPresent(stations::add);
+            }
+        }
+
+        for (Path file : files) {
+
+            try (ResultSet rs = new Csv().read(file.toString(), null,
+                    "UTF-8")) {
+
+                while (rs.next()) {
+                    Optional<BicycleJourney> journey =
+                            app.getBicycleJourneyData(rs);
+                    journey.ifPresent(journeys::add);
+                    rows++;
+                }
+            }
+        }
+    }
+
+    @Test
+    void writesTheJourneysOfTheSeasonMonths() {
+        assertEquals(List.of(directory.resolve("2021-04.csv"),
+                directory.resolve("2021-05.csv")), files);
+        assertEquals(JOURNEYS, rows);
+        assertEquals(STATIONS, stations.size());
+        assertTrue(journeys.size() > JOURNEYS * 0.97);
+        assertTrue(journeys.size() < JOURNEYS * 0.99);
+        assertThrows(IllegalArgumentException.class, () ->
+                new HslDataGenerator(10, YearMonth.of(2021, 11),
+                        YearMonth.of(2022, 3), 10, 1));
+    }
+
+    @Test
+    void writesTheSameFilesWithTheSameArguments() throws Exception {
+        Path other = Files.createDirectory(directory.resolve("other"));
+        new HslDataGenerator(JOURNEYS, YearMonth.of(2021, 3),
+                YearMonth.of(2021, 5), STATIONS, 7).writeJourneys(other);
+
+        assertArrayEquals(Files.readAllBytes(files.get(1)),
+                Files.readAllBytes(other.resolve("2021-05.csv")));
+    }
+
+    @Test
+    void skewsTheStationsAndTheDepartureHours() {
+        Set<String> ids = new HashSet<>();
+        Map<String, Integer> departures = new HashMap<>();
+        int[] weekdayHours = new int[24];
+
+        for (Station station : stations) {
+            ids.add(station.getStationId());
+        }
+
+        for (BicycleJourney journey : journeys) {
+            assertTrue(ids.contains(journey.getDepartureStationId()));
+            assertTrue(ids.contains(journey.getReturnStationId()));
+            assertEquals(journey.getJourneyDuration(), Duration.between(
+                    journey.getDepartureDate(), journey.getReturnDate())
+                    .getSeconds());
+            departures.merge(journey.getDepartureStationId(), 1,
+                    Integer::sum);
+            DayOfWeek day = journey.getDepartureDate().getDayOfWeek();
+
+            if (day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY) {
+                weekdayHours[journey.getDepartureDate().getHour()]++;
+            }
+        }
+        int topTenth = departures.values().stream()
+                .sorted((a, b) -> b - a).limit(STATIONS / 10)
+                .mapToInt(Integer::intValue).sum();
+
+        assertTrue(topTenth > journeys.size() * 0.2);
+        assertTrue(weekdayHours[8] > 5 * weekdayHours[3]);
+        assertTrue(weekdayHours[17] > 5 * weekdayHours[3]);
+    }
+
+    @Test
+    void correlatesTheDurationWithTheDistance() {
+        double[] distance = new double[journeys.size()];
+        double[] duration = new double[journeys.size()];
+
+        for (int i = 0; i < journeys.size(); i++) {
+            distance[i] = journeys.get(i).getCoveredDistance();
+            duration[i] = journeys.get(i).getJourneyDuration();
+        }
+
+        assertTrue(getCorrelation(distance, duration) > 0.6);
+    }
+
+    private static double getCorrelation(double[] a, double[] b) {
+        double meanA = 0;
+        double meanB = 0;
+
+        for (int i = 0; i < a.length; i++) {
+            meanA += a[i] / a.length;
+            meanB += b[i] / b.length;
+        }
+        double covariance = 0;
+        double varianceA = 0;
+        double varianceB = 0;
+
+        for (int i = 0; i < a.length; i++) {
+            covariance += (a[i] - meanA) * (b[i] - meanB);
+            varianceA += (a[i] - meanA) * (a[i] - meanA);
+            varianceB += (b[i] - meanB) * (b[i] - meanB);
+        }
+
+        return covariance / Math.sqrt(varianceA * varianceB);
+    }
+}
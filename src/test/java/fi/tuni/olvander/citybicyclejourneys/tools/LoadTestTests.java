@@ -0,0 +1,122 @@
+package fi.tuni.olvander.citybicyclejourneys.tools;
+
+import fi.tuni.olvander.citybicyclejourneys.caching.DatasetVersion;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatch;
+import fi.tuni.olvander.citybicyclejourneys.imports.JourneyBatchWriter;
+import fi.tuni.olvander.citybicyclejourneys.journeys.JourneyPartitions;
+import fi.tuni.olvander.citybicyclejourneys.stations.Station;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationCatalog;
+import fi.tuni.olvander.citybicyclejourneys.stations.StationRepository;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the load test replays every kind of UI user against the app<br/>
+ * and records the latencies of their endpoints without errors.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "citybicyclejourneys.import.background=false")
+class LoadTestTests {
+
+    private static final int STATIONS = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StationRepository stationDb;
+
+    @Autowired
+    private StationCatalog stationCatalog;
+
+    @Autowired
+    private JourneyPartitions journeyPartitions;
+
+    @Autowired
+    private JourneyBatchWriter journeyBatchWriter;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void writeJourneys() {
+
+        for (int i = 1; i <= STATIONS; i++) {
+            String stationId = String.format("9%02d", i);
+
+            if (stationDb.findByStationId(stationId).isEmpty()) {
+                stationDb.save(new Station(stationId, "Asema " + stationId,
+                        "Katu " + i, 24.9, 60.1));
+            }
+        }
+        stationCatalog.reload();
+        journeyPartitions.dropAll();
+        jdbcTemplate.update("DELETE FROM STATION_MONTH_STATISTICS");
+
+        for (int month = 5; month <= 6; month++) {
+            JourneyBatch batch = new JourneyBatch("test", 500);
+
+            for (int i = 0; i < 500; i++) {
+                long departure = YearMonth.of(2021, month).atDay(1 + i % 28)
+                        .atTime(i % 24, i % 60).toEpochSecond(ZoneOffset.UTC);
+                batch.add(departure, departure + 300 + i,
+                        String.format("9%02d", 1 + i % 3),
+                        String.format("9%02d", 1 + i % STATIONS), 500 + i,
+                        300 + i);
+            }
+            journeyBatchWriter.write(batch);
+        }
+        datasetVersion.refresh();
+    }
+
+    @Test
+    void recordsTheEndpointsOfEveryUser() {
+        LoadTest loadTest = new LoadTest(URI.create("http://localhost:"
+                + port + "/"), new int[] {5, 6});
+        loadTest.prepare();
+        loadTest.run(2, Duration.ZERO, Duration.ofSeconds(3), 1);
+        Map<String, Histogram> latencies = loadTest.getLatencies();
+
+        for (String endpoint : List.of("api/journeysCount/",
+                "api/journeys/page/", "api/journeys/{id}/", "api/stations/",
+                "api/stations/{id}/summary/ popular",
+                "api/stations/{id}/summary/ long tail")) {
+
+            assertTrue(latencies.containsKey(endpoint), endpoint);
+        }
+        assertTrue(latencies.keySet().stream().anyMatch(endpoint ->
+                endpoint.matches("api/journeys/[a-z]+(Asc|Desc)/")));
+
+        for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+            assertEquals(0, loadTest.getErrors(entry.getKey()),
+                    entry.getKey());
+            assertTrue(entry.getValue().getTotalCount() > 0);
+        }
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        loadTest.report(new PrintStream(report, true, StandardCharsets.UTF_8));
+
+        assertEquals(latencies.size() + 1, report.toString(
+                StandardCharsets.UTF_8).lines().count());
+    }
+}